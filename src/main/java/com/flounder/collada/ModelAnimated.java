@@ -28,7 +28,7 @@ public class ModelAnimated {
 		this.collider = meshData.getAABB();
 		this.quickHull = new QuickHull();
 
-		this.quickHull.loadData(meshData.getVertices());
+		this.quickHull.loadData(HullData.load(file == null ? null : file.getName(), meshData.getVertices()));
 
 		this.skeletonData = skeletonData;
 		this.headJoint = createJoints(skeletonData.getHeadJoint());
@@ -0,0 +1,494 @@
+package com.flounder.culling;
+
+import com.flounder.camera.*;
+import com.flounder.entities.*;
+import com.flounder.framework.*;
+import com.flounder.maths.matrices.*;
+import com.flounder.physics.*;
+import com.flounder.shadows.*;
+import com.flounder.space.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A module that culls entities against every visibility set at once, the entities are split into chunks and tested on a fork join pool. Entities
+ * with box colliders are copied into a {@link AABBBatch} and tested a chunk at a time, other colliders are tested one by one.
+ * Culling is run at the start of each render, before the camera is changed for any pass, or by the first query if entities are queried before.
+ * Renderers ask for a set with {@link #queryInSet(VisibilitySet, List)}, or select the set of a pass with {@link #setRenderSet(VisibilitySet)}.
+ * Queries by range are given the entities of a set culled with exactly the same range, other ranges are queried from the entity structure.
+ */
+public class FlounderCulling extends com.flounder.framework.Module {
+	private static final int MAX_SETS = 32;
+	private static final int CHUNK_SIZE = 512;
+	private static final int PARALLEL_THRESHOLD = 2048;
+
+	private ForkJoinPool pool;
+	private List<VisibilitySet> visibilitySets;
+	private VisibilitySet viewSet;
+	private VisibilitySet reflectionSet;
+	private VisibilitySet shadowSet;
+	private VisibilitySet renderSet;
+
+	private boolean reflectionEnabled;
+	private float reflectionHeight;
+	private Matrix4f reflectionMatrix;
+	private Matrix4f reflectionView;
+	private Frustum reflectionFrustum;
+
+	private VisibilitySet[] active;
+	private int activeCount;
+	private List<Entity> entities;
+	private AABBBatch boxes;
+	private long[] boxed;
+	private long[][] visible;
+	private boolean culled;
+
+	private long cullTime;
+	private int testedCount;
+	private int queryHits;
+	private int queryMisses;
+
+	/**
+	 * Creates a new culling manager.
+	 */
+	public FlounderCulling() {
+		super(FlounderCamera.class, FlounderEntities.class);
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		this.pool = new ForkJoinPool(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1));
+		this.visibilitySets = new ArrayList<>();
+
+		this.viewSet = new VisibilitySet("view") {
+			@Override
+			protected boolean update() {
+				Camera camera = FlounderCamera.get().getCamera();
+
+				if (camera == null || camera.getViewFrustum() == null) {
+					return false;
+				}
+
+				setFrustum(camera.getViewFrustum());
+				return true;
+			}
+		};
+		this.reflectionSet = new VisibilitySet("reflection") {
+			@Override
+			protected boolean update() {
+				Camera camera = FlounderCamera.get().getCamera();
+
+				if (!reflectionEnabled || camera == null || camera.getViewMatrix() == null || camera.getProjectionMatrix() == null) {
+					return false;
+				}
+
+				// The camera is shared with the renderers, so the view is mirrored through the water plane on a copy.
+				reflectionMatrix.setIdentity();
+				reflectionMatrix.m11 = -1.0f;
+				reflectionMatrix.m31 = 2.0f * reflectionHeight;
+				Matrix4f.multiply(camera.getViewMatrix(), reflectionMatrix, reflectionView);
+				reflectionFrustum.recalculateFrustum(camera.getProjectionMatrix(), reflectionView);
+				setFrustum(reflectionFrustum);
+				return true;
+			}
+		};
+		this.shadowSet = new VisibilitySet("shadow") {
+			@Override
+			protected boolean update() {
+				if (Framework.get().getModule(FlounderShadows.class) == null || FlounderShadows.get().getShadowAABB() == null) {
+					return false;
+				}
+
+				// Matches the shadow renderer, which skips shadows too light to be seen.
+				if (FlounderShadows.get().getShadowDarkness() * FlounderShadows.get().getShadowFactor() < 0.07f) {
+					return false;
+				}
+
+				setBounds(FlounderShadows.get().getShadowAABB());
+				return true;
+			}
+		};
+		this.visibilitySets.add(viewSet);
+		this.visibilitySets.add(reflectionSet);
+		this.visibilitySets.add(shadowSet);
+		this.renderSet = null;
+
+		this.reflectionEnabled = false;
+		this.reflectionHeight = 0.0f;
+		this.reflectionMatrix = new Matrix4f();
+		this.reflectionView = new Matrix4f();
+		this.reflectionFrustum = new Frustum();
+
+		this.active = new VisibilitySet[MAX_SETS];
+		this.activeCount = 0;
+		this.entities = new ArrayList<>();
+		this.boxes = new AABBBatch();
+		this.boxed = new long[1];
+		this.visible = new long[MAX_SETS][1];
+		this.culled = false;
+
+		this.cullTime = 0;
+		this.testedCount = 0;
+		this.queryHits = 0;
+		this.queryMisses = 0;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_ALWAYS)
+	public void update() {
+		// Entities can move in the next updates, so the next query culls again.
+		culled = false;
+	}
+
+	@Handler.Function(Handler.FLAG_RENDER)
+	public void render() {
+		// Runs before the renderer module, so every set is snapshot before a pass changes the camera.
+		cull();
+	}
+
+	/**
+	 * Culls all entities against the active visibility sets. This is done by the first query in a frame, and can be called to cull straight away.
+	 */
+	public void cull() {
+		long start = System.nanoTime();
+		culled = true;
+		queryHits = 0;
+		queryMisses = 0;
+
+		// Snapshots the ranges of each set on the main thread.
+		activeCount = 0;
+
+		for (VisibilitySet set : visibilitySets) {
+			set.getVisible().clear();
+			boolean used = activeCount < MAX_SETS && set.update();
+			set.setActive(used);
+
+			if (used) {
+				active[activeCount++] = set;
+			}
+		}
+
+		ISpatialStructure<Entity> structure = FlounderEntities.get().getEntities();
+		entities.clear();
+
+		if (structure != null && activeCount > 0) {
+			structure.getAll(entities);
+		}
+
+		int count = entities.size();
+		int length = AABBBatch.getBitsLength(count);
+		boxes.setSize(count);
+
+		if (boxed.length < length) {
+			boxed = new long[Math.max(length, boxed.length * 2)];
+		}
+
+		for (int i = 0; i < activeCount; i++) {
+			if (visible[i].length < length) {
+				visible[i] = new long[Math.max(length, visible[i].length * 2)];
+			}
+		}
+
+		// Each set writes a bit for every entity visible to it.
+		if (count >= PARALLEL_THRESHOLD && pool.getParallelism() > 1) {
+			pool.invoke(new CullTask(0, count));
+		} else {
+			cullRange(0, count);
+		}
+
+		// The visible lists are built in the order of the structure, so results do not depend on how the work was split.
+		for (int i = 0; i < activeCount; i++) {
+			long[] bits = visible[i];
+			List<Entity> list = active[i].getVisible();
+
+			for (int word = 0; word < length; word++) {
+				long value = bits[word];
+
+				while (value != 0) {
+					list.add(entities.get((word << 6) + Long.numberOfTrailingZeros(value)));
+					value &= value - 1;
+				}
+			}
+		}
+
+		entities.clear();
+		testedCount = count;
+		cullTime = System.nanoTime() - start;
+	}
+
+	private void cullRange(int from, int to) {
+		// Copies box colliders into the batch, entities look up their collider from their components so it is only read once.
+		for (int i = from; i < to; i++) {
+			Entity entity = entities.get(i);
+			Collider collider = entity == null ? null : entity.getCollider();
+
+			if (collider instanceof AABB) {
+				boxes.set(i, (AABB) collider);
+				boxed[i >>> 6] |= 1L << i;
+			} else {
+				boxes.set(i, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f);
+				boxed[i >>> 6] &= ~(1L << i);
+			}
+		}
+
+		for (int j = 0; j < activeCount; j++) {
+			active[j].isVisible(boxes, from, to, visible[j]);
+		}
+
+		// Entities without a box are tested one by one, entities without a collider are always visible.
+		for (int i = from; i < to; i++) {
+			if ((boxed[i >>> 6] & (1L << i)) != 0) {
+				continue;
+			}
+
+			Entity entity = entities.get(i);
+			Collider collider = entity == null ? null : entity.getCollider();
+
+			for (int j = 0; j < activeCount; j++) {
+				if (entity != null && (collider == null || active[j].isVisible(collider))) {
+					visible[j][i >>> 6] |= 1L << i;
+				} else {
+					visible[j][i >>> 6] &= ~(1L << i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the entities visible to a set in the last cull, sets that were not culled have no visible entities.
+	 *
+	 * @param set The set to query.
+	 * @param result The list to add the entities to, a new list is created if this is null.
+	 *
+	 * @return The list of visible entities.
+	 */
+	public List<Entity> queryInSet(VisibilitySet set, List<Entity> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		if (!culled) {
+			cull();
+		}
+
+		if (set != null && set.isActive()) {
+			queryHits++;
+			result.addAll(set.getVisible());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Gets the entities in a frustum, if the frustum was culled this frame the visible entities from its set are used. The planes have to be
+	 * exactly the same, so renderers that know which set they are drawing should use {@link #queryInSet(VisibilitySet, List)}.
+	 *
+	 * @param range The frustum to query.
+	 * @param result The list to add the entities to, a new list is created if this is null.
+	 *
+	 * @return The list of visible entities.
+	 */
+	public List<Entity> queryInFrustum(Frustum range, List<Entity> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		if (!culled) {
+			cull();
+		}
+
+		for (int i = 0; i < activeCount; i++) {
+			if (active[i].matches(range)) {
+				queryHits++;
+				result.addAll(active[i].getVisible());
+				return result;
+			}
+		}
+
+		queryMisses++;
+		ISpatialStructure<Entity> structure = FlounderEntities.get().getEntities();
+		return structure == null ? result : structure.queryInFrustum(range, result);
+	}
+
+	/**
+	 * Gets the entities in a box, if the box was culled this frame the visible entities from its set are used.
+	 *
+	 * @param range The box to query.
+	 * @param result The list to add the entities to, a new list is created if this is null.
+	 *
+	 * @return The list of visible entities.
+	 */
+	public List<Entity> queryInBounding(AABB range, List<Entity> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		if (!culled) {
+			cull();
+		}
+
+		for (int i = 0; i < activeCount; i++) {
+			if (active[i].matches(range)) {
+				queryHits++;
+				result.addAll(active[i].getVisible());
+				return result;
+			}
+		}
+
+		queryMisses++;
+		ISpatialStructure<Entity> structure = FlounderEntities.get().getEntities();
+		return structure == null ? result : structure.queryInBounding(range, result);
+	}
+
+	/**
+	 * Enables culling for the reflection of the camera, the view of the camera is mirrored through the water plane without changing the camera.
+	 * Select {@link #getReflectionSet()} with {@link #setRenderSet(VisibilitySet)} while rendering the reflection pass.
+	 *
+	 * @param waterHeight The height of the water the camera is reflected over.
+	 */
+	public void setReflection(float waterHeight) {
+		this.reflectionEnabled = true;
+		this.reflectionHeight = waterHeight;
+	}
+
+	/**
+	 * Disables culling for the reflection of the camera.
+	 */
+	public void disableReflection() {
+		this.reflectionEnabled = false;
+	}
+
+	/**
+	 * Gets the set selected for the current render pass.
+	 *
+	 * @return The set of the pass, or null if renderers should query by their own range.
+	 */
+	public VisibilitySet getRenderSet() {
+		return this.renderSet;
+	}
+
+	/**
+	 * Selects the set renderers draw from in the current render pass, for example the reflection set while the camera is reflected.
+	 *
+	 * @param renderSet The set of the pass, or null once the pass is done so renderers query by their own range.
+	 */
+	public void setRenderSet(VisibilitySet renderSet) {
+		this.renderSet = renderSet;
+	}
+
+	/**
+	 * Adds a visibility set to be culled each frame, only the first 32 active sets are culled.
+	 *
+	 * @param set The set to add.
+	 */
+	public void addVisibilitySet(VisibilitySet set) {
+		if (!visibilitySets.contains(set)) {
+			visibilitySets.add(set);
+		}
+	}
+
+	/**
+	 * Removes a visibility set.
+	 *
+	 * @param set The set to remove.
+	 */
+	public void removeVisibilitySet(VisibilitySet set) {
+		visibilitySets.remove(set);
+	}
+
+	public List<VisibilitySet> getVisibilitySets() {
+		return this.visibilitySets;
+	}
+
+	public VisibilitySet getViewSet() {
+		return this.viewSet;
+	}
+
+	public VisibilitySet getReflectionSet() {
+		return this.reflectionSet;
+	}
+
+	public VisibilitySet getShadowSet() {
+		return this.shadowSet;
+	}
+
+	/**
+	 * Gets the time the last cull took (milliseconds).
+	 *
+	 * @return The cull time.
+	 */
+	public float getCullTime() {
+		return cullTime / 1000000.0f;
+	}
+
+	/**
+	 * Gets the number of entities tested in the last cull.
+	 *
+	 * @return The tested entity count.
+	 */
+	public int getTestedCount() {
+		return this.testedCount;
+	}
+
+	/**
+	 * Gets the number of queries since the last cull that were given the entities from a visibility set.
+	 *
+	 * @return The query hits.
+	 */
+	public int getQueryHits() {
+		return this.queryHits;
+	}
+
+	/**
+	 * Gets the number of queries since the last cull that did not match a visibility set, and were queried from the entity structure.
+	 *
+	 * @return The query misses.
+	 */
+	public int getQueryMisses() {
+		return this.queryMisses;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+
+		visibilitySets.clear();
+		renderSet = null;
+		entities.clear();
+	}
+
+	@com.flounder.framework.Module.Instance
+	public static FlounderCulling get() {
+		return (FlounderCulling) Framework.get().getModule(FlounderCulling.class);
+	}
+
+	/**
+	 * Culls a range of entities, splitting into halves until the range fits in a chunk.
+	 */
+	private class CullTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private int from;
+		private int to;
+
+		private CullTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= CHUNK_SIZE) {
+				cullRange(from, to);
+				return;
+			}
+
+			// Chunks start on a multiple of 64, so each chunk writes to its own longs in the bitsets.
+			int middle = ((from + to) >>> 1) & ~63;
+			invokeAll(new CullTask(from, middle), new CullTask(middle, to));
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.flounder.culling;
+
+import com.flounder.entities.*;
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+import com.flounder.space.*;
+
+import java.util.*;
+
+/**
+ * A range entities are culled against once a frame, renderers querying the same range are handed the entities found without testing them again.
+ * Each frame {@link #update()} is called before culling, and should snapshot the range with {@link #setFrustum(Frustum)} or {@link #setBounds(AABB)}.
+ */
+public abstract class VisibilitySet {
+	private String name;
+	private Frustum frustum;
+	private AABB bounds;
+	private boolean useFrustum;
+	private boolean active;
+	private List<Entity> visible;
+
+	/**
+	 * Creates a new visibility set.
+	 *
+	 * @param name The name of the set, used when reading metrics.
+	 */
+	public VisibilitySet(String name) {
+		this.name = name;
+		this.frustum = new Frustum();
+		this.bounds = new AABB();
+		this.useFrustum = true;
+		this.active = false;
+		this.visible = new ArrayList<>();
+	}
+
+	/**
+	 * Updates the range of the set, this is called once a frame before culling.
+	 *
+	 * @return If the set is being used this frame, inactive sets are not culled.
+	 */
+	protected abstract boolean update();
+
+	/**
+	 * Snapshots a frustum as the range of the set.
+	 *
+	 * @param range The frustum to copy.
+	 */
+	protected void setFrustum(Frustum range) {
+		float[][] source = range.getFrustum();
+		float[][] destination = frustum.getFrustum();
+
+		for (int i = 0; i < destination.length; i++) {
+			System.arraycopy(source[i], 0, destination[i], 0, destination[i].length);
+		}
+
+		this.useFrustum = true;
+	}
+
+	/**
+	 * Snapshots a axis aligned box as the range of the set.
+	 *
+	 * @param range The box to copy.
+	 */
+	protected void setBounds(AABB range) {
+		bounds.setMinExtents(range.getMinExtents());
+		bounds.setMaxExtents(range.getMaxExtents());
+		this.useFrustum = false;
+	}
+
+	/**
+	 * Gets if a collider is in the range of the set, this is thread safe and is called from the culling workers.
+	 *
+	 * @param collider The collider of the entity being tested, entities without a collider are always visible.
+	 *
+	 * @return If the collider is visible to the set.
+	 */
+	protected boolean isVisible(Collider collider) {
+		if (useFrustum) {
+			return collider.inFrustum(frustum);
+		}
+
+		return Bounds.inBounding(bounds, collider);
+	}
+
+	/**
+	 * Tests a range of boxes from a batch against the range of the set, this is thread safe and is called from the culling workers.
+	 *
+	 * @param batch The batch of entity boxes.
+	 * @param from The first box to test, a multiple of 64.
+	 * @param to The box after the last box to test.
+	 * @param destination The bitset to write to, bit i is set if box i is visible to the set.
+	 */
+	protected void isVisible(AABBBatch batch, int from, int to, long[] destination) {
+		if (useFrustum) {
+			batch.inFrustum(frustum, from, to, destination);
+		} else {
+			batch.inBounding(bounds, from, to, destination);
+		}
+	}
+
+	/**
+	 * Gets if the set was culled against a frustum, the planes have to be exactly the same.
+	 *
+	 * @param range The frustum to compare with.
+	 *
+	 * @return If the frustum is the range of the set.
+	 */
+	boolean matches(Frustum range) {
+		if (!active || !useFrustum || range == null) {
+			return false;
+		}
+
+		float[][] planes = range.getFrustum();
+		float[][] snapshot = frustum.getFrustum();
+
+		for (int i = 0; i < snapshot.length; i++) {
+			if (!Arrays.equals(planes[i], snapshot[i])) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets if the set was culled against a box, the extents have to be exactly the same.
+	 *
+	 * @param range The box to compare with.
+	 *
+	 * @return If the box is the range of the set.
+	 */
+	boolean matches(AABB range) {
+		if (!active || useFrustum || range == null) {
+			return false;
+		}
+
+		return equalVectors(range.getMinExtents(), bounds.getMinExtents()) && equalVectors(range.getMaxExtents(), bounds.getMaxExtents());
+	}
+
+	private static boolean equalVectors(Vector3f a, Vector3f b) {
+		return a.x == b.x && a.y == b.y && a.z == b.z;
+	}
+
+	/**
+	 * Gets the name of the set.
+	 *
+	 * @return The name of the set.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets if the set was culled in the last frame.
+	 *
+	 * @return If the set is active.
+	 */
+	public boolean isActive() {
+		return this.active;
+	}
+
+	void setActive(boolean active) {
+		this.active = active;
+	}
+
+	/**
+	 * Gets the entities found visible in the last cull, this list is reused and should not be changed.
+	 *
+	 * @return The visible entities.
+	 */
+	public List<Entity> getVisible() {
+		return this.visible;
+	}
+
+	/**
+	 * Gets the number of entities found visible in the last cull.
+	 *
+	 * @return The visible entity count.
+	 */
+	public int getVisibleCount() {
+		return visible.size();
+	}
+}
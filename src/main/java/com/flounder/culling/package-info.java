@@ -0,0 +1,4 @@
+/**
+ * Contains classes for culling entities against the ranges being rendered each frame.
+ */
+package com.flounder.culling;
@@ -0,0 +1,65 @@
+package com.flounder.devices;
+
+import com.flounder.resources.*;
+
+import java.awt.image.*;
+import java.nio.*;
+
+/**
+ * A display override used when running headless, no window is created and no handlers are run.
+ */
+@com.flounder.framework.Module.ModuleOverride
+public class FlounderDisplayHeadless extends FlounderDisplay {
+	/**
+	 * Creates a new headless display.
+	 */
+	public FlounderDisplayHeadless() {
+		super();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void swapBuffers() {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void screenshot() {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public BufferedImage getImage(BufferedImage destination, ByteBuffer buffer) {
+		return destination;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void setTitle(String title) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void setIcons(MyFile[] icons) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void setVSync(boolean vsync) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void setSamples(int samples) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void setFullscreen(boolean fullscreen) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void setHidden(boolean hidden) {
+	}
+}
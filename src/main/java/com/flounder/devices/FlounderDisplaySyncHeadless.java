@@ -0,0 +1,14 @@
+package com.flounder.devices;
+
+/**
+ * A display sync override used when running headless, buffers are never swapped.
+ */
+@com.flounder.framework.Module.ModuleOverride
+public class FlounderDisplaySyncHeadless extends FlounderDisplaySync {
+	/**
+	 * Creates a new headless display sync.
+	 */
+	public FlounderDisplaySyncHeadless() {
+		super();
+	}
+}
@@ -0,0 +1,50 @@
+package com.flounder.devices;
+
+/**
+ * A joystick override used when running headless, no joysticks are ever connected.
+ */
+@com.flounder.framework.Module.ModuleOverride
+public class FlounderJoysticksHeadless extends FlounderJoysticks {
+	/**
+	 * Creates a new headless joystick manager.
+	 */
+	public FlounderJoysticksHeadless() {
+		super();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public boolean isConnected(int joystick) {
+		return false;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public String getName(int joystick) {
+		return null;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public float getAxis(int joystick, int axis) {
+		return 0.0f;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public boolean getButton(int joystick, int button) {
+		return false;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public int getCountAxes(int joystick) {
+		return 0;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public int getCountButtons(int joystick) {
+		return 0;
+	}
+}
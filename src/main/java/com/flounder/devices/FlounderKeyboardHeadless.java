@@ -0,0 +1,20 @@
+package com.flounder.devices;
+
+/**
+ * A keyboard override used when running headless, no keys are ever pressed.
+ */
+@com.flounder.framework.Module.ModuleOverride
+public class FlounderKeyboardHeadless extends FlounderKeyboard {
+	/**
+	 * Creates a new headless keyboard.
+	 */
+	public FlounderKeyboardHeadless() {
+		super();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public boolean getKey(int key) {
+		return false;
+	}
+}
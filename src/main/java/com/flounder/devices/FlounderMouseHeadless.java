@@ -0,0 +1,30 @@
+package com.flounder.devices;
+
+/**
+ * A mouse override used when running headless, no buttons are ever pressed and the cursor never moves.
+ */
+@com.flounder.framework.Module.ModuleOverride
+public class FlounderMouseHeadless extends FlounderMouse {
+	/**
+	 * Creates a new headless mouse.
+	 */
+	public FlounderMouseHeadless() {
+		super(null);
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void setCursorHidden(boolean disabled) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public boolean getMouse(int button) {
+		return false;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void setPosition(float cursorX, float cursorY) {
+	}
+}
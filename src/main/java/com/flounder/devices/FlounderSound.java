@@ -12,8 +12,7 @@ import org.lwjgl.openal.AL;
 import org.lwjgl.openal.ALCCapabilities;
 
 import java.nio.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.lwjgl.openal.AL10.*;
 import static org.lwjgl.openal.AL10.AL_POSITION;
@@ -30,7 +29,7 @@ public class FlounderSound extends com.flounder.framework.Module {
 
 	private long device;
 
-	private List<Integer> buffers;
+	private ConcurrentLinkedQueue<Integer> buffers;
 
 	private Vector3f cameraPosition;
 	private SourcePoolManager sourcePool;
@@ -52,7 +51,8 @@ public class FlounderSound extends com.flounder.framework.Module {
 		alcMakeContextCurrent(alcCreateContext(device, (IntBuffer) null));
 		AL.createCapabilities(deviceCaps);
 
-		this.buffers = new ArrayList<>();
+		// Buffers are generated by resource workers while sounds load, so the list is shared between threads.
+		this.buffers = new ConcurrentLinkedQueue<>();
 
 		// Checks for errors.
 		int alError = alGetError();
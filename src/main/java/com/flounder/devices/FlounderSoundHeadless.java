@@ -0,0 +1,51 @@
+package com.flounder.devices;
+
+import com.flounder.sounds.*;
+
+import java.nio.*;
+
+/**
+ * A sound override used when running headless, no OpenAL context is created and sounds are never played.
+ */
+@com.flounder.framework.Module.ModuleOverride
+public class FlounderSoundHeadless extends FlounderSound {
+	/**
+	 * Creates a new headless sound manager.
+	 */
+	public FlounderSoundHeadless() {
+		super();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void doInitialSoundLoad(Sound sound) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public AudioController play3DSound(PlayRequest playRequest) {
+		return null;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public AudioController playSystemSound(Sound sound) {
+		return null;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void loadSoundDataIntoBuffer(int bufferID, ByteBuffer data, int format, int sampleRate) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public int generateBuffer() {
+		return 0;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void deleteBuffer(Integer bufferID) {
+	}
+}
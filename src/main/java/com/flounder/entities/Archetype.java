@@ -0,0 +1,228 @@
+package com.flounder.entities;
+
+import java.util.*;
+
+/**
+ * A table of the entities that have the same set of component classes. Each entity is a row, and each component class is a column holding the
+ * component of that class for every row, so a system can walk a packed column instead of searching the component list of each entity. Rows are
+ * kept packed by moving the last row into the row of a removed entity, and the arrays are replaced as the table grows, so columns should be read
+ * again after entities are added.
+ */
+public class Archetype {
+	private EntityArchetypes storage;
+	private BitSet mask;
+	private int[] types;
+	private Class<?>[] classes;
+	private Map<Integer, Archetype> edges;
+
+	private Entity[] entities;
+	private IComponentEntity[][] columns;
+	private int size;
+
+	/**
+	 * Creates a new empty archetype.
+	 *
+	 * @param storage The storage the archetype is part of.
+	 * @param mask The ids of the component classes in the archetype.
+	 */
+	Archetype(EntityArchetypes storage, BitSet mask) {
+		this.storage = storage;
+		this.mask = mask;
+		this.types = mask.stream().toArray();
+		this.classes = new Class<?>[types.length];
+		this.edges = new HashMap<>();
+
+		for (int i = 0; i < types.length; i++) {
+			classes[i] = ComponentTypes.getType(types[i]);
+		}
+
+		this.entities = new Entity[8];
+		this.columns = new IComponentEntity[types.length][8];
+		this.size = 0;
+	}
+
+	/**
+	 * Gets the archetype with the component classes of this archetype and one more class.
+	 *
+	 * @param id The id of the class to add.
+	 *
+	 * @return The archetype with the class, this archetype if it already has the class.
+	 */
+	Archetype with(int id) {
+		if (mask.get(id)) {
+			return this;
+		}
+
+		Archetype next = edges.get(id);
+
+		if (next == null) {
+			BitSet nextMask = (BitSet) mask.clone();
+			nextMask.set(id);
+			next = storage.getArchetype(nextMask);
+			edges.put(id, next);
+		}
+
+		return next;
+	}
+
+	/**
+	 * Adds a entity as the last row, reading its components into the columns.
+	 *
+	 * @param entity The entity to add.
+	 *
+	 * @return The row of the entity.
+	 */
+	int add(Entity entity) {
+		if (size == entities.length) {
+			entities = Arrays.copyOf(entities, size * 2);
+
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = Arrays.copyOf(columns[i], size * 2);
+			}
+		}
+
+		entities[size] = entity;
+		refresh(size);
+		return size++;
+	}
+
+	/**
+	 * Reads the components of the entity in a row into the columns, the first component of each class is used.
+	 *
+	 * @param row The row to read.
+	 */
+	void refresh(int row) {
+		for (int i = 0; i < columns.length; i++) {
+			columns[i][row] = entities[row].getComponent(classes[i]);
+		}
+	}
+
+	/**
+	 * Removes a row, the last row is moved into its place.
+	 *
+	 * @param row The row to remove.
+	 */
+	void remove(int row) {
+		int last = size - 1;
+
+		if (row != last) {
+			entities[row] = entities[last];
+			entities[row].setArchetype(this, row);
+
+			for (int i = 0; i < columns.length; i++) {
+				columns[i][row] = columns[i][last];
+			}
+		}
+
+		entities[last] = null;
+
+		for (int i = 0; i < columns.length; i++) {
+			columns[i][last] = null;
+		}
+
+		size--;
+	}
+
+	/**
+	 * Removes every row, the entities are left without a archetype.
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			entities[i].setArchetype(null, -1);
+		}
+
+		Arrays.fill(entities, 0, size, null);
+
+		for (IComponentEntity[] column : columns) {
+			Arrays.fill(column, 0, size, null);
+		}
+
+		size = 0;
+	}
+
+	/**
+	 * Gets if this archetype has a column for a component class.
+	 *
+	 * @param type The component class.
+	 *
+	 * @return If the archetype has the class.
+	 */
+	public boolean has(Class<?> type) {
+		return mask.get(ComponentTypes.getId(type));
+	}
+
+	/**
+	 * Gets if this archetype has every component class in another set of classes.
+	 *
+	 * @param mask The ids of the component classes.
+	 *
+	 * @return If the archetype has every class.
+	 */
+	boolean hasAll(BitSet mask) {
+		return mask.stream().allMatch(this.mask::get);
+	}
+
+	/**
+	 * Gets the ids of the component classes in this archetype, in order.
+	 *
+	 * @return The component class ids.
+	 */
+	public int[] getTypes() {
+		return types;
+	}
+
+	/**
+	 * Gets the component classes in this archetype, in the order of their ids.
+	 *
+	 * @return The component classes.
+	 */
+	public Class<?>[] getClasses() {
+		return classes;
+	}
+
+	/**
+	 * Gets the column of components of a class, the component in each row belongs to the entity in the same row.
+	 *
+	 * @param type The component class.
+	 *
+	 * @return The column, or null if the archetype does not have the class.
+	 */
+	public IComponentEntity[] getColumn(Class<?> type) {
+		int column = Arrays.binarySearch(types, ComponentTypes.getId(type));
+		return column < 0 ? null : columns[column];
+	}
+
+	/**
+	 * Gets the column of components at a index in the order of the classes.
+	 *
+	 * @param index The index of the column.
+	 *
+	 * @return The column.
+	 */
+	public IComponentEntity[] getColumn(int index) {
+		return columns[index];
+	}
+
+	/**
+	 * Gets the entities in this archetype, only the first {@link #getSize()} entities are used.
+	 *
+	 * @return The entities.
+	 */
+	public Entity[] getEntities() {
+		return entities;
+	}
+
+	/**
+	 * Gets the number of entities in this archetype.
+	 *
+	 * @return The number of entities.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "Archetype{" + "classes=" + Arrays.toString(classes) + ", size=" + size + "}";
+	}
+}
@@ -0,0 +1,96 @@
+package com.flounder.entities;
+
+import java.util.*;
+
+/**
+ * Gives every component class a dense id, ids start at zero and are given out in the order classes are first seen. Ids are looked up through a
+ * class value, so looking up the id of a class that has been seen does not lock or hash.
+ */
+public class ComponentTypes {
+	static final int COLLIDER = 1;
+	static final int MOVE = 1 << 1;
+	static final int RENDER = 1 << 2;
+	static final int ALPHA = 1 << 3;
+	static final int SCALE = 1 << 4;
+	static final int LOCAL = 1 << 5;
+
+	private static final List<Class<?>> TYPES = new ArrayList<>();
+	private static volatile int count = 0;
+	private static final ClassValue<Type> IDS = new ClassValue<Type>() {
+		@Override
+		protected Type computeValue(Class<?> type) {
+			synchronized (TYPES) {
+				// Two threads can compute the same class at once, the second finds the id given to the first.
+				int id = TYPES.indexOf(type);
+
+				if (id < 0) {
+					id = TYPES.size();
+					TYPES.add(type);
+					count = TYPES.size();
+				}
+
+				return new Type(id, type);
+			}
+		}
+	};
+
+	/**
+	 * Gets the id of a component class, giving it the next id if it has not been seen.
+	 *
+	 * @param type The component class.
+	 *
+	 * @return The id of the class.
+	 */
+	public static int getId(Class<?> type) {
+		return IDS.get(type).id;
+	}
+
+	/**
+	 * Gets the entity interfaces a component class implements, checking a class against many interfaces is slow so this is found once per class.
+	 *
+	 * @param type The component class.
+	 *
+	 * @return The flags of the interfaces the class implements.
+	 */
+	static int getInterfaces(Class<?> type) {
+		return IDS.get(type).interfaces;
+	}
+
+	/**
+	 * Gets the component class with a id.
+	 *
+	 * @param id The id of the class.
+	 *
+	 * @return The component class.
+	 */
+	public static Class<?> getType(int id) {
+		synchronized (TYPES) {
+			return TYPES.get(id);
+		}
+	}
+
+	/**
+	 * Gets the number of component classes that have been given ids.
+	 *
+	 * @return The number of ids.
+	 */
+	public static int getCount() {
+		return count;
+	}
+
+	private static final class Type {
+		private final int id;
+		private final int interfaces;
+
+		private Type(int id, Class<?> type) {
+			this.id = id;
+			// Move components check moves against the shared collision world, so are never local even if marked.
+			this.interfaces = (IComponentCollider.class.isAssignableFrom(type) ? COLLIDER : 0) |
+					(IComponentMove.class.isAssignableFrom(type) ? MOVE : 0) |
+					(IComponentRender.class.isAssignableFrom(type) ? RENDER : 0) |
+					(IComponentAlpha.class.isAssignableFrom(type) ? ALPHA : 0) |
+					(IComponentScale.class.isAssignableFrom(type) ? SCALE : 0) |
+					(type.isAnnotationPresent(IComponentEntity.Local.class) && !IComponentMove.class.isAssignableFrom(type) ? LOCAL : 0);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.flounder.entities;
 
 import com.flounder.camera.*;
+import com.flounder.culling.*;
 import com.flounder.devices.*;
 import com.flounder.helpers.*;
 import com.flounder.maths.vectors.*;
@@ -42,7 +43,16 @@ public class EntitiesRenderer extends Renderer {
 		prepareRendering(clipPlane, camera);
 
 		if (FlounderEntities.get().getEntities() != null) {
-			for (Entity entity : FlounderEntities.get().getEntities().queryInFrustum(camera.getViewFrustum(), objects)) {
+			objects.clear();
+			VisibilitySet set = FlounderCulling.get().getRenderSet();
+
+			if (set != null) {
+				FlounderCulling.get().queryInSet(set, objects);
+			} else {
+				FlounderCulling.get().queryInFrustum(camera.getViewFrustum(), objects);
+			}
+
+			for (Entity entity : objects) {
 				renderEntity(entity);
 			}
 		}
@@ -69,20 +79,16 @@ public class EntitiesRenderer extends Renderer {
 		FlounderOpenGL.get().bindTexture(textureUndefined, 0);
 		Single<Integer> vaoLength = new Single<>(0);
 
-		for (IComponentEntity component : entity.getComponents()) {
-			if (component instanceof IComponentRender) {
-				((IComponentRender) component).render(shader, vaoLength);
-			}
+		for (int i = 0; i < entity.getRenderCount(); i++) {
+			entity.getRenderComponent(i).render(shader, vaoLength);
 		}
 
 		if (vaoLength.getSingle() > 0) {
 			FlounderOpenGL.get().renderElements(GL_TRIANGLES, GL_UNSIGNED_INT, vaoLength.getSingle());
 		}
 
-		for (IComponentEntity component : entity.getComponents()) {
-			if (component instanceof IComponentRender) {
-				((IComponentRender) component).renderClear(shader);
-			}
+		for (int i = 0; i < entity.getRenderCount(); i++) {
+			entity.getRenderComponent(i).renderClear(shader);
 		}
 
 		FlounderOpenGL.get().unbindVAO(0, 1, 2, 3, 4, 5);
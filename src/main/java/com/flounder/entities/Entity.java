@@ -3,25 +3,57 @@ package com.flounder.entities;
 import com.flounder.entities.components.*;
 import com.flounder.logger.*;
 import com.flounder.maths.*;
+import com.flounder.maths.matrices.*;
 import com.flounder.maths.vectors.*;
 import com.flounder.physics.*;
 import com.flounder.space.*;
 
 import java.util.*;
+import java.util.function.*;
 
 /**
  * A generic object in the game.
  */
 public class Entity implements ISpatialObject {
+	private static final IComponentEntity[] NO_SLOTS = new IComponentEntity[0];
+	private static final IComponentCollider[] NO_COLLIDERS = new IComponentCollider[0];
+	private static final IComponentMove[] NO_MOVES = new IComponentMove[0];
+	private static final IComponentRender[] NO_RENDERS = new IComponentRender[0];
+
 	private ISpatialStructure<Entity> structure;
 
 	private List<IComponentEntity> components;
+	private IComponentEntity[] slots;
+	private IComponentCollider[] colliders;
+	private IComponentMove[] moves;
+	private IComponentRender[] renders;
+	private int colliderCount;
+	private int moveCount;
+	private int renderCount;
+	private IComponentAlpha alpha;
+	private IComponentScale scale;
+	private int sharedCount;
 
 	private Vector3f position;
 	private Vector3f rotation;
 	private boolean hasMoved;
+	private boolean movedInUpdate;
+
+	private EntityTransforms transforms;
+	private int transformSlot;
+	private Matrix4f worldMatrix;
+	private boolean worldDirty;
+	private Entity parent;
+	private List<Entity> children;
 
 	private boolean removed;
+	private EntityPool pool;
+	private RangeVisitor rangeVisitor;
+
+	private EntityArchetypes archetypes;
+	private Archetype archetype;
+	private int archetypeRow;
+	private boolean archetypePending;
 
 	/**
 	 * Creates a new Entity with minimum necessary construction.
@@ -34,15 +66,41 @@ public class Entity implements ISpatialObject {
 		this.structure = structure;
 
 		this.components = new ArrayList<>();
+		this.slots = NO_SLOTS;
+		this.colliders = NO_COLLIDERS;
+		this.moves = NO_MOVES;
+		this.renders = NO_RENDERS;
+		this.colliderCount = 0;
+		this.moveCount = 0;
+		this.renderCount = 0;
+		this.alpha = null;
+		this.scale = null;
+		this.sharedCount = 0;
 
 		this.position = position;
 		this.rotation = rotation;
 		this.hasMoved = true;
+		this.movedInUpdate = false;
+
+		this.transforms = FlounderEntities.transforms(structure, null);
+		this.transformSlot = transforms.add(this);
+		this.worldMatrix = new Matrix4f();
+		this.worldDirty = true;
+		this.parent = null;
+		this.children = null;
 
 		this.removed = false;
+		this.pool = null;
+		this.rangeVisitor = null;
+
+		this.archetypes = null;
+		this.archetype = null;
+		this.archetypeRow = -1;
+		this.archetypePending = false;
 
 		if (structure != null) {
 			this.structure.add(this);
+			FlounderEntities.track(this);
 		}
 	}
 
@@ -62,7 +120,12 @@ public class Entity implements ISpatialObject {
 	 */
 	public void addComponent(IComponentEntity component) {
 		components.add(component);
+		indexComponent(component);
 		setMoved();
+
+		if (archetypes != null) {
+			archetypes.changed(this);
+		}
 	}
 
 	/**
@@ -73,7 +136,12 @@ public class Entity implements ISpatialObject {
 	public void removeComponent(IComponentEntity component) {
 		component.dispose();
 		components.remove(component);
+		indexComponents();
 		setMoved();
+
+		if (archetypes != null) {
+			archetypes.changed(this);
+		}
 	}
 
 	/**
@@ -84,13 +152,88 @@ public class Entity implements ISpatialObject {
 	public void removeComponent(Class object) {
 		for (IComponentEntity component : components) {
 			if (component.getClass() == object) {
-				component.dispose();
-				components.remove(component);
-				setMoved();
+				removeComponent(component);
+				return;
 			}
 		}
 	}
 
+	/**
+	 * Adds a component to the end of the lookups of components by class and by interface. The lookups grow by doubling, and the lookup by class
+	 * starts with a slot for every component class seen so far, so building a entity does not copy the lookups for each component.
+	 *
+	 * @param component The component that was added last.
+	 */
+	private void indexComponent(IComponentEntity component) {
+		int id = ComponentTypes.getId(component.getClass());
+		int interfaces = ComponentTypes.getInterfaces(component.getClass());
+
+		if (slots.length <= id) {
+			slots = Arrays.copyOf(slots, Math.max(Math.max(id + 1, slots.length * 2), ComponentTypes.getCount()));
+		}
+
+		if (slots[id] == null) {
+			slots[id] = component;
+		}
+
+		if ((interfaces & ComponentTypes.COLLIDER) != 0) {
+			if (colliderCount == colliders.length) {
+				colliders = Arrays.copyOf(colliders, Math.max(colliders.length * 2, 2));
+			}
+
+			colliders[colliderCount++] = (IComponentCollider) component;
+		}
+
+		if ((interfaces & ComponentTypes.MOVE) != 0) {
+			if (moveCount == moves.length) {
+				moves = Arrays.copyOf(moves, Math.max(moves.length * 2, 2));
+			}
+
+			moves[moveCount++] = (IComponentMove) component;
+		}
+
+		if ((interfaces & ComponentTypes.RENDER) != 0) {
+			if (renderCount == renders.length) {
+				renders = Arrays.copyOf(renders, Math.max(renders.length * 2, 2));
+			}
+
+			renders[renderCount++] = (IComponentRender) component;
+		}
+
+		if (alpha == null && (interfaces & ComponentTypes.ALPHA) != 0) {
+			alpha = (IComponentAlpha) component;
+		}
+
+		if (scale == null && (interfaces & ComponentTypes.SCALE) != 0) {
+			scale = (IComponentScale) component;
+		}
+
+		if ((interfaces & ComponentTypes.LOCAL) == 0) {
+			sharedCount++;
+		}
+	}
+
+	/**
+	 * Rebuilds the lookups of components by class and by interface, so getting a component does not search the component list. The lookups keep
+	 * their size, the first component of each class and interface is used, like searching the list would find.
+	 */
+	private void indexComponents() {
+		Arrays.fill(slots, null);
+		Arrays.fill(colliders, 0, colliderCount, null);
+		Arrays.fill(moves, 0, moveCount, null);
+		Arrays.fill(renders, 0, renderCount, null);
+		colliderCount = 0;
+		moveCount = 0;
+		renderCount = 0;
+		alpha = null;
+		scale = null;
+		sharedCount = 0;
+
+		for (IComponentEntity component : components) {
+			indexComponent(component);
+		}
+	}
+
 	/**
 	 * Visits every entity with a particular component within a certain range of space.
 	 *
@@ -99,16 +242,21 @@ public class Entity implements ISpatialObject {
 	 * @param visitor The visitor that will be executed for every entity visited.
 	 */
 	public void visitInRange(Class object, AABB range, IComponentVisitor visitor) {
-		for (Entity entity : structure.queryInBounding(range, null)) {
-			if (entity.removed) {
-				continue;
-			}
+		if (rangeVisitor == null) {
+			rangeVisitor = new RangeVisitor();
+		}
 
-			IComponentEntity component = object == null ? null : entity.getComponent(object);
+		// The structure is given the same visitor every time, visits can be nested so the outer visit is put back after.
+		Class<?> lastObject = rangeVisitor.object;
+		IComponentVisitor lastVisitor = rangeVisitor.visitor;
+		rangeVisitor.object = object;
+		rangeVisitor.visitor = visitor;
 
-			if (component != null || object == null) {
-				visitor.visit(entity, component);
-			}
+		try {
+			structure.visitInBounding(range, rangeVisitor);
+		} finally {
+			rangeVisitor.object = lastObject;
+			rangeVisitor.visitor = lastVisitor;
 		}
 	}
 
@@ -120,13 +268,42 @@ public class Entity implements ISpatialObject {
 	 * @return The first component found with the given id, or null if none are found.
 	 */
 	public IComponentEntity getComponent(Class object) {
-		for (IComponentEntity component : components) {
-			if (component.getClass() == object) {
-				return component;
-			}
+		if (object == null) {
+			return null;
 		}
 
-		return null;
+		int id = ComponentTypes.getId(object);
+		return id < slots.length ? slots[id] : null;
+	}
+
+	/**
+	 * Gets the number of components that render with the entity.
+	 *
+	 * @return The render component count.
+	 */
+	public int getRenderCount() {
+		return renderCount;
+	}
+
+	/**
+	 * Gets a component that renders with the entity, in the order they were added.
+	 *
+	 * @param index The index of the render component, less than {@link #getRenderCount()}.
+	 *
+	 * @return The render component.
+	 */
+	public IComponentRender getRenderComponent(int index) {
+		return renders[index];
+	}
+
+	/**
+	 * Gets if every component of this entity is marked {@link IComponentEntity.Local} and the entity is not attached to a parent or child, so the
+	 * entity can be updated alongside other entities.
+	 *
+	 * @return If the entity only has local components.
+	 */
+	public boolean isLocal() {
+		return sharedCount == 0 && parent == null && (children == null || children.isEmpty());
 	}
 
 	/**
@@ -139,9 +316,20 @@ public class Entity implements ISpatialObject {
 			FlounderLogger.get().exception(e);
 		}
 
+		// Components can move the entity while updating, such as a model creating its collider once loaded.
+		movedInUpdate = hasMoved;
 		hasMoved = false;
 	}
 
+	/**
+	 * Gets if the entity had moved before its last update or was moved by a component during it, so the structure should be updated.
+	 *
+	 * @return If the last update moved the entity.
+	 */
+	boolean isMovedInUpdate() {
+		return movedInUpdate;
+	}
+
 	/**
 	 * Moves this entity by a certain amount. If this entity is a colliding entity and it hits another colliding entity when it moves, then this will only verifyMove the entity as far as it can without intersecting a colliding entity.
 	 *
@@ -153,11 +341,9 @@ public class Entity implements ISpatialObject {
 			return;
 		}
 
-		for (IComponentEntity component : components) {
-			if (IComponentMove.class.isInstance(component)) {
-				((IComponentMove) component).verifyMove(this, moveAmount, rotateAmount);
-				hasMoved = true;
-			}
+		for (int i = 0; i < moveCount; i++) {
+			moves[i].verifyMove(this, moveAmount, rotateAmount);
+			hasMoved = true;
 		}
 
 		if (hasMoved) {
@@ -171,14 +357,361 @@ public class Entity implements ISpatialObject {
 					Maths.normalizeAngle(rotation.y + rotateAmount.y),
 					Maths.normalizeAngle(rotation.z + rotateAmount.z)
 			);
+			setMoved();
 		}
 	}
 
 	/**
-	 * Tells the entity components that the entity has moved.
+	 * Tells the entity components that the entity has moved, the children of the entity are moved with it.
 	 */
 	public void setMoved() {
 		this.hasMoved = true;
+		this.worldDirty = true;
+
+		if (transformSlot >= 0) {
+			transforms.setDirty(transformSlot);
+		}
+
+		if (children != null) {
+			for (Entity child : children) {
+				child.setMoved();
+			}
+		}
+	}
+
+	/**
+	 * Attaches this entity to a parent, the position, rotation and scale of this entity are then applied after the world matrix of the parent.
+	 *
+	 * @param parent The parent to attach to, or null to detach from the current parent.
+	 */
+	public void setParent(Entity parent) {
+		if (parent == this.parent) {
+			return;
+		}
+
+		for (Entity ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+			if (ancestor == this) {
+				throw new IllegalArgumentException("A entity can not be attached to one of its children.");
+			}
+		}
+
+		if (parent != null && parent.transformSlot < 0) {
+			throw new IllegalArgumentException("A entity can not be attached to a entity taken out of the world.");
+		}
+
+		if (this.parent != null) {
+			this.parent.children.remove(this);
+		}
+
+		this.parent = parent;
+
+		if (parent != null) {
+			if (parent.children == null) {
+				parent.children = new ArrayList<>();
+			}
+
+			parent.children.add(this);
+		}
+
+		// Attached entities are kept in the store of their parent, detached entities go back to the store of their structure.
+		if (transformSlot >= 0) {
+			if (parent == null) {
+				transforms.setParent(transformSlot, -1);
+				placeTransforms();
+			} else if (parent.transforms != transforms) {
+				setTransforms(parent.transforms);
+			} else {
+				transforms.setParent(transformSlot, parent.transformSlot);
+			}
+		}
+
+		setMoved();
+	}
+
+	/**
+	 * Gets the entity this entity is attached to.
+	 *
+	 * @return The parent, or null if the entity is not attached.
+	 */
+	public Entity getParent() {
+		return parent;
+	}
+
+	/**
+	 * Gets the entities attached to this entity.
+	 *
+	 * @return The children, or null if no entity has been attached.
+	 */
+	public List<Entity> getChildren() {
+		return children;
+	}
+
+	/**
+	 * Gets the world matrix of this entity, the matrix is cached and only built again after the entity or one of its parents has moved. The
+	 * matrix is shared by every reader and should not be changed.
+	 *
+	 * @return The world matrix.
+	 */
+	public Matrix4f getWorldMatrix() {
+		// Moving a parent moves its children, so the copy is dirty whenever the packed matrix is.
+		if (worldDirty) {
+			if (transformSlot < 0) {
+				Matrix4f.transformationMatrix(position, rotation, getScale(), worldMatrix);
+				worldDirty = false;
+			} else {
+				transforms.resolve(transformSlot);
+			}
+		}
+
+		return worldMatrix;
+	}
+
+	/**
+	 * Copies the world matrix from the transform store once it has been built.
+	 *
+	 * @param matrices The packed matrices.
+	 * @param offset The offset of the matrix of this entity.
+	 */
+	void setWorldMatrix(float[] matrices, int offset) {
+		worldMatrix.m00 = matrices[offset];
+		worldMatrix.m01 = matrices[offset + 1];
+		worldMatrix.m02 = matrices[offset + 2];
+		worldMatrix.m03 = matrices[offset + 3];
+		worldMatrix.m10 = matrices[offset + 4];
+		worldMatrix.m11 = matrices[offset + 5];
+		worldMatrix.m12 = matrices[offset + 6];
+		worldMatrix.m13 = matrices[offset + 7];
+		worldMatrix.m20 = matrices[offset + 8];
+		worldMatrix.m21 = matrices[offset + 9];
+		worldMatrix.m22 = matrices[offset + 10];
+		worldMatrix.m23 = matrices[offset + 11];
+		worldMatrix.m30 = matrices[offset + 12];
+		worldMatrix.m31 = matrices[offset + 13];
+		worldMatrix.m32 = matrices[offset + 14];
+		worldMatrix.m33 = matrices[offset + 15];
+		worldDirty = false;
+	}
+
+	/**
+	 * Copies the world matrix of this entity, the matrix is cached and only built again after the entity or one of its parents has moved.
+	 *
+	 * @param destination The destination matrix or null if a new matrix is to be created.
+	 *
+	 * @return The world matrix.
+	 */
+	public Matrix4f getWorldMatrix(Matrix4f destination) {
+		if (transformSlot < 0) {
+			return Matrix4f.transformationMatrix(position, rotation, getScale(), destination);
+		}
+
+		return transforms.getMatrix(transformSlot, destination);
+	}
+
+	/**
+	 * Gets the position of this entity in the world, this is the position of the entity if it is not attached.
+	 *
+	 * @param destination The destination vector or null if a new vector is to be created.
+	 *
+	 * @return The world position.
+	 */
+	public Vector3f getWorldPosition(Vector3f destination) {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		if (parent == null || transformSlot < 0) {
+			return destination.set(position);
+		}
+
+		float[] matrices = transforms.getMatrices();
+		int offset = transforms.resolve(transformSlot);
+		return destination.set(matrices[offset + 12], matrices[offset + 13], matrices[offset + 14]);
+	}
+
+	/**
+	 * Gets the rotation of this entity in the world, read back from the world matrix of an attached entity, so it matches how the entity is rendered.
+	 *
+	 * @param destination The destination vector or null if a new vector is to be created.
+	 *
+	 * @return The world rotation.
+	 */
+	public Vector3f getWorldRotation(Vector3f destination) {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		if (parent == null || transformSlot < 0) {
+			return destination.set(rotation);
+		}
+
+		float[] m = transforms.getMatrices();
+		int offset = transforms.resolve(transformSlot);
+
+		// The matrix is rotated around X, Y then Z and scaled evenly, so the scale is the length of any axis.
+		float scale = (float) Math.sqrt(m[offset + 8] * m[offset + 8] + m[offset + 9] * m[offset + 9] + m[offset + 10] * m[offset + 10]);
+		float sinY = scale == 0.0f ? 0.0f : Math.max(-1.0f, Math.min(1.0f, m[offset + 8] / scale));
+		float x;
+		float y = (float) Math.asin(sinY);
+		float z;
+
+		if (Math.abs(sinY) < 0.99999f) {
+			x = (float) Math.atan2(-m[offset + 9], m[offset + 10]);
+			z = (float) Math.atan2(-m[offset + 4], m[offset]);
+		} else {
+			// Rotations around X and Z line up when Y is at a right angle, so all of it is given to X.
+			x = (float) Math.atan2(m[offset + 6], m[offset + 5]);
+			z = 0.0f;
+		}
+
+		return destination.set(
+				Maths.normalizeAngle((float) Math.toDegrees(x)),
+				Maths.normalizeAngle((float) Math.toDegrees(y)),
+				Maths.normalizeAngle((float) Math.toDegrees(z))
+		);
+	}
+
+	/**
+	 * Gets the store the world matrix of this entity is kept in.
+	 *
+	 * @return The transform store.
+	 */
+	public EntityTransforms getTransforms() {
+		return transforms;
+	}
+
+	/**
+	 * Gets the slot of this entity in its transform store.
+	 *
+	 * @return The slot, or -1 if the entity has been taken out of the world.
+	 */
+	public int getTransformSlot() {
+		return transformSlot;
+	}
+
+	/**
+	 * Moves this entity and its children to the transform store of its structure, if it is not attached to a parent.
+	 */
+	private void placeTransforms() {
+		if (transformSlot >= 0 && parent == null) {
+			setTransforms(FlounderEntities.transforms(structure, transforms));
+		}
+	}
+
+	/**
+	 * Moves this entity and its children to another transform store, parents are given a slot before their children.
+	 *
+	 * @param target The store to move to.
+	 */
+	private void setTransforms(EntityTransforms target) {
+		if (transformSlot < 0 || target == transforms) {
+			return;
+		}
+
+		transforms.remove(transformSlot);
+		transforms = target;
+		transformSlot = target.add(this);
+		worldDirty = true;
+
+		if (parent != null) {
+			target.setParent(transformSlot, parent.transformSlot);
+		}
+
+		if (children != null) {
+			for (Entity child : children) {
+				child.setTransforms(target);
+			}
+		}
+	}
+
+	/**
+	 * Frees the transform slot of this entity once it is taken out of the world. Children are detached where they are in the world, and the
+	 * entity is detached from its parent.
+	 */
+	void releaseTransform() {
+		if (transformSlot < 0) {
+			return;
+		}
+
+		if (children != null) {
+			for (Entity child : children) {
+				child.getWorldPosition(child.position);
+				child.getWorldRotation(child.rotation);
+				child.parent = null;
+
+				if (child.transformSlot >= 0) {
+					transforms.setParent(child.transformSlot, -1);
+					child.placeTransforms();
+				}
+
+				child.setMoved();
+			}
+
+			children.clear();
+		}
+
+		if (parent != null) {
+			parent.children.remove(this);
+			parent = null;
+		}
+
+		transforms.remove(transformSlot);
+		transformSlot = -1;
+		worldDirty = true;
+	}
+
+	/**
+	 * Takes this entity out of the world once its structure has let it go, freeing its transform slot and giving the entity back to its pool.
+	 */
+	void recycle() {
+		if (transformSlot < 0) {
+			return;
+		}
+
+		releaseTransform();
+
+		if (pool != null) {
+			pool.release(this);
+		}
+	}
+
+	/**
+	 * Puts a entity given back to a pool into the world again, as if it was newly created with the same components.
+	 *
+	 * @param structure The spatial structure this entity will be contained in.
+	 * @param position The location of the entity, this is copied.
+	 * @param rotation The rotation of the entity, this is copied.
+	 */
+	void respawn(ISpatialStructure<Entity> structure, Vector3f position, Vector3f rotation) {
+		this.structure = structure;
+		this.position.set(position);
+		this.rotation.set(rotation);
+		this.removed = false;
+
+		this.transforms = FlounderEntities.transforms(structure, null);
+		this.transformSlot = transforms.add(this);
+		setMoved();
+
+		for (int i = 0; i < components.size(); i++) {
+			components.get(i).reset();
+		}
+
+		if (structure != null) {
+			this.structure.add(this);
+			FlounderEntities.track(this);
+		}
+	}
+
+	/**
+	 * Gets the pool this entity is given back to once it is removed.
+	 *
+	 * @return The pool, or null if the entity was not spawned from a pool.
+	 */
+	public EntityPool getPool() {
+		return pool;
+	}
+
+	void setPool(EntityPool pool) {
+		this.pool = pool;
 	}
 
 	/**
@@ -187,9 +720,14 @@ public class Entity implements ISpatialObject {
 	 * @param structure The new structure too be contained in.
 	 */
 	public void switchStructure(ISpatialStructure<Entity> structure) {
-		structure.remove(this);
+		if (this.structure != null) {
+			this.structure.remove(this);
+		}
+
 		this.structure = structure;
 		structure.add(this);
+		FlounderEntities.track(this);
+		placeTransforms();
 	}
 
 	public ISpatialStructure<Entity> getStructure() {
@@ -221,6 +759,11 @@ public class Entity implements ISpatialObject {
 		for (IComponentEntity component : components) {
 			component.dispose();
 		}
+
+		// Entities in a structure keep their matrix until the structure lets them go.
+		if (structure == null) {
+			recycle();
+		}
 	}
 
 	/**
@@ -232,6 +775,50 @@ public class Entity implements ISpatialObject {
 		return removed;
 	}
 
+	/**
+	 * Gets the archetype storage this entity is in.
+	 *
+	 * @return The storage, or null if the entity is not stored in archetypes.
+	 */
+	EntityArchetypes getArchetypes() {
+		return archetypes;
+	}
+
+	void setArchetypes(EntityArchetypes archetypes) {
+		this.archetypes = archetypes;
+	}
+
+	/**
+	 * Gets the archetype table this entity is a row of.
+	 *
+	 * @return The archetype, or null if the entity is not stored in archetypes.
+	 */
+	public Archetype getArchetype() {
+		return archetype;
+	}
+
+	/**
+	 * Gets the row of this entity in its archetype.
+	 *
+	 * @return The row, or -1 if the entity is not stored in archetypes.
+	 */
+	public int getArchetypeRow() {
+		return archetypeRow;
+	}
+
+	void setArchetype(Archetype archetype, int row) {
+		this.archetype = archetype;
+		this.archetypeRow = row;
+	}
+
+	boolean isArchetypePending() {
+		return archetypePending;
+	}
+
+	void setArchetypePending(boolean archetypePending) {
+		this.archetypePending = archetypePending;
+	}
+
 	public Vector3f getPosition() {
 		return position;
 	}
@@ -258,13 +845,7 @@ public class Entity implements ISpatialObject {
 	 * @return The alpha of the entity.
 	 */
 	public float getAlpha() {
-		for (IComponentEntity component : components) {
-			if (component instanceof IComponentAlpha) {
-				return ((IComponentAlpha) component).getAlpha();
-			}
-		}
-
-		return 1.0f;
+		return alpha == null ? 1.0f : alpha.getAlpha();
 	}
 
 	/**
@@ -273,24 +854,16 @@ public class Entity implements ISpatialObject {
 	 * @return The scale of the entity.
 	 */
 	public float getScale() {
-		for (IComponentEntity component : components) {
-			if (component instanceof IComponentScale) {
-				return ((IComponentScale) component).getScale();
-			}
-		}
-
-		return 1.0f;
+		return scale == null ? 1.0f : scale.getScale();
 	}
 
 	@Override
 	public Collider getCollider() {
-		for (IComponentEntity component : components) {
-			if (component instanceof IComponentCollider) {
-				Collider bounding = ((IComponentCollider) component).getCollider();
+		for (int i = 0; i < colliderCount; i++) {
+			Collider bounding = colliders[i].getCollider();
 
-				if (bounding != null) {
-					return bounding;
-				}
+			if (bounding != null) {
+				return bounding;
 			}
 		}
 
@@ -305,4 +878,25 @@ public class Entity implements ISpatialObject {
 				", removed=" + removed +
 				'}';
 	}
+
+	/**
+	 * Visits entities in range with a component, kept by the entity so visiting does not create a visitor each time.
+	 */
+	private static final class RangeVisitor implements Consumer<Entity> {
+		private Class<?> object;
+		private IComponentVisitor visitor;
+
+		@Override
+		public void accept(Entity entity) {
+			if (entity.removed) {
+				return;
+			}
+
+			IComponentEntity component = object == null ? null : entity.getComponent(object);
+
+			if (component != null || object == null) {
+				visitor.visit(entity, component);
+			}
+		}
+	}
 }
@@ -0,0 +1,262 @@
+package com.flounder.entities;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Stores entities in archetype tables, grouped by the set of component classes they have. Entities still own their component lists, the tables are
+ * kept in step as components are added and removed, so code using {@link Entity} works the same while systems walk the packed tables.
+ * <p>
+ * Changes made while the storage is being iterated, such as components being added or entities being removed, are applied once the outermost
+ * iteration is finished, so a iteration visits each entity at most once.
+ */
+public class EntityArchetypes {
+	private Map<BitSet, Archetype> lookup;
+	private List<Archetype> archetypes;
+	private Archetype empty;
+
+	private List<Entity> pending;
+	private int iterating;
+
+	/**
+	 * Creates a new empty archetype storage.
+	 */
+	public EntityArchetypes() {
+		this.lookup = new HashMap<>();
+		this.archetypes = new ArrayList<>();
+		this.empty = getArchetype(new BitSet());
+
+		this.pending = new ArrayList<>();
+		this.iterating = 0;
+	}
+
+	/**
+	 * Gets the archetype for a set of component classes, creating it if it does not exist.
+	 *
+	 * @param mask The ids of the component classes.
+	 *
+	 * @return The archetype.
+	 */
+	Archetype getArchetype(BitSet mask) {
+		Archetype archetype = lookup.get(mask);
+
+		if (archetype == null) {
+			archetype = new Archetype(this, mask);
+			lookup.put(mask, archetype);
+			archetypes.add(archetype);
+		}
+
+		return archetype;
+	}
+
+	/**
+	 * Adds a entity to the storage, the entity is kept in the archetype of its components until it is removed.
+	 *
+	 * @param entity The entity to add.
+	 */
+	public void add(Entity entity) {
+		if (entity.getArchetypes() == this) {
+			return;
+		}
+
+		entity.setArchetypes(this);
+		changed(entity);
+	}
+
+	/**
+	 * Removes a entity from the storage.
+	 *
+	 * @param entity The entity to remove.
+	 */
+	public void remove(Entity entity) {
+		if (entity.getArchetypes() != this) {
+			return;
+		}
+
+		entity.setArchetypes(null);
+		changed(entity);
+	}
+
+	/**
+	 * Moves a entity to the archetype of its components, this is called when a component is added or removed.
+	 *
+	 * @param entity The entity that changed.
+	 */
+	void changed(Entity entity) {
+		if (iterating == 0) {
+			place(entity);
+		} else if (!entity.isArchetypePending()) {
+			entity.setArchetypePending(true);
+			pending.add(entity);
+		}
+	}
+
+	private void place(Entity entity) {
+		Archetype current = entity.getArchetype();
+		Archetype target = null;
+
+		if (entity.getArchetypes() == this) {
+			target = empty;
+
+			for (IComponentEntity component : entity.getComponents()) {
+				target = target.with(ComponentTypes.getId(component.getClass()));
+			}
+		}
+
+		// A entity with a component replaced by another of the same class keeps its row.
+		if (target == current) {
+			if (current != null) {
+				current.refresh(entity.getArchetypeRow());
+			}
+
+			return;
+		}
+
+		if (current != null) {
+			current.remove(entity.getArchetypeRow());
+		}
+
+		entity.setArchetype(target, target == null ? -1 : target.add(entity));
+	}
+
+	/**
+	 * Runs a action on every entity in the storage, the entities in each archetype are visited in row order.
+	 *
+	 * @param action The action to run.
+	 */
+	public void forEach(Consumer<? super Entity> action) {
+		iterating++;
+
+		try {
+			for (int i = 0; i < archetypes.size(); i++) {
+				Archetype archetype = archetypes.get(i);
+				Entity[] entities = archetype.getEntities();
+
+				for (int j = 0; j < archetype.getSize(); j++) {
+					action.accept(entities[j]);
+				}
+			}
+		} finally {
+			finishIterating();
+		}
+	}
+
+	/**
+	 * Runs a action on every component of a class, or of any class that extends or implements it, by walking the columns of the archetypes that
+	 * have the class.
+	 *
+	 * @param type The component class or interface.
+	 * @param action The action to run.
+	 * @param <T> The type of component.
+	 */
+	public <T> void forEach(Class<T> type, Consumer<? super T> action) {
+		iterating++;
+
+		try {
+			for (int i = 0; i < archetypes.size(); i++) {
+				Archetype archetype = archetypes.get(i);
+				Class<?>[] classes = archetype.getClasses();
+
+				for (int j = 0; j < classes.length; j++) {
+					if (!type.isAssignableFrom(classes[j])) {
+						continue;
+					}
+
+					IComponentEntity[] column = archetype.getColumn(j);
+
+					for (int k = 0; k < archetype.getSize(); k++) {
+						action.accept(type.cast(column[k]));
+					}
+				}
+			}
+		} finally {
+			finishIterating();
+		}
+	}
+
+	private void finishIterating() {
+		if (--iterating > 0) {
+			return;
+		}
+
+		for (int i = 0; i < pending.size(); i++) {
+			Entity entity = pending.get(i);
+			entity.setArchetypePending(false);
+			place(entity);
+		}
+
+		pending.clear();
+	}
+
+	/**
+	 * Finds the archetypes that have every one of a set of component classes.
+	 *
+	 * @param destination The destination list or null if a new list is to be created.
+	 * @param types The component classes.
+	 *
+	 * @return The archetypes with every class.
+	 */
+	public List<Archetype> query(List<Archetype> destination, Class<?>... types) {
+		if (destination == null) {
+			destination = new ArrayList<>();
+		}
+
+		BitSet mask = new BitSet();
+
+		for (Class<?> type : types) {
+			mask.set(ComponentTypes.getId(type));
+		}
+
+		for (Archetype archetype : archetypes) {
+			if (archetype.getSize() > 0 && archetype.hasAll(mask)) {
+				destination.add(archetype);
+			}
+		}
+
+		return destination;
+	}
+
+	/**
+	 * Gets every archetype that has been created, including empty archetypes.
+	 *
+	 * @return The archetypes.
+	 */
+	public List<Archetype> getArchetypes() {
+		return archetypes;
+	}
+
+	/**
+	 * Gets the number of entities in the storage.
+	 *
+	 * @return The number of entities.
+	 */
+	public int getSize() {
+		int size = 0;
+
+		for (Archetype archetype : archetypes) {
+			size += archetype.getSize();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Removes every entity from the storage.
+	 */
+	public void clear() {
+		for (Entity entity : pending) {
+			entity.setArchetypePending(false);
+			entity.setArchetypes(null);
+		}
+
+		pending.clear();
+
+		for (Archetype archetype : archetypes) {
+			for (int i = 0; i < archetype.getSize(); i++) {
+				archetype.getEntities()[i].setArchetypes(null);
+			}
+
+			archetype.clear();
+		}
+	}
+}
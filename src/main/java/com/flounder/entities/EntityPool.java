@@ -0,0 +1,152 @@
+package com.flounder.entities;
+
+import com.flounder.logger.*;
+import com.flounder.maths.vectors.*;
+import com.flounder.space.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Keeps removed entities of prefab classes, so spawning a prefab uses a removed entity and its components again instead of creating new ones. A
+ * prefab is a entity class with a constructor taking the structure, position and rotation that adds the same components every time, like the
+ * classes written by {@link FlounderEntities#save(String, List, String)}.
+ * <p>
+ * A removed entity goes back to its pool once the structure it was in has let it go. When it is spawned again it is given the new position and
+ * rotation, then each of its components is {@link IComponentEntity#reset()}, so components have to set back any state changed while the entity
+ * was alive.
+ */
+public class EntityPool {
+	private Map<Class<?>, Prefab> prefabs;
+	private int capacity;
+
+	/**
+	 * Creates a new entity pool.
+	 *
+	 * @param capacity The most removed entities kept for each prefab, entities removed once a prefab is full are left to be collected.
+	 */
+	public EntityPool(int capacity) {
+		this.prefabs = new IdentityHashMap<>();
+		this.capacity = Math.max(capacity, 0);
+	}
+
+	/**
+	 * Spawns a entity of a prefab, using a removed entity of the prefab if one is kept. The position and rotation are copied, so the vectors can
+	 * be used again by the caller.
+	 *
+	 * @param prefab The prefab class.
+	 * @param structure The spatial structure the entity will be contained in.
+	 * @param position The location of the entity.
+	 * @param rotation The rotation of the entity.
+	 * @param <T> The type of entity.
+	 *
+	 * @return The spawned entity, or null if the prefab could not be created.
+	 */
+	public <T extends Entity> T spawn(Class<T> prefab, ISpatialStructure<Entity> structure, Vector3f position, Vector3f rotation) {
+		Prefab spares = getPrefab(prefab);
+
+		if (spares == null) {
+			return null;
+		}
+
+		if (spares.count > 0) {
+			Entity entity = spares.entities[--spares.count];
+			spares.entities[spares.count] = null;
+			entity.respawn(structure, position, rotation);
+			return prefab.cast(entity);
+		}
+
+		try {
+			T entity = prefab.cast(spares.constructor.newInstance(structure, new Vector3f(position), new Vector3f(rotation)));
+			entity.setPool(this);
+			return entity;
+		} catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
+			FlounderLogger.get().error("Entity prefab " + prefab.getName() + " could not be created!");
+			FlounderLogger.get().exception(e);
+		}
+
+		return null;
+	}
+
+	private Prefab getPrefab(Class<? extends Entity> prefab) {
+		Prefab spares = prefabs.get(prefab);
+
+		if (spares == null) {
+			try {
+				spares = new Prefab(prefab.getConstructor(ISpatialStructure.class, Vector3f.class, Vector3f.class), capacity);
+				prefabs.put(prefab, spares);
+			} catch (NoSuchMethodException e) {
+				FlounderLogger.get().error("Entity prefab " + prefab.getName() + " does not have a (ISpatialStructure, Vector3f, Vector3f) constructor!");
+				FlounderLogger.get().exception(e);
+			}
+		}
+
+		return spares;
+	}
+
+	/**
+	 * Gives a entity that has been taken out of the world back to the pool.
+	 *
+	 * @param entity The removed entity.
+	 */
+	void release(Entity entity) {
+		Prefab spares = prefabs.get(entity.getClass());
+
+		if (spares == null || spares.count == spares.entities.length) {
+			entity.setPool(null);
+			return;
+		}
+
+		spares.entities[spares.count++] = entity;
+	}
+
+	/**
+	 * Gets the number of removed entities of a prefab kept to be spawned again.
+	 *
+	 * @param prefab The prefab class.
+	 *
+	 * @return The number of kept entities.
+	 */
+	public int getSpareCount(Class<? extends Entity> prefab) {
+		Prefab spares = prefabs.get(prefab);
+		return spares == null ? 0 : spares.count;
+	}
+
+	/**
+	 * Gets the most removed entities kept for each prefab.
+	 *
+	 * @return The capacity of each prefab.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Lets go of every kept entity, they are left to be collected.
+	 */
+	public void clear() {
+		for (Prefab spares : prefabs.values()) {
+			for (int i = 0; i < spares.count; i++) {
+				spares.entities[i].setPool(null);
+				spares.entities[i] = null;
+			}
+
+			spares.count = 0;
+		}
+	}
+
+	/**
+	 * The constructor of a prefab class and its kept entities.
+	 */
+	private static class Prefab {
+		private Constructor<? extends Entity> constructor;
+		private Entity[] entities;
+		private int count;
+
+		private Prefab(Constructor<? extends Entity> constructor, int capacity) {
+			this.constructor = constructor;
+			this.entities = new Entity[capacity];
+			this.count = 0;
+		}
+	}
+}
@@ -0,0 +1,267 @@
+package com.flounder.entities;
+
+import com.flounder.maths.matrices.*;
+
+import java.util.*;
+
+/**
+ * Keeps the world matrices of entities packed in one float array, 16 floats a entity in the order of {@link Matrix4f#toArray(Matrix4f)}. A entity
+ * attached to a parent has its position, rotation and scale applied after the world matrix of the parent.
+ * <p>
+ * Moving a entity marks its matrix and the matrices of its children as dirty, and a dirty matrix is only built again when it is read, after the
+ * matrix of its parent. Entities with no parent or children only ever build their own matrix, so they can be read while entities are being
+ * updated in parallel.
+ */
+public class EntityTransforms {
+	private Entity[] entities;
+	private int[] parents;
+	private boolean[] dirty;
+	private float[] matrices;
+
+	private int[] free;
+	private int freeCount;
+	private int size;
+	private int count;
+
+	/**
+	 * Creates a new transform store.
+	 *
+	 * @param capacity The number of entities to make room for, the store grows as needed.
+	 */
+	public EntityTransforms(int capacity) {
+		capacity = Math.max(capacity, 1);
+		this.entities = new Entity[capacity];
+		this.parents = new int[capacity];
+		this.dirty = new boolean[capacity];
+		this.matrices = new float[capacity * 16];
+
+		this.free = new int[capacity];
+		this.freeCount = 0;
+		this.size = 0;
+		this.count = 0;
+	}
+
+	/**
+	 * Gives a entity a slot in the store, the matrix of the slot starts dirty.
+	 *
+	 * @param entity The entity to add.
+	 *
+	 * @return The slot of the entity.
+	 */
+	int add(Entity entity) {
+		int slot;
+
+		if (freeCount > 0) {
+			slot = free[--freeCount];
+		} else {
+			if (size == entities.length) {
+				int capacity = size * 2;
+				entities = Arrays.copyOf(entities, capacity);
+				parents = Arrays.copyOf(parents, capacity);
+				dirty = Arrays.copyOf(dirty, capacity);
+				matrices = Arrays.copyOf(matrices, capacity * 16);
+				free = Arrays.copyOf(free, capacity);
+			}
+
+			slot = size++;
+		}
+
+		entities[slot] = entity;
+		parents[slot] = -1;
+		dirty[slot] = true;
+		count++;
+		return slot;
+	}
+
+	/**
+	 * Frees the slot of a entity, the slot is given to the next entity added.
+	 *
+	 * @param slot The slot to free.
+	 */
+	void remove(int slot) {
+		entities[slot] = null;
+		parents[slot] = -1;
+		dirty[slot] = false;
+		free[freeCount++] = slot;
+		count--;
+	}
+
+	/**
+	 * Sets the slot of the parent of a slot.
+	 *
+	 * @param slot The slot.
+	 * @param parent The slot of the parent, or -1 if the slot has no parent.
+	 */
+	void setParent(int slot, int parent) {
+		parents[slot] = parent;
+		dirty[slot] = true;
+	}
+
+	/**
+	 * Marks the matrix of a slot to be built again when it is next read.
+	 *
+	 * @param slot The slot.
+	 */
+	void setDirty(int slot) {
+		dirty[slot] = true;
+	}
+
+	/**
+	 * Builds the matrix of a slot if it is dirty, building the matrices of its parents first.
+	 *
+	 * @param slot The slot.
+	 *
+	 * @return The offset of the matrix in {@link #getMatrices()}.
+	 */
+	public int resolve(int slot) {
+		if (dirty[slot]) {
+			int parent = parents[slot];
+
+			if (parent >= 0) {
+				resolve(parent);
+			}
+
+			build(entities[slot], slot * 16, parent);
+			dirty[slot] = false;
+			entities[slot].setWorldMatrix(matrices, slot * 16);
+		}
+
+		return slot * 16;
+	}
+
+	/**
+	 * Builds every dirty matrix, so renderers read matrices that are already built.
+	 */
+	public void resolve() {
+		for (int i = 0; i < size; i++) {
+			if (dirty[i]) {
+				resolve(i);
+			}
+		}
+	}
+
+	private void build(Entity entity, int offset, int parent) {
+		float radX = (float) Math.toRadians(entity.getRotation().x);
+		float radY = (float) Math.toRadians(entity.getRotation().y);
+		float radZ = (float) Math.toRadians(entity.getRotation().z);
+		float cx = (float) Math.cos(radX);
+		float sx = (float) Math.sin(radX);
+		float cy = (float) Math.cos(radY);
+		float sy = (float) Math.sin(radY);
+		float cz = (float) Math.cos(radZ);
+		float sz = (float) Math.sin(radZ);
+		float scale = entity.getScale();
+
+		// The same matrix as a transformation matrix, translated then rotated around X, Y and Z then scaled.
+		float l00 = cy * cz * scale;
+		float l01 = (cx * sz + sx * sy * cz) * scale;
+		float l02 = (sx * sz - cx * sy * cz) * scale;
+		float l10 = -cy * sz * scale;
+		float l11 = (cx * cz - sx * sy * sz) * scale;
+		float l12 = (sx * cz + cx * sy * sz) * scale;
+		float l20 = sy * scale;
+		float l21 = -sx * cy * scale;
+		float l22 = cx * cy * scale;
+		float l30 = entity.getPosition().x;
+		float l31 = entity.getPosition().y;
+		float l32 = entity.getPosition().z;
+
+		float[] m = matrices;
+
+		if (parent < 0) {
+			m[offset] = l00;
+			m[offset + 1] = l01;
+			m[offset + 2] = l02;
+			m[offset + 3] = 0.0f;
+			m[offset + 4] = l10;
+			m[offset + 5] = l11;
+			m[offset + 6] = l12;
+			m[offset + 7] = 0.0f;
+			m[offset + 8] = l20;
+			m[offset + 9] = l21;
+			m[offset + 10] = l22;
+			m[offset + 11] = 0.0f;
+			m[offset + 12] = l30;
+			m[offset + 13] = l31;
+			m[offset + 14] = l32;
+			m[offset + 15] = 1.0f;
+			return;
+		}
+
+		int p = parent * 16;
+
+		for (int row = 0; row < 4; row++) {
+			float p0 = m[p + row];
+			float p1 = m[p + 4 + row];
+			float p2 = m[p + 8 + row];
+			float p3 = m[p + 12 + row];
+			m[offset + row] = p0 * l00 + p1 * l01 + p2 * l02;
+			m[offset + 4 + row] = p0 * l10 + p1 * l11 + p2 * l12;
+			m[offset + 8 + row] = p0 * l20 + p1 * l21 + p2 * l22;
+			m[offset + 12 + row] = p0 * l30 + p1 * l31 + p2 * l32 + p3;
+		}
+	}
+
+	/**
+	 * Copies the world matrix of a slot into a matrix, building it first if it is dirty.
+	 *
+	 * @param slot The slot.
+	 * @param destination The destination matrix or null if a new matrix is to be created.
+	 *
+	 * @return The destination matrix.
+	 */
+	public Matrix4f getMatrix(int slot, Matrix4f destination) {
+		if (destination == null) {
+			destination = new Matrix4f();
+		}
+
+		int offset = resolve(slot);
+		float[] m = matrices;
+		destination.m00 = m[offset];
+		destination.m01 = m[offset + 1];
+		destination.m02 = m[offset + 2];
+		destination.m03 = m[offset + 3];
+		destination.m10 = m[offset + 4];
+		destination.m11 = m[offset + 5];
+		destination.m12 = m[offset + 6];
+		destination.m13 = m[offset + 7];
+		destination.m20 = m[offset + 8];
+		destination.m21 = m[offset + 9];
+		destination.m22 = m[offset + 10];
+		destination.m23 = m[offset + 11];
+		destination.m30 = m[offset + 12];
+		destination.m31 = m[offset + 13];
+		destination.m32 = m[offset + 14];
+		destination.m33 = m[offset + 15];
+		return destination;
+	}
+
+	/**
+	 * Gets the packed world matrices, the array is replaced as the store grows. Matrices can be dirty, see {@link #resolve(int)}.
+	 *
+	 * @return The packed matrices.
+	 */
+	public float[] getMatrices() {
+		return matrices;
+	}
+
+	/**
+	 * Gets if the matrix of a slot has to be built before it is read.
+	 *
+	 * @param slot The slot.
+	 *
+	 * @return If the matrix is dirty.
+	 */
+	public boolean isDirty(int slot) {
+		return dirty[slot];
+	}
+
+	/**
+	 * Gets the number of entities with a slot.
+	 *
+	 * @return The number of entities.
+	 */
+	public int getCount() {
+		return count;
+	}
+}
@@ -5,8 +5,10 @@ import com.flounder.events.*;
 import com.flounder.framework.*;
 import com.flounder.helpers.*;
 import com.flounder.logger.*;
+import com.flounder.maths.vectors.*;
 import com.flounder.models.*;
 import com.flounder.physics.bounding.*;
+import com.flounder.physics.collision.*;
 import com.flounder.resources.*;
 import com.flounder.space.*;
 import com.flounder.tasks.*;
@@ -14,43 +16,197 @@ import com.flounder.textures.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 
 /**
  * A class that manages game entities.
+ * <p>
+ * When the update is parallel, entities made only of {@link IComponentEntity.Local} components are updated in chunks on a fork join pool first.
+ * The other entities are then updated one by one in the order of the structure, and the structure is updated for moved entities and removed
+ * entities are taken out, so changes to other entities and the structure are only made on the updating thread.
  */
 public class FlounderEntities extends com.flounder.framework.Module {
 	public static final MyFile ENTITIES_FOLDER = new MyFile(MyFile.RES_FOLDER, "entities");
 
+	private static final int CHUNK_SIZE = 256;
+	private static final int PARALLEL_THRESHOLD = 1024;
+
+	private static final byte SKIPPED = 0;
+	private static final byte UPDATED = 1;
+	private static final byte UPDATED_MOVED = 2;
+
 	private ISpatialStructure<Entity> entityStructure;
+	private EntityArchetypes archetypes;
+	private EntityTransforms transforms;
+	private EntityPool entityPool;
+	private Consumer<Entity> updateEntity;
+
+	private ForkJoinPool pool;
+	private boolean parallelUpdate;
+	private List<Entity> updating;
+	private byte[] updated;
+	private int localCount;
 
 	/**
 	 * Creates a new game manager for entities.
 	 */
 	public FlounderEntities() {
-		super(FlounderEvents.class, FlounderTasks.class, FlounderBounding.class, FlounderAnimation.class, FlounderModels.class, FlounderTextures.class);
+		super(FlounderEvents.class, FlounderTasks.class, FlounderBounding.class, FlounderCollision.class, FlounderAnimation.class, FlounderModels.class, FlounderTextures.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
 	public void init() {
-		this.entityStructure = new StructureBasic<>();
+		this.entityStructure = new StructureAABBTree<>();
+		this.transforms = new EntityTransforms(1024);
+		this.entityPool = new EntityPool(1024);
+		this.updateEntity = this::updateEntity;
+
+		this.pool = new ForkJoinPool(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1));
+		this.parallelUpdate = false;
+		this.updating = new ArrayList<>();
+		this.updated = new byte[0];
+		this.localCount = 0;
 	}
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
 	public void update() {
-		if (entityStructure != null) {
-			Iterator<Entity> iterator = entityStructure.getAll(null).iterator();
+		if (entityStructure == null) {
+			return;
+		}
+
+		if (!parallelUpdate) {
+			// Entities removed during the update are taken out of the structure once all entities are updated.
+			entityStructure.foreach(updateEntity);
+			transforms.resolve();
+			return;
+		}
+
+		// Entities created while updating are in the structure but not the list, so they are first updated next frame as they would be by a foreach.
+		updating.clear();
+		entityStructure.getAll(updating);
+		int count = updating.size();
+
+		if (updated.length < count) {
+			updated = new byte[Math.max(count, updated.length * 2)];
+		}
+
+		if (count >= PARALLEL_THRESHOLD && pool.getParallelism() > 1) {
+			pool.invoke(new UpdateTask(0, count));
+		} else {
+			updateLocal(0, count);
+		}
+
+		localCount = 0;
+
+		for (int i = 0; i < count; i++) {
+			Entity entity = updating.get(i);
 
-			while (iterator.hasNext()) {
-				Entity entity = iterator.next();
+			if (updated[i] == SKIPPED) {
+				updateEntity(entity);
+			} else {
+				localCount++;
 
-				if (entity != null && !entity.isRemoved()) {
-					entity.update();
-				} else {
-					iterator.remove();
-					entityStructure.remove(entity);
+				if (updated[i] == UPDATED_MOVED) {
+					entityStructure.update(entity);
 				}
 			}
 		}
+
+		updating.clear();
+		transforms.resolve();
+	}
+
+	private void updateLocal(int from, int to) {
+		for (int i = from; i < to; i++) {
+			Entity entity = updating.get(i);
+
+			if (entity == null || entity.isRemoved() || !entity.isLocal()) {
+				updated[i] = SKIPPED;
+				continue;
+			}
+
+			entity.update();
+			updated[i] = entity.isMovedInUpdate() ? UPDATED_MOVED : UPDATED;
+		}
+	}
+
+	private void updateEntity(Entity entity) {
+		if (entity != null && !entity.isRemoved()) {
+			entity.update();
+
+			// Colliders are updated with the entity, so the structure is updated after.
+			if (entity.isMovedInUpdate()) {
+				entityStructure.update(entity);
+			}
+		} else {
+			entityStructure.remove(entity);
+
+			if (archetypes != null) {
+				archetypes.remove(entity);
+			}
+
+			// Entities spawned from the pool are given back once they are out of the structure.
+			if (entity != null) {
+				entity.recycle();
+			}
+		}
+	}
+
+	/**
+	 * Adds a entity to the archetype storage if it is in the entity structure, or removes it if it is not, this is called when a entity is created
+	 * or changes structure.
+	 *
+	 * @param entity The entity to track.
+	 */
+	static void track(Entity entity) {
+		FlounderEntities entities = Framework.get() == null ? null : get();
+
+		if (entities == null || entities.archetypes == null) {
+			return;
+		}
+
+		if (entity.getStructure() == entities.entityStructure) {
+			entities.archetypes.add(entity);
+		} else {
+			entities.archetypes.remove(entity);
+		}
+	}
+
+	/**
+	 * Gets the transform store for a entity not attached to a parent. Only entities in the entity structure share the store of this module, so
+	 * entities in other structures, or in none, are not kept alive by it and their matrices are collected with them.
+	 *
+	 * @param structure The structure the entity is in.
+	 * @param current The store the entity is in now, or null for a new entity.
+	 *
+	 * @return The shared store, the current store if it is one of the entity's own, or a new store of its own.
+	 */
+	static EntityTransforms transforms(ISpatialStructure<Entity> structure, EntityTransforms current) {
+		FlounderEntities entities = Framework.get() == null ? null : get();
+		EntityTransforms shared = entities == null ? null : entities.transforms;
+
+		if (shared != null && structure != null && structure == entities.entityStructure) {
+			return shared;
+		}
+
+		return current == null || current == shared ? new EntityTransforms(1) : current;
+	}
+
+	/**
+	 * Spawns a entity of a prefab into the entity structure, using a removed entity of the prefab if the pool has one. Entities spawned this way are
+	 * given back to the pool when they are removed, so spawning and removing many short lived entities does not make garbage.
+	 *
+	 * @param prefab The prefab class, a entity class with a (ISpatialStructure, Vector3f, Vector3f) constructor like those written by
+	 * {@link #save(String, List, String)}.
+	 * @param position The location of the entity, this is copied.
+	 * @param rotation The rotation of the entity, this is copied.
+	 * @param <T> The type of entity.
+	 *
+	 * @return The spawned entity, or null if the prefab could not be created.
+	 */
+	public <T extends Entity> T spawn(Class<T> prefab, Vector3f position, Vector3f rotation) {
+		return entityPool.spawn(prefab, entityStructure, position, rotation);
 	}
 
 	/**
@@ -166,16 +322,114 @@ public class FlounderEntities extends com.flounder.framework.Module {
 		return this.entityStructure;
 	}
 
+	/**
+	 * Gets the store the world matrices of entities in the entity structure are kept in, every dirty matrix is built at the end of the update.
+	 *
+	 * @return The transform store.
+	 */
+	public EntityTransforms getTransforms() {
+		return this.transforms;
+	}
+
+	/**
+	 * Gets the pool removed entities of prefabs are kept in to be spawned again.
+	 *
+	 * @return The entity pool.
+	 */
+	public EntityPool getEntityPool() {
+		return this.entityPool;
+	}
+
+	/**
+	 * Gets the archetype storage entities are kept in, systems can walk its tables instead of the entity structure.
+	 *
+	 * @return The archetype storage, or null if entities are not stored in archetypes.
+	 */
+	public EntityArchetypes getArchetypes() {
+		return this.archetypes;
+	}
+
+	/**
+	 * Sets if the entities in the entity structure are also stored in archetype tables, grouped by their component classes. Entities are still
+	 * updated through the structure, the tables are for systems that only need some component classes.
+	 *
+	 * @param enabled If entities are stored in archetypes.
+	 */
+	public void setArchetypes(boolean enabled) {
+		if (enabled == (archetypes != null)) {
+			return;
+		}
+
+		if (enabled) {
+			this.archetypes = new EntityArchetypes();
+
+			if (entityStructure != null) {
+				entityStructure.foreach(archetypes::add);
+			}
+		} else {
+			this.archetypes.clear();
+			this.archetypes = null;
+		}
+	}
+
+	/**
+	 * Gets if entities made only of local components are updated in parallel.
+	 *
+	 * @return If the update is parallel.
+	 */
+	public boolean isParallelUpdate() {
+		return this.parallelUpdate;
+	}
+
+	/**
+	 * Sets if entities made only of {@link IComponentEntity.Local} components are updated in parallel, before the other entities are updated in
+	 * the order of the structure.
+	 *
+	 * @param parallelUpdate If the update is parallel.
+	 */
+	public void setParallelUpdate(boolean parallelUpdate) {
+		this.parallelUpdate = parallelUpdate;
+	}
+
+	/**
+	 * Gets the number of entities updated as local entities in the last parallel update.
+	 *
+	 * @return The local entity count.
+	 */
+	public int getLocalCount() {
+		return this.localCount;
+	}
+
 	/**
 	 * Clears the world of all entities.
 	 */
 	public void clear() {
 		this.entityStructure.foreach(Entity::forceRemove);
+		this.entityStructure.foreach(Entity::recycle);
 		this.entityStructure.clear();
+
+		if (archetypes != null) {
+			archetypes.clear();
+		}
 	}
 
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+
+		if (entityPool != null) {
+			entityPool.clear();
+			entityPool = null;
+		}
+
+		if (archetypes != null) {
+			archetypes.clear();
+			archetypes = null;
+		}
+
 		if (entityStructure != null) {
 			entityStructure.clear();
 			entityStructure = null;
@@ -186,4 +440,30 @@ public class FlounderEntities extends com.flounder.framework.Module {
 	public static FlounderEntities get() {
 		return (FlounderEntities) Framework.get().getModule(FlounderEntities.class);
 	}
+
+	/**
+	 * Updates a range of local entities, splitting into halves until the range fits in a chunk.
+	 */
+	private class UpdateTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private int from;
+		private int to;
+
+		private UpdateTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= CHUNK_SIZE) {
+				updateLocal(from, to);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new UpdateTask(from, middle), new UpdateTask(middle, to));
+		}
+	}
 }
@@ -1,5 +1,7 @@
 package com.flounder.entities;
 
+import java.lang.annotation.*;
+
 /**
  * Base class for all components that can be attached to engine.entities. (Have a constructor that takes in '(Entity entity, EntityTemplate template)' for the entity loader).
  */
@@ -37,4 +39,22 @@ public abstract class IComponentEntity {
 	 * Runs when the component is removed from the entity.
 	 */
 	public abstract void dispose();
+
+	/**
+	 * Runs when the removed entity this is attached to is spawned again from a {@link EntityPool}, after the entity is given its new position and
+	 * rotation. Components should take back anything let go of in {@link #dispose()}, and set back any state changed while the entity was alive.
+	 */
+	public void reset() {
+	}
+
+	/**
+	 * Marks a component class whose update only reads and writes its own entity and the other components of that entity, and does not add, remove
+	 * or move other entities. Entities made only of local components may be updated in parallel, see {@link FlounderEntities#setParallelUpdate(boolean)}.
+	 * A local component may move its own entity, {@link IComponentMove} components check moves against the shared collision world so are never
+	 * treated as local. The mark is not inherited, a class extending a local component has to be marked again.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	public @interface Local {
+	}
 }
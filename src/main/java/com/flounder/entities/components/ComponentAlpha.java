@@ -7,6 +7,7 @@ import com.flounder.shaders.*;
 
 import javax.swing.*;
 
+@IComponentEntity.Local
 public class ComponentAlpha extends IComponentEntity implements IComponentAlpha, IComponentRender, IComponentEditor {
 	private float alpha;
 
@@ -27,7 +27,6 @@ import java.io.*;
 public class ComponentAnimation extends IComponentEntity implements IComponentCollider, IComponentScale, IComponentRender, IComponentEditor {
 	private float scale;
 	private ModelAnimated model;
-	private Matrix4f modelMatrix;
 
 	private Collider collider;
 
@@ -72,7 +71,6 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 
 		this.scale = scale;
 		this.model = modelAnimated;
-		this.modelMatrix = new Matrix4f();
 
 		this.collider = null;
 
@@ -107,7 +105,6 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 
 		this.scale = scale;
 		this.model = model;
-		this.modelMatrix = new Matrix4f();
 
 		this.collider = null;
 
@@ -133,15 +130,15 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 			animator.update();
 		}
 
+		// The model matrix is built by the entity transforms when it is read.
 		if (getEntity().hasMoved()) {
-			Matrix4f.transformationMatrix(super.getEntity().getPosition(), super.getEntity().getRotation(), scale, modelMatrix);
-
 			if (model != null && model.getCollider() != null) {
 				if (collider == null || !model.getCollider().getClass().isInstance(collider)) {
 					collider = model.getCollider().clone();
 				}
 
-				model.getCollider().update(super.getEntity().getPosition(), super.getEntity().getRotation(), scale, collider);
+				// The collider is moved by the same world matrix the model is rendered with.
+				model.getCollider().update(getEntity().getWorldMatrix(), collider);
 			}
 		}
 
@@ -166,12 +163,12 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 	}
 
 	/**
-	 * Gets the entitys model matrix.
+	 * Gets the entitys model matrix, this is the cached world matrix of the entity.
 	 *
 	 * @return The entitys model matrix.
 	 */
 	public Matrix4f getModelMatrix() {
-		return modelMatrix;
+		return getEntity().getWorldMatrix();
 	}
 
 	/**
@@ -298,9 +295,7 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 			FlounderOpenGL.get().bindVAO(model.getVaoID(), 0, 1, 2, 3, 4, 5);
 			shader.getUniformBool("animated").loadBoolean(true);
 
-			if (modelMatrix != null) {
-				shader.getUniformMat4("modelMatrix").loadMat4(modelMatrix);
-			}
+			shader.getUniformMat4("modelMatrix").loadMat4(getModelMatrix());
 
 			// Just stop if you are trying to apply a sway to a animated object, rethink life.
 			shader.getUniformFloat("swayHeight").loadFloat(0.0f);
@@ -7,6 +7,7 @@ import javax.swing.*;
 
 public class ComponentChild extends IComponentEntity implements IComponentEditor {
 	private Entity parent;
+	private boolean attached;
 	private ChildRemoved childRemoved;
 
 	/**
@@ -25,10 +26,7 @@ public class ComponentChild extends IComponentEntity implements IComponentEditor
 	 * @param parent The parent to this child.
 	 */
 	public ComponentChild(Entity entity, Entity parent) {
-		super(entity);
-
-		this.parent = parent;
-		this.childRemoved = null;
+		this(entity, parent, false, null);
 	}
 
 	/**
@@ -39,10 +37,27 @@ public class ComponentChild extends IComponentEntity implements IComponentEditor
 	 * @param childRemoved A function called when the child has been removed.
 	 */
 	public ComponentChild(Entity entity, Entity parent, ChildRemoved childRemoved) {
+		this(entity, parent, false, childRemoved);
+	}
+
+	/**
+	 * Creates a new ComponentChild.
+	 *
+	 * @param entity The entity this component is attached to.
+	 * @param parent The parent to this child.
+	 * @param attached If the position, rotation and scale of the child are relative to the parent, see {@link Entity#setParent(Entity)}.
+	 * @param childRemoved A function called when the child has been removed.
+	 */
+	public ComponentChild(Entity entity, Entity parent, boolean attached, ChildRemoved childRemoved) {
 		super(entity);
 
 		this.parent = parent;
+		this.attached = attached;
 		this.childRemoved = childRemoved;
+
+		if (attached && entity != null && parent != null) {
+			entity.setParent(parent);
+		}
 	}
 
 	@Override
@@ -73,8 +88,16 @@ public class ComponentChild extends IComponentEntity implements IComponentEditor
 		return parent;
 	}
 
+	public boolean isAttached() {
+		return attached;
+	}
+
 	@Override
 	public void dispose() {
+		if (attached && getEntity() != null && getEntity().getParent() == parent) {
+			getEntity().setParent(null);
+		}
+
 		if (childRemoved != null) {
 			childRemoved.remove();
 		}
@@ -2,12 +2,15 @@ package com.flounder.entities.components;
 
 import com.flounder.entities.*;
 import com.flounder.helpers.*;
+import com.flounder.maths.matrices.*;
 import com.flounder.physics.*;
 
 import javax.swing.*;
 
+@IComponentEntity.Local
 public class ComponentCollider extends IComponentEntity implements IComponentEditor {
 	private QuickHull quickHull;
+	private Matrix4f modelMatrix;
 
 	public ComponentCollider(Entity entity) {
 		this(entity, new QuickHull());
@@ -16,6 +19,7 @@ public class ComponentCollider extends IComponentEntity implements IComponentEdi
 	public ComponentCollider(Entity entity, QuickHull quickHull) {
 		super(entity);
 		this.quickHull = quickHull;
+		this.modelMatrix = new Matrix4f();
 	}
 
 	@Override
@@ -27,26 +31,24 @@ public class ComponentCollider extends IComponentEntity implements IComponentEdi
 		if (getEntity().getComponent(ComponentAnimation.class) != null) {
 			ComponentAnimation componentAnimation = (ComponentAnimation) getEntity().getComponent(ComponentAnimation.class);
 
-			// Loads convex hull data from entity models.
+			// Shares the convex hull data built for the entity model.
 			if (!quickHull.isLoaded() && componentAnimation.getModel().isLoaded()) {
-				float[] vertices = componentAnimation.getModel().getMeshData().getVertices();
-				quickHull.loadData(vertices);
+				quickHull.loadData(componentAnimation.getModel().getQuickHull().getHullData());
 			}
 
 			if (getEntity().hasMoved()) {
-				componentAnimation.getModel().getQuickHull().update(getEntity().getPosition(), getEntity().getRotation(), getEntity().getScale(), quickHull);
+				componentAnimation.getModel().getQuickHull().update(getEntity().getWorldMatrix(modelMatrix), quickHull);
 			}
 		} else if (getEntity().getComponent(ComponentModel.class) != null) {
 			ComponentModel componentModel = (ComponentModel) getEntity().getComponent(ComponentModel.class);
 
-			// Loads convex hull data from entity models.
+			// Shares the convex hull data built for the entity model.
 			if (!quickHull.isLoaded() && componentModel.getModel().isLoaded()) {
-				float[] vertices = componentModel.getModel().getVertices();
-				quickHull.loadData(vertices);
+				quickHull.loadData(componentModel.getModel().getQuickHull().getHullData());
 			}
 
 			if (getEntity().hasMoved()) {
-				componentModel.getModel().getQuickHull().update(getEntity().getPosition(), getEntity().getRotation(), getEntity().getScale(), quickHull);
+				componentModel.getModel().getQuickHull().update(getEntity().getWorldMatrix(modelMatrix), quickHull);
 			}
 		}
 	}
@@ -12,6 +12,7 @@ import javax.swing.*;
 import java.awt.event.*;
 import java.io.*;
 
+@IComponentEntity.Local
 public class ComponentGlow extends IComponentEntity implements IComponentRender, IComponentEditor {
 	private TextureObject textureGlow;
 
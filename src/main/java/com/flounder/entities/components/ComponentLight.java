@@ -9,6 +9,7 @@ import com.flounder.maths.vectors.*;
 import javax.swing.*;
 import javax.swing.event.*;
 
+@IComponentEntity.Local
 public class ComponentLight extends IComponentEntity implements IComponentEditor {
 	private Vector3f offset;
 	private Colour colour;
@@ -55,7 +56,7 @@ public class ComponentLight extends IComponentEntity implements IComponentEditor
 	public void update() {
 		//	if (super.getEntity().hasMoved()) { // TODO
 		if (offset != null) {
-			Vector3f.add(getEntity().getPosition(), offset, light.getPosition());
+			Vector3f.add(getEntity().getWorldPosition(light.getPosition()), offset, light.getPosition());
 		}
 
 		if (colour != null) {
@@ -22,13 +22,14 @@ import java.io.*;
 /**
  * Creates a model with a texture that can be rendered into the world.
  */
+@IComponentEntity.Local
 public class ComponentModel extends IComponentEntity implements IComponentCollider, IComponentScale, IComponentRender, IComponentEditor {
 	private float scale;
 	private ModelObject model;
-	private Matrix4f modelMatrix;
 
 	private Collider collider;
 	private boolean createCollider;
+	private boolean spawnCreateCollider;
 	private boolean renderCollider;
 
 	private TextureObject texture;
@@ -69,10 +70,10 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 
 		this.scale = scale;
 		this.model = model;
-		this.modelMatrix = new Matrix4f();
 
 		this.collider = null;
 		this.createCollider = createCollider;
+		this.spawnCreateCollider = createCollider;
 		this.renderCollider = true;
 
 		this.texture = texture;
@@ -90,15 +91,15 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 			wasLoaded = model.isLoaded();
 		}
 
+		// The model matrix is built by the entity transforms when it is read.
 		if (getEntity().hasMoved()) {
-			Matrix4f.transformationMatrix(super.getEntity().getPosition(), super.getEntity().getRotation(), scale, modelMatrix);
-
 			if (createCollider && model != null && model.getCollider() != null) {
 				if (collider == null || !model.getCollider().getClass().isInstance(collider)) {
 					collider = model.getCollider().clone();
 				}
 
-				model.getCollider().update(super.getEntity().getPosition(), super.getEntity().getRotation(), scale, collider);
+				// The collider is moved by the same world matrix the model is rendered with.
+				model.getCollider().update(getEntity().getWorldMatrix(), collider);
 			}
 		}
 
@@ -123,12 +124,12 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 	}
 
 	/**
-	 * Gets the entitys model matrix.
+	 * Gets the entitys model matrix, this is the cached world matrix of the entity.
 	 *
 	 * @return The entitys model matrix.
 	 */
 	public Matrix4f getModelMatrix() {
-		return modelMatrix;
+		return getEntity().getWorldMatrix();
 	}
 
 	public TextureObject getTexture() {
@@ -175,6 +176,12 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 		getEntity().setMoved();
 	}
 
+	@Override
+	public void reset() {
+		// Removing a entity stops it creating a collider while it fades out.
+		createCollider = spawnCreateCollider;
+	}
+
 	@Override
 	public Collider getCollider() {
 		return collider;
@@ -206,9 +213,7 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 			FlounderOpenGL.get().bindVAO(model.getVaoID(), 0, 1, 2, 3);
 			shader.getUniformBool("animated").loadBoolean(false);
 
-			if (modelMatrix != null) {
-				shader.getUniformMat4("modelMatrix").loadMat4(modelMatrix);
-			}
+			shader.getUniformMat4("modelMatrix").loadMat4(getModelMatrix());
 
 			if (collider != null) {
 				float height = 1.0f;
@@ -11,6 +11,7 @@ import javax.swing.*;
 import java.awt.event.*;
 import java.io.*;
 
+@IComponentEntity.Local
 public class ComponentNormals extends IComponentEntity implements IComponentRender, IComponentEditor {
 	private TextureObject textureNormals;
 
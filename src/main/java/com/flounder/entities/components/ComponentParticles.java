@@ -242,9 +242,15 @@ public class ComponentParticles extends IComponentEntity implements IComponentEd
 		);
 	}
 
+	@Override
+	public void reset() {
+		lastPosition.set(getEntity().getPosition());
+		FlounderParticles.get().addSystem(particleSystem);
+	}
+
 	@Override
 	public void dispose() {
+		// The system is kept so the entity can be spawned again from a pool.
 		FlounderParticles.get().removeSystem(particleSystem);
-		particleSystem = null;
 	}
 }
@@ -12,6 +12,8 @@ import javax.swing.*;
 public class ComponentRemoveFade extends IComponentEntity implements IComponentAlpha, IComponentRender, IComponentEditor {
 	private float alpha;
 	private ValueDriver driver;
+	private ConstantDriver visibleDriver;
+	private SlideDriver fadeDriver;
 
 	/**
 	 * Creates a new ComponentRemoveFade.
@@ -21,7 +23,9 @@ public class ComponentRemoveFade extends IComponentEntity implements IComponentA
 	public ComponentRemoveFade(Entity entity) {
 		super(entity);
 		this.alpha = 1.0f;
-		this.driver = new ConstantDriver(1.0f);
+		this.visibleDriver = new ConstantDriver(1.0f);
+		this.fadeDriver = new SlideDriver(1.0f, 0.0f, 0.3f);
+		this.driver = visibleDriver;
 	}
 
 	@Override
@@ -39,8 +43,10 @@ public class ComponentRemoveFade extends IComponentEntity implements IComponentA
 	}
 
 	public void trigger() {
-		if (driver == null || driver instanceof ConstantDriver) {
-			driver = new SlideDriver(alpha, 0.0f, 0.3f);
+		// The drivers are kept and started again, so pooled entities can fade out without creating garbage.
+		if (driver != fadeDriver) {
+			fadeDriver.reset(alpha, 0.0f);
+			driver = fadeDriver;
 		}
 	}
 
@@ -73,6 +79,13 @@ public class ComponentRemoveFade extends IComponentEntity implements IComponentA
 		return null;
 	}
 
+	@Override
+	public void reset() {
+		alpha = 1.0f;
+		visibleDriver.reset();
+		driver = visibleDriver;
+	}
+
 	@Override
 	public void dispose() {
 	}
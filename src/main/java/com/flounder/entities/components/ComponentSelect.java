@@ -6,6 +6,7 @@ import com.flounder.shaders.*;
 
 import javax.swing.*;
 
+@IComponentEntity.Local
 public class ComponentSelect extends IComponentEntity implements IComponentRender, IComponentEditor {
 	private boolean selected;
 
@@ -11,6 +11,7 @@ import java.awt.event.*;
 /**
  * Creates a set of lighting data for a entity.
  */
+@IComponentEntity.Local
 public class ComponentSurface extends IComponentEntity implements IComponentRender, IComponentEditor {
 	private float shineDamper;
 	private float reflectivity;
@@ -13,6 +13,7 @@ import javax.swing.*;
 import java.awt.event.*;
 import java.io.*;
 
+@IComponentEntity.Local
 public class ComponentSway extends IComponentEntity implements IComponentRender, IComponentEditor {
 	private TextureObject textureSway;
 
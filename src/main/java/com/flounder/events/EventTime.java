@@ -30,6 +30,15 @@ public abstract class EventTime implements IEvent {
 		return false;
 	}
 
+	/**
+	 * Gets the time the event will next be triggered at, used to schedule the event instead of checking it every update. (Milliseconds).
+	 *
+	 * @return The time the event will trigger.
+	 */
+	protected double getTriggerTime() {
+		return timer.getEndTime();
+	}
+
 	@Override
 	public boolean removeAfterEvent() {
 		return !repeat;
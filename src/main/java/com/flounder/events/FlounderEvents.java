@@ -3,13 +3,19 @@ package com.flounder.events;
 import com.flounder.framework.*;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
- * A module used for managing events on framework updates.
+ * A module used for managing events on framework updates. Timed events are scheduled in a timer wheel so only expired timers are checked,
+ * all other events are checked every update. Events can be added and removed from any thread, changes are applied at the start of the next update.
  */
 public class FlounderEvents extends com.flounder.framework.Module {
 	private List<IEvent> events;
-	private List<IEvent> clones;
+	private TimerWheel<EventTime> timers;
+	private Map<EventTime, TimerWheel.Entry<EventTime>> timerEntries;
+	private List<EventTime> expired;
+
+	private ConcurrentLinkedQueue<Change> changes;
 
 	/**
 	 * Creates a new event manager.
@@ -21,23 +27,93 @@ public class FlounderEvents extends com.flounder.framework.Module {
 	@Handler.Function(Handler.FLAG_INIT)
 	public void init() {
 		this.events = new ArrayList<>();
-		this.clones = new ArrayList<>();
+		this.timers = new TimerWheel<>(getTick());
+		this.timerEntries = new IdentityHashMap<>();
+		this.expired = new ArrayList<>();
+
+		this.changes = new ConcurrentLinkedQueue<>();
 	}
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
 	public void update() {
-		clones.clear();
-		clones.addAll(events);
+		applyChanges();
+
+		// Checks polled events, removed events are dropped by moving the kept events down.
+		int size = events.size();
+		int kept = 0;
+
+		for (int i = 0; i < size; i++) {
+			IEvent event = events.get(i);
 
-		clones.forEach(event -> {
 			if (event.eventTriggered()) {
 				event.onEvent();
 
 				if (event.removeAfterEvent()) {
+					continue;
+				}
+			}
+
+			events.set(kept++, event);
+		}
+
+		events.subList(kept, size).clear();
+
+		// Checks timed events that have expired, these are put back into the wheel if they repeat.
+		timers.advance(getTick(), expired);
+
+		for (EventTime event : expired) {
+			timerEntries.remove(event);
+
+			if (event.eventTriggered()) {
+				event.onEvent();
+
+				if (event.removeAfterEvent()) {
+					continue;
+				}
+			}
+
+			schedule(event);
+		}
+
+		expired.clear();
+	}
+
+	/**
+	 * Moves events that have been added or removed since the last update into the event lists.
+	 */
+	private void applyChanges() {
+		Change change;
+
+		while ((change = changes.poll()) != null) {
+			IEvent event = change.event;
+
+			if (change.add) {
+				if (!(event instanceof EventTime)) {
+					events.add(event);
+				} else if (!timerEntries.containsKey(event)) {
+					schedule((EventTime) event);
+				}
+			} else {
+				if (!(event instanceof EventTime)) {
 					events.remove(event);
+				} else {
+					TimerWheel.Entry<EventTime> entry = timerEntries.remove(event);
+
+					if (entry != null) {
+						timers.cancel(entry);
+					}
 				}
 			}
-		});
+		}
+	}
+
+	private void schedule(EventTime event) {
+		long tick = (long) Math.floor(event.getTriggerTime()) + 1;
+		timerEntries.put(event, timers.schedule(event, tick));
+	}
+
+	private static long getTick() {
+		return (long) Math.floor(Framework.get().getTimeMs());
 	}
 
 	/**
@@ -46,7 +122,7 @@ public class FlounderEvents extends com.flounder.framework.Module {
 	 * @param event The event to add.
 	 */
 	public void addEvent(IEvent event) {
-		this.events.add(event);
+		this.changes.add(new Change(event, true));
 	}
 
 	/**
@@ -55,12 +131,37 @@ public class FlounderEvents extends com.flounder.framework.Module {
 	 * @param event The event to remove.
 	 */
 	public void removeEvent(IEvent event) {
-		this.events.remove(event);
+		this.changes.add(new Change(event, false));
+	}
+
+	/**
+	 * Gets the number of events being listened to, including timed events.
+	 *
+	 * @return The number of events.
+	 */
+	public int getEventCount() {
+		return events.size() + timers.size();
 	}
 
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
 		events.clear();
+		timers.clear();
+		timerEntries.clear();
+		changes.clear();
+	}
+
+	/**
+	 * A event being added or removed, kept in the order the changes were made.
+	 */
+	private static class Change {
+		private final IEvent event;
+		private final boolean add;
+
+		private Change(IEvent event, boolean add) {
+			this.event = event;
+			this.add = add;
+		}
 	}
 
 	@com.flounder.framework.Module.Instance
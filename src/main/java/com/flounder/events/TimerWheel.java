@@ -0,0 +1,208 @@
+package com.flounder.events;
+
+import java.util.*;
+
+/**
+ * A hierarchical timer wheel, scheduling and cancelling are O(1) and advancing only touches expired entries and the entries cascading down a level.
+ * Each level has 64 slots, the first level has a slot for every tick and each level above covers 64 times the range of the one below it.
+ * Entries are pooled and reused once they expire or are cancelled.
+ *
+ * @param <T> The type of value being scheduled.
+ */
+class TimerWheel<T> {
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+	private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	private Entry<T>[][] slots;
+	private Entry<T> pool;
+	private long currentTick;
+	private int size;
+
+	/**
+	 * Creates a new timer wheel.
+	 *
+	 * @param currentTick The tick the wheel starts at.
+	 */
+	@SuppressWarnings("unchecked")
+	TimerWheel(long currentTick) {
+		this.slots = (Entry<T>[][]) new Entry<?>[LEVELS][SLOTS];
+		this.pool = null;
+		this.currentTick = currentTick;
+		this.size = 0;
+	}
+
+	/**
+	 * Schedules a value to expire on a tick, ticks that have already passed will expire on the next advance.
+	 *
+	 * @param value The value to schedule.
+	 * @param tick The tick to expire on.
+	 *
+	 * @return The entry, used to cancel the value.
+	 */
+	Entry<T> schedule(T value, long tick) {
+		Entry<T> entry = pool;
+
+		if (entry != null) {
+			pool = entry.next;
+			entry.next = null;
+		} else {
+			entry = new Entry<>();
+		}
+
+		entry.value = value;
+		entry.tick = Math.max(tick, currentTick + 1);
+		insert(entry);
+		size++;
+		return entry;
+	}
+
+	/**
+	 * Removes a scheduled entry from the wheel, the entry is returned to the pool.
+	 *
+	 * @param entry The entry to cancel.
+	 */
+	void cancel(Entry<T> entry) {
+		if (entry.value == null) {
+			return;
+		}
+
+		unlink(entry);
+		release(entry);
+		size--;
+	}
+
+	/**
+	 * Advances the wheel up to a tick, adding all values that expired to a list.
+	 *
+	 * @param tick The tick to advance to.
+	 * @param expired The list to add expired values to.
+	 */
+	void advance(long tick, List<T> expired) {
+		while (currentTick < tick) {
+			// Skips over ticks when nothing is scheduled.
+			if (size == 0) {
+				currentTick = tick;
+				return;
+			}
+
+			currentTick++;
+
+			// Cascades entries down a level each time the level below wraps around.
+			for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+				int index = (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+				Entry<T> entry = slots[level][index];
+				slots[level][index] = null;
+
+				while (entry != null) {
+					Entry<T> next = entry.next;
+					entry.prev = null;
+					entry.next = null;
+					insert(entry);
+					entry = next;
+				}
+			}
+
+			int index = (int) currentTick & SLOT_MASK;
+			Entry<T> entry = slots[0][index];
+			slots[0][index] = null;
+
+			while (entry != null) {
+				Entry<T> next = entry.next;
+
+				// Entries scheduled past the range of the wheel are clamped to the top level, and put back in until they are due.
+				if (entry.tick > currentTick) {
+					entry.prev = null;
+					entry.next = null;
+					insert(entry);
+				} else {
+					expired.add(entry.value);
+					release(entry);
+					size--;
+				}
+
+				entry = next;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of values scheduled.
+	 *
+	 * @return The number of scheduled values.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all entries from the wheel.
+	 */
+	void clear() {
+		for (Entry<T>[] level : slots) {
+			Arrays.fill(level, null);
+		}
+
+		size = 0;
+	}
+
+	private void insert(Entry<T> entry) {
+		long delta = Math.min(entry.tick - currentTick, MAX_DELTA);
+		long tick = currentTick + Math.max(delta, 0);
+		int level = 0;
+
+		while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+			level++;
+		}
+
+		int index = (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+		entry.level = level;
+		entry.index = index;
+		entry.prev = null;
+		entry.next = slots[level][index];
+
+		if (entry.next != null) {
+			entry.next.prev = entry;
+		}
+
+		slots[level][index] = entry;
+	}
+
+	private void unlink(Entry<T> entry) {
+		if (entry.prev != null) {
+			entry.prev.next = entry.next;
+		} else {
+			slots[entry.level][entry.index] = entry.next;
+		}
+
+		if (entry.next != null) {
+			entry.next.prev = entry.prev;
+		}
+	}
+
+	private void release(Entry<T> entry) {
+		entry.value = null;
+		entry.prev = null;
+		entry.next = pool;
+		pool = entry;
+	}
+
+	/**
+	 * A value scheduled in the wheel.
+	 *
+	 * @param <T> The type of value being scheduled.
+	 */
+	static class Entry<T> {
+		private T value;
+		private long tick;
+		private int level;
+		private int index;
+		private Entry<T> prev;
+		private Entry<T> next;
+
+		private Entry() {
+		}
+	}
+}
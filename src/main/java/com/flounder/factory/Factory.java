@@ -42,6 +42,51 @@ public abstract class Factory {
 	 */
 	protected abstract void create(FactoryObject object, FactoryBuilder builder);
 
+	/**
+	 * Used to create part of the object, factories that can split large uploads into chunks override this. By default the full object is created.
+	 *
+	 * @param object The object to create for.
+	 * @param builder The builder to use parameters from.
+	 * @param maxBytes The max number of bytes that should be uploaded in this chunk.
+	 *
+	 * @return If the object has been fully created.
+	 */
+	protected boolean create(FactoryObject object, FactoryBuilder builder, long maxBytes) {
+		create(object, builder);
+		return true;
+	}
+
+	/**
+	 * Used to let go of a object that was partly created when its creation is cancelled, factories that create objects in chunks override this to
+	 * delete what was uploaded. By default nothing is done.
+	 *
+	 * @param object The partly created object.
+	 */
+	protected void cancel(FactoryObject object) {
+	}
+
+	/**
+	 * Gets how many bytes are left to be uploaded when creating a object, used by the OpenGL processor to estimate upload times.
+	 *
+	 * @param object The object being created.
+	 *
+	 * @return The number of bytes left to upload.
+	 */
+	protected long getUploadSize(FactoryObject object) {
+		return 0;
+	}
+
+	/**
+	 * Gets a estimate of how many bytes loading data for a builder will use, used by the resource processor to limit memory use.
+	 *
+	 * @param builder The builder to use parameters from.
+	 *
+	 * @return The estimated memory cost in bytes.
+	 */
+	protected long getLoadCost(FactoryBuilder builder) {
+		return 0;
+	}
+
 	/**
 	 * Gets a static list of all loaded factory objects. This is used to hold a list of already loaded objects to reduce load requests.
 	 *
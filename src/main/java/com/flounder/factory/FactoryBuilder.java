@@ -2,6 +2,7 @@ package com.flounder.factory;
 
 import com.flounder.logger.*;
 import com.flounder.processing.*;
+import com.flounder.processing.resource.*;
 
 import java.lang.ref.*;
 
@@ -10,6 +11,7 @@ import java.lang.ref.*;
  */
 public abstract class FactoryBuilder {
 	private Factory factory;
+	private int priority;
 
 	/**
 	 * Creates a new builder.
@@ -18,6 +20,28 @@ public abstract class FactoryBuilder {
 	 */
 	protected FactoryBuilder(Factory factory) {
 		this.factory = factory;
+		this.priority = RequestResource.PRIORITY_NORMAL;
+	}
+
+	/**
+	 * Sets the priority class the object will be loaded with.
+	 *
+	 * @param priority The priority, one of {@link RequestResource#PRIORITY_VISIBLE}, {@link RequestResource#PRIORITY_NORMAL}, or {@link RequestResource#PRIORITY_PREFETCH}.
+	 *
+	 * @return this.
+	 */
+	public FactoryBuilder setPriority(int priority) {
+		this.priority = priority;
+		return this;
+	}
+
+	/**
+	 * Gets the priority class the object will be loaded with.
+	 *
+	 * @return The load priority.
+	 */
+	public int getPriority() {
+		return priority;
 	}
 
 	/**
@@ -45,8 +69,9 @@ public abstract class FactoryBuilder {
 
 			factory.getLoaded().remove(name);
 			object = factory.newObject();
-			FlounderProcessors.get().sendRequest(new FactoryRequestLoad(name, factory, object, this));
-			factory.getLoaded().put(name, new SoftReference<>(object));
+			ref = new SoftReference<>(object);
+			factory.getLoaded().put(name, ref);
+			FlounderProcessors.get().sendRequest(new FactoryRequestLoad(name, factory, ref, this));
 		}
 
 		return object;
@@ -4,8 +4,8 @@ package com.flounder.factory;
  * The object the factory will be loading into.
  */
 public abstract class FactoryObject {
-	private boolean dataLoaded;
-	private boolean fullyLoaded;
+	private volatile boolean dataLoaded;
+	private volatile boolean fullyLoaded;
 
 	/**
 	 * Creates a new empty factory object.
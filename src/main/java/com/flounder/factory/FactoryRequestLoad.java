@@ -1,17 +1,19 @@
 package com.flounder.factory;
 
 import com.flounder.logger.*;
-import com.flounder.maths.*;
+import com.flounder.processing.*;
 import com.flounder.processing.opengl.*;
 import com.flounder.processing.resource.*;
 
+import java.lang.ref.*;
+
 /**
- * A class that can process a request to load a factory object.
+ * A class that can process a request to load a factory object. Data is loaded on a resource thread, then a OpenGL request is sent to create the object. The object is only softly referenced, if it is cleared from the factories loaded map before being processed the request is cancelled.
  */
-public class FactoryRequestLoad implements RequestResource, RequestOpenGL {
+public class FactoryRequestLoad implements RequestResource {
 	private String name;
 	private Factory factory;
-	private FactoryObject object;
+	private SoftReference<FactoryObject> reference;
 	private FactoryBuilder builder;
 
 	/**
@@ -19,46 +21,87 @@ public class FactoryRequestLoad implements RequestResource, RequestOpenGL {
 	 *
 	 * @param name The name of the object being loaded.
 	 * @param factory The factory to use when executing requests.
+	 * @param reference The reference to the object to load into, this is the same reference stored in the factories loaded map.
 	 * @param builder The builder to load from.
-	 * @param object The object to load into.
 	 */
-	protected FactoryRequestLoad(String name, Factory factory, FactoryObject object, FactoryBuilder builder) {
+	protected FactoryRequestLoad(String name, Factory factory, SoftReference<FactoryObject> reference, FactoryBuilder builder) {
 		this.name = name;
 		this.factory = factory;
-		this.object = object;
+		this.reference = reference;
 		this.builder = builder;
 	}
 
 	@Override
 	public void executeRequestResource() {
+		FactoryObject object = reference.get();
+
+		if (object == null) {
+			return;
+		}
+
 		// Loads resource data into the object.
 		factory.loadData(object, builder, name);
+
+		if (!object.isDataLoaded()) {
+			object.setFullyLoaded(false);
+			FlounderLogger.get().error("Factory request for " + name + " failed! The object will not be loaded!");
+			return;
+		}
+
+		// Sends the OpenGL stage now the data is ready, so the OpenGL processor never waits on resources.
+		FlounderProcessors.get().sendRequest(new RequestCreate());
 	}
 
 	@Override
-	public void executeRequestGL() {
-		Timer timer = null;
+	public int getPriority() {
+		return builder.getPriority();
+	}
 
-		while (object == null || !object.isDataLoaded()) {
-			if (timer == null) {
-				FlounderLogger.get().warning("Factory request for " + name + " is waiting for data!");
-				timer = new Timer(5.0); // Waits 5 seconds for data, if it stays unloaded then this object is not loaded.
-			}
+	@Override
+	public boolean isCancelled() {
+		return reference.get() == null;
+	}
 
-			if (timer.isPassedTime()) {
-				if (object != null) {
-					object.setDataLoaded(false);
-					object.setFullyLoaded(false);
+	@Override
+	public long getMemoryCost() {
+		return factory.getLoadCost(builder);
+	}
+
+	/**
+	 * A request that creates the object on the OpenGL thread, this is only sent once the objects data has been loaded.
+	 */
+	private class RequestCreate implements RequestOpenGLChunked {
+		private FactoryObject partial;
+
+		@Override
+		public boolean executeChunkGL(long maxBytes) {
+			FactoryObject object = reference.get();
+
+			if (object == null) {
+				// The object was deleted or cleared between chunks, so what was uploaded is let go of.
+				if (partial != null) {
+					factory.cancel(partial);
+					partial = null;
 				}
 
-				timer.resetStartTime();
-				FlounderLogger.get().error("Factory request for " + name + " failed! The object will not be loaded!");
+				return true;
 			}
 
-			// Wait for resources to load into data...
+			// Creates the object and sets as loaded once all chunks are uploaded, the object is held until then so a cleared reference can still be cancelled.
+			boolean completed = factory.create(object, builder, maxBytes);
+			partial = completed ? null : object;
+			return completed;
 		}
 
-		// Creates the object and sets as loaded.
-		factory.create(object, builder);
+		@Override
+		public long getUploadSize() {
+			FactoryObject object = reference.get();
+			return object == null ? 0 : factory.getUploadSize(object);
+		}
+
+		@Override
+		public Object getRequestType() {
+			return factory.getClass();
+		}
 	}
-}
\ No newline at end of file
+}
@@ -23,6 +23,11 @@ public class Framework {
 
 	private List<Module> modules = new ArrayList<>();
 	private List<Module> overrides = new ArrayList<>();
+	private Handler[][] dispatch;
+	private boolean dispatchChanged;
+	private ModuleScheduler scheduler;
+	private volatile Lookup lookup;
+	private int modCount;
 	private boolean initialized;
 	private boolean running;
 	private boolean error;
@@ -37,6 +42,19 @@ public class Framework {
 	 * @param extensions The extensions to load for the framework.
 	 */
 	public Framework(String unlocalizedName, IUpdater updater, int fpsLimit, Extension[] extensions) {
+		this(unlocalizedName, updater, fpsLimit, extensions, new Module[]{});
+	}
+
+	/**
+	 * Carries out the setup for basic framework components and the framework, with overrides that are used when loading modules. Call {@link #run()} after creating a instance.
+	 *
+	 * @param unlocalizedName The name to be used when determining where the roaming save files are saved.
+	 * @param updater The definition for how the framework will run.
+	 * @param fpsLimit The limit to FPS, (-1 disables limits).
+	 * @param extensions The extensions to load for the framework.
+	 * @param overrides The module overrides, these are added before any modules are loaded so overridden modules are never registered.
+	 */
+	public Framework(String unlocalizedName, IUpdater updater, int fpsLimit, Extension[] extensions, Module[] overrides) {
 		// Sets the static object to this new one.
 		Framework.INSTANCE = this;
 
@@ -52,6 +70,9 @@ public class Framework {
 		// Sets up the module and overrides lists.
 		this.modules = new ArrayList<>();
 		this.overrides = new ArrayList<>();
+		this.dispatch = new Handler[Handler.FLAGS.length][];
+		this.dispatchChanged = true;
+		addOverrides(overrides);
 
 		// Registers these modules as global, we do this as everyone loves these guys <3
 		registerModules(loadModule(FlounderLogger.class));
@@ -74,6 +95,10 @@ public class Framework {
 			FlounderLogger.get().exception(e);
 			requestClose(true);
 		} finally {
+			if (scheduler != null) {
+				scheduler.dispose();
+			}
+
 			if (error) {
 				new LoggerFrame().run();
 				System.exit(-1);
@@ -85,6 +110,7 @@ public class Framework {
 
 	public void addOverrides(Module... list) {
 		this.overrides.addAll(Arrays.asList(list));
+		changeDispatch();
 	}
 
 	/**
@@ -93,9 +119,83 @@ public class Framework {
 	 * @param flag The flag to run from.
 	 */
 	public void runHandlers(int flag) {
-		for (Module module : modules) {
-			module.getInstance().runHandler(flag);
+		int index = Handler.getFlagIndex(flag);
+
+		// Init and dispose are run once and can change the modules list, so they are not cached.
+		if (index == -1 || flag == Handler.FLAG_INIT || flag == Handler.FLAG_DISPOSE) {
+			for (Module module : modules) {
+				module.getInstance().runHandler(flag);
+			}
+
+			changeDispatch();
+			return;
+		}
+
+		if (dispatchChanged) {
+			rebuildDispatch();
+		}
+
+		if (scheduler != null && scheduler.isScheduled(flag)) {
+			scheduler.run(flag, modules);
+			return;
+		}
+
+		for (Handler handler : dispatch[index]) {
+			handler.run();
+		}
+	}
+
+	/**
+	 * Flattens the handlers of every module instance into a table for each flag, in the order modules are registered (dependencies first).
+	 */
+	private void rebuildDispatch() {
+		this.dispatchChanged = false;
+
+		for (int i = 0; i < Handler.FLAGS.length; i++) {
+			List<Handler> handlers = new ArrayList<>();
+
+			for (Module module : modules) {
+				handlers.addAll(Arrays.asList(module.getInstance().getHandlers(Handler.FLAGS[i])));
+			}
+
+			dispatch[i] = handlers.toArray(new Handler[0]);
+		}
+	}
+
+	/**
+	 * Marks the dispatch tables and module lookups to be rebuilt before they are next used, called when the modules, overrides, or handlers change.
+	 */
+	protected void changeDispatch() {
+		this.dispatchChanged = true;
+		this.lookup = null;
+		this.modCount++;
+
+		if (scheduler != null) {
+			scheduler.changeModules();
+		}
+	}
+
+	/**
+	 * Gets the scheduler used to run update handlers in parallel.
+	 *
+	 * @return The scheduler, or null if updates are run serially.
+	 */
+	public ModuleScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Sets the scheduler used to run update handlers in parallel.
+	 *
+	 * @param scheduler The new scheduler, or null to run updates serially.
+	 */
+	public void setScheduler(ModuleScheduler scheduler) {
+		if (this.scheduler != null && this.scheduler != scheduler) {
+			this.scheduler.dispose();
 		}
+
+		this.scheduler = scheduler;
+		changeDispatch();
 	}
 
 	/**
@@ -179,6 +279,22 @@ public class Framework {
 		return modules;
 	}
 
+	/**
+	 * Reverses the order of the modules, so modules are disposed before the modules they depend on.
+	 */
+	public void reverseModules() {
+		Collections.reverse(modules);
+		changeDispatch();
+	}
+
+	/**
+	 * Removes all of the registered modules.
+	 */
+	public void clearModules() {
+		modules.clear();
+		changeDispatch();
+	}
+
 	public List<Module> getOverrides() {
 		return overrides;
 	}
@@ -191,13 +307,7 @@ public class Framework {
 	 * @return The module.
 	 */
 	public Module getModule(Class object) {
-		for (Module module : modules) {
-			if (object.isInstance(module)) {
-				return module;
-			}
-		}
-
-		return null;
+		return getLookup().modules.get(object);
 	}
 
 	/**
@@ -208,13 +318,23 @@ public class Framework {
 	 * @return The module override.
 	 */
 	public Module getOverride(Class parent) {
-		for (Module module : overrides) {
-			if (!module.getClass().equals(parent) && parent.isInstance(module)) {
-				return module;
-			}
+		return getLookup().overrides.get(parent);
+	}
+
+	/**
+	 * Gets the lookup tables for modules and overrides, building them if the modules or overrides have changed.
+	 *
+	 * @return The module lookup tables.
+	 */
+	private Lookup getLookup() {
+		Lookup current = lookup;
+
+		if (current == null || current.modCount != modCount) {
+			current = new Lookup(modules, overrides, modCount);
+			lookup = current;
 		}
 
-		return null;
+		return current;
 	}
 
 	/**
@@ -319,6 +439,7 @@ public class Framework {
 
 		// Add the module temporally.
 		modules.add(module);
+		changeDispatch();
 
 		// Will load and init required modules if needed.
 		if (!containsModules(module.getDependencies())) {
@@ -328,6 +449,7 @@ public class Framework {
 			// Add the module to the modules list.
 			modules.remove(module);
 			modules.add(module);
+			changeDispatch();
 		}
 
 		// Initialize modules if needed,
@@ -485,4 +607,49 @@ public class Framework {
 	public static Framework get() {
 		return INSTANCE;
 	}
+
+	/**
+	 * Tables of modules and overrides keyed by every class and interface they are an instance of, so module lookups do not scan the modules list.
+	 */
+	private static class Lookup {
+		private final Map<Class, Module> modules;
+		private final Map<Class, Module> overrides;
+		private final int modCount;
+
+		private Lookup(List<Module> modules, List<Module> overrides, int modCount) {
+			this.modules = new IdentityHashMap<>();
+			this.overrides = new IdentityHashMap<>();
+			this.modCount = modCount;
+
+			// The first registered module that is an instance of a class is used, same as the order modules are searched.
+			for (Module module : modules) {
+				addTypes(this.modules, module.getClass(), module);
+			}
+
+			// Overrides are not used for their own class.
+			for (Module override : overrides) {
+				Module previous = this.overrides.get(override.getClass());
+				addTypes(this.overrides, override.getClass(), override);
+
+				if (previous == null) {
+					this.overrides.remove(override.getClass());
+				} else {
+					this.overrides.put(override.getClass(), previous);
+				}
+			}
+		}
+
+		private static void addTypes(Map<Class, Module> map, Class type, Module module) {
+			if (type == null) {
+				return;
+			}
+
+			map.putIfAbsent(type, module);
+			addTypes(map, type.getSuperclass(), module);
+
+			for (Class face : type.getInterfaces()) {
+				addTypes(map, face, module);
+			}
+		}
+	}
 }
@@ -3,6 +3,7 @@ package com.flounder.framework;
 import com.flounder.logger.*;
 
 import java.lang.annotation.*;
+import java.lang.invoke.*;
 import java.lang.reflect.*;
 
 /**
@@ -16,35 +17,84 @@ public class Handler {
 	public static final int FLAG_RENDER = 10;
 	public static final int FLAG_DISPOSE = -2;
 
+	/**
+	 * The flags that are given a dispatch table, ordered by {@link #getFlagIndex(int)}.
+	 */
+	protected static final int[] FLAGS = {FLAG_INIT, FLAG_UPDATE_ALWAYS, FLAG_UPDATE_PRE, FLAG_UPDATE_POST, FLAG_RENDER, FLAG_DISPOSE};
+
+	private static final MethodType METHOD_TYPE = MethodType.methodType(void.class);
+
 	private int flag;
 	private Method method;
 	private Module module;
+	private MethodHandle handle;
+	private boolean mainThread;
 	private boolean hasRun;
 
 	/**
-	 * Creates a new handler.
+	 * Creates a new handler that runs on the main thread.
 	 *
 	 * @param flag The handler flag.
 	 * @param method The reflect method to call when run.
 	 * @param module The module to run the method from.
 	 */
 	protected Handler(int flag, Method method, Module module) {
+		this(flag, method, module, true);
+	}
+
+	/**
+	 * Creates a new handler.
+	 *
+	 * @param flag The handler flag.
+	 * @param method The reflect method to call when run.
+	 * @param module The module to run the method from.
+	 * @param mainThread If the handler has to be run on the main thread, see {@link Function#mainThread()}.
+	 */
+	protected Handler(int flag, Method method, Module module, boolean mainThread) {
 		this.flag = flag;
 		this.method = method;
 		this.module = module;
+		this.handle = bind(method, module);
+		this.mainThread = mainThread;
 		this.hasRun = false;
 	}
 
+	/**
+	 * Resolves the method into a handle bound to the module, so no reflection is done when the handler is run.
+	 *
+	 * @param method The reflect method to bind.
+	 * @param module The module to bind the method to.
+	 *
+	 * @return The bound method handle, or null if the method could not be accessed and has to be invoked reflectively.
+	 */
+	private static MethodHandle bind(Method method, Module module) {
+		if (method == null || module == null) {
+			return null;
+		}
+
+		try {
+			method.setAccessible(true);
+			return MethodHandles.lookup().unreflect(method).bindTo(module).asType(METHOD_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			System.err.println("Handler method " + method.toString() + " could not be bound, it will be invoked reflectively!");
+			return null;
+		}
+	}
+
 	/**
 	 * Run the function method for this handler.
 	 */
 	protected void run() {
 		if (method != null && module != null) {
 			try {
-				method.invoke(module);
-			} catch (IllegalAccessException | InvocationTargetException e) {
+				if (handle != null) {
+					handle.invokeExact();
+				} else {
+					method.invoke(module);
+				}
+			} catch (Throwable e) {
 				FlounderLogger.get().error("Handler could not call method: " + method.toString());
-				FlounderLogger.get().exception(e);
+				FlounderLogger.get().exception(e instanceof Exception ? (Exception) e : new InvocationTargetException(e));
 				Framework.get().requestClose(true);
 			}
 
@@ -61,6 +111,50 @@ public class Handler {
 		return flag;
 	}
 
+	/**
+	 * Gets the index of a flag in the dispatch tables.
+	 *
+	 * @param flag The handler flag.
+	 *
+	 * @return The index of the flag, or -1 if the flag has no dispatch table.
+	 */
+	protected static int getFlagIndex(int flag) {
+		switch (flag) {
+			case FLAG_INIT:
+				return 0;
+			case FLAG_UPDATE_ALWAYS:
+				return 1;
+			case FLAG_UPDATE_PRE:
+				return 2;
+			case FLAG_UPDATE_POST:
+				return 3;
+			case FLAG_RENDER:
+				return 4;
+			case FLAG_DISPOSE:
+				return 5;
+			default:
+				return -1;
+		}
+	}
+
+	/**
+	 * Gets the module this handler runs from.
+	 *
+	 * @return The handlers module.
+	 */
+	protected Module getModule() {
+		return module;
+	}
+
+	/**
+	 * Gets if this handler has to be run on the main thread.
+	 *
+	 * @return If the handler is main thread only.
+	 */
+	protected boolean isMainThread() {
+		return mainThread;
+	}
+
 	/**
 	 * Gets if this handler has run at least once.
 	 *
@@ -77,5 +171,12 @@ public class Handler {
 	@Target(ElementType.METHOD)
 	public @interface Function {
 		int value();
+
+		/**
+		 * Gets if the function has to be run on the main thread. Update functions that only read modules they declare as dependencies, and whose own state is not changed by other threads (no OpenGL or GLFW calls), can set this to false, and may then be run in parallel by a {@link ModuleScheduler}.
+		 *
+		 * @return If the function is main thread only.
+		 */
+		boolean mainThread() default true;
 	}
 }
@@ -12,6 +12,7 @@ import java.util.*;
 public class Module<T extends com.flounder.framework.Module> {
 	private Class<T>[] dependencies;
 	private List<Handler> handlers;
+	private Handler[][] handlersByFlag;
 	private List<Extension> extensions;
 
 	private boolean extensionChange;
@@ -33,9 +34,55 @@ public class Module<T extends com.flounder.framework.Module> {
 			Handler.Function function = method.getAnnotation(Handler.Function.class);
 
 			if (function != null) {
-				this.handlers.add(new Handler(function.value(), method, this));
+				this.handlers.add(new Handler(function.value(), method, this, function.mainThread()));
 			}
 		}
+
+		rebuildHandlers();
+	}
+
+	/**
+	 * Sorts the handlers into arrays for each flag, so running a flag does not scan the handler list.
+	 */
+	private void rebuildHandlers() {
+		this.handlersByFlag = new Handler[Handler.FLAGS.length][];
+
+		for (int i = 0; i < Handler.FLAGS.length; i++) {
+			List<Handler> matches = new ArrayList<>();
+
+			for (Handler handler : handlers) {
+				if (handler.getFlag() == Handler.FLAGS[i]) {
+					matches.add(handler);
+				}
+			}
+
+			handlersByFlag[i] = matches.toArray(new Handler[0]);
+		}
+	}
+
+	/**
+	 * Gets the handlers for a flag.
+	 *
+	 * @param flag The flag to get handlers for.
+	 *
+	 * @return The handlers with the flag.
+	 */
+	protected Handler[] getHandlers(int flag) {
+		int index = Handler.getFlagIndex(flag);
+
+		if (index != -1) {
+			return handlersByFlag[index];
+		}
+
+		List<Handler> matches = new ArrayList<>();
+
+		for (Handler handler : handlers) {
+			if (handler.getFlag() == flag) {
+				matches.add(handler);
+			}
+		}
+
+		return matches.toArray(new Handler[0]);
 	}
 
 	/**
@@ -48,35 +95,28 @@ public class Module<T extends com.flounder.framework.Module> {
 	}
 
 	protected Handler getHandler(int flag) {
-		for (Handler handler : handlers) {
-			if (handler.getFlag() == flag) {
-				return handler;
-			}
-		}
-
-		return null;
+		Handler[] matches = getHandlers(flag);
+		return matches.length == 0 ? null : matches[0];
 	}
 
 	protected void runHandler(int flag) {
-		for (Handler handler : handlers) {
-			if (handler.getFlag() == flag) {
-				handler.run();
-			}
+		for (Handler handler : getHandlers(flag)) {
+			handler.run();
 		}
 	}
 
 	protected boolean hasHandlerRun(int flag) {
-		for (Handler handler : handlers) {
-			if (handler.getFlag() == flag) {
-				return handler.hasRun();
-			}
-		}
-
-		return false;
+		Handler handler = getHandler(flag);
+		return handler != null && handler.hasRun();
 	}
 
 	public void registerHandler(Handler handler) {
 		this.handlers.add(handler);
+		rebuildHandlers();
+
+		if (Framework.get() != null) {
+			Framework.get().changeDispatch();
+		}
 	}
 
 	/**
@@ -0,0 +1,315 @@
+package com.flounder.framework;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * A scheduler that runs the update handlers of independent modules in parallel. A graph is built from the dependencies declared by each module,
+ * handlers marked with {@link Handler.Function#mainThread()} as false are run on a fork join pool once the modules they depend on have updated,
+ * and all other handlers are run on the main thread in the order they were registered.
+ */
+public class ModuleScheduler {
+	private static final int[] FLAGS = {Handler.FLAG_UPDATE_PRE, Handler.FLAG_UPDATE_POST};
+
+	private ForkJoinPool pool;
+	private Phase[] phases;
+	private boolean changed;
+
+	/**
+	 * Creates a new scheduler using one less thread than available processors.
+	 */
+	public ModuleScheduler() {
+		this(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1));
+	}
+
+	/**
+	 * Creates a new scheduler.
+	 *
+	 * @param parallelism The number of worker threads to run handlers on.
+	 */
+	public ModuleScheduler(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.phases = new Phase[FLAGS.length];
+		this.changed = true;
+	}
+
+	/**
+	 * Gets if a flag is run by the scheduler.
+	 *
+	 * @param flag The handler flag.
+	 *
+	 * @return If the flag is scheduled.
+	 */
+	public boolean isScheduled(int flag) {
+		return getPhaseIndex(flag) != -1;
+	}
+
+	/**
+	 * Runs the handlers for a flag, returning once all of them have run.
+	 *
+	 * @param flag The flag to run from.
+	 * @param modules The registered modules, in the order they were registered.
+	 */
+	protected void run(int flag, List<Module> modules) {
+		if (changed) {
+			for (int i = 0; i < FLAGS.length; i++) {
+				phases[i] = new Phase(FLAGS[i], modules);
+			}
+
+			changed = false;
+		}
+
+		phases[getPhaseIndex(flag)].run(pool);
+	}
+
+	/**
+	 * Marks the module graph to be rebuilt before the next run.
+	 */
+	protected void changeModules() {
+		this.changed = true;
+	}
+
+	/**
+	 * Gets the time the last run of a phase took on the main thread (milliseconds).
+	 *
+	 * @param flag The handler flag.
+	 *
+	 * @return The wall time of the phase.
+	 */
+	public float getWallTime(int flag) {
+		Phase phase = getPhase(flag);
+		return phase == null ? 0.0f : phase.wallTime / 1000000.0f;
+	}
+
+	/**
+	 * Gets the time the last run of a phase would have taken if every handler was run one after another (milliseconds).
+	 *
+	 * @param flag The handler flag.
+	 *
+	 * @return The serial time of the phase.
+	 */
+	public float getSerialTime(int flag) {
+		Phase phase = getPhase(flag);
+		return phase == null ? 0.0f : phase.serialTime / 1000000.0f;
+	}
+
+	/**
+	 * Gets the longest chain of dependent handlers in the last run of a phase (milliseconds), this is the fastest the phase can be run with unlimited threads.
+	 *
+	 * @param flag The handler flag.
+	 *
+	 * @return The critical path time of the phase.
+	 */
+	public float getCriticalPathTime(int flag) {
+		Phase phase = getPhase(flag);
+		return phase == null ? 0.0f : phase.criticalPathTime / 1000000.0f;
+	}
+
+	private Phase getPhase(int flag) {
+		int index = getPhaseIndex(flag);
+		return index == -1 ? null : phases[index];
+	}
+
+	private static int getPhaseIndex(int flag) {
+		for (int i = 0; i < FLAGS.length; i++) {
+			if (FLAGS[i] == flag) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Shuts down the worker threads.
+	 */
+	public void dispose() {
+		pool.shutdown();
+	}
+
+	/**
+	 * The graph of module handlers for a single flag.
+	 */
+	private static class Phase {
+		private Node[] nodes;
+		private AtomicInteger remaining;
+		private Thread mainThread;
+
+		private long wallTime;
+		private long serialTime;
+		private long criticalPathTime;
+
+		private Phase(int flag, List<Module> modules) {
+			List<Node> list = new ArrayList<>();
+			Node lastMain = null;
+
+			// Modules are registered after their dependencies, so the nodes are created in topological order.
+			for (Module module : modules) {
+				Module instance = module.getInstance();
+				Handler[] handlers = instance.getHandlers(flag);
+
+				if (handlers.length == 0) {
+					continue;
+				}
+
+				Node node = new Node(instance, handlers);
+				Set<Module> dependencies = getDependencies(instance, modules, new HashSet<>());
+
+				for (Node other : list) {
+					if (dependencies.contains(other.module)) {
+						node.addDependency(other);
+					}
+				}
+
+				// Main thread handlers keep the order they were registered in.
+				if (node.mainThread) {
+					if (lastMain != null) {
+						node.addDependency(lastMain);
+					}
+
+					lastMain = node;
+				}
+
+				list.add(node);
+			}
+
+			this.nodes = list.toArray(new Node[0]);
+			this.remaining = new AtomicInteger();
+		}
+
+		/**
+		 * Finds all modules a module depends on, including the dependencies of its dependencies.
+		 */
+		private static Set<Module> getDependencies(Module module, List<Module> modules, Set<Module> result) {
+			for (Class dependency : module.getDependencies()) {
+				for (Module other : modules) {
+					if (dependency.isInstance(other)) {
+						Module instance = other.getInstance();
+
+						if (result.add(instance)) {
+							getDependencies(instance, modules, result);
+						}
+
+						break;
+					}
+				}
+			}
+
+			return result;
+		}
+
+		private void run(ForkJoinPool pool) {
+			long start = System.nanoTime();
+			this.mainThread = Thread.currentThread();
+			remaining.set(nodes.length);
+
+			for (Node node : nodes) {
+				node.pending.set(node.dependencies.size());
+			}
+
+			for (Node node : nodes) {
+				if (!node.mainThread && node.pending.get() == 0) {
+					pool.execute(() -> runNode(node, pool));
+				}
+			}
+
+			// Runs main thread handlers once their dependencies have finished.
+			for (Node node : nodes) {
+				if (node.mainThread) {
+					while (node.pending.get() > 0) {
+						LockSupport.park(this);
+					}
+
+					runNode(node, pool);
+				}
+			}
+
+			while (remaining.get() > 0) {
+				LockSupport.park(this);
+			}
+
+			this.wallTime = System.nanoTime() - start;
+			calculateTimes();
+		}
+
+		private void runNode(Node node, ForkJoinPool pool) {
+			long start = System.nanoTime();
+
+			for (Handler handler : node.handlers) {
+				handler.run();
+			}
+
+			node.time = System.nanoTime() - start;
+
+			for (Node dependent : node.dependents) {
+				if (dependent.pending.decrementAndGet() == 0) {
+					if (dependent.mainThread) {
+						LockSupport.unpark(mainThread);
+					} else {
+						pool.execute(() -> runNode(dependent, pool));
+					}
+				}
+			}
+
+			if (remaining.decrementAndGet() == 0) {
+				LockSupport.unpark(mainThread);
+			}
+		}
+
+		private void calculateTimes() {
+			this.serialTime = 0;
+			this.criticalPathTime = 0;
+
+			for (Node node : nodes) {
+				long longestDependency = 0;
+
+				for (Node dependency : node.dependencies) {
+					longestDependency = Math.max(longestDependency, dependency.finishTime);
+				}
+
+				node.finishTime = longestDependency + node.time;
+				serialTime += node.time;
+				criticalPathTime = Math.max(criticalPathTime, node.finishTime);
+			}
+		}
+	}
+
+	/**
+	 * A module and its handlers for a flag in the graph.
+	 */
+	private static class Node {
+		private Module module;
+		private Handler[] handlers;
+		private boolean mainThread;
+		private List<Node> dependencies;
+		private List<Node> dependents;
+		private AtomicInteger pending;
+
+		private long time;
+		private long finishTime;
+
+		private Node(Module module, Handler[] handlers) {
+			this.module = module;
+			this.handlers = handlers;
+			this.mainThread = false;
+			this.dependencies = new ArrayList<>();
+			this.dependents = new ArrayList<>();
+			this.pending = new AtomicInteger();
+
+			for (Handler handler : handlers) {
+				if (handler.isMainThread()) {
+					this.mainThread = true;
+				}
+			}
+		}
+
+		private void addDependency(Node dependency) {
+			if (!dependencies.contains(dependency)) {
+				dependencies.add(dependency);
+				dependency.dependents.add(this);
+			}
+		}
+	}
+}
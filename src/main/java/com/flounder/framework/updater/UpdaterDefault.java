@@ -6,8 +6,6 @@ import com.flounder.maths.*;
 import com.flounder.maths.Timer;
 import com.flounder.platform.FlounderPlatform;
 
-import java.util.*;
-
 /**
  * The default updater for the framework.
  */
@@ -103,10 +101,10 @@ public class UpdaterDefault implements IUpdater {
 
 		FlounderLogger.get().warning("Disposing framework!"); // A new Framework object must be recreated if resetting the framework!
 
-		Collections.reverse(Framework.get().getModules());
+		Framework.get().reverseModules();
 		Framework.get().runHandlers(Handler.FLAG_DISPOSE);
 
-		Framework.get().getModules().clear();
+		Framework.get().clearModules();
 		Framework.get().setInitialized(false);
 	}
 
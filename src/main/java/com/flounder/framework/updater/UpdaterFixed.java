@@ -0,0 +1,228 @@
+package com.flounder.framework.updater;
+
+import com.flounder.framework.*;
+import com.flounder.logger.*;
+import com.flounder.platform.*;
+
+import java.util.concurrent.locks.*;
+
+/**
+ * A fixed timestep updater for the framework. Updates are run at a constant rate using a accumulator, and the thread is parked between deadlines instead of polling the timers.
+ * When a timing reference is passed in the updater will run headless, and will not use the platforms (GLFW) time.
+ */
+public class UpdaterFixed implements IUpdater {
+	private static final double MAX_FRAME_TIME = 0.25;
+
+	private TimingReference timing;
+	private double startTime;
+
+	private float timeOffset;
+	private double updateInterval;
+	private double renderInterval;
+	private int maxUpdateSteps;
+
+	private double accumulator;
+	private double lastFrameTime;
+	private double lastRenderTime;
+	private double nextRenderTime;
+	private float deltaRender;
+	private float alpha;
+
+	/**
+	 * Creates a new fixed updater, running 60 updates a second using the platforms timing.
+	 */
+	public UpdaterFixed() {
+		this(null, 60.0f, 5);
+	}
+
+	/**
+	 * Creates a new fixed updater.
+	 *
+	 * @param timing The timing reference to use, if null the platforms timing will be used.
+	 * @param updateRate The number of updates to run every second.
+	 * @param maxUpdateSteps The max amount of updates that can be run to catch up in one frame.
+	 */
+	public UpdaterFixed(TimingReference timing, float updateRate, int maxUpdateSteps) {
+		this.timing = timing;
+		this.timeOffset = 0.0f;
+		this.updateInterval = 1.0 / updateRate;
+		this.renderInterval = 1.0 / 60.0;
+		this.maxUpdateSteps = Math.max(maxUpdateSteps, 1);
+
+		this.accumulator = 0.0;
+		this.deltaRender = 0.0f;
+		this.alpha = 0.0f;
+	}
+
+	@Override
+	public void run() {
+		initialize();
+
+		while (Framework.get().isRunning()) {
+			if (Framework.get().isInitialized()) {
+				update();
+			}
+		}
+	}
+
+	private void initialize() {
+		if (Framework.get().isInitialized()) {
+			return;
+		}
+
+		// Uses the platform timing if the updater is not headless.
+		if (timing == null) {
+			this.timing = FlounderPlatform.get().getTiming();
+		}
+
+		// Sets basic updater info.
+		this.startTime = timing.getTime();
+		setFpsLimit(Framework.get().getFpsLimit());
+
+		// Initializes all modules.
+		Framework.get().runHandlers(Handler.FLAG_INIT);
+
+		// Logs initialize times.
+		FlounderLogger.get().init("Flounder Initialize & Load Time: " + FlounderLogger.ANSI_RED + getTimeSec() + FlounderLogger.ANSI_RESET + " seconds!");
+
+		// Sets the framework as initialized.
+		Framework.get().setInitialized(true);
+
+		// Starts the timings after loading, so the load time is not caught up on.
+		this.lastFrameTime = getTimeElapsed();
+		this.lastRenderTime = lastFrameTime;
+		this.nextRenderTime = lastFrameTime;
+	}
+
+	private void update() {
+		double currentTime = getTimeElapsed();
+		double frameTime = Math.min(currentTime - lastFrameTime, MAX_FRAME_TIME);
+		lastFrameTime = currentTime;
+		accumulator += frameTime;
+
+		// Updates the module when needed always.
+		Framework.get().runHandlers(Handler.FLAG_UPDATE_ALWAYS);
+
+		// Runs fixed updates until caught up, or the max steps is reached.
+		int steps = 0;
+
+		while (accumulator >= updateInterval && steps < maxUpdateSteps) {
+			// Updates the modules when needed before the entrance.
+			Framework.get().runHandlers(Handler.FLAG_UPDATE_PRE);
+
+			// Updates the modules when needed after the entrance.
+			Framework.get().runHandlers(Handler.FLAG_UPDATE_POST);
+
+			accumulator -= updateInterval;
+			steps++;
+		}
+
+		// Drops any time that could not be caught up on, this keeps updates deterministic under load.
+		if (accumulator >= updateInterval) {
+			accumulator %= updateInterval;
+		}
+
+		alpha = (float) (accumulator / updateInterval);
+
+		// Renders when needed.
+		if (isRenderUnlimited() || currentTime >= nextRenderTime) {
+			// Updates the render delta.
+			deltaRender = (float) (currentTime - lastRenderTime);
+			lastRenderTime = currentTime;
+			nextRenderTime = Math.max(nextRenderTime + renderInterval, currentTime);
+
+			// Updates the module when needed after the rendering.
+			Framework.get().runHandlers(Handler.FLAG_RENDER);
+		}
+
+		// Waits until the next update or render deadline.
+		if (!isRenderUnlimited()) {
+			double nextUpdateTime = currentTime + (updateInterval - accumulator);
+			double wait = Math.min(nextUpdateTime, nextRenderTime) - getTimeElapsed();
+
+			if (wait > 0.0) {
+				LockSupport.parkNanos((long) (wait * 1e9));
+			}
+		}
+	}
+
+	private boolean isRenderUnlimited() {
+		return Framework.get().getFpsLimit() == -1 || Framework.get().getFpsLimit() > 1000.0f;
+	}
+
+	@Override
+	public void dispose() {
+		if (!Framework.get().isInitialized()) {
+			return;
+		}
+
+		FlounderLogger.get().warning("Disposing framework!"); // A new Framework object must be recreated if resetting the framework!
+
+		Framework.get().reverseModules();
+		Framework.get().runHandlers(Handler.FLAG_DISPOSE);
+
+		Framework.get().clearModules();
+		Framework.get().setInitialized(false);
+	}
+
+	@Override
+	public float getTimeOffset() {
+		return timeOffset;
+	}
+
+	@Override
+	public void setTimeOffset(float timeOffset) {
+		this.timeOffset = timeOffset;
+	}
+
+	@Override
+	public float getDelta() {
+		return (float) updateInterval;
+	}
+
+	@Override
+	public float getDeltaRender() {
+		return deltaRender;
+	}
+
+	@Override
+	public void setFpsLimit(float fpsLimit) {
+		this.renderInterval = Math.abs(1.0f / fpsLimit);
+	}
+
+	/**
+	 * Gets how far between the last and next update the current render is, used to interpolate rendered states.
+	 *
+	 * @return The interpolation alpha, between 0 and 1.
+	 */
+	public float getAlpha() {
+		return alpha;
+	}
+
+	/**
+	 * Gets the time since the updater started in double precision, without the time offset.
+	 *
+	 * @return The elapsed time in seconds.
+	 */
+	private double getTimeElapsed() {
+		double time;
+
+		if (timing != null) {
+			time = timing.getTime();
+		} else {
+			time = System.nanoTime() * 1e-9;
+		}
+
+		return time - startTime;
+	}
+
+	@Override
+	public float getTimeSec() {
+		return (float) getTimeElapsed() + timeOffset;
+	}
+
+	@Override
+	public float getTimeMs() {
+		return getTimeSec() * 1000.0f;
+	}
+}
@@ -458,6 +458,11 @@ public class FlounderLoader extends com.flounder.framework.Module {
 
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
+		// Nothing was loaded into OpenGL, this is always the case when running headless.
+		if (vaoCache.isEmpty()) {
+			return;
+		}
+
 		glDisableVertexAttribArray(0);
 		glBindBuffer(GL_ARRAY_BUFFER, 0);
 		glBindVertexArray(0);
@@ -40,6 +40,15 @@ public class Timer {
 		startTime = Framework.get().getTimeMs();
 	}
 
+	/**
+	 * Gets the time the interval will be passed at. (Milliseconds).
+	 *
+	 * @return The timers end time.
+	 */
+	public double getEndTime() {
+		return startTime + interval;
+	}
+
 	/**
 	 * Gets what the interval is. (Seconds).
 	 *
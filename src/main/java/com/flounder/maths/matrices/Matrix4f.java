@@ -297,7 +297,13 @@ public class Matrix4f {
 	 * @return Returns the transformation matrix.
 	 */
 	public static Matrix4f transformationMatrix(Vector2f translation, float scale, Matrix4f destination) {
-		return transformationMatrix(translation, REUSABLE_SCALE_VECTOR.set(scale, scale, scale), destination);
+		if (destination == null) {
+			destination = new Matrix4f();
+		}
+
+		destination.setIdentity();
+		Matrix4f.translate(destination, translation, destination);
+		return scale(destination, scale, scale, scale, destination);
 	}
 
 	/**
@@ -355,18 +361,22 @@ public class Matrix4f {
 			destination = new Matrix4f();
 		}
 
-		destination.m00 = left.m00 * right.x;
-		destination.m01 = left.m01 * right.x;
-		destination.m02 = left.m02 * right.x;
-		destination.m03 = left.m03 * right.x;
-		destination.m10 = left.m10 * right.y;
-		destination.m11 = left.m11 * right.y;
-		destination.m12 = left.m12 * right.y;
-		destination.m13 = left.m13 * right.y;
-		destination.m20 = left.m20 * right.z;
-		destination.m21 = left.m21 * right.z;
-		destination.m22 = left.m22 * right.z;
-		destination.m23 = left.m23 * right.z;
+		return scale(left, right.x, right.y, right.z, destination);
+	}
+
+	private static Matrix4f scale(Matrix4f left, float x, float y, float z, Matrix4f destination) {
+		destination.m00 = left.m00 * x;
+		destination.m01 = left.m01 * x;
+		destination.m02 = left.m02 * x;
+		destination.m03 = left.m03 * x;
+		destination.m10 = left.m10 * y;
+		destination.m11 = left.m11 * y;
+		destination.m12 = left.m12 * y;
+		destination.m13 = left.m13 * y;
+		destination.m20 = left.m20 * z;
+		destination.m21 = left.m21 * z;
+		destination.m22 = left.m22 * z;
+		destination.m23 = left.m23 * z;
 		return destination;
 	}
 
@@ -390,7 +400,7 @@ public class Matrix4f {
 	 * @return Returns the transformation matrix.
 	 */
 	public static Matrix4f transformationMatrix(Vector3f translation, Vector3f rotation, float scale, Matrix4f destination) {
-		return transformationMatrix(translation, rotation, REUSABLE_SCALE_VECTOR.set(scale, scale, scale), destination);
+		return transformationMatrix(translation, rotation, scale, scale, scale, destination);
 	}
 
 	/**
@@ -404,6 +414,11 @@ public class Matrix4f {
 	 * @return Returns the transformation matrix.
 	 */
 	public static Matrix4f transformationMatrix(Vector3f translation, Vector3f rotation, Vector3f scale, Matrix4f destination) {
+		return scale == null ? transformationMatrix(translation, rotation, 1.0f, 1.0f, 1.0f, destination) : transformationMatrix(translation, rotation, scale.x, scale.y, scale.z, destination);
+	}
+
+	// Does not use shared vectors, so matrices can be built on many threads at once.
+	private static Matrix4f transformationMatrix(Vector3f translation, Vector3f rotation, float scaleX, float scaleY, float scaleZ, Matrix4f destination) {
 		if (destination == null) {
 			destination = new Matrix4f();
 		}
@@ -415,14 +430,14 @@ public class Matrix4f {
 		}
 
 		if (rotation != null && rotation.lengthSquared() != 0.0f) {
-			Matrix4f.rotate(destination, REUSABLE_VECTOR.set(1.0f, 0.0f, 0.0f), (float) Math.toRadians(rotation.x), destination); // Rotate the X component.
-			Matrix4f.rotate(destination, REUSABLE_VECTOR.set(0.0f, 1.0f, 0.0f), (float) Math.toRadians(rotation.y), destination); // Rotate the Y component.
-			Matrix4f.rotate(destination, REUSABLE_VECTOR.set(0.0f, 0.0f, 1.0f), (float) Math.toRadians(rotation.z), destination); // Rotate the Z component.
+			rotate(destination, 1.0f, 0.0f, 0.0f, (float) Math.toRadians(rotation.x), destination); // Rotate the X component.
+			rotate(destination, 0.0f, 1.0f, 0.0f, (float) Math.toRadians(rotation.y), destination); // Rotate the Y component.
+			rotate(destination, 0.0f, 0.0f, 1.0f, (float) Math.toRadians(rotation.z), destination); // Rotate the Z component.
 		}
 
 		// Only scales if there is a scale.
-		if (scale != null && scale.x != 1.0f && scale.y != 1.0f && scale.z != 1.0f) {
-			Matrix4f.scale(destination, scale, destination);
+		if (scaleX != 1.0f && scaleY != 1.0f && scaleZ != 1.0f) {
+			scale(destination, scaleX, scaleY, scaleZ, destination);
 		}
 
 		return destination;
@@ -464,25 +479,29 @@ public class Matrix4f {
 			destination = new Matrix4f();
 		}
 
+		return rotate(source, axis.x, axis.y, axis.z, angle, destination);
+	}
+
+	private static Matrix4f rotate(Matrix4f source, float x, float y, float z, float angle, Matrix4f destination) {
 		float c = (float) Math.cos(angle);
 		float s = (float) Math.sin(angle);
 		float o = 1.0f - c;
-		float xy = axis.x * axis.y;
-		float yz = axis.y * axis.z;
-		float xz = axis.x * axis.z;
-		float xs = axis.x * s;
-		float ys = axis.y * s;
-		float zs = axis.z * s;
-
-		float f00 = axis.x * axis.x * o + c;
+		float xy = x * y;
+		float yz = y * z;
+		float xz = x * z;
+		float xs = x * s;
+		float ys = y * s;
+		float zs = z * s;
+
+		float f00 = x * x * o + c;
 		float f01 = xy * o + zs;
 		float f02 = xz * o - ys;
 		float f10 = xy * o - zs;
-		float f11 = axis.y * axis.y * o + c;
+		float f11 = y * y * o + c;
 		float f12 = yz * o + xs;
 		float f20 = xz * o + ys;
 		float f21 = yz * o - xs;
-		float f22 = axis.z * axis.z * o + c;
+		float f22 = z * z * o + c;
 
 		float t00 = source.m00 * f00 + source.m10 * f01 + source.m20 * f02;
 		float t01 = source.m01 * f00 + source.m11 * f01 + source.m21 * f02;
@@ -582,24 +601,39 @@ public class Matrix4f {
 	 * @return A 16 float array.
 	 */
 	public static float[] toArray(Matrix4f matrix) {
-		float[] result = new float[16];
-		result[0] = matrix.m00;
-		result[1] = matrix.m01;
-		result[2] = matrix.m02;
-		result[3] = matrix.m03;
-		result[4] = matrix.m10;
-		result[5] = matrix.m11;
-		result[6] = matrix.m12;
-		result[7] = matrix.m13;
-		result[8] = matrix.m20;
-		result[9] = matrix.m21;
-		result[10] = matrix.m22;
-		result[11] = matrix.m23;
-		result[12] = matrix.m30;
-		result[13] = matrix.m31;
-		result[14] = matrix.m32;
-		result[15] = matrix.m33;
-		return result;
+		return toArray(matrix, null);
+	}
+
+	/**
+	 * Turns a 4x4 matrix into an array.
+	 *
+	 * @param matrix The matrix to turn into an array.
+	 * @param destination The destination array or null if a new array is to be created.
+	 *
+	 * @return A 16 float array.
+	 */
+	public static float[] toArray(Matrix4f matrix, float[] destination) {
+		if (destination == null) {
+			destination = new float[16];
+		}
+
+		destination[0] = matrix.m00;
+		destination[1] = matrix.m01;
+		destination[2] = matrix.m02;
+		destination[3] = matrix.m03;
+		destination[4] = matrix.m10;
+		destination[5] = matrix.m11;
+		destination[6] = matrix.m12;
+		destination[7] = matrix.m13;
+		destination[8] = matrix.m20;
+		destination[9] = matrix.m21;
+		destination[10] = matrix.m22;
+		destination[11] = matrix.m23;
+		destination[12] = matrix.m30;
+		destination[13] = matrix.m31;
+		destination[14] = matrix.m32;
+		destination[15] = matrix.m33;
+		return destination;
 	}
 
 	/**
@@ -40,6 +40,12 @@ public class ModelBuilder extends FactoryBuilder {
 		return this;
 	}
 
+	@Override
+	public ModelBuilder setPriority(int priority) {
+		super.setPriority(priority);
+		return this;
+	}
+
 	/**
 	 * Gets the source file.
 	 *
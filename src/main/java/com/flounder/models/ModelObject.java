@@ -61,7 +61,7 @@ public class ModelObject extends FactoryObject {
 		this.collider = collider;
 
 		if (vertices != null) {
-			this.quickHull.loadData(vertices);
+			this.quickHull.loadData(HullData.load(name, vertices));
 		}
 
 		setDataLoaded(true);
@@ -1,5 +1,6 @@
 package com.flounder.particles;
 
+import com.flounder.camera.*;
 import com.flounder.devices.*;
 import com.flounder.framework.*;
 import com.flounder.guis.*;
@@ -14,7 +15,8 @@ import java.lang.ref.*;
 import java.util.*;
 
 /**
- * A manager that manages particles.
+ * A manager that manages particles. The particle update reads only the camera and gui pause state, which are updated before it, so it is run off
+ * the main thread when a {@link ModuleScheduler} is set. Systems and particles can be added while it runs, so changes to the lists are synchronised.
  */
 public class FlounderParticles extends com.flounder.framework.Module {
 	public static final MyFile PARTICLES_FOLDER = new MyFile(MyFile.RES_FOLDER, "particles");
@@ -23,14 +25,14 @@ public class FlounderParticles extends com.flounder.framework.Module {
 	private Map<String, SoftReference<ParticleType>> loaded;
 
 	private List<ParticleSystem> particleSystems;
-	private List<StructureBasic<Particle>> particles;
+	private List<StructureHashGrid<Particle>> particles;
 	private List<Particle> deadParticles;
 
 	/**
 	 * Creates a new particle systems manager.
 	 */
 	public FlounderParticles() {
-		super(FlounderDisplay.class, FlounderLoader.class, FlounderTextures.class);
+		super(FlounderDisplay.class, FlounderLoader.class, FlounderTextures.class, FlounderCamera.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
@@ -42,9 +44,10 @@ public class FlounderParticles extends com.flounder.framework.Module {
 		this.deadParticles = new ArrayList<>();
 	}
 
-	@Handler.Function(Handler.FLAG_UPDATE_POST)
-	public void update() {
-		if (FlounderGuis.get().getGuiMaster().isGamePaused()) {
+	@Handler.Function(value = Handler.FLAG_UPDATE_POST, mainThread = false)
+	public synchronized void update() {
+		// Guis are not loaded when running headless.
+		if (FlounderGuis.get() != null && FlounderGuis.get().getGuiMaster().isGamePaused()) {
 			return;
 		}
 
@@ -53,16 +56,17 @@ public class FlounderParticles extends com.flounder.framework.Module {
 
 		// Update particles.
 		if (!particles.isEmpty()) {
-			for (StructureBasic<Particle> list : particles) {
-				Iterator<Particle> particleIterator = list.iterator();
-
-				while (particleIterator.hasNext()) {
-					Particle particle = particleIterator.next();
+			for (StructureHashGrid<Particle> list : particles) {
+				// Goes backwards as removed particles are replaced by the last particle.
+				for (int i = list.getSize() - 1; i >= 0; i--) {
+					Particle particle = list.get(i);
 					particle.update();
 
 					if (!particle.isAlive()) {
-						particleIterator.remove();
+						list.remove(particle);
 						deadParticles.add(particle);
+					} else {
+						list.update(particle);
 					}
 				}
 			}
@@ -88,7 +92,7 @@ public class FlounderParticles extends com.flounder.framework.Module {
 	/**
 	 * Clears all particles from the scene.
 	 */
-	public void clear() {
+	public synchronized void clear() {
 		this.particles.clear();
 	}
 
@@ -97,7 +101,7 @@ public class FlounderParticles extends com.flounder.framework.Module {
 	 *
 	 * @param system The new system to add.
 	 */
-	public void addSystem(ParticleSystem system) {
+	public synchronized void addSystem(ParticleSystem system) {
 		this.particleSystems.add(system);
 	}
 
@@ -106,7 +110,7 @@ public class FlounderParticles extends com.flounder.framework.Module {
 	 *
 	 * @param system The system to remove.
 	 */
-	public void removeSystem(ParticleSystem system) {
+	public synchronized void removeSystem(ParticleSystem system) {
 		this.particleSystems.remove(system);
 	}
 
@@ -115,7 +119,7 @@ public class FlounderParticles extends com.flounder.framework.Module {
 	 *
 	 * @return All particles.
 	 */
-	protected List<StructureBasic<Particle>> getParticles() {
+	protected List<StructureHashGrid<Particle>> getParticles() {
 		return this.particles;
 	}
 
@@ -130,7 +134,7 @@ public class FlounderParticles extends com.flounder.framework.Module {
 	 * @param scale The particles scale.
 	 * @param gravityEffect The particles gravity effect.
 	 */
-	public void addParticle(ParticleType particleType, Vector3f position, Vector3f velocity, float lifeLength, float rotation, float scale, float gravityEffect) {
+	public synchronized void addParticle(ParticleType particleType, Vector3f position, Vector3f velocity, float lifeLength, float rotation, float scale, float gravityEffect) {
 		Particle particle;
 
 		if (deadParticles.size() > 0) {
@@ -140,21 +144,22 @@ public class FlounderParticles extends com.flounder.framework.Module {
 			particle = new Particle(particleType, position, velocity, lifeLength, rotation, scale, gravityEffect);
 		}
 
-		for (StructureBasic<Particle> list : particles) {
+		for (StructureHashGrid<Particle> list : particles) {
 			if (list.getSize() > 0 && list.get(0).getParticleType().equals(particle.getParticleType())) {
 				list.add(particle);
 				return;
 			}
 		}
 
-		StructureBasic<Particle> list = new StructureBasic<>();
+		// Particles of a type are all the same size, so cells are sized to fit a few of them.
+		StructureHashGrid<Particle> list = new StructureHashGrid<>(2.0f * particle.getParticleType().getScale());
 		list.add(particle);
 		particles.add(list);
 	}
 
 
 	@Handler.Function(Handler.FLAG_DISPOSE)
-	public void dispose() {
+	public synchronized void dispose() {
 		loaded.clear();
 
 		particleSystems.clear();
@@ -31,11 +31,13 @@ public class ParticleRenderer extends Renderer {
 	private static final int VBO = FlounderLoader.get().createEmptyVBO(INSTANCE_DATA_LENGTH * MAX_INSTANCES);
 
 	private ShaderObject shader;
+	private List<Particle> particles;
 	private int pointer;
 	private int rendered;
 
 	public ParticleRenderer() {
 		this.shader = ShaderFactory.newBuilder().setName("particles").addType(new ShaderType(GL_VERTEX_SHADER, VERTEX_SHADER)).addType(new ShaderType(GL_FRAGMENT_SHADER, FRAGMENT_SHADER)).create();
+		this.particles = new ArrayList<>();
 		this.pointer = 0;
 		this.rendered = 0;
 
@@ -56,8 +58,9 @@ public class ParticleRenderer extends Renderer {
 
 		prepareRendering(clipPlane, camera);
 
-		for (StructureBasic<Particle> list : FlounderParticles.get().getParticles()) {
-			List<Particle> particles = list.queryInFrustum(camera.getViewFrustum(), null);
+		for (StructureHashGrid<Particle> list : FlounderParticles.get().getParticles()) {
+			particles.clear();
+			list.queryInFrustum(camera.getViewFrustum(), particles);
 
 			if (particles.size() > 0) {
 				// Added to particles first -> last, so no initial reverse needed.
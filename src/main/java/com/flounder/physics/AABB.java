@@ -1,6 +1,7 @@
 package com.flounder.physics;
 
 import com.flounder.maths.*;
+import com.flounder.maths.matrices.*;
 import com.flounder.maths.vectors.*;
 import com.flounder.models.*;
 import com.flounder.resources.*;
@@ -101,6 +102,33 @@ public class AABB extends Collider {
 		return aabb;
 	}
 
+	@Override
+	public Collider update(Matrix4f modelMatrix, Collider destination) {
+		if (destination == null || !(destination instanceof AABB)) {
+			destination = new AABB();
+		}
+
+		AABB aabb = (AABB) destination;
+		float cx = (minExtents.x + maxExtents.x) * 0.5f;
+		float cy = (minExtents.y + maxExtents.y) * 0.5f;
+		float cz = (minExtents.z + maxExtents.z) * 0.5f;
+		float ex = (maxExtents.x - minExtents.x) * 0.5f;
+		float ey = (maxExtents.y - minExtents.y) * 0.5f;
+		float ez = (maxExtents.z - minExtents.z) * 0.5f;
+
+		// The centre is transformed, and each new half extent is the sum of the old extents along the transformed axes.
+		float x = modelMatrix.m00 * cx + modelMatrix.m10 * cy + modelMatrix.m20 * cz + modelMatrix.m30;
+		float y = modelMatrix.m01 * cx + modelMatrix.m11 * cy + modelMatrix.m21 * cz + modelMatrix.m31;
+		float z = modelMatrix.m02 * cx + modelMatrix.m12 * cy + modelMatrix.m22 * cz + modelMatrix.m32;
+		float hx = Math.abs(modelMatrix.m00) * ex + Math.abs(modelMatrix.m10) * ey + Math.abs(modelMatrix.m20) * ez;
+		float hy = Math.abs(modelMatrix.m01) * ex + Math.abs(modelMatrix.m11) * ey + Math.abs(modelMatrix.m21) * ez;
+		float hz = Math.abs(modelMatrix.m02) * ex + Math.abs(modelMatrix.m12) * ey + Math.abs(modelMatrix.m22) * ez;
+
+		aabb.minExtents.set(x - hx, y - hy, z - hz);
+		aabb.maxExtents.set(x + hx, y + hy, z + hz);
+		return aabb;
+	}
+
 	@Override
 	public Vector3f resolveCollision(Collider other, Vector3f positionDelta, Vector3f destination) throws IllegalArgumentException {
 		if (destination == null) {
@@ -195,15 +223,15 @@ public class AABB extends Collider {
 				distanceSquared -= Math.pow(sphere.getPosition().x - maxExtents.x, 2);
 			}
 
-			if (sphere.getPosition().y < minExtents.x) {
+			if (sphere.getPosition().y < minExtents.y) {
 				distanceSquared -= Math.pow(sphere.getPosition().y - minExtents.y, 2);
-			} else if (sphere.getPosition().x > maxExtents.x) {
+			} else if (sphere.getPosition().y > maxExtents.y) {
 				distanceSquared -= Math.pow(sphere.getPosition().y - maxExtents.y, 2);
 			}
 
-			if (sphere.getPosition().z < minExtents.x) {
+			if (sphere.getPosition().z < minExtents.z) {
 				distanceSquared -= Math.pow(sphere.getPosition().z - minExtents.z, 2);
-			} else if (sphere.getPosition().z > maxExtents.x) {
+			} else if (sphere.getPosition().z > maxExtents.z) {
 				distanceSquared -= Math.pow(sphere.getPosition().z - maxExtents.z, 2);
 			}
 
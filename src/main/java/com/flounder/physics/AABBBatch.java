@@ -0,0 +1,295 @@
+package com.flounder.physics;
+
+import java.util.*;
+
+/**
+ * A batch of axis aligned boxes stored as a structure of arrays, so thousands of boxes can be tested against a range in one call. The tests loop
+ * over plain float arrays without branching, which lets the JIT compile them to SIMD instructions, and write the results into a bitset of longs.
+ * Separate ranges of a batch can be tested from separate threads, as long as the boxes are not changed while testing.
+ */
+public class AABBBatch {
+	private static final int BLOCK_SIZE = 64;
+
+	private float[] minX;
+	private float[] minY;
+	private float[] minZ;
+	private float[] maxX;
+	private float[] maxY;
+	private float[] maxZ;
+	private float[] reach;
+	private int size;
+
+	/**
+	 * Creates a new empty batch.
+	 */
+	public AABBBatch() {
+		this(BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates a new empty batch.
+	 *
+	 * @param capacity The number of boxes to allocate space for.
+	 */
+	public AABBBatch(int capacity) {
+		capacity = Math.max(capacity, 1);
+		this.minX = new float[capacity];
+		this.minY = new float[capacity];
+		this.minZ = new float[capacity];
+		this.maxX = new float[capacity];
+		this.maxY = new float[capacity];
+		this.maxZ = new float[capacity];
+		this.reach = new float[capacity];
+		this.size = 0;
+	}
+
+	/**
+	 * Makes sure the batch can hold a number of boxes without growing.
+	 *
+	 * @param capacity The number of boxes.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity <= minX.length) {
+			return;
+		}
+
+		capacity = Math.max(capacity, minX.length * 2);
+		minX = Arrays.copyOf(minX, capacity);
+		minY = Arrays.copyOf(minY, capacity);
+		minZ = Arrays.copyOf(minZ, capacity);
+		maxX = Arrays.copyOf(maxX, capacity);
+		maxY = Arrays.copyOf(maxY, capacity);
+		maxZ = Arrays.copyOf(maxZ, capacity);
+		reach = new float[capacity];
+	}
+
+	/**
+	 * Adds a box to the end of the batch.
+	 *
+	 * @param aabb The box to copy.
+	 *
+	 * @return The index of the box.
+	 */
+	public int add(AABB aabb) {
+		ensureCapacity(size + 1);
+		set(size, aabb);
+		return size++;
+	}
+
+	/**
+	 * Sets the number of boxes in the batch, boxes that have not been set keep their last values.
+	 *
+	 * @param size The number of boxes.
+	 */
+	public void setSize(int size) {
+		ensureCapacity(size);
+		this.size = size;
+	}
+
+	/**
+	 * Copies the extents of a box into the batch.
+	 *
+	 * @param index The index of the box.
+	 * @param aabb The box to copy.
+	 */
+	public void set(int index, AABB aabb) {
+		set(index, aabb.getMinExtents().x, aabb.getMinExtents().y, aabb.getMinExtents().z, aabb.getMaxExtents().x, aabb.getMaxExtents().y, aabb.getMaxExtents().z);
+	}
+
+	/**
+	 * Sets the extents of a box in the batch.
+	 *
+	 * @param index The index of the box.
+	 * @param x1 The minimum X.
+	 * @param y1 The minimum Y.
+	 * @param z1 The minimum Z.
+	 * @param x2 The maximum X.
+	 * @param y2 The maximum Y.
+	 * @param z2 The maximum Z.
+	 */
+	public void set(int index, float x1, float y1, float z1, float x2, float y2, float z2) {
+		minX[index] = x1;
+		minY[index] = y1;
+		minZ[index] = z1;
+		maxX[index] = x2;
+		maxY[index] = y2;
+		maxZ[index] = z2;
+	}
+
+	/**
+	 * Removes all boxes from the batch.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of boxes in the batch.
+	 *
+	 * @return The number of boxes.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Tests every box against a frustum, this gives the same results as {@link AABB#inFrustum(Frustum)}.
+	 *
+	 * @param frustum The frustum to test against.
+	 * @param destination The destination bitset or null if a new bitset is to be created, bit i is set if box i is partially in the frustum.
+	 *
+	 * @return The destination bitset.
+	 */
+	public long[] inFrustum(Frustum frustum, long[] destination) {
+		destination = createBits(size, destination);
+		inFrustum(frustum, 0, size, destination);
+		return destination;
+	}
+
+	/**
+	 * Tests a range of boxes against a frustum, the range is written in whole longs so ranges tested from separate threads can not overlap.
+	 *
+	 * @param frustum The frustum to test against.
+	 * @param from The first box to test, must be a multiple of 64.
+	 * @param to The box after the last box to test.
+	 * @param destination The bitset to write to, bits after the last box in the last long are cleared.
+	 *
+	 * @return The number of boxes in the frustum.
+	 */
+	public int inFrustum(Frustum frustum, int from, int to, long[] destination) throws IllegalArgumentException {
+		checkRange(from, to, destination);
+		float[][] planes = frustum.getFrustum();
+		Arrays.fill(reach, from, to, Float.POSITIVE_INFINITY);
+
+		// The corner furthest along the normal of each plane is tested, the box is outside if that corner is behind any plane.
+		for (int p = 0; p < 6; p++) {
+			float a = planes[p][0];
+			float b = planes[p][1];
+			float c = planes[p][2];
+			float d = planes[p][3];
+			float[] x = a >= 0.0f ? maxX : minX;
+			float[] y = b >= 0.0f ? maxY : minY;
+			float[] z = c >= 0.0f ? maxZ : minZ;
+
+			for (int i = from; i < to; i++) {
+				reach[i] = Math.min(reach[i], a * x[i] + b * y[i] + c * z[i] + d);
+			}
+		}
+
+		int count = 0;
+
+		for (int block = from; block < to; block += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, to - block);
+			long bits = 0;
+
+			// Sets the bit if the reach is above zero, without branching. Positive floats are positive as ints, zero and negatives are not.
+			for (int i = 0; i < length; i++) {
+				int value = Float.floatToRawIntBits(reach[block + i]);
+				bits |= (long) ((((value - 1) | value) >>> 31) ^ 1) << i;
+			}
+
+			destination[block >>> 6] = bits;
+			count += Long.bitCount(bits);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Tests every box against a range, this gives the same results as testing if the range intersects or contains each box.
+	 *
+	 * @param range The box to test against.
+	 * @param destination The destination bitset or null if a new bitset is to be created, bit i is set if box i is in the range.
+	 *
+	 * @return The destination bitset.
+	 */
+	public long[] inBounding(AABB range, long[] destination) {
+		destination = createBits(size, destination);
+		inBounding(range, 0, size, destination);
+		return destination;
+	}
+
+	/**
+	 * Tests a range of boxes against a box, the range is written in whole longs so ranges tested from separate threads can not overlap.
+	 *
+	 * @param range The box to test against.
+	 * @param from The first box to test, must be a multiple of 64.
+	 * @param to The box after the last box to test.
+	 * @param destination The bitset to write to, bits after the last box in the last long are cleared.
+	 *
+	 * @return The number of boxes in the range.
+	 */
+	public int inBounding(AABB range, int from, int to, long[] destination) throws IllegalArgumentException {
+		checkRange(from, to, destination);
+		float x1 = range.getMinExtents().x;
+		float y1 = range.getMinExtents().y;
+		float z1 = range.getMinExtents().z;
+		float x2 = range.getMaxExtents().x;
+		float y2 = range.getMaxExtents().y;
+		float z2 = range.getMaxExtents().z;
+		int count = 0;
+
+		for (int block = from; block < to; block += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, to - block);
+			long bits = 0;
+
+			for (int i = 0; i < length; i++) {
+				int j = block + i;
+
+				// Boxes overlap if they share more than a face, or one contains the other.
+				boolean intersects = x1 < maxX[j] & minX[j] < x2 & y1 < maxY[j] & minY[j] < y2 & z1 < maxZ[j] & minZ[j] < z2;
+				boolean contains = x1 <= minX[j] & maxX[j] <= x2 & y1 <= minY[j] & maxY[j] <= y2 & z1 <= minZ[j] & maxZ[j] <= z2;
+
+				if (intersects | contains) {
+					bits |= 1L << i;
+				}
+			}
+
+			destination[block >>> 6] = bits;
+			count += Long.bitCount(bits);
+		}
+
+		return count;
+	}
+
+	private void checkRange(int from, int to, long[] destination) throws IllegalArgumentException {
+		if ((from & (BLOCK_SIZE - 1)) != 0 || from < 0 || to > size || from > to) {
+			throw new IllegalArgumentException("Invalid batch range " + from + " to " + to + " of " + size + " boxes!");
+		}
+
+		if (destination.length < getBitsLength(to)) {
+			throw new IllegalArgumentException("Bitset of length " + destination.length + " is too small for " + to + " boxes!");
+		}
+	}
+
+	/**
+	 * Gets the number of longs needed to hold a bit for each box.
+	 *
+	 * @param count The number of boxes.
+	 *
+	 * @return The bitset length.
+	 */
+	public static int getBitsLength(int count) {
+		return (count + BLOCK_SIZE - 1) >>> 6;
+	}
+
+	/**
+	 * Gets if a bit is set in a bitset.
+	 *
+	 * @param bits The bitset.
+	 * @param index The index of the bit.
+	 *
+	 * @return If the bit is set.
+	 */
+	public static boolean isSet(long[] bits, int index) {
+		return (bits[index >>> 6] & (1L << index)) != 0;
+	}
+
+	private static long[] createBits(int count, long[] destination) {
+		if (destination == null || destination.length < getBitsLength(count)) {
+			return new long[getBitsLength(count)];
+		}
+
+		return destination;
+	}
+}
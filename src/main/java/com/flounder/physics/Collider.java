@@ -1,6 +1,7 @@
 package com.flounder.physics;
 
 import com.flounder.maths.*;
+import com.flounder.maths.matrices.*;
 import com.flounder.maths.vectors.*;
 import com.flounder.models.*;
 import com.flounder.physics.bounding.*;
@@ -21,6 +22,16 @@ public abstract class Collider {
 	 */
 	public abstract Collider update(Vector3f position, Vector3f rotation, float scale, Collider destination);
 
+	/**
+	 * Clones this collder into the destination and moves it by a model matrix, such as the world matrix of a entity.
+	 *
+	 * @param modelMatrix The model matrix.
+	 * @param destination The collider to store the new data in.
+	 *
+	 * @return The destination.
+	 */
+	public abstract Collider update(Matrix4f modelMatrix, Collider destination);
+
 	/**
 	 * Adjusts a movement amount so that after the move is performed, the this collider will not intersect the {@code right}.
 	 * This method assumes that this collider can actually intersect {@code right} after some amount of movement,
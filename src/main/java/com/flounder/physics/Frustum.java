@@ -22,11 +22,19 @@ public class Frustum {
 
 	private float[][] frustum;
 
+	private float[] proj;
+	private float[] view;
+	private float[] clip;
+
 	/**
 	 * Creates a new frustum.
 	 */
 	public Frustum() {
 		frustum = new float[6][4];
+
+		proj = new float[16];
+		view = new float[16];
+		clip = new float[16];
 	}
 
 	/**
@@ -36,9 +44,8 @@ public class Frustum {
 	 * @param viewMatrix The view matrix.
 	 */
 	public void recalculateFrustum(Matrix4f projection, Matrix4f viewMatrix) {
-		float[] proj = Matrix4f.toArray(projection);
-		float[] view = Matrix4f.toArray(viewMatrix);
-		float[] clip = new float[16];
+		Matrix4f.toArray(projection, proj);
+		Matrix4f.toArray(viewMatrix, view);
 
 		clip[0] = view[0] * proj[0] + view[1] * proj[4] + view[2] * proj[8] + view[3] * proj[12];
 		clip[1] = view[0] * proj[1] + view[1] * proj[5] + view[2] * proj[9] + view[3] * proj[13];
@@ -191,4 +198,31 @@ public class Frustum {
 
 		return true;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Is the cube fully contained in the frustum?
+	 *
+	 * @param x1 The point 1's X coord.
+	 * @param y1 The point 1's Y coord.
+	 * @param z1 The point 1's Z coord.
+	 * @param x2 The point 2's X coord.
+	 * @param y2 The point 2's Y coord.
+	 * @param z2 The point 2's Z coord.
+	 *
+	 * @return True if fully contained, false if partially contained or outside.
+	 */
+	public boolean cubeFullyInFrustum(float x1, float y1, float z1, float x2, float y2, float z2) {
+		for (int i = 0; i < 6; i++) {
+			// Tests the corner furthest behind the plane.
+			float x = frustum[i][0] >= 0.0f ? Math.min(x1, x2) : Math.max(x1, x2);
+			float y = frustum[i][1] >= 0.0f ? Math.min(y1, y2) : Math.max(y1, y2);
+			float z = frustum[i][2] >= 0.0f ? Math.min(z1, z2) : Math.max(z1, z2);
+
+			if (frustum[i][0] * x + frustum[i][1] * y + frustum[i][2] * z + frustum[i][3] <= 0.0f) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,239 @@
+package com.flounder.physics;
+
+import com.flounder.maths.matrices.*;
+
+/**
+ * Tests if two convex colliders intersect with the Gilbert Johnson Keerthi algorithm. The algorithm only needs the point of each collider furthest
+ * along a direction, hulls find that point by reading the flat vertex array of their {@link HullData}, so no points are copied or transformed.
+ * Hulls, boxes and spheres can be tested against each other.
+ */
+public class Gjk {
+	private static final int MAX_ITERATIONS = 64;
+
+	private static final int A = 0;
+	private static final int B = 3;
+	private static final int C = 6;
+	private static final int D = 9;
+	private static final int POINT = 12;
+	private static final int DIRECTION = 18;
+
+	/**
+	 * Gets if two colliders overlap, colliders that only touch may not intersect.
+	 *
+	 * @param first The first collider.
+	 * @param second The second collider.
+	 *
+	 * @return If the colliders intersect.
+	 *
+	 * @throws IllegalArgumentException If a collider is not a hull, box or sphere.
+	 */
+	public static boolean intersects(Collider first, Collider second) throws IllegalArgumentException {
+		// The simplex (newest point first), the last support point and the search direction.
+		double[] w = new double[21];
+		int count = 1;
+
+		support(first, second, 1.0, 0.0, 0.0, w);
+		w[A] = w[POINT];
+		w[A + 1] = w[POINT + 1];
+		w[A + 2] = w[POINT + 2];
+		setDirection(w, -w[A], -w[A + 1], -w[A + 2]);
+
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
+			double dx = w[DIRECTION];
+			double dy = w[DIRECTION + 1];
+			double dz = w[DIRECTION + 2];
+
+			// The origin is on the simplex.
+			if (dx == 0.0 && dy == 0.0 && dz == 0.0) {
+				return true;
+			}
+
+			support(first, second, dx, dy, dz, w);
+
+			// The furthest point of the difference in this direction does not pass the origin, so the origin is outside.
+			if (w[POINT] * dx + w[POINT + 1] * dy + w[POINT + 2] * dz <= 0.0) {
+				return false;
+			}
+
+			System.arraycopy(w, A, w, B, count * 3);
+			System.arraycopy(w, POINT, w, A, 3);
+			count++;
+
+			switch (count) {
+				case 2:
+					count = line(w);
+					break;
+				case 3:
+					count = triangle(w);
+					break;
+				default:
+					count = tetrahedron(w);
+					break;
+			}
+
+			if (count < 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static int line(double[] w) {
+		double abx = w[B] - w[A];
+		double aby = w[B + 1] - w[A + 1];
+		double abz = w[B + 2] - w[A + 2];
+		double aox = -w[A];
+		double aoy = -w[A + 1];
+		double aoz = -w[A + 2];
+
+		if (abx * aox + aby * aoy + abz * aoz > 0.0) {
+			// Searches from the line towards the origin, (ab x ao) x ab.
+			double cx = aby * aoz - abz * aoy;
+			double cy = abz * aox - abx * aoz;
+			double cz = abx * aoy - aby * aox;
+			setDirection(w, cy * abz - cz * aby, cz * abx - cx * abz, cx * aby - cy * abx);
+			return 2;
+		}
+
+		setDirection(w, aox, aoy, aoz);
+		return 1;
+	}
+
+	private static int triangle(double[] w) {
+		double abx = w[B] - w[A];
+		double aby = w[B + 1] - w[A + 1];
+		double abz = w[B + 2] - w[A + 2];
+		double acx = w[C] - w[A];
+		double acy = w[C + 1] - w[A + 1];
+		double acz = w[C + 2] - w[A + 2];
+		double aox = -w[A];
+		double aoy = -w[A + 1];
+		double aoz = -w[A + 2];
+
+		// The normal of the triangle.
+		double nx = aby * acz - abz * acy;
+		double ny = abz * acx - abx * acz;
+		double nz = abx * acy - aby * acx;
+
+		// The origin is past the edge ac, (abc x ac) . ao.
+		if ((ny * acz - nz * acy) * aox + (nz * acx - nx * acz) * aoy + (nx * acy - ny * acx) * aoz > 0.0) {
+			// Keeps the edge ac if the origin is along it, otherwise the edge ab.
+			if (acx * aox + acy * aoy + acz * aoz > 0.0) {
+				System.arraycopy(w, C, w, B, 3);
+			}
+
+			return line(w);
+		}
+
+		// The origin is past the edge ab, (ab x abc) . ao.
+		if ((aby * nz - abz * ny) * aox + (abz * nx - abx * nz) * aoy + (abx * ny - aby * nx) * aoz > 0.0) {
+			return line(w);
+		}
+
+		double side = nx * aox + ny * aoy + nz * aoz;
+
+		if (side > 0.0) {
+			setDirection(w, nx, ny, nz);
+		} else if (side < 0.0) {
+			// Winds the triangle so its normal faces the origin.
+			double x = w[B];
+			double y = w[B + 1];
+			double z = w[B + 2];
+			System.arraycopy(w, C, w, B, 3);
+			w[C] = x;
+			w[C + 1] = y;
+			w[C + 2] = z;
+			setDirection(w, -nx, -ny, -nz);
+		} else {
+			return -1;
+		}
+
+		return 3;
+	}
+
+	private static int tetrahedron(double[] w) {
+		double abx = w[B] - w[A];
+		double aby = w[B + 1] - w[A + 1];
+		double abz = w[B + 2] - w[A + 2];
+		double acx = w[C] - w[A];
+		double acy = w[C + 1] - w[A + 1];
+		double acz = w[C + 2] - w[A + 2];
+		double adx = w[D] - w[A];
+		double ady = w[D + 1] - w[A + 1];
+		double adz = w[D + 2] - w[A + 2];
+		double aox = -w[A];
+		double aoy = -w[A + 1];
+		double aoz = -w[A + 2];
+
+		// The faces touching the newest point, the normals point out of the tetrahedron.
+		if ((aby * acz - abz * acy) * aox + (abz * acx - abx * acz) * aoy + (abx * acy - aby * acx) * aoz > 0.0) {
+			return triangle(w);
+		}
+
+		if ((acy * adz - acz * ady) * aox + (acz * adx - acx * adz) * aoy + (acx * ady - acy * adx) * aoz > 0.0) {
+			System.arraycopy(w, C, w, B, 6);
+			return triangle(w);
+		}
+
+		if ((ady * abz - adz * aby) * aox + (adz * abx - adx * abz) * aoy + (adx * aby - ady * abx) * aoz > 0.0) {
+			System.arraycopy(w, B, w, C, 3);
+			System.arraycopy(w, D, w, B, 3);
+			return triangle(w);
+		}
+
+		return -1;
+	}
+
+	private static void setDirection(double[] w, double x, double y, double z) {
+		w[DIRECTION] = x;
+		w[DIRECTION + 1] = y;
+		w[DIRECTION + 2] = z;
+	}
+
+	/**
+	 * Finds the point of the difference of two colliders furthest along a direction.
+	 */
+	private static void support(Collider first, Collider second, double x, double y, double z, double[] w) throws IllegalArgumentException {
+		support(first, x, y, z, w, POINT);
+		support(second, -x, -y, -z, w, POINT + 3);
+		w[POINT] -= w[POINT + 3];
+		w[POINT + 1] -= w[POINT + 4];
+		w[POINT + 2] -= w[POINT + 5];
+	}
+
+	private static void support(Collider collider, double x, double y, double z, double[] w, int offset) throws IllegalArgumentException {
+		if (collider instanceof QuickHull) {
+			HullData hull = ((QuickHull) collider).getHullData();
+			Matrix4f m = ((QuickHull) collider).getModelMatrix();
+
+			// The direction is moved into the space of the hull by the transpose of the model matrix.
+			int index = 3 * hull.support(
+					(float) (m.m00 * x + m.m01 * y + m.m02 * z),
+					(float) (m.m10 * x + m.m11 * y + m.m12 * z),
+					(float) (m.m20 * x + m.m21 * y + m.m22 * z)
+			);
+			float[] vertices = hull.getVertices();
+			float vx = vertices[index];
+			float vy = vertices[index + 1];
+			float vz = vertices[index + 2];
+			w[offset] = m.m00 * vx + m.m10 * vy + m.m20 * vz + m.m30;
+			w[offset + 1] = m.m01 * vx + m.m11 * vy + m.m21 * vz + m.m31;
+			w[offset + 2] = m.m02 * vx + m.m12 * vy + m.m22 * vz + m.m32;
+		} else if (collider instanceof AABB) {
+			AABB aabb = (AABB) collider;
+			w[offset] = x >= 0.0 ? aabb.getMaxExtents().x : aabb.getMinExtents().x;
+			w[offset + 1] = y >= 0.0 ? aabb.getMaxExtents().y : aabb.getMinExtents().y;
+			w[offset + 2] = z >= 0.0 ? aabb.getMaxExtents().z : aabb.getMinExtents().z;
+		} else if (collider instanceof Sphere) {
+			Sphere sphere = (Sphere) collider;
+			double length = Math.sqrt(x * x + y * y + z * z);
+			double scale = length == 0.0 ? 0.0 : sphere.getRadius() / length;
+			w[offset] = sphere.getPosition().x + x * scale;
+			w[offset + 1] = sphere.getPosition().y + y * scale;
+			w[offset + 2] = sphere.getPosition().z + z * scale;
+		} else {
+			throw new IllegalArgumentException("Gjk can not test a " + collider.getClass().getSimpleName() + "!");
+		}
+	}
+}
@@ -0,0 +1,495 @@
+package com.flounder.physics;
+
+import java.util.*;
+
+/**
+ * Builds the convex hull of a point cloud with the QuickHull algorithm. Points, faces, the neighbours of faces and the points outside of each face
+ * are kept in primitive arrays, and the horizon of each new point is walked with a explicit stack, so large meshes are built without boxing points
+ * or recursing. A builder can be reused for many hulls, but should only be used from one thread at a time.
+ */
+public class HullBuilder {
+	private static final double FLOAT_EPSILON = 1.1920929e-7;
+
+	private double[] points;
+	private int[] pointNext;
+	private int pointCount;
+	private double tolerance;
+
+	private int[] faceVertices;
+	private int[] faceNeighbours;
+	private double[] facePlanes;
+	private int[] faceOutside;
+	private boolean[] faceDeleted;
+	private int faceCount;
+
+	private int[] pending;
+	private int pendingCount;
+	private int[] horizon;
+	private int horizonCount;
+	private int[] visible;
+	private int visibleCount;
+	private int[] stack;
+	private int stackCount;
+
+	/**
+	 * Creates a new hull builder.
+	 */
+	public HullBuilder() {
+		this.points = new double[0];
+		this.pointNext = new int[0];
+		this.pointCount = 0;
+		this.tolerance = 0.0;
+
+		this.faceVertices = new int[0];
+		this.faceNeighbours = new int[0];
+		this.facePlanes = new double[0];
+		this.faceOutside = new int[0];
+		this.faceDeleted = new boolean[0];
+		this.faceCount = 0;
+
+		this.pending = new int[16];
+		this.horizon = new int[32];
+		this.visible = new int[16];
+		this.stack = new int[48];
+	}
+
+	/**
+	 * Builds the convex hull of a point cloud. Point clouds that are flat, a line or a single point give a hull with no faces, holding every point.
+	 *
+	 * @param vertices The point cloud, packed as x, y, z.
+	 *
+	 * @return The convex hull.
+	 */
+	public HullData build(float[] vertices) {
+		int count = vertices.length / 3;
+		pointCount = count;
+		faceCount = 0;
+		pendingCount = 0;
+
+		if (points.length < count * 3) {
+			points = new double[count * 3];
+			pointNext = new int[count];
+		}
+
+		double maxX = 0.0;
+		double maxY = 0.0;
+		double maxZ = 0.0;
+
+		for (int i = 0; i < count * 3; i += 3) {
+			points[i] = vertices[i];
+			points[i + 1] = vertices[i + 1];
+			points[i + 2] = vertices[i + 2];
+			maxX = Math.max(maxX, Math.abs(points[i]));
+			maxY = Math.max(maxY, Math.abs(points[i + 1]));
+			maxZ = Math.max(maxZ, Math.abs(points[i + 2]));
+		}
+
+		// Points closer than this to a plane are taken to be on the plane, the error of float input grows with the size of the cloud.
+		tolerance = 3.0 * (maxX + maxY + maxZ) * FLOAT_EPSILON;
+
+		if (count < 4 || !createSimplex()) {
+			return new HullData(Arrays.copyOf(vertices, count * 3), new int[0], new float[0]);
+		}
+
+		while (pendingCount > 0) {
+			int face = pending[--pendingCount];
+
+			if (!faceDeleted[face] && faceOutside[face] >= 0) {
+				addPoint(face, getFurthestOutside(face));
+			}
+		}
+
+		return createHull();
+	}
+
+	private boolean createSimplex() {
+		// The first two points are the extremes along the longest axis.
+		int axis = 0;
+		int first = 0;
+		int second = 0;
+		double extent = -1.0;
+
+		for (int a = 0; a < 3; a++) {
+			int min = 0;
+			int max = 0;
+
+			for (int i = 1; i < pointCount; i++) {
+				if (points[i * 3 + a] < points[min * 3 + a]) {
+					min = i;
+				}
+
+				if (points[i * 3 + a] > points[max * 3 + a]) {
+					max = i;
+				}
+			}
+
+			if (points[max * 3 + a] - points[min * 3 + a] > extent) {
+				axis = a;
+				first = min;
+				second = max;
+				extent = points[max * 3 + a] - points[min * 3 + a];
+			}
+		}
+
+		if (extent <= tolerance) {
+			return false;
+		}
+
+		// The third point is the furthest from the line between the first two.
+		double lx = points[second * 3] - points[first * 3];
+		double ly = points[second * 3 + 1] - points[first * 3 + 1];
+		double lz = points[second * 3 + 2] - points[first * 3 + 2];
+		int third = -1;
+		double maxLine = 0.0;
+
+		for (int i = 0; i < pointCount; i++) {
+			double px = points[i * 3] - points[first * 3];
+			double py = points[i * 3 + 1] - points[first * 3 + 1];
+			double pz = points[i * 3 + 2] - points[first * 3 + 2];
+			double cx = py * lz - pz * ly;
+			double cy = pz * lx - px * lz;
+			double cz = px * ly - py * lx;
+			double distance = cx * cx + cy * cy + cz * cz;
+
+			if (distance > maxLine) {
+				maxLine = distance;
+				third = i;
+			}
+		}
+
+		if (third < 0 || Math.sqrt(maxLine) / extent <= tolerance) {
+			return false;
+		}
+
+		// The fourth point is the furthest from the plane through the first three.
+		double[] plane = new double[4];
+		setPlane(first, second, third, plane, 0);
+		int fourth = -1;
+		double maxPlane = 0.0;
+
+		for (int i = 0; i < pointCount; i++) {
+			double distance = plane[0] * points[i * 3] + plane[1] * points[i * 3 + 1] + plane[2] * points[i * 3 + 2] + plane[3];
+
+			if (Math.abs(distance) > Math.abs(maxPlane)) {
+				maxPlane = distance;
+				fourth = i;
+			}
+		}
+
+		if (fourth < 0 || Math.abs(maxPlane) <= tolerance) {
+			return false;
+		}
+
+		// The base is wound so the fourth point is behind it.
+		if (maxPlane > 0.0) {
+			int swap = second;
+			second = third;
+			third = swap;
+		}
+
+		addFace(first, second, third);
+		addFace(first, fourth, second);
+		addFace(second, fourth, third);
+		addFace(third, fourth, first);
+
+		for (int face = 0; face < 4; face++) {
+			for (int edge = 0; edge < 3; edge++) {
+				for (int other = 0; other < 4; other++) {
+					int opposite = findEdge(other, faceVertices[face * 3 + (edge + 1) % 3], faceVertices[face * 3 + edge]);
+
+					if (other != face && opposite >= 0) {
+						faceNeighbours[face * 3 + edge] = other;
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < pointCount; i++) {
+			if (i != first && i != second && i != third && i != fourth) {
+				assignPoint(i, 0, 4);
+			}
+		}
+
+		for (int face = 0; face < 4; face++) {
+			pushPending(face);
+		}
+
+		return true;
+	}
+
+	private void addPoint(int face, int eye) {
+		visibleCount = 0;
+		horizonCount = 0;
+		findHorizon(face, eye);
+
+		// Fans new faces from the eye to each horizon edge, the horizon is found in order so each new face neighbours the next.
+		int first = faceCount;
+		int edges = horizonCount / 2;
+
+		for (int i = 0; i < edges; i++) {
+			int visibleFace = horizon[i * 2];
+			int edge = horizon[i * 2 + 1];
+			int a = faceVertices[visibleFace * 3 + edge];
+			int b = faceVertices[visibleFace * 3 + (edge + 1) % 3];
+			int outside = faceNeighbours[visibleFace * 3 + edge];
+			int created = addFace(a, b, eye);
+
+			faceNeighbours[created * 3] = outside;
+			faceNeighbours[outside * 3 + findEdge(outside, b, a)] = created;
+		}
+
+		for (int i = 0; i < edges; i++) {
+			int created = first + i;
+			int next = first + (i + 1) % edges;
+			faceNeighbours[created * 3 + 1] = next;
+			faceNeighbours[next * 3 + 2] = created;
+		}
+
+		// Points outside of the removed faces are moved to the new faces, points inside the new hull are dropped.
+		for (int i = 0; i < visibleCount; i++) {
+			int point = faceOutside[visible[i]];
+			faceOutside[visible[i]] = -1;
+
+			while (point >= 0) {
+				int next = pointNext[point];
+
+				if (point != eye) {
+					assignPoint(point, first, faceCount);
+				}
+
+				point = next;
+			}
+		}
+
+		for (int created = first; created < faceCount; created++) {
+			pushPending(created);
+		}
+	}
+
+	private void findHorizon(int face, int eye) {
+		double x = points[eye * 3];
+		double y = points[eye * 3 + 1];
+		double z = points[eye * 3 + 2];
+
+		// Walks the faces seen from the eye depth first, crossing edges in winding order, so horizon edges are found in order around the eye.
+		markVisible(face);
+		pushStack(face, 0, 3);
+
+		while (stackCount > 0) {
+			int top = (stackCount - 1) * 3;
+			int current = stack[top];
+			int edge = stack[top + 1];
+
+			if (stack[top + 2] == 0) {
+				stackCount--;
+				continue;
+			}
+
+			stack[top + 1] = (edge + 1) % 3;
+			stack[top + 2]--;
+
+			int opposite = faceNeighbours[current * 3 + edge];
+
+			if (faceDeleted[opposite]) {
+				continue;
+			}
+
+			// Faces are seen by the exact sign of the distance, treating faces the eye is almost on as hidden would fold the new faces into them.
+			if (getDistance(opposite, x, y, z) > 0.0) {
+				int entry = findEdge(opposite, faceVertices[current * 3 + (edge + 1) % 3], faceVertices[current * 3 + edge]);
+				markVisible(opposite);
+				pushStack(opposite, (entry + 1) % 3, 2);
+			} else {
+				if (horizonCount + 2 > horizon.length) {
+					horizon = Arrays.copyOf(horizon, horizon.length * 2);
+				}
+
+				horizon[horizonCount++] = current;
+				horizon[horizonCount++] = edge;
+			}
+		}
+	}
+
+	private void markVisible(int face) {
+		faceDeleted[face] = true;
+
+		if (visibleCount == visible.length) {
+			visible = Arrays.copyOf(visible, visible.length * 2);
+		}
+
+		visible[visibleCount++] = face;
+	}
+
+	private void pushStack(int face, int edge, int edges) {
+		if ((stackCount + 1) * 3 > stack.length) {
+			stack = Arrays.copyOf(stack, stack.length * 2);
+		}
+
+		stack[stackCount * 3] = face;
+		stack[stackCount * 3 + 1] = edge;
+		stack[stackCount * 3 + 2] = edges;
+		stackCount++;
+	}
+
+	private void pushPending(int face) {
+		if (faceOutside[face] < 0) {
+			return;
+		}
+
+		if (pendingCount == pending.length) {
+			pending = Arrays.copyOf(pending, pending.length * 2);
+		}
+
+		pending[pendingCount++] = face;
+	}
+
+	private void assignPoint(int point, int from, int to) {
+		double x = points[point * 3];
+		double y = points[point * 3 + 1];
+		double z = points[point * 3 + 2];
+		int best = -1;
+		double max = tolerance;
+
+		for (int face = from; face < to; face++) {
+			double distance = getDistance(face, x, y, z);
+
+			if (distance > max) {
+				max = distance;
+				best = face;
+			}
+		}
+
+		if (best >= 0) {
+			pointNext[point] = faceOutside[best];
+			faceOutside[best] = point;
+		}
+	}
+
+	private int getFurthestOutside(int face) {
+		int furthest = -1;
+		double max = Double.NEGATIVE_INFINITY;
+
+		for (int point = faceOutside[face]; point >= 0; point = pointNext[point]) {
+			double distance = getDistance(face, points[point * 3], points[point * 3 + 1], points[point * 3 + 2]);
+
+			if (distance > max) {
+				max = distance;
+				furthest = point;
+			}
+		}
+
+		return furthest;
+	}
+
+	private int addFace(int a, int b, int c) {
+		if (faceCount == faceDeleted.length) {
+			int capacity = Math.max(16, faceCount * 2);
+			faceVertices = Arrays.copyOf(faceVertices, capacity * 3);
+			faceNeighbours = Arrays.copyOf(faceNeighbours, capacity * 3);
+			facePlanes = Arrays.copyOf(facePlanes, capacity * 4);
+			faceOutside = Arrays.copyOf(faceOutside, capacity);
+			faceDeleted = Arrays.copyOf(faceDeleted, capacity);
+		}
+
+		int face = faceCount++;
+		faceVertices[face * 3] = a;
+		faceVertices[face * 3 + 1] = b;
+		faceVertices[face * 3 + 2] = c;
+		faceNeighbours[face * 3] = -1;
+		faceNeighbours[face * 3 + 1] = -1;
+		faceNeighbours[face * 3 + 2] = -1;
+		faceOutside[face] = -1;
+		faceDeleted[face] = false;
+		setPlane(a, b, c, facePlanes, face * 4);
+		return face;
+	}
+
+	private void setPlane(int a, int b, int c, double[] destination, int offset) {
+		double abx = points[b * 3] - points[a * 3];
+		double aby = points[b * 3 + 1] - points[a * 3 + 1];
+		double abz = points[b * 3 + 2] - points[a * 3 + 2];
+		double acx = points[c * 3] - points[a * 3];
+		double acy = points[c * 3 + 1] - points[a * 3 + 1];
+		double acz = points[c * 3 + 2] - points[a * 3 + 2];
+		double nx = aby * acz - abz * acy;
+		double ny = abz * acx - abx * acz;
+		double nz = abx * acy - aby * acx;
+		double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+
+		if (length > 0.0) {
+			nx /= length;
+			ny /= length;
+			nz /= length;
+		}
+
+		destination[offset] = nx;
+		destination[offset + 1] = ny;
+		destination[offset + 2] = nz;
+		destination[offset + 3] = -(nx * points[a * 3] + ny * points[a * 3 + 1] + nz * points[a * 3 + 2]);
+	}
+
+	private double getDistance(int face, double x, double y, double z) {
+		return facePlanes[face * 4] * x + facePlanes[face * 4 + 1] * y + facePlanes[face * 4 + 2] * z + facePlanes[face * 4 + 3];
+	}
+
+	private int findEdge(int face, int from, int to) {
+		for (int edge = 0; edge < 3; edge++) {
+			if (faceVertices[face * 3 + edge] == from && faceVertices[face * 3 + (edge + 1) % 3] == to) {
+				return edge;
+			}
+		}
+
+		return -1;
+	}
+
+	private HullData createHull() {
+		// Only vertices used by the remaining faces are kept, in the order they are first used.
+		int[] remap = new int[pointCount];
+		Arrays.fill(remap, -1);
+		int vertexCount = 0;
+		int faces = 0;
+
+		for (int face = 0; face < faceCount; face++) {
+			if (faceDeleted[face]) {
+				continue;
+			}
+
+			faces++;
+
+			for (int i = 0; i < 3; i++) {
+				int vertex = faceVertices[face * 3 + i];
+
+				if (remap[vertex] < 0) {
+					remap[vertex] = vertexCount++;
+				}
+			}
+		}
+
+		float[] hullVertices = new float[vertexCount * 3];
+		int[] hullFaces = new int[faces * 3];
+		float[] hullPlanes = new float[faces * 4];
+		int f = 0;
+
+		for (int face = 0; face < faceCount; face++) {
+			if (faceDeleted[face]) {
+				continue;
+			}
+
+			for (int i = 0; i < 3; i++) {
+				int vertex = faceVertices[face * 3 + i];
+				hullFaces[f * 3 + i] = remap[vertex];
+				hullVertices[remap[vertex] * 3] = (float) points[vertex * 3];
+				hullVertices[remap[vertex] * 3 + 1] = (float) points[vertex * 3 + 1];
+				hullVertices[remap[vertex] * 3 + 2] = (float) points[vertex * 3 + 2];
+			}
+
+			for (int i = 0; i < 4; i++) {
+				hullPlanes[f * 4 + i] = (float) facePlanes[face * 4 + i];
+			}
+
+			f++;
+		}
+
+		return new HullData(hullVertices, hullFaces, hullPlanes);
+	}
+}
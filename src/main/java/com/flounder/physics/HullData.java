@@ -0,0 +1,285 @@
+package com.flounder.physics;
+
+import com.flounder.framework.*;
+import com.flounder.logger.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * A convex hull stored as flat arrays. Vertices are packed as x, y, z, faces as three vertex indices wound counter clockwise when seen from outside,
+ * and planes as a, b, c, d with the normal pointing out of the hull. Hull data is never changed once built, so it is shared between colliders.
+ * Hulls can be written to a binary file and read back in one read, so a hull is built once and loaded from the cache after.
+ */
+public class HullData {
+	private static final int MAGIC = 0x48554C4C;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 24;
+
+	private float[] vertices;
+	private int[] faces;
+	private float[] planes;
+
+	/**
+	 * Creates new hull data from flat arrays, the arrays are used without copying.
+	 *
+	 * @param vertices The hull vertices, packed as x, y, z.
+	 * @param faces The hull faces, packed as three vertex indices.
+	 * @param planes The face planes, packed as a, b, c, d.
+	 */
+	public HullData(float[] vertices, int[] faces, float[] planes) {
+		this.vertices = vertices;
+		this.faces = faces;
+		this.planes = planes;
+	}
+
+	/**
+	 * Finds the vertex furthest along a direction.
+	 *
+	 * @param x The X direction.
+	 * @param y The Y direction.
+	 * @param z The Z direction.
+	 *
+	 * @return The index of the vertex, or -1 if the hull has no vertices.
+	 */
+	public int support(float x, float y, float z) {
+		int index = -1;
+		float max = Float.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < vertices.length; i += 3) {
+			float dot = x * vertices[i] + y * vertices[i + 1] + z * vertices[i + 2];
+
+			if (dot > max) {
+				max = dot;
+				index = i / 3;
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Gets if a point is inside of the hull, flat hulls without faces contain no points.
+	 *
+	 * @param x The X position of the point.
+	 * @param y The Y position of the point.
+	 * @param z The Z position of the point.
+	 *
+	 * @return If the point is inside or on the hull.
+	 */
+	public boolean contains(float x, float y, float z) {
+		if (planes.length == 0) {
+			return false;
+		}
+
+		for (int i = 0; i < planes.length; i += 4) {
+			if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] > 0.0f) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Writes the hull to a binary file, the file is written next to the destination and moved over it so readers never see part of a hull.
+	 *
+	 * @param file The file to write to.
+	 * @param sourceHash The hash of the points the hull was built from, used to find out of date hulls.
+	 *
+	 * @throws IOException If the file could not be written.
+	 */
+	public void write(File file, long sourceHash) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 4 * (vertices.length + faces.length + planes.length)).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putLong(sourceHash);
+		buffer.putInt(vertices.length / 3);
+		buffer.putInt(faces.length / 3);
+		buffer.asFloatBuffer().put(vertices);
+		buffer.position(buffer.position() + 4 * vertices.length);
+		buffer.asIntBuffer().put(faces);
+		buffer.position(buffer.position() + 4 * faces.length);
+		buffer.asFloatBuffer().put(planes);
+		buffer.rewind();
+
+		// Each writer gets its own temporary file, so loaders caching the same hull at once do not write over each other.
+		Path temporary = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), file.getName(), ".tmp");
+
+		try {
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+
+			Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Reads a hull from a binary file. The file is read into a heap buffer and closed before returning, a mapped buffer would keep the file open
+	 * until collected and stop the cache being replaced on some platforms.
+	 *
+	 * @param file The file to read.
+	 * @param sourceHash The hash of the points the hull should have been built from.
+	 *
+	 * @return The hull, or null if the file is for other points or an older version.
+	 *
+	 * @throws IOException If the file could not be read.
+	 */
+	public static HullData read(File file, long sourceHash) throws IOException {
+		ByteBuffer buffer;
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+				return null;
+			}
+
+			buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					return null;
+				}
+			}
+		}
+
+		buffer.flip();
+
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceHash) {
+			return null;
+		}
+
+		int vertexCount = buffer.getInt();
+		int faceCount = buffer.getInt();
+
+		if (vertexCount < 0 || faceCount < 0 || buffer.remaining() != 4L * (3L * vertexCount + 7L * faceCount)) {
+			return null;
+		}
+
+		float[] vertices = new float[3 * vertexCount];
+		int[] faces = new int[3 * faceCount];
+		float[] planes = new float[4 * faceCount];
+		buffer.asFloatBuffer().get(vertices);
+		buffer.position(buffer.position() + 4 * vertices.length);
+		buffer.asIntBuffer().get(faces);
+		buffer.position(buffer.position() + 4 * faces.length);
+		buffer.asFloatBuffer().get(planes);
+		return new HullData(vertices, faces, planes);
+	}
+
+	/**
+	 * Gets the hull of a point cloud from the hull cache in the roaming folder, the hull is built and cached if it is not found.
+	 *
+	 * @param name The name of the hull in the cache, usually the model name.
+	 * @param points The point cloud, packed as x, y, z.
+	 *
+	 * @return The hull of the points.
+	 */
+	public static HullData load(String name, float[] points) {
+		long sourceHash = hash(points);
+
+		if (Framework.get() == null) {
+			return new HullBuilder().build(points);
+		}
+
+		File folder = new File(Framework.get().getRoamingFolder().getPath(), "hulls");
+		File file = new File(folder, (name == null ? "hull" : name.replaceAll("[^A-Za-z0-9_-]", "_")) + "-" + Long.toHexString(sourceHash) + ".hull");
+
+		if (file.exists()) {
+			try {
+				HullData hull = read(file, sourceHash);
+
+				if (hull != null) {
+					return hull;
+				}
+			} catch (IOException e) {
+				FlounderLogger.get().error("Could not read cached hull: " + file);
+				FlounderLogger.get().exception(e);
+			}
+		}
+
+		HullData hull = new HullBuilder().build(points);
+
+		try {
+			if (!folder.exists() && !folder.mkdirs()) {
+				FlounderLogger.get().error("The hull cache directory could not be created.");
+				return hull;
+			}
+
+			hull.write(file, sourceHash);
+		} catch (IOException e) {
+			FlounderLogger.get().error("Could not write cached hull: " + file);
+			FlounderLogger.get().exception(e);
+		}
+
+		return hull;
+	}
+
+	/**
+	 * Hashes a point cloud, so a cached hull is only used for the points it was built from.
+	 *
+	 * @param points The point cloud.
+	 *
+	 * @return The hash of the points.
+	 */
+	public static long hash(float[] points) {
+		long hash = 0xCBF29CE484222325L;
+
+		for (float point : points) {
+			hash = (hash ^ Float.floatToIntBits(point)) * 0x100000001B3L;
+		}
+
+		return hash ^ points.length;
+	}
+
+	/**
+	 * Gets the number of vertices in the hull.
+	 *
+	 * @return The vertex count.
+	 */
+	public int getVertexCount() {
+		return vertices.length / 3;
+	}
+
+	/**
+	 * Gets the number of faces in the hull, flat hulls have no faces.
+	 *
+	 * @return The face count.
+	 */
+	public int getFaceCount() {
+		return faces.length / 3;
+	}
+
+	/**
+	 * Gets the hull vertices packed as x, y, z, this array should not be changed.
+	 *
+	 * @return The hull vertices.
+	 */
+	public float[] getVertices() {
+		return this.vertices;
+	}
+
+	/**
+	 * Gets the hull faces packed as three vertex indices, this array should not be changed.
+	 *
+	 * @return The hull faces.
+	 */
+	public int[] getFaces() {
+		return this.faces;
+	}
+
+	/**
+	 * Gets the face planes packed as a, b, c, d, this array should not be changed.
+	 *
+	 * @return The face planes.
+	 */
+	public float[] getPlanes() {
+		return this.planes;
+	}
+}
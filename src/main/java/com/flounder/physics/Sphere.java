@@ -1,6 +1,7 @@
 package com.flounder.physics;
 
 import com.flounder.maths.*;
+import com.flounder.maths.matrices.*;
 import com.flounder.maths.vectors.*;
 import com.flounder.models.*;
 import com.flounder.resources.*;
@@ -70,6 +71,27 @@ public class Sphere extends Collider {
 		return sphere;
 	}
 
+	@Override
+	public Collider update(Matrix4f modelMatrix, Collider destination) {
+		if (destination == null || !(destination instanceof Sphere)) {
+			destination = new Sphere();
+		}
+
+		Sphere sphere = (Sphere) destination;
+
+		// The radius is scaled by the largest scale of the matrix axes.
+		float scaleX = modelMatrix.m00 * modelMatrix.m00 + modelMatrix.m01 * modelMatrix.m01 + modelMatrix.m02 * modelMatrix.m02;
+		float scaleY = modelMatrix.m10 * modelMatrix.m10 + modelMatrix.m11 * modelMatrix.m11 + modelMatrix.m12 * modelMatrix.m12;
+		float scaleZ = modelMatrix.m20 * modelMatrix.m20 + modelMatrix.m21 * modelMatrix.m21 + modelMatrix.m22 * modelMatrix.m22;
+		float x = modelMatrix.m00 * position.x + modelMatrix.m10 * position.y + modelMatrix.m20 * position.z + modelMatrix.m30;
+		float y = modelMatrix.m01 * position.x + modelMatrix.m11 * position.y + modelMatrix.m21 * position.z + modelMatrix.m31;
+		float z = modelMatrix.m02 * position.x + modelMatrix.m12 * position.y + modelMatrix.m22 * position.z + modelMatrix.m32;
+
+		sphere.radius = radius * (float) Math.sqrt(Math.max(scaleX, Math.max(scaleY, scaleZ)));
+		sphere.position.set(x, y, z);
+		return sphere;
+	}
+
 	@Override
 	public Vector3f resolveCollision(Collider other, Vector3f positionDelta, Vector3f destination) throws IllegalArgumentException {
 		if (destination == null) {
@@ -115,15 +137,15 @@ public class Sphere extends Collider {
 				distanceSquared -= Math.pow(position.x - aabb.getMaxExtents().x, 2);
 			}
 
-			if (position.y < aabb.getMinExtents().x) {
+			if (position.y < aabb.getMinExtents().y) {
 				distanceSquared -= Math.pow(position.y - aabb.getMinExtents().y, 2);
-			} else if (position.x > aabb.getMaxExtents().x) {
+			} else if (position.y > aabb.getMaxExtents().y) {
 				distanceSquared -= Math.pow(position.y - aabb.getMaxExtents().y, 2);
 			}
 
-			if (position.z < aabb.getMinExtents().x) {
+			if (position.z < aabb.getMinExtents().z) {
 				distanceSquared -= Math.pow(position.z - aabb.getMinExtents().z, 2);
-			} else if (position.z > aabb.getMaxExtents().x) {
+			} else if (position.z > aabb.getMaxExtents().z) {
 				distanceSquared -= Math.pow(position.z - aabb.getMaxExtents().z, 2);
 			}
 
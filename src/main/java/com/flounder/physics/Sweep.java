@@ -0,0 +1,515 @@
+package com.flounder.physics;
+
+import com.flounder.maths.matrices.*;
+import com.flounder.maths.vectors.*;
+
+/**
+ * Finds when a moving shape first hits a collider, as a time along its path from 0 to 1, so fast shapes can not pass through thin colliders
+ * between two ticks. Boxes and spheres can be moved into boxes and spheres, and rays can also be cast at hulls. Normals point out of the collider
+ * that was hit, towards the moving shape.
+ * Shapes that already overlap a collider hit it straight away, unless they are moving out of it or along it, so shapes resting on a collider can
+ * still slide over it. Rays starting inside of a collider never hit it.
+ */
+public class Sweep {
+	/**
+	 * The time given when a path misses.
+	 */
+	public static final float MISS = Float.POSITIVE_INFINITY;
+
+	/**
+	 * Moves a box or sphere along a path into a collider.
+	 *
+	 * @param moving The shape being moved.
+	 * @param path The path of the shape.
+	 * @param other The collider that may be hit.
+	 * @param normal The destination normal of the hit, or null if the normal is not needed.
+	 *
+	 * @return The time of the hit, or {@link #MISS} if the path misses.
+	 *
+	 * @throws IllegalArgumentException If either collider is not a box or sphere.
+	 */
+	public static float sweep(Collider moving, Vector3f path, Collider other, Vector3f normal) throws IllegalArgumentException {
+		if (moving instanceof AABB) {
+			Vector3f min = ((AABB) moving).getMinExtents();
+			Vector3f max = ((AABB) moving).getMaxExtents();
+			return box(min.x, min.y, min.z, max.x, max.y, max.z, path.x, path.y, path.z, other, normal);
+		} else if (moving instanceof Sphere) {
+			Vector3f position = ((Sphere) moving).getPosition();
+			return sphere(position.x, position.y, position.z, ((Sphere) moving).getRadius(), path.x, path.y, path.z, other, normal);
+		}
+
+		throw new IllegalArgumentException("Sweep can not move a " + moving.getClass().getSimpleName() + "!");
+	}
+
+	/**
+	 * Moves a box along a path into a box or sphere.
+	 *
+	 * @param minX The min X of the box.
+	 * @param minY The min Y of the box.
+	 * @param minZ The min Z of the box.
+	 * @param maxX The max X of the box.
+	 * @param maxY The max Y of the box.
+	 * @param maxZ The max Z of the box.
+	 * @param dx The X distance along the path.
+	 * @param dy The Y distance along the path.
+	 * @param dz The Z distance along the path.
+	 * @param other The collider that may be hit.
+	 * @param normal The destination normal of the hit, or null if the normal is not needed.
+	 *
+	 * @return The time of the hit, or {@link #MISS} if the path misses.
+	 *
+	 * @throws IllegalArgumentException If the collider is not a box or sphere.
+	 */
+	public static float box(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float dx, float dy, float dz, Collider other, Vector3f normal) throws IllegalArgumentException {
+		if (other instanceof AABB) {
+			Vector3f min = ((AABB) other).getMinExtents();
+			Vector3f max = ((AABB) other).getMaxExtents();
+			return boxBox(minX, minY, minZ, maxX, maxY, maxZ, dx, dy, dz, min.x, min.y, min.z, max.x, max.y, max.z, normal);
+		} else if (other instanceof Sphere) {
+			// The sphere moving backwards into the box hits at the same time, with the opposite normal.
+			Vector3f position = ((Sphere) other).getPosition();
+			float time = sphereBox(position.x, position.y, position.z, ((Sphere) other).getRadius(), -dx, -dy, -dz, minX, minY, minZ, maxX, maxY, maxZ, normal);
+
+			if (time != MISS && normal != null) {
+				normal.negate();
+			}
+
+			return time;
+		}
+
+		throw new IllegalArgumentException("Sweep can not hit a " + other.getClass().getSimpleName() + "!");
+	}
+
+	/**
+	 * Moves a sphere along a path into a box or sphere.
+	 *
+	 * @param x The X position of the sphere.
+	 * @param y The Y position of the sphere.
+	 * @param z The Z position of the sphere.
+	 * @param radius The radius of the sphere.
+	 * @param dx The X distance along the path.
+	 * @param dy The Y distance along the path.
+	 * @param dz The Z distance along the path.
+	 * @param other The collider that may be hit.
+	 * @param normal The destination normal of the hit, or null if the normal is not needed.
+	 *
+	 * @return The time of the hit, or {@link #MISS} if the path misses.
+	 *
+	 * @throws IllegalArgumentException If the collider is not a box or sphere.
+	 */
+	public static float sphere(float x, float y, float z, float radius, float dx, float dy, float dz, Collider other, Vector3f normal) throws IllegalArgumentException {
+		if (other instanceof AABB) {
+			Vector3f min = ((AABB) other).getMinExtents();
+			Vector3f max = ((AABB) other).getMaxExtents();
+			return sphereBox(x, y, z, radius, dx, dy, dz, min.x, min.y, min.z, max.x, max.y, max.z, normal);
+		} else if (other instanceof Sphere) {
+			Vector3f position = ((Sphere) other).getPosition();
+			return sphereSphere(x, y, z, radius + ((Sphere) other).getRadius(), dx, dy, dz, position.x, position.y, position.z, normal);
+		}
+
+		throw new IllegalArgumentException("Sweep can not hit a " + other.getClass().getSimpleName() + "!");
+	}
+
+	/**
+	 * Casts a ray along a path into a box, sphere or hull.
+	 *
+	 * @param x The X origin of the ray.
+	 * @param y The Y origin of the ray.
+	 * @param z The Z origin of the ray.
+	 * @param dx The X distance along the path.
+	 * @param dy The Y distance along the path.
+	 * @param dz The Z distance along the path.
+	 * @param other The collider that may be hit.
+	 * @param normal The destination normal of the hit, or null if the normal is not needed.
+	 *
+	 * @return The time of the hit, or {@link #MISS} if the path misses.
+	 *
+	 * @throws IllegalArgumentException If the collider is not a box, sphere or hull.
+	 */
+	public static float ray(float x, float y, float z, float dx, float dy, float dz, Collider other, Vector3f normal) throws IllegalArgumentException {
+		if (other instanceof AABB) {
+			Vector3f min = ((AABB) other).getMinExtents();
+			Vector3f max = ((AABB) other).getMaxExtents();
+
+			if (x > min.x && x < max.x && y > min.y && y < max.y && z > min.z && z < max.z) {
+				return MISS;
+			}
+
+			return boxBox(x, y, z, x, y, z, dx, dy, dz, min.x, min.y, min.z, max.x, max.y, max.z, normal);
+		} else if (other instanceof Sphere) {
+			Vector3f position = ((Sphere) other).getPosition();
+			float radius = ((Sphere) other).getRadius();
+			double cx = x - position.x;
+			double cy = y - position.y;
+			double cz = z - position.z;
+
+			if (cx * cx + cy * cy + cz * cz < radius * radius) {
+				return MISS;
+			}
+
+			return sphereSphere(x, y, z, radius, dx, dy, dz, position.x, position.y, position.z, normal);
+		} else if (other instanceof QuickHull) {
+			return rayHull(x, y, z, dx, dy, dz, (QuickHull) other, normal);
+		}
+
+		throw new IllegalArgumentException("Sweep can not hit a " + other.getClass().getSimpleName() + "!");
+	}
+
+	private static float boxBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float dx, float dy, float dz,
+	                            float otherMinX, float otherMinY, float otherMinZ, float otherMaxX, float otherMaxY, float otherMaxZ, Vector3f normal) {
+		// The moving box overlaps the other box on a axis while the gap in front of it is closed and the gap behind it is not.
+		double enter = Double.NEGATIVE_INFINITY;
+		double exit = Double.POSITIVE_INFINITY;
+		int axis = -1;
+
+		for (int i = 0; i < 3; i++) {
+			double d = i == 0 ? dx : i == 1 ? dy : dz;
+			double front = i == 0 ? otherMinX - maxX : i == 1 ? otherMinY - maxY : otherMinZ - maxZ;
+			double back = i == 0 ? otherMaxX - minX : i == 1 ? otherMaxY - minY : otherMaxZ - minZ;
+
+			if (d == 0.0) {
+				if (front > 0.0 || back < 0.0) {
+					return MISS;
+				}
+
+				continue;
+			}
+
+			double near = (d > 0.0 ? front : back) / d;
+			double far = (d > 0.0 ? back : front) / d;
+
+			if (near > enter) {
+				enter = near;
+				axis = i;
+			}
+
+			exit = Math.min(exit, far);
+		}
+
+		if (enter > exit || exit < 0.0 || enter > 1.0) {
+			return MISS;
+		}
+
+		if (enter >= 0.0) {
+			setNormal(normal, axis == 0 ? -dx : 0.0, axis == 1 ? -dy : 0.0, axis == 2 ? -dz : 0.0);
+			return (float) enter;
+		}
+
+		// The boxes already overlap, and are pushed apart along the axis they overlap least on.
+		double overlap = Double.POSITIVE_INFINITY;
+		double nx = 0.0;
+		double ny = 0.0;
+		double nz = 0.0;
+
+		for (int i = 0; i < 3; i++) {
+			double below = i == 0 ? maxX - otherMinX : i == 1 ? maxY - otherMinY : maxZ - otherMinZ;
+			double above = i == 0 ? otherMaxX - minX : i == 1 ? otherMaxY - minY : otherMaxZ - minZ;
+			double depth = Math.min(below, above);
+
+			if (depth < overlap) {
+				overlap = depth;
+				double sign = below < above ? -1.0 : 1.0;
+				nx = i == 0 ? sign : 0.0;
+				ny = i == 1 ? sign : 0.0;
+				nz = i == 2 ? sign : 0.0;
+			}
+		}
+
+		return overlapping(dx, dy, dz, nx, ny, nz, normal);
+	}
+
+	private static float sphereSphere(float x, float y, float z, float radius, float dx, float dy, float dz, float otherX, float otherY, float otherZ, Vector3f normal) {
+		double mx = x - otherX;
+		double my = y - otherY;
+		double mz = z - otherZ;
+		double c = mx * mx + my * my + mz * mz - (double) radius * radius;
+
+		if (c <= 0.0) {
+			if (mx == 0.0 && my == 0.0 && mz == 0.0) {
+				return overlapping(dx, dy, dz, -dx, -dy, -dz, normal);
+			}
+
+			return overlapping(dx, dy, dz, mx, my, mz, normal);
+		}
+
+		double a = (double) dx * dx + (double) dy * dy + (double) dz * dz;
+		double b = mx * dx + my * dy + mz * dz;
+
+		if (a == 0.0 || b >= 0.0) {
+			return MISS;
+		}
+
+		double discriminant = b * b - a * c;
+
+		if (discriminant < 0.0) {
+			return MISS;
+		}
+
+		double time = (-b - Math.sqrt(discriminant)) / a;
+
+		if (time > 1.0) {
+			return MISS;
+		}
+
+		setNormal(normal, mx + dx * time, my + dy * time, mz + dz * time);
+		return (float) time;
+	}
+
+	private static float sphereBox(float x, float y, float z, float radius, float dx, float dy, float dz,
+	                               float minX, float minY, float minZ, float maxX, float maxY, float maxZ, Vector3f normal) {
+		double qx = Math.max(minX, Math.min(x, maxX));
+		double qy = Math.max(minY, Math.min(y, maxY));
+		double qz = Math.max(minZ, Math.min(z, maxZ));
+		double ox = x - qx;
+		double oy = y - qy;
+		double oz = z - qz;
+
+		if (ox * ox + oy * oy + oz * oz <= (double) radius * radius) {
+			// A centre inside of the box is pushed out like a box with no size.
+			if (ox == 0.0 && oy == 0.0 && oz == 0.0) {
+				return boxBox(x, y, z, x, y, z, dx, dy, dz, minX, minY, minZ, maxX, maxY, maxZ, normal);
+			}
+
+			return overlapping(dx, dy, dz, ox, oy, oz, normal);
+		}
+
+		// The centre is cast at the box grown by the radius, the grown box has rounded edges so hits past the sides of the box are cast again.
+		double enter = Double.NEGATIVE_INFINITY;
+		double exit = 1.0;
+		int axis = -1;
+
+		for (int i = 0; i < 3; i++) {
+			double d = i == 0 ? dx : i == 1 ? dy : dz;
+			double p = i == 0 ? x : i == 1 ? y : z;
+			double low = (double) (i == 0 ? minX : i == 1 ? minY : minZ) - radius;
+			double high = (double) (i == 0 ? maxX : i == 1 ? maxY : maxZ) + radius;
+
+			if (d == 0.0) {
+				if (p < low || p > high) {
+					return MISS;
+				}
+
+				continue;
+			}
+
+			double near = ((d > 0.0 ? low : high) - p) / d;
+			double far = ((d > 0.0 ? high : low) - p) / d;
+
+			if (near > enter) {
+				enter = near;
+				axis = i;
+			}
+
+			exit = Math.min(exit, far);
+
+			if (enter > exit) {
+				return MISS;
+			}
+		}
+
+		// A centre starting inside of the grown box only touches the box, it is cast from the start of the path.
+		enter = Math.max(enter, 0.0);
+
+		if (enter > exit) {
+			return MISS;
+		}
+
+		double hx = x + dx * enter;
+		double hy = y + dy * enter;
+		double hz = z + dz * enter;
+		int below = (hx < minX ? 1 : 0) | (hy < minY ? 2 : 0) | (hz < minZ ? 4 : 0);
+		int above = (hx > maxX ? 1 : 0) | (hy > maxY ? 2 : 0) | (hz > maxZ ? 4 : 0);
+		int outside = below | above;
+
+		// Hits on a face of the grown box are on the flat part.
+		if (Integer.bitCount(outside) <= 1 && axis >= 0) {
+			setNormal(normal, axis == 0 ? -dx : 0.0, axis == 1 ? -dy : 0.0, axis == 2 ? -dz : 0.0);
+			return (float) enter;
+		}
+
+		// Hits past a edge are cast at the capsule around the edge, hits past a corner at the capsules of the three edges meeting at it.
+		float cornerX = (above & 1) != 0 ? maxX : minX;
+		float cornerY = (above & 2) != 0 ? maxY : minY;
+		float cornerZ = (above & 4) != 0 ? maxZ : minZ;
+		float time = MISS;
+
+		for (int i = 0; i < 3; i++) {
+			if ((outside & (1 << i)) != 0 && Integer.bitCount(outside) == 2) {
+				continue;
+			}
+
+			float length = i == 0 ? maxX - minX : i == 1 ? maxY - minY : maxZ - minZ;
+			float startX = i == 0 ? minX : cornerX;
+			float startY = i == 1 ? minY : cornerY;
+			float startZ = i == 2 ? minZ : cornerZ;
+			time = Math.min(time, capsule(x, y, z, radius, dx, dy, dz, startX, startY, startZ, i, length, time, normal));
+		}
+
+		return time;
+	}
+
+	/**
+	 * Casts a point at a capsule along a axis, the normal is only written if the hit is before the best time.
+	 */
+	private static float capsule(float x, float y, float z, float radius, float dx, float dy, float dz,
+	                             float startX, float startY, float startZ, int axis, float length, float best, Vector3f normal) {
+		// The side of the capsule is a circle on the other two axes.
+		double pu = axis == 0 ? y - startY : x - startX;
+		double pv = axis == 2 ? y - startY : z - startZ;
+		double du = axis == 0 ? dy : dx;
+		double dv = axis == 2 ? dy : dz;
+		double a = du * du + dv * dv;
+		double b = pu * du + pv * dv;
+		double c = pu * pu + pv * pv - (double) radius * radius;
+		double discriminant = b * b - a * c;
+		float time = best;
+
+		if (a > 0.0 && b < 0.0 && discriminant >= 0.0) {
+			double side = c <= 0.0 ? 0.0 : (-b - Math.sqrt(discriminant)) / a;
+			double along = (axis == 0 ? x - startX : axis == 1 ? y - startY : z - startZ) + (axis == 0 ? dx : axis == 1 ? dy : dz) * side;
+
+			if (side >= 0.0 && side <= 1.0 && side < time && along >= 0.0 && along <= length) {
+				time = (float) side;
+				double nu = pu + du * side;
+				double nv = pv + dv * side;
+				setNormal(normal, axis == 0 ? 0.0 : nu, axis == 0 ? nu : axis == 1 ? 0.0 : nv, axis == 2 ? 0.0 : nv);
+			}
+		}
+
+		// The ends of the capsule are spheres.
+		for (int end = 0; end < 2; end++) {
+			float endX = startX + (axis == 0 ? length * end : 0.0f);
+			float endY = startY + (axis == 1 ? length * end : 0.0f);
+			float endZ = startZ + (axis == 2 ? length * end : 0.0f);
+			double mx = x - endX;
+			double my = y - endY;
+			double mz = z - endZ;
+			double sa = (double) dx * dx + (double) dy * dy + (double) dz * dz;
+			double sb = mx * dx + my * dy + mz * dz;
+			double sc = mx * mx + my * my + mz * mz - (double) radius * radius;
+			double sd = sb * sb - sa * sc;
+
+			if (sa > 0.0 && sb < 0.0 && sd >= 0.0) {
+				double hit = sc <= 0.0 ? 0.0 : (-sb - Math.sqrt(sd)) / sa;
+
+				if (hit <= 1.0 && hit < time) {
+					time = (float) hit;
+					setNormal(normal, mx + dx * hit, my + dy * hit, mz + dz * hit);
+				}
+			}
+		}
+
+		return time;
+	}
+
+	private static float rayHull(float x, float y, float z, float dx, float dy, float dz, QuickHull hull, Vector3f normal) {
+		HullData data = hull.getHullData();
+
+		if (data == null || data.getFaceCount() == 0) {
+			return MISS;
+		}
+
+		// Moves the ray into the space of the hull by inverting the model matrix.
+		Matrix4f m = hull.getModelMatrix();
+		double i00 = (double) m.m11 * m.m22 - (double) m.m21 * m.m12;
+		double i01 = (double) m.m20 * m.m12 - (double) m.m10 * m.m22;
+		double i02 = (double) m.m10 * m.m21 - (double) m.m20 * m.m11;
+		double determinant = m.m00 * i00 + m.m01 * i01 + m.m02 * i02;
+
+		if (determinant == 0.0) {
+			return MISS;
+		}
+
+		double i10 = ((double) m.m21 * m.m02 - (double) m.m01 * m.m22) / determinant;
+		double i11 = ((double) m.m00 * m.m22 - (double) m.m20 * m.m02) / determinant;
+		double i12 = ((double) m.m20 * m.m01 - (double) m.m00 * m.m21) / determinant;
+		double i20 = ((double) m.m01 * m.m12 - (double) m.m11 * m.m02) / determinant;
+		double i21 = ((double) m.m10 * m.m02 - (double) m.m00 * m.m12) / determinant;
+		double i22 = ((double) m.m00 * m.m11 - (double) m.m10 * m.m01) / determinant;
+		i00 /= determinant;
+		i01 /= determinant;
+		i02 /= determinant;
+
+		double px = x - m.m30;
+		double py = y - m.m31;
+		double pz = z - m.m32;
+		double lx = i00 * px + i01 * py + i02 * pz;
+		double ly = i10 * px + i11 * py + i12 * pz;
+		double lz = i20 * px + i21 * py + i22 * pz;
+		double ldx = i00 * dx + i01 * dy + i02 * dz;
+		double ldy = i10 * dx + i11 * dy + i12 * dz;
+		double ldz = i20 * dx + i21 * dy + i22 * dz;
+
+		// Clips the ray by each face plane, the ray hits the last plane it enters if it enters it before leaving another.
+		float[] planes = data.getPlanes();
+		double enter = Double.NEGATIVE_INFINITY;
+		double exit = Double.POSITIVE_INFINITY;
+		int face = -1;
+
+		for (int i = 0; i < planes.length; i += 4) {
+			double distance = planes[i] * lx + planes[i + 1] * ly + planes[i + 2] * lz + planes[i + 3];
+			double speed = planes[i] * ldx + planes[i + 1] * ldy + planes[i + 2] * ldz;
+
+			if (speed == 0.0) {
+				if (distance > 0.0) {
+					return MISS;
+				}
+
+				continue;
+			}
+
+			double time = -distance / speed;
+
+			if (speed < 0.0) {
+				if (time > enter) {
+					enter = time;
+					face = i;
+				}
+			} else {
+				exit = Math.min(exit, time);
+			}
+
+			if (enter > exit) {
+				return MISS;
+			}
+		}
+
+		if (face < 0 || enter < 0.0 || enter > 1.0) {
+			return MISS;
+		}
+
+		// Normals are moved out of the space of the hull by the inverse transpose of the model matrix.
+		double nx = planes[face];
+		double ny = planes[face + 1];
+		double nz = planes[face + 2];
+		setNormal(normal, i00 * nx + i10 * ny + i20 * nz, i01 * nx + i11 * ny + i21 * nz, i02 * nx + i12 * ny + i22 * nz);
+		return (float) enter;
+	}
+
+	/**
+	 * Gives the time of a hit between shapes that already overlap, they only hit if the path does not move the shape out along the normal.
+	 */
+	private static float overlapping(float dx, float dy, float dz, double nx, double ny, double nz, Vector3f normal) {
+		if (dx * nx + dy * ny + dz * nz >= 0.0) {
+			return MISS;
+		}
+
+		setNormal(normal, nx, ny, nz);
+		return 0.0f;
+	}
+
+	private static void setNormal(Vector3f normal, double x, double y, double z) {
+		if (normal == null) {
+			return;
+		}
+
+		double length = Math.sqrt(x * x + y * y + z * z);
+
+		if (length == 0.0) {
+			normal.set(0.0f, 0.0f, 0.0f);
+			return;
+		}
+
+		normal.set((float) (x / length), (float) (y / length), (float) (z / length));
+	}
+}
@@ -36,7 +36,7 @@ public class FlounderBounding extends com.flounder.framework.Module {
 	}
 
 	/**
-	 * Adds a shape to the render pool. (Run every frame).
+	 * Adds a shape to the render pool. (Run every frame). Shapes can be added from entities being updated in parallel.
 	 *
 	 * @param shape The shape to add.
 	 */
@@ -45,16 +45,18 @@ public class FlounderBounding extends com.flounder.framework.Module {
 			return;
 		}
 
-		for (ModelObject model : renderShapes.keySet()) {
-			if (model.equals(shape.getRenderModel())) {
-				renderShapes.get(model).add(shape);
-				return;
+		synchronized (renderShapes) {
+			for (ModelObject model : renderShapes.keySet()) {
+				if (model.equals(shape.getRenderModel())) {
+					renderShapes.get(model).add(shape);
+					return;
+				}
 			}
-		}
 
-		List<Collider> list = new ArrayList<>();
-		list.add(shape);
-		renderShapes.put(shape.getRenderModel(), list);
+			List<Collider> list = new ArrayList<>();
+			list.add(shape);
+			renderShapes.put(shape.getRenderModel(), list);
+		}
 	}
 
 	/**
@@ -0,0 +1,270 @@
+package com.flounder.physics.collision;
+
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+import com.flounder.space.*;
+
+import java.util.*;
+
+/**
+ * A batch of rays and moving shapes cast into the collision world in one call, stored as a structure of arrays. Each cast only writes its own
+ * results, so large batches are split over threads and give the same results however they are split.
+ */
+public class CastBatch {
+	private static final int BLOCK_SIZE = 64;
+
+	private int[] shapes;
+	private float[] data;
+	private float[] paths;
+	private CollisionBody[] ignored;
+	private CollisionBody[] hits;
+	private float[] times;
+	private float[] normals;
+	private int size;
+
+	/**
+	 * Creates a new empty batch.
+	 */
+	public CastBatch() {
+		this(BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates a new empty batch.
+	 *
+	 * @param capacity The number of casts to allocate space for.
+	 */
+	public CastBatch(int capacity) {
+		capacity = Math.max(capacity, 1);
+		this.shapes = new int[capacity];
+		this.data = new float[capacity * 6];
+		this.paths = new float[capacity * 3];
+		this.ignored = new CollisionBody[capacity];
+		this.hits = new CollisionBody[capacity];
+		this.times = new float[capacity];
+		this.normals = new float[capacity * 3];
+		this.size = 0;
+	}
+
+	/**
+	 * Makes sure the batch can hold a number of casts without growing.
+	 *
+	 * @param capacity The number of casts.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity <= shapes.length) {
+			return;
+		}
+
+		capacity = Math.max(capacity, shapes.length * 2);
+		shapes = Arrays.copyOf(shapes, capacity);
+		data = Arrays.copyOf(data, capacity * 6);
+		paths = Arrays.copyOf(paths, capacity * 3);
+		ignored = Arrays.copyOf(ignored, capacity);
+		hits = Arrays.copyOf(hits, capacity);
+		times = Arrays.copyOf(times, capacity);
+		normals = Arrays.copyOf(normals, capacity * 3);
+	}
+
+	/**
+	 * Adds a ray to the end of the batch.
+	 *
+	 * @param origin The origin of the ray.
+	 * @param direction The direction of the ray, does not need to be normalized.
+	 * @param length The length of the ray.
+	 * @param ignore The body whose entity the ray can not hit, or null.
+	 *
+	 * @return The index of the cast.
+	 */
+	public int addRay(Vector3f origin, Vector3f direction, float length, CollisionBody ignore) {
+		ensureCapacity(size + 1);
+		setRay(size, origin, direction, length, ignore);
+		return size++;
+	}
+
+	/**
+	 * Adds a moving box or sphere to the end of the batch.
+	 *
+	 * @param collider The box or sphere to cast.
+	 * @param path The path the collider is moved along.
+	 * @param ignore The body whose entity the collider can not hit, or null.
+	 *
+	 * @return The index of the cast.
+	 *
+	 * @throws IllegalArgumentException If the collider is not a box or sphere.
+	 */
+	public int addCollider(Collider collider, Vector3f path, CollisionBody ignore) throws IllegalArgumentException {
+		ensureCapacity(size + 1);
+		setCollider(size, collider, path, ignore);
+		return size++;
+	}
+
+	/**
+	 * Sets the number of casts in the batch, casts that have not been set keep their last values.
+	 *
+	 * @param size The number of casts.
+	 */
+	public void setSize(int size) {
+		ensureCapacity(size);
+		this.size = size;
+	}
+
+	/**
+	 * Sets a cast in the batch to a ray.
+	 *
+	 * @param index The index of the cast.
+	 * @param ray The ray to cast, from its origin along its current ray.
+	 * @param length The length of the ray.
+	 * @param ignore The body whose entity the ray can not hit, or null.
+	 */
+	public void setRay(int index, Ray ray, float length, CollisionBody ignore) {
+		setRay(index, ray.getOrigin(), ray.getCurrentRay(), length, ignore);
+	}
+
+	/**
+	 * Sets a cast in the batch to a ray.
+	 *
+	 * @param index The index of the cast.
+	 * @param origin The origin of the ray.
+	 * @param direction The direction of the ray, does not need to be normalized.
+	 * @param length The length of the ray.
+	 * @param ignore The body whose entity the ray can not hit, or null.
+	 */
+	public void setRay(int index, Vector3f origin, Vector3f direction, float length, CollisionBody ignore) {
+		float directionLength = direction.length();
+		float scale = directionLength == 0.0f ? 0.0f : length / directionLength;
+		shapes[index] = Caster.RAY;
+		data[index * 6] = origin.x;
+		data[index * 6 + 1] = origin.y;
+		data[index * 6 + 2] = origin.z;
+		paths[index * 3] = direction.x * scale;
+		paths[index * 3 + 1] = direction.y * scale;
+		paths[index * 3 + 2] = direction.z * scale;
+		ignored[index] = ignore;
+	}
+
+	/**
+	 * Sets a cast in the batch to a moving box or sphere.
+	 *
+	 * @param index The index of the cast.
+	 * @param collider The box or sphere to cast.
+	 * @param path The path the collider is moved along.
+	 * @param ignore The body whose entity the collider can not hit, or null.
+	 *
+	 * @throws IllegalArgumentException If the collider is not a box or sphere.
+	 */
+	public void setCollider(int index, Collider collider, Vector3f path, CollisionBody ignore) throws IllegalArgumentException {
+		int offset = index * 6;
+
+		if (collider instanceof AABB) {
+			AABB aabb = (AABB) collider;
+			shapes[index] = Caster.BOX;
+			data[offset] = aabb.getMinExtents().x;
+			data[offset + 1] = aabb.getMinExtents().y;
+			data[offset + 2] = aabb.getMinExtents().z;
+			data[offset + 3] = aabb.getMaxExtents().x;
+			data[offset + 4] = aabb.getMaxExtents().y;
+			data[offset + 5] = aabb.getMaxExtents().z;
+		} else if (collider instanceof Sphere) {
+			Sphere sphere = (Sphere) collider;
+			shapes[index] = Caster.SPHERE;
+			data[offset] = sphere.getPosition().x;
+			data[offset + 1] = sphere.getPosition().y;
+			data[offset + 2] = sphere.getPosition().z;
+			data[offset + 3] = sphere.getRadius();
+		} else {
+			throw new IllegalArgumentException("A " + collider.getClass().getSimpleName() + " can not be cast!");
+		}
+
+		paths[index * 3] = path.x;
+		paths[index * 3 + 1] = path.y;
+		paths[index * 3 + 2] = path.z;
+		ignored[index] = ignore;
+	}
+
+	/**
+	 * Casts a range of the batch through a broad phase, writing the results of each cast.
+	 *
+	 * @param from The first cast.
+	 * @param to The cast after the last cast.
+	 * @param caster The caster to use, owned by the calling thread.
+	 * @param broadPhase The broad phase of the world.
+	 */
+	void cast(int from, int to, Caster caster, StructureAABBTree<CollisionBody> broadPhase) {
+		for (int i = from; i < to; i++) {
+			caster.set(shapes[i], data, i * 6, paths[i * 3], paths[i * 3 + 1], paths[i * 3 + 2], ignored[i]);
+			times[i] = caster.cast(broadPhase);
+			hits[i] = caster.getHit();
+			normals[i * 3] = caster.getNormal().x;
+			normals[i * 3 + 1] = caster.getNormal().y;
+			normals[i * 3 + 2] = caster.getNormal().z;
+		}
+	}
+
+	/**
+	 * Removes all casts from the batch.
+	 */
+	public void clear() {
+		Arrays.fill(ignored, 0, size, null);
+		Arrays.fill(hits, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of casts in the batch.
+	 *
+	 * @return The number of casts.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets if a cast hit a body.
+	 *
+	 * @param index The index of the cast.
+	 *
+	 * @return If a body was hit.
+	 */
+	public boolean isHit(int index) {
+		return hits[index] != null;
+	}
+
+	/**
+	 * Gets the body hit by a cast.
+	 *
+	 * @param index The index of the cast.
+	 *
+	 * @return The body hit, or null if nothing was hit.
+	 */
+	public CollisionBody getHit(int index) {
+		return hits[index];
+	}
+
+	/**
+	 * Gets the time along the path a cast hit a body at, from 0 at the start of the path to 1 at the end.
+	 *
+	 * @param index The index of the cast.
+	 *
+	 * @return The time of the hit, or {@link Sweep#MISS} if nothing was hit.
+	 */
+	public float getTime(int index) {
+		return times[index];
+	}
+
+	/**
+	 * Gets the normal of the surface hit by a cast, pointing out of the body hit.
+	 *
+	 * @param index The index of the cast.
+	 * @param destination The destination normal or null if a new normal is to be created.
+	 *
+	 * @return The normal of the hit.
+	 */
+	public Vector3f getNormal(int index, Vector3f destination) {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		return destination.set(normals[index * 3], normals[index * 3 + 1], normals[index * 3 + 2]);
+	}
+}
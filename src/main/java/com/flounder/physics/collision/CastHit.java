@@ -0,0 +1,69 @@
+package com.flounder.physics.collision;
+
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+
+/**
+ * The closest body hit by a cast, with the time along the cast path it was hit at and the normal of the surface that was hit.
+ */
+public class CastHit {
+	private CollisionBody body;
+	private float time;
+	private Vector3f normal;
+
+	/**
+	 * Creates a new cast hit that has not hit anything.
+	 */
+	public CastHit() {
+		this.body = null;
+		this.time = Sweep.MISS;
+		this.normal = new Vector3f();
+	}
+
+	protected void set(CollisionBody body, float time, Vector3f normal) {
+		this.body = body;
+		this.time = time;
+		this.normal.set(normal);
+	}
+
+	/**
+	 * Gets if the cast hit a body.
+	 *
+	 * @return If a body was hit.
+	 */
+	public boolean isHit() {
+		return body != null;
+	}
+
+	/**
+	 * Gets the body hit by the cast.
+	 *
+	 * @return The body hit, or null if nothing was hit.
+	 */
+	public CollisionBody getBody() {
+		return body;
+	}
+
+	/**
+	 * Gets the time along the cast path the body was hit at, from 0 at the start of the path to 1 at the end.
+	 *
+	 * @return The time of the hit, or {@link Sweep#MISS} if nothing was hit.
+	 */
+	public float getTime() {
+		return time;
+	}
+
+	/**
+	 * Gets the normal of the surface hit, pointing out of the body hit.
+	 *
+	 * @return The normal of the hit.
+	 */
+	public Vector3f getNormal() {
+		return normal;
+	}
+
+	@Override
+	public String toString() {
+		return "CastHit{" + "body=" + body + ", time=" + time + ", normal=" + normal + "}";
+	}
+}
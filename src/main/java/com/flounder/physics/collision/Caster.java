@@ -0,0 +1,216 @@
+package com.flounder.physics.collision;
+
+import com.flounder.entities.*;
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+import com.flounder.space.*;
+
+import java.util.function.*;
+
+/**
+ * Casts a ray, box or sphere through the broad phase and keeps the closest body hit. Rays can hit boxes, spheres and hulls, boxes and spheres can
+ * hit boxes and spheres. Casters only read the world, so casts can run on many threads at once, each with its own caster.
+ */
+final class Caster implements ToDoubleFunction<CollisionBody> {
+	static final int RAY = 0;
+	static final int BOX = 1;
+	static final int SPHERE = 2;
+
+	private int shape;
+	private float[] start;
+	private float x;
+	private float y;
+	private float z;
+	private float radius;
+	private float dx;
+	private float dy;
+	private float dz;
+	private CollisionBody ignore;
+	private Vector3f normal;
+
+	private CollisionBody hit;
+	private float time;
+	private Vector3f hitNormal;
+
+	/**
+	 * Creates a new caster.
+	 */
+	Caster() {
+		this.shape = RAY;
+		this.start = new float[6];
+		this.radius = 0.0f;
+		this.ignore = null;
+		this.normal = new Vector3f();
+
+		this.hit = null;
+		this.time = Sweep.MISS;
+		this.hitNormal = new Vector3f();
+	}
+
+	/**
+	 * Sets the shape to cast.
+	 *
+	 * @param shape The shape, a ray, box or sphere.
+	 * @param data The shape data, a origin, min and max extents, or a position and radius.
+	 * @param offset The offset of the shape in the data.
+	 * @param dx The X distance along the path.
+	 * @param dy The Y distance along the path.
+	 * @param dz The Z distance along the path.
+	 * @param ignore The body whose entity can not be hit, or null.
+	 */
+	void set(int shape, float[] data, int offset, float dx, float dy, float dz, CollisionBody ignore) {
+		if (shape == BOX) {
+			System.arraycopy(data, offset, start, 0, 6);
+		} else {
+			this.x = data[offset];
+			this.y = data[offset + 1];
+			this.z = data[offset + 2];
+			this.radius = shape == SPHERE ? data[offset + 3] : 0.0f;
+
+			// The broad phase is searched with the box around the shape.
+			start[0] = x - radius;
+			start[1] = y - radius;
+			start[2] = z - radius;
+			start[3] = x + radius;
+			start[4] = y + radius;
+			start[5] = z + radius;
+		}
+
+		this.shape = shape;
+		this.dx = dx;
+		this.dy = dy;
+		this.dz = dz;
+		this.ignore = ignore;
+	}
+
+	/**
+	 * Sets a ray to cast.
+	 *
+	 * @param x The X origin of the ray.
+	 * @param y The Y origin of the ray.
+	 * @param z The Z origin of the ray.
+	 * @param dx The X distance along the path.
+	 * @param dy The Y distance along the path.
+	 * @param dz The Z distance along the path.
+	 * @param ignore The body whose entity can not be hit, or null.
+	 */
+	void setRay(float x, float y, float z, float dx, float dy, float dz, CollisionBody ignore) {
+		start[0] = x;
+		start[1] = y;
+		start[2] = z;
+		set(RAY, start, 0, dx, dy, dz, ignore);
+	}
+
+	/**
+	 * Sets a box or sphere to cast.
+	 *
+	 * @param collider The box or sphere.
+	 * @param offsetX The X distance the collider is moved to before casting.
+	 * @param offsetY The Y distance the collider is moved to before casting.
+	 * @param offsetZ The Z distance the collider is moved to before casting.
+	 * @param dx The X distance along the path.
+	 * @param dy The Y distance along the path.
+	 * @param dz The Z distance along the path.
+	 * @param ignore The body whose entity can not be hit, or null.
+	 *
+	 * @throws IllegalArgumentException If the collider is not a box or sphere.
+	 */
+	void set(Collider collider, float offsetX, float offsetY, float offsetZ, float dx, float dy, float dz, CollisionBody ignore) throws IllegalArgumentException {
+		if (collider instanceof AABB) {
+			Vector3f min = ((AABB) collider).getMinExtents();
+			Vector3f max = ((AABB) collider).getMaxExtents();
+			start[0] = min.x + offsetX;
+			start[1] = min.y + offsetY;
+			start[2] = min.z + offsetZ;
+			start[3] = max.x + offsetX;
+			start[4] = max.y + offsetY;
+			start[5] = max.z + offsetZ;
+			set(BOX, start, 0, dx, dy, dz, ignore);
+		} else if (collider instanceof Sphere) {
+			Vector3f position = ((Sphere) collider).getPosition();
+			start[0] = position.x + offsetX;
+			start[1] = position.y + offsetY;
+			start[2] = position.z + offsetZ;
+			start[3] = ((Sphere) collider).getRadius();
+			set(SPHERE, start, 0, dx, dy, dz, ignore);
+		} else {
+			throw new IllegalArgumentException("A " + collider.getClass().getSimpleName() + " can not be cast!");
+		}
+	}
+
+	/**
+	 * Casts the shape through a broad phase.
+	 *
+	 * @param broadPhase The broad phase of the world.
+	 *
+	 * @return The time of the closest hit, or {@link Sweep#MISS} if nothing was hit.
+	 */
+	float cast(StructureAABBTree<CollisionBody> broadPhase) {
+		hit = null;
+		time = Sweep.MISS;
+		broadPhase.castBox(start, dx, dy, dz, this);
+		return time;
+	}
+
+	@Override
+	public double applyAsDouble(CollisionBody body) {
+		Entity entity = body.getEntity();
+
+		// Ignores the casting entity, and removed entities.
+		if (ignore != null && entity == ignore.getEntity() || entity.isRemoved()) {
+			return Sweep.MISS;
+		}
+
+		Collider collider = entity.getCollider();
+		float found;
+
+		if (collider instanceof AABB || collider instanceof Sphere) {
+			if (shape == RAY) {
+				found = Sweep.ray(x, y, z, dx, dy, dz, collider, normal);
+			} else if (shape == BOX) {
+				found = Sweep.box(start[0], start[1], start[2], start[3], start[4], start[5], dx, dy, dz, collider, normal);
+			} else {
+				found = Sweep.sphere(x, y, z, radius, dx, dy, dz, collider, normal);
+			}
+		} else if (collider instanceof QuickHull && shape == RAY) {
+			found = Sweep.ray(x, y, z, dx, dy, dz, collider, normal);
+		} else {
+			return Sweep.MISS;
+		}
+
+		if (found < time) {
+			time = found;
+			hit = body;
+			hitNormal.set(normal);
+		}
+
+		return found;
+	}
+
+	/**
+	 * Gets the closest body hit by the last cast.
+	 *
+	 * @return The body hit, or null if nothing was hit.
+	 */
+	CollisionBody getHit() {
+		return hit;
+	}
+
+	/**
+	 * Gets the time along the path of the closest hit.
+	 *
+	 * @return The time of the hit.
+	 */
+	float getTime() {
+		return time;
+	}
+
+	/**
+	 * Gets the normal of the closest hit, pointing out of the body hit.
+	 *
+	 * @return The normal of the hit.
+	 */
+	Vector3f getNormal() {
+		return hitNormal;
+	}
+}
@@ -0,0 +1,267 @@
+package com.flounder.physics.collision;
+
+import com.flounder.entities.*;
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+import com.flounder.space.*;
+
+import java.util.*;
+
+/**
+ * A entity in the collision world. The broad phase pairs bodies by their swept bounds, the box covering the entity collider and the movement
+ * expected in the next tick.
+ */
+public class CollisionBody implements ISpatialObject {
+	private Entity entity;
+	private AABB bounds;
+	private boolean bounded;
+	private Vector3f lastPosition;
+	private Class<?> colliderClass;
+	private int colliderType;
+	private List<Contact> contacts;
+	private int bodyIndex;
+
+	private int moveIndex;
+	private Vector3f moveAmount;
+	private Vector3f moveResult;
+	private AABB moveRange;
+	private boolean moveRanged;
+	private boolean moveCast;
+	private Collider moveCollider;
+	private Collider movedCollider;
+
+	/**
+	 * Creates a new collision body.
+	 *
+	 * @param entity The entity the body follows.
+	 */
+	protected CollisionBody(Entity entity) {
+		this.entity = entity;
+		this.bounds = new AABB();
+		this.bounded = false;
+		this.lastPosition = new Vector3f(entity.getPosition());
+		this.colliderClass = null;
+		this.colliderType = -1;
+		this.contacts = new ArrayList<>();
+		this.bodyIndex = -1;
+
+		this.moveIndex = -1;
+		this.moveAmount = new Vector3f();
+		this.moveResult = new Vector3f();
+		this.moveRange = new AABB();
+		this.moveRanged = false;
+		this.moveCast = false;
+		this.moveCollider = null;
+		this.movedCollider = null;
+	}
+
+	/**
+	 * Reads the axis aligned box around a collider, only boxes and spheres have known bounds.
+	 *
+	 * @param collider The collider to read.
+	 * @param destination The box to store the bounds into.
+	 *
+	 * @return If the collider has known bounds.
+	 */
+	protected static boolean readBounds(Collider collider, AABB destination) {
+		if (collider instanceof AABB) {
+			destination.setMinExtents(((AABB) collider).getMinExtents());
+			destination.setMaxExtents(((AABB) collider).getMaxExtents());
+			return true;
+		} else if (collider instanceof Sphere) {
+			Vector3f position = ((Sphere) collider).getPosition();
+			float radius = ((Sphere) collider).getRadius();
+			destination.setMinExtents(position.x - radius, position.y - radius, position.z - radius);
+			destination.setMaxExtents(position.x + radius, position.y + radius, position.z + radius);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Gets the narrow phase type of the entity collider, the type is only looked up again when the class of the collider changes.
+	 *
+	 * @param narrowPhase The narrow phase table.
+	 * @param collider The entity collider.
+	 *
+	 * @return The collider type.
+	 */
+	protected int getColliderType(NarrowPhase narrowPhase, Collider collider) {
+		if (collider.getClass() != colliderClass) {
+			colliderClass = collider.getClass();
+			colliderType = narrowPhase.getType(colliderClass);
+		}
+
+		return colliderType;
+	}
+
+	/**
+	 * Copies the collider of the body moved by the resolved move, only boxes and spheres can be moved.
+	 *
+	 * @return The moved collider, or null if the collider can not be moved.
+	 */
+	protected Collider updateMovedCollider() {
+		if (moveCollider instanceof AABB) {
+			AABB source = (AABB) moveCollider;
+			AABB moved = movedCollider instanceof AABB ? (AABB) movedCollider : new AABB();
+			moved.setMinExtents(source.getMinExtents().x + moveResult.x, source.getMinExtents().y + moveResult.y, source.getMinExtents().z + moveResult.z);
+			moved.setMaxExtents(source.getMaxExtents().x + moveResult.x, source.getMaxExtents().y + moveResult.y, source.getMaxExtents().z + moveResult.z);
+			movedCollider = moved;
+		} else if (moveCollider instanceof Sphere) {
+			Sphere source = (Sphere) moveCollider;
+			Sphere moved = movedCollider instanceof Sphere ? (Sphere) movedCollider : new Sphere();
+			moved.setRadius(source.getRadius());
+			moved.getPosition().set(source.getPosition().x + moveResult.x, source.getPosition().y + moveResult.y, source.getPosition().z + moveResult.z);
+			movedCollider = moved;
+		} else {
+			movedCollider = null;
+		}
+
+		return movedCollider;
+	}
+
+	/**
+	 * Finds the contact with another body.
+	 *
+	 * @param other The other body.
+	 *
+	 * @return The contact, or null if the bodies are not paired.
+	 */
+	public Contact getContact(CollisionBody other) {
+		for (int i = 0; i < contacts.size(); i++) {
+			Contact contact = contacts.get(i);
+
+			if (contact.getFirst() == other || contact.getSecond() == other) {
+				return contact;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the entity the body follows.
+	 *
+	 * @return The entity.
+	 */
+	public Entity getEntity() {
+		return entity;
+	}
+
+	/**
+	 * Gets the contacts with bodies close to this body.
+	 *
+	 * @return The contacts of the body.
+	 */
+	public List<Contact> getContacts() {
+		return contacts;
+	}
+
+	/**
+	 * Gets the swept bounds of the body.
+	 *
+	 * @return The swept bounds.
+	 */
+	public AABB getBounds() {
+		return bounds;
+	}
+
+	protected void setBounded(boolean bounded) {
+		this.bounded = bounded;
+	}
+
+	protected boolean isBounded() {
+		return bounded;
+	}
+
+	protected Vector3f getLastPosition() {
+		return lastPosition;
+	}
+
+	/**
+	 * Sets the body back to how it was created, before it is added to the collision world again after being removed.
+	 */
+	protected void reset() {
+		this.bounded = false;
+		this.lastPosition.set(entity.getPosition());
+		this.contacts.clear();
+
+		this.moveIndex = -1;
+		this.moveAmount.set(0.0f, 0.0f, 0.0f);
+		this.moveResult.set(0.0f, 0.0f, 0.0f);
+		this.moveRanged = false;
+		this.moveCast = false;
+	}
+
+	protected int getBodyIndex() {
+		return bodyIndex;
+	}
+
+	protected void setBodyIndex(int bodyIndex) {
+		this.bodyIndex = bodyIndex;
+	}
+
+	protected int getMoveIndex() {
+		return moveIndex;
+	}
+
+	protected void setMoveIndex(int moveIndex) {
+		this.moveIndex = moveIndex;
+	}
+
+	/**
+	 * Gets the move queued for the body this tick.
+	 *
+	 * @return The queued move amount.
+	 */
+	public Vector3f getMoveAmount() {
+		return moveAmount;
+	}
+
+	/**
+	 * Gets the last move resolved for the body.
+	 *
+	 * @return The resolved move amount.
+	 */
+	public Vector3f getMoveResult() {
+		return moveResult;
+	}
+
+	protected AABB getMoveRange() {
+		return moveRange;
+	}
+
+	protected boolean isMoveRanged() {
+		return moveRanged;
+	}
+
+	protected void setMoveRanged(boolean moveRanged) {
+		this.moveRanged = moveRanged;
+	}
+
+	protected boolean isMoveCast() {
+		return moveCast;
+	}
+
+	protected void setMoveCast(boolean moveCast) {
+		this.moveCast = moveCast;
+	}
+
+	protected Collider getMoveCollider() {
+		return moveCollider;
+	}
+
+	protected void setMoveCollider(Collider moveCollider) {
+		this.moveCollider = moveCollider;
+	}
+
+	protected Collider getMovedCollider() {
+		return movedCollider;
+	}
+
+	@Override
+	public Collider getCollider() {
+		return bounded ? bounds : null;
+	}
+}
@@ -0,0 +1,75 @@
+package com.flounder.physics.collision;
+
+/**
+ * A pair of bodies found close to each other by the broad phase, contacts are kept across ticks for as long as the bodies stay close.
+ */
+public class Contact {
+	private CollisionBody first;
+	private CollisionBody second;
+	private boolean touching;
+	private int tick;
+
+	/**
+	 * Creates a new contact.
+	 *
+	 * @param first The first body.
+	 * @param second The second body.
+	 * @param tick The tick the pair was found in.
+	 */
+	protected Contact(CollisionBody first, CollisionBody second, int tick) {
+		this.first = first;
+		this.second = second;
+		this.touching = false;
+		this.tick = tick;
+	}
+
+	/**
+	 * Gets the first body.
+	 *
+	 * @return The first body.
+	 */
+	public CollisionBody getFirst() {
+		return first;
+	}
+
+	/**
+	 * Gets the second body.
+	 *
+	 * @return The second body.
+	 */
+	public CollisionBody getSecond() {
+		return second;
+	}
+
+	/**
+	 * Gets the body on the other side of this contact.
+	 *
+	 * @param body One of the bodies in the contact.
+	 *
+	 * @return The other body.
+	 */
+	public CollisionBody getOther(CollisionBody body) {
+		return body == first ? second : first;
+	}
+
+	/**
+	 * Gets if the colliders of the bodies intersected in the last narrow phase.
+	 *
+	 * @return If the bodies are touching.
+	 */
+	public boolean isTouching() {
+		return touching;
+	}
+
+	protected void setTouching(boolean touching) {
+		this.touching = touching;
+	}
+
+	protected int getTick() {
+		return tick;
+	}
+
+	protected void setTick(int tick) {
+		this.tick = tick;
+	}
+}
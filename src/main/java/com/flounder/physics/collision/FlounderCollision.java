@@ -0,0 +1,840 @@
+package com.flounder.physics.collision;
+
+import com.flounder.entities.*;
+import com.flounder.framework.*;
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+import com.flounder.space.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * A module that finds collisions between entities once a tick. The broad phase pairs bodies with overlapping swept bounds using a AABB tree, pairs
+ * are kept as contacts across ticks, and the narrow phase tests each contact through a table of tests for each pair of collider types.
+ * Bodies moving out of their swept bounds during a tick are paired again straight away, so the contacts of a body always include every body it can hit.
+ * When moves are deferred they are queued through the tick, split into islands of bodies whose moves overlap, and resolved in parallel at the end of
+ * the update. Each island is resolved in the order its moves were queued, so the results do not depend on how the islands were split over threads.
+ * Spheres, and boxes moving over half their size in a tick, are cast along their move through the broad phase instead, so fast bodies stop at the
+ * first body in their path without being paired with every body near it.
+ */
+public class FlounderCollision extends com.flounder.framework.Module {
+	private static final float DEFAULT_MARGIN = 0.1f;
+	private static final int ISLAND_CHUNK = 64;
+	private static final int PARALLEL_THRESHOLD = 256;
+	private static final int CAST_CHUNK = 64;
+	private static final int MAX_SLIDES = 3;
+
+	private NarrowPhase narrowPhase;
+	private int boxType;
+	private StructureAABBTree<CollisionBody> broadPhase;
+	private List<CollisionBody> bodies;
+	private List<Contact> contacts;
+	private float margin;
+	private int tick;
+
+	private AABB tight;
+	private CollisionBody refitting;
+	private BiConsumer<CollisionBody, CollisionBody> pairFound;
+	private Consumer<CollisionBody> rangeFound;
+	private Caster caster;
+
+	private ForkJoinPool pool;
+	private boolean deferMoves;
+	private List<CollisionBody> moving;
+	private int[] islandParent;
+	private int[] islandOf;
+	private int[] islandStart;
+	private int[] islandOrder;
+	private int islandCount;
+
+	private long broadPhaseTime;
+	private long narrowPhaseTime;
+	private long resolveTime;
+	private int touchingCount;
+
+	/**
+	 * Creates a new collision world.
+	 */
+	public FlounderCollision() {
+		super();
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		this.narrowPhase = new NarrowPhase();
+		this.boxType = narrowPhase.getType(AABB.class);
+		this.broadPhase = new StructureAABBTree<>();
+		this.bodies = new ArrayList<>();
+		this.contacts = new ArrayList<>();
+		this.margin = DEFAULT_MARGIN;
+		this.tick = 0;
+
+		this.tight = new AABB();
+		this.refitting = null;
+		this.pairFound = this::pairFound;
+		this.rangeFound = this::rangeFound;
+		this.caster = new Caster();
+
+		this.pool = new ForkJoinPool(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1));
+		this.deferMoves = false;
+		this.moving = new ArrayList<>();
+		this.islandParent = new int[1];
+		this.islandOf = new int[1];
+		this.islandStart = new int[2];
+		this.islandOrder = new int[1];
+		this.islandCount = 0;
+
+		this.broadPhaseTime = 0;
+		this.narrowPhaseTime = 0;
+		this.resolveTime = 0;
+		this.touchingCount = 0;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		long start = System.nanoTime();
+		tick++;
+
+		// Sweeps the bounds of each body by how far it moved and tried to move in the last tick, expecting it to keep moving.
+		for (int i = 0; i < bodies.size(); i++) {
+			CollisionBody body = bodies.get(i);
+			Entity entity = body.getEntity();
+			Collider collider = entity.getCollider();
+			boolean bounded = !entity.isRemoved() && collider != null && CollisionBody.readBounds(collider, tight);
+
+			if (bounded) {
+				Vector3f position = entity.getPosition();
+				Vector3f last = body.getLastPosition();
+
+				// Bodies cast along their moves find what is in their path when moving, so are not swept.
+				if (body.isMoveCast()) {
+					AABB.expand(tight, body.getBounds(), margin, margin, margin);
+				} else {
+					AABB.stretch(tight, body.getBounds(), position.x - last.x, position.y - last.y, position.z - last.z);
+					AABB.stretch(body.getBounds(), body.getBounds(), body.getMoveAmount());
+					AABB.expand(body.getBounds(), body.getBounds(), margin, margin, margin);
+				}
+
+				last.set(position);
+			}
+
+			// Moves blocked in the last tick are likely to be tried again.
+			body.getMoveAmount().set(0.0f, 0.0f, 0.0f);
+			body.setBounded(bounded);
+			broadPhase.update(body);
+		}
+
+		broadPhase.queryPairs(pairFound);
+
+		// Removes contacts that were not found again, keeping the order of the others.
+		int kept = 0;
+
+		for (int i = 0; i < contacts.size(); i++) {
+			Contact contact = contacts.get(i);
+
+			if (contact.getTick() == tick) {
+				contacts.set(kept++, contact);
+			} else {
+				contact.getFirst().getContacts().remove(contact);
+				contact.getSecond().getContacts().remove(contact);
+			}
+		}
+
+		contacts.subList(kept, contacts.size()).clear();
+		broadPhaseTime = System.nanoTime() - start;
+
+		// Tests the colliders of each contact.
+		start = System.nanoTime();
+		touchingCount = 0;
+
+		for (int i = 0; i < contacts.size(); i++) {
+			Contact contact = contacts.get(i);
+			contact.setTouching(intersects(contact.getFirst(), contact.getSecond()));
+
+			if (contact.isTouching()) {
+				touchingCount++;
+			}
+		}
+
+		narrowPhaseTime = System.nanoTime() - start;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_POST)
+	public void resolveMoves() {
+		long start = System.nanoTime();
+		int count = moving.size();
+
+		if (islandParent.length < count) {
+			int length = Math.max(count, islandParent.length * 2);
+			islandParent = new int[length];
+			islandOf = new int[length];
+			islandStart = new int[length + 1];
+			islandOrder = new int[length];
+		}
+
+		// Refits each moving body on the update thread, this changes the broad phase and contacts.
+		for (int i = 0; i < count; i++) {
+			CollisionBody body = moving.get(i);
+			Entity entity = body.getEntity();
+			Collider collider = entity.isRemoved() ? null : entity.getCollider();
+			body.getMoveResult().set(body.getMoveAmount());
+			prepareMove(body, collider, body.getMoveAmount());
+			islandParent[i] = i;
+		}
+
+		// Joins bodies whose moves overlap into islands, and looks up the collider types the workers will need.
+		for (int i = 0; i < count; i++) {
+			CollisionBody body = moving.get(i);
+
+			if (!body.isMoveRanged()) {
+				continue;
+			}
+
+			for (int j = 0; j < body.getContacts().size(); j++) {
+				CollisionBody other = body.getContacts().get(j).getOther(body);
+				Collider collider = other.getEntity().getCollider();
+
+				if (collider != null) {
+					other.getColliderType(narrowPhase, collider);
+				}
+
+				if (other.getMoveIndex() >= 0 && other.isMoveRanged() && narrowPhase.intersects(boxType, body.getMoveRange(), boxType, other.getMoveRange())) {
+					unionIslands(i, other.getMoveIndex());
+				}
+			}
+		}
+
+		// Islands are numbered by their first queued body, and list their bodies in the order they were queued.
+		islandCount = 0;
+		Arrays.fill(islandStart, 0, count + 1, 0);
+
+		for (int i = 0; i < count; i++) {
+			int root = findIsland(i);
+			islandOf[i] = root == i ? islandCount++ : islandOf[root];
+			islandStart[islandOf[i] + 1]++;
+		}
+
+		for (int i = 0; i < islandCount; i++) {
+			islandStart[i + 1] += islandStart[i];
+		}
+
+		for (int i = 0; i < count; i++) {
+			islandOrder[islandStart[islandOf[i]]++] = i;
+		}
+
+		for (int i = islandCount; i > 0; i--) {
+			islandStart[i] = islandStart[i - 1];
+		}
+
+		islandStart[0] = 0;
+
+		if (count >= PARALLEL_THRESHOLD && pool.getParallelism() > 1) {
+			pool.invoke(new ResolveTask(0, islandCount));
+		} else {
+			resolveIslands(0, islandCount, caster);
+		}
+
+		// Moves the entities once every island is resolved.
+		for (int i = 0; i < count; i++) {
+			CollisionBody body = moving.get(i);
+			Vector3f result = body.getMoveResult();
+
+			if (!body.getEntity().isRemoved()) {
+				body.getEntity().getPosition().translate(result.x, result.y, result.z);
+				body.getEntity().setMoved();
+			}
+
+			body.setMoveIndex(-1);
+			body.setMoveCollider(null);
+		}
+
+		moving.clear();
+		resolveTime = System.nanoTime() - start;
+	}
+
+	private int findIsland(int index) {
+		while (islandParent[index] != index) {
+			islandParent[index] = islandParent[islandParent[index]];
+			index = islandParent[index];
+		}
+
+		return index;
+	}
+
+	private void unionIslands(int first, int second) {
+		first = findIsland(first);
+		second = findIsland(second);
+
+		// The root of an island is always its first queued body.
+		if (first < second) {
+			islandParent[second] = first;
+		} else if (second < first) {
+			islandParent[first] = second;
+		}
+	}
+
+	private void resolveIslands(int from, int to, Caster caster) {
+		for (int i = islandStart[from]; i < islandStart[to]; i++) {
+			CollisionBody body = moving.get(islandOrder[i]);
+			resolveContacts(body, body.getMoveResult(), true, caster);
+			body.updateMovedCollider();
+		}
+	}
+
+	private boolean prepareMove(CollisionBody body, Collider collider, Vector3f amount) {
+		body.setMoveCollider(collider);
+		body.setMoveRanged(collider != null && CollisionBody.readBounds(collider, body.getMoveRange()));
+		body.setMoveCast(false);
+
+		if (body.isMoveRanged()) {
+			AABB range = body.getMoveRange();
+
+			// Spheres can only be stopped by casts, and boxes moving over half their size could pass through a body as thin as themselves.
+			body.setMoveCast(collider instanceof Sphere || 2.0f * Math.abs(amount.x) > range.getWidth() ||
+					2.0f * Math.abs(amount.y) > range.getHeight() || 2.0f * Math.abs(amount.z) > range.getDepth());
+			AABB.stretch(range, range, amount);
+
+			if (!body.isMoveCast()) {
+				refit(body, range);
+			}
+
+			body.getColliderType(narrowPhase, collider);
+		}
+
+		return body.isMoveRanged();
+	}
+
+	private void resolveContacts(CollisionBody body, Vector3f result, boolean islands, Caster caster) {
+		if (!body.isMoveRanged()) {
+			return;
+		}
+
+		if (body.isMoveCast()) {
+			castMove(body, result, caster);
+			return;
+		}
+
+		Collider collider = body.getMoveCollider();
+		List<Contact> contacts = body.getContacts();
+
+		for (int i = 0; i < contacts.size(); i++) {
+			CollisionBody other = contacts.get(i).getOther(body);
+			Entity entity = other.getEntity();
+
+			// Ignores the original entity, and removed entities.
+			if (entity == body.getEntity() || entity.isRemoved()) {
+				continue;
+			}
+
+			Collider collider2 = entity.getCollider();
+			int index = other.getMoveIndex();
+
+			// Bodies moved earlier in the same island are tested where they were moved to.
+			if (islands && index >= 0 && index < body.getMoveIndex() && islandOf[index] == islandOf[body.getMoveIndex()] && other.getMovedCollider() != null) {
+				collider2 = other.getMovedCollider();
+			}
+
+			if (collider2 != null && narrowPhase.intersects(other.getColliderType(narrowPhase, collider2), collider2, boxType, body.getMoveRange())) {
+				collider.resolveCollision(collider2, result, result);
+			}
+		}
+	}
+
+	/**
+	 * Casts the collider of a body along its move, moving up to each body hit and sliding the rest of the move along it.
+	 */
+	private void castMove(CollisionBody body, Vector3f result, Caster caster) {
+		Collider collider = body.getMoveCollider();
+		float x = 0.0f;
+		float y = 0.0f;
+		float z = 0.0f;
+		float dx = result.x;
+		float dy = result.y;
+		float dz = result.z;
+
+		for (int i = 0; i < MAX_SLIDES; i++) {
+			caster.set(collider, x, y, z, dx, dy, dz, body);
+			float time = caster.cast(broadPhase);
+
+			if (time > 1.0f) {
+				x += dx;
+				y += dy;
+				z += dz;
+				break;
+			}
+
+			x += dx * time;
+			y += dy * time;
+			z += dz * time;
+			dx *= 1.0f - time;
+			dy *= 1.0f - time;
+			dz *= 1.0f - time;
+
+			// Removes the part of the move going into the surface hit.
+			Vector3f normal = caster.getNormal();
+			float into = dx * normal.x + dy * normal.y + dz * normal.z;
+
+			if (into < 0.0f) {
+				dx -= normal.x * into;
+				dy -= normal.y * into;
+				dz -= normal.z * into;
+			}
+		}
+
+		result.set(x, y, z);
+	}
+
+	private void pairFound(CollisionBody first, CollisionBody second) {
+		// Searches the shorter list of contacts.
+		Contact contact = first.getContacts().size() <= second.getContacts().size() ? first.getContact(second) : second.getContact(first);
+
+		if (contact == null) {
+			contact = new Contact(first, second, tick);
+			first.getContacts().add(contact);
+			second.getContacts().add(contact);
+			contacts.add(contact);
+		} else {
+			contact.setTick(tick);
+		}
+	}
+
+	private void rangeFound(CollisionBody other) {
+		if (other != refitting && other.isBounded()) {
+			pairFound(refitting, other);
+		}
+	}
+
+	/**
+	 * Adds a entity to the collision world.
+	 *
+	 * @param entity The entity to add.
+	 *
+	 * @return The body following the entity.
+	 */
+	public CollisionBody addBody(Entity entity) {
+		CollisionBody body = new CollisionBody(entity);
+		addBody(body);
+		return body;
+	}
+
+	/**
+	 * Adds a body back to the collision world after it was removed, so a entity that is used again keeps its body.
+	 *
+	 * @param body The body to add.
+	 */
+	public void addBody(CollisionBody body) {
+		if (body.getBodyIndex() >= 0) {
+			return;
+		}
+
+		body.reset();
+		body.setBodyIndex(bodies.size());
+		bodies.add(body);
+		broadPhase.add(body);
+	}
+
+	/**
+	 * Removes a body from the collision world, along with its contacts.
+	 *
+	 * @param body The body to remove.
+	 */
+	public void removeBody(CollisionBody body) {
+		int index = body.getBodyIndex();
+
+		if (index < 0) {
+			return;
+		}
+
+		// Swaps the last body into the removed bodies place.
+		CollisionBody last = bodies.remove(bodies.size() - 1);
+
+		if (last != body) {
+			last.setBodyIndex(index);
+			bodies.set(index, last);
+		}
+
+		body.setBodyIndex(-1);
+
+		broadPhase.remove(body);
+
+		if (body.getMoveIndex() >= 0) {
+			moving.remove(body.getMoveIndex());
+
+			for (int i = body.getMoveIndex(); i < moving.size(); i++) {
+				moving.get(i).setMoveIndex(i);
+			}
+
+			body.setMoveIndex(-1);
+		}
+
+		// The contacts are taken out of the contact list in the next tick.
+		for (int i = 0; i < body.getContacts().size(); i++) {
+			Contact contact = body.getContacts().get(i);
+			contact.getOther(body).getContacts().remove(contact);
+			contact.setTick(-1);
+		}
+
+		body.getContacts().clear();
+	}
+
+	/**
+	 * Resolves a move of a body straight away, against the colliders of the bodies around it.
+	 *
+	 * @param body The body being moved.
+	 * @param amount The amount attempting to be moved.
+	 * @param destination The destination move or null if a new move is to be created.
+	 *
+	 * @return The move that will not cause collisions after movement.
+	 */
+	public Vector3f resolveMove(CollisionBody body, Vector3f amount, Vector3f destination) {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		destination.set(amount);
+		body.getMoveAmount().translate(amount.x, amount.y, amount.z);
+		Collider collider = body.getEntity().getCollider();
+
+		if (prepareMove(body, collider, amount)) {
+			resolveContacts(body, destination, false, caster);
+		}
+
+		body.setMoveCollider(null);
+		return destination;
+	}
+
+	/**
+	 * Queues a move of a body to be resolved at the end of the update, moves queued for the same body in a tick are added together.
+	 *
+	 * @param body The body being moved.
+	 * @param amount The amount attempting to be moved.
+	 */
+	public void queueMove(CollisionBody body, Vector3f amount) {
+		if (body.getMoveIndex() >= 0) {
+			body.getMoveAmount().translate(amount.x, amount.y, amount.z);
+			return;
+		}
+
+		body.setMoveIndex(moving.size());
+		body.getMoveAmount().set(amount);
+		moving.add(body);
+	}
+
+	/**
+	 * Casts a ray through the world, finding the closest body it hits. Rays can hit boxes, spheres and hulls, and never hit colliders they start in.
+	 *
+	 * @param origin The origin of the ray.
+	 * @param direction The direction of the ray, does not need to be normalized.
+	 * @param length The length of the ray.
+	 * @param ignore The body whose entity the ray can not hit, or null.
+	 * @param destination The destination hit or null if a new hit is to be created.
+	 *
+	 * @return The closest hit, the time of the hit is the distance along the ray over the length.
+	 */
+	public CastHit castRay(Vector3f origin, Vector3f direction, float length, CollisionBody ignore, CastHit destination) {
+		if (destination == null) {
+			destination = new CastHit();
+		}
+
+		float directionLength = direction.length();
+		float scale = directionLength == 0.0f ? 0.0f : length / directionLength;
+		caster.setRay(origin.x, origin.y, origin.z, direction.x * scale, direction.y * scale, direction.z * scale, ignore);
+		caster.cast(broadPhase);
+		destination.set(caster.getHit(), caster.getTime(), caster.getNormal());
+		return destination;
+	}
+
+	/**
+	 * Casts a ray through the world from its origin along its current ray, finding the closest body it hits.
+	 *
+	 * @param ray The ray to cast.
+	 * @param length The length of the ray.
+	 * @param ignore The body whose entity the ray can not hit, or null.
+	 * @param destination The destination hit or null if a new hit is to be created.
+	 *
+	 * @return The closest hit, the time of the hit is the distance along the ray over the length.
+	 */
+	public CastHit castRay(Ray ray, float length, CollisionBody ignore, CastHit destination) {
+		return castRay(ray.getOrigin(), ray.getCurrentRay(), length, ignore, destination);
+	}
+
+	/**
+	 * Moves a box or sphere along a path through the world, finding the first body it hits. Only the branches of the broad phase along the path are
+	 * searched, so long paths do not test every body near them.
+	 *
+	 * @param collider The box or sphere to cast.
+	 * @param path The path the collider is moved along.
+	 * @param ignore The body whose entity the collider can not hit, or null.
+	 * @param destination The destination hit or null if a new hit is to be created.
+	 *
+	 * @return The first hit, the collider can be moved by the path scaled by the time of the hit without passing into the body hit.
+	 *
+	 * @throws IllegalArgumentException If the collider is not a box or sphere.
+	 */
+	public CastHit castCollider(Collider collider, Vector3f path, CollisionBody ignore, CastHit destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new CastHit();
+		}
+
+		caster.set(collider, 0.0f, 0.0f, 0.0f, path.x, path.y, path.z, ignore);
+		caster.cast(broadPhase);
+		destination.set(caster.getHit(), caster.getTime(), caster.getNormal());
+		return destination;
+	}
+
+	/**
+	 * Casts every ray and shape in a batch through the world, large batches are split over threads.
+	 *
+	 * @param batch The batch to cast, the results are written into the batch.
+	 */
+	public void cast(CastBatch batch) {
+		if (batch.getSize() >= PARALLEL_THRESHOLD && pool.getParallelism() > 1) {
+			pool.invoke(new CastTask(batch, 0, batch.getSize()));
+		} else {
+			batch.cast(0, batch.getSize(), caster, broadPhase);
+		}
+	}
+
+	/**
+	 * Makes sure a body is paired with every body that could be hit inside of a range, this is called before a body moves.
+	 * If the range is outside of the swept bounds of the body, the bounds are refit and the body is paired with the bodies around the new bounds.
+	 *
+	 * @param body The body being moved.
+	 * @param range The range the body may move through.
+	 */
+	public void refit(CollisionBody body, AABB range) {
+		if (body.isBounded() && body.getBounds().contains(range)) {
+			return;
+		}
+
+		AABB.expand(range, body.getBounds(), margin, margin, margin);
+		body.setBounded(true);
+		broadPhase.update(body);
+
+		refitting = body;
+		broadPhase.visitInBounding(body.getBounds(), rangeFound);
+		refitting = null;
+	}
+
+	/**
+	 * Tests if the colliders of two bodies intersect.
+	 *
+	 * @param first The first body.
+	 * @param second The second body.
+	 *
+	 * @return If the bodies intersect.
+	 */
+	public boolean intersects(CollisionBody first, CollisionBody second) {
+		Collider collider1 = first.getEntity().getCollider();
+		Collider collider2 = second.getEntity().getCollider();
+
+		if (collider1 == null || collider2 == null) {
+			return false;
+		}
+
+		return narrowPhase.intersects(first.getColliderType(narrowPhase, collider1), collider1, second.getColliderType(narrowPhase, collider2), collider2);
+	}
+
+	/**
+	 * Tests if the collider of a body intersects a box.
+	 *
+	 * @param body The body.
+	 * @param range The box to test against.
+	 *
+	 * @return If the body intersects the box.
+	 */
+	public boolean intersects(CollisionBody body, AABB range) {
+		Collider collider = body.getEntity().getCollider();
+
+		if (collider == null) {
+			return false;
+		}
+
+		return narrowPhase.intersects(body.getColliderType(narrowPhase, collider), collider, boxType, range);
+	}
+
+	/**
+	 * Gets the table of narrow phase tests, new collider types can be registered with it.
+	 *
+	 * @return The narrow phase.
+	 */
+	public NarrowPhase getNarrowPhase() {
+		return this.narrowPhase;
+	}
+
+	/**
+	 * Gets the bodies in the collision world.
+	 *
+	 * @return The bodies.
+	 */
+	public List<CollisionBody> getBodies() {
+		return this.bodies;
+	}
+
+	/**
+	 * Gets the contacts found in the last tick, in the order they were first found.
+	 *
+	 * @return The contacts.
+	 */
+	public List<Contact> getContacts() {
+		return this.contacts;
+	}
+
+	/**
+	 * Gets if moves are queued and resolved in parallel at the end of the update.
+	 *
+	 * @return If moves are deferred.
+	 */
+	public boolean isDeferMoves() {
+		return this.deferMoves;
+	}
+
+	/**
+	 * Sets if moves are queued and resolved in parallel at the end of the update, entities are then moved at the end of the update instead of
+	 * when they are moved.
+	 *
+	 * @param deferMoves If moves are deferred.
+	 */
+	public void setDeferMoves(boolean deferMoves) {
+		this.deferMoves = deferMoves;
+	}
+
+	/**
+	 * Gets the amount the swept bounds of bodies are expanded by.
+	 *
+	 * @return The bounds margin.
+	 */
+	public float getMargin() {
+		return this.margin;
+	}
+
+	/**
+	 * Sets the amount the swept bounds of bodies are expanded by, larger margins refit bodies less often but give more contacts.
+	 *
+	 * @param margin The bounds margin.
+	 */
+	public void setMargin(float margin) {
+		this.margin = Math.max(margin, 0.0f);
+	}
+
+	/**
+	 * Gets the time the last broad phase took (milliseconds).
+	 *
+	 * @return The broad phase time.
+	 */
+	public float getBroadPhaseTime() {
+		return broadPhaseTime / 1000000.0f;
+	}
+
+	/**
+	 * Gets the time the last narrow phase took (milliseconds).
+	 *
+	 * @return The narrow phase time.
+	 */
+	public float getNarrowPhaseTime() {
+		return narrowPhaseTime / 1000000.0f;
+	}
+
+	/**
+	 * Gets the time resolving the last queued moves took (milliseconds).
+	 *
+	 * @return The resolve time.
+	 */
+	public float getResolveTime() {
+		return resolveTime / 1000000.0f;
+	}
+
+	/**
+	 * Gets the number of islands the last queued moves were split into.
+	 *
+	 * @return The island count.
+	 */
+	public int getIslandCount() {
+		return this.islandCount;
+	}
+
+	/**
+	 * Gets the number of contacts that were touching in the last narrow phase.
+	 *
+	 * @return The touching contact count.
+	 */
+	public int getTouchingCount() {
+		return this.touchingCount;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+
+		if (bodies != null) {
+			bodies.clear();
+			contacts.clear();
+			moving.clear();
+			broadPhase.clear();
+		}
+	}
+
+	@com.flounder.framework.Module.Instance
+	public static FlounderCollision get() {
+		return (FlounderCollision) Framework.get().getModule(FlounderCollision.class);
+	}
+
+	/**
+	 * Resolves a range of islands, splitting into halves until the islands hold few enough bodies.
+	 */
+	private class ResolveTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private int from;
+		private int to;
+
+		private ResolveTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= 1 || islandStart[to] - islandStart[from] <= ISLAND_CHUNK) {
+				resolveIslands(from, to, new Caster());
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new ResolveTask(from, middle), new ResolveTask(middle, to));
+		}
+	}
+
+	/**
+	 * Casts a range of a batch, splitting into halves until the range fits in a chunk.
+	 */
+	private class CastTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private CastBatch batch;
+		private int from;
+		private int to;
+
+		private CastTask(CastBatch batch, int from, int to) {
+			this.batch = batch;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= CAST_CHUNK) {
+				batch.cast(from, to, new Caster(), broadPhase);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new CastTask(batch, from, middle), new CastTask(batch, middle, to));
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.flounder.physics.collision;
+
+import com.flounder.physics.*;
+
+/**
+ * Defines a narrow phase test between two types of collider.
+ */
+public interface ICollisionTest {
+	/**
+	 * Tests if two colliders intersect, this is run for every contact each tick so it should not allocate.
+	 *
+	 * @param first The first collider, of the first type the test was registered with.
+	 * @param second The second collider, of the second type the test was registered with.
+	 *
+	 * @return If the colliders intersect.
+	 */
+	boolean test(Collider first, Collider second);
+}
@@ -0,0 +1,146 @@
+package com.flounder.physics.collision;
+
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+
+import java.util.*;
+
+/**
+ * A table of narrow phase tests indexed by the types of the two colliders, so a pair is tested without a chain of instanceof checks.
+ * Each collider class is given a type index the first time it is seen, pairs of types without a registered test use {@link Collider#intersects(Collider)}.
+ */
+public class NarrowPhase {
+	private Map<Class<?>, Integer> types;
+	private ICollisionTest[][] tests;
+
+	/**
+	 * Creates a new narrow phase with tests for boxes, spheres and hulls.
+	 */
+	public NarrowPhase() {
+		this.types = new IdentityHashMap<>();
+		this.tests = new ICollisionTest[4][4];
+
+		register(AABB.class, AABB.class, NarrowPhase::testBoxBox);
+		register(AABB.class, Sphere.class, NarrowPhase::testBoxSphere);
+		register(Sphere.class, Sphere.class, NarrowPhase::testSphereSphere);
+		register(QuickHull.class, QuickHull.class, NarrowPhase::testHull);
+		register(QuickHull.class, AABB.class, NarrowPhase::testHull);
+		register(QuickHull.class, Sphere.class, NarrowPhase::testHull);
+	}
+
+	/**
+	 * Registers a test between two types of collider, the test is also used with the types swapped.
+	 *
+	 * @param first The first type of collider.
+	 * @param second The second type of collider.
+	 * @param test The test to run.
+	 */
+	public void register(Class<? extends Collider> first, Class<? extends Collider> second, ICollisionTest test) {
+		int typeFirst = getType(first);
+		int typeSecond = getType(second);
+		tests[typeFirst][typeSecond] = test;
+
+		if (typeFirst != typeSecond) {
+			tests[typeSecond][typeFirst] = (Collider a, Collider b) -> test.test(b, a);
+		}
+	}
+
+	/**
+	 * Gets the type index of a collider class, a new index is created if the class has not been seen.
+	 *
+	 * @param type The collider class.
+	 *
+	 * @return The type index.
+	 */
+	public int getType(Class<?> type) {
+		Integer index = types.get(type);
+
+		if (index == null) {
+			index = types.size();
+			types.put(type, index);
+
+			if (index >= tests.length) {
+				tests = Arrays.copyOf(tests, tests.length * 2);
+
+				for (int i = 0; i < tests.length; i++) {
+					tests[i] = tests[i] == null ? new ICollisionTest[tests.length] : Arrays.copyOf(tests[i], tests.length);
+				}
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Tests if two colliders intersect.
+	 *
+	 * @param first The first collider.
+	 * @param second The second collider.
+	 *
+	 * @return If the colliders intersect.
+	 */
+	public boolean intersects(Collider first, Collider second) {
+		return intersects(getType(first.getClass()), first, getType(second.getClass()), second);
+	}
+
+	/**
+	 * Tests if two colliders intersect, using type indexes that have already been looked up.
+	 *
+	 * @param typeFirst The type index of the first collider.
+	 * @param first The first collider.
+	 * @param typeSecond The type index of the second collider.
+	 * @param second The second collider.
+	 *
+	 * @return If the colliders intersect.
+	 */
+	public boolean intersects(int typeFirst, Collider first, int typeSecond, Collider second) {
+		ICollisionTest test = tests[typeFirst][typeSecond];
+
+		if (test == null) {
+			return first.intersects(second).isIntersection();
+		}
+
+		return test.test(first, second);
+	}
+
+	private static boolean testBoxBox(Collider first, Collider second) {
+		// Matches AABB.intersects, boxes only sharing a face do not intersect.
+		Vector3f min1 = ((AABB) first).getMinExtents();
+		Vector3f max1 = ((AABB) first).getMaxExtents();
+		Vector3f min2 = ((AABB) second).getMinExtents();
+		Vector3f max2 = ((AABB) second).getMaxExtents();
+		return min1.x < max2.x && min2.x < max1.x && min1.y < max2.y && min2.y < max1.y && min1.z < max2.z && min2.z < max1.z;
+	}
+
+	private static boolean testBoxSphere(Collider first, Collider second) {
+		Vector3f min = ((AABB) first).getMinExtents();
+		Vector3f max = ((AABB) first).getMaxExtents();
+		Vector3f position = ((Sphere) second).getPosition();
+		float radius = ((Sphere) second).getRadius();
+
+		// The distance from the sphere to the closest point in the box.
+		float dx = position.x - Math.max(min.x, Math.min(position.x, max.x));
+		float dy = position.y - Math.max(min.y, Math.min(position.y, max.y));
+		float dz = position.z - Math.max(min.z, Math.min(position.z, max.z));
+		return dx * dx + dy * dy + dz * dz < radius * radius;
+	}
+
+	private static boolean testHull(Collider first, Collider second) {
+		// Hulls that have not been loaded yet do not collide.
+		if (!((QuickHull) first).isLoaded() || (second instanceof QuickHull && !((QuickHull) second).isLoaded())) {
+			return false;
+		}
+
+		return Gjk.intersects(first, second);
+	}
+
+	private static boolean testSphereSphere(Collider first, Collider second) {
+		Sphere sphere1 = (Sphere) first;
+		Sphere sphere2 = (Sphere) second;
+		float d = sphere1.getRadius() + sphere2.getRadius();
+		float dx = sphere1.getPosition().x - sphere2.getPosition().x;
+		float dy = sphere1.getPosition().y - sphere2.getPosition().y;
+		float dz = sphere1.getPosition().z - sphere2.getPosition().z;
+		return dx * dx + dy * dy + dz * dz < d * d;
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains classes for finding and testing collisions between entities once a tick.
+ */
+package com.flounder.physics.collision;
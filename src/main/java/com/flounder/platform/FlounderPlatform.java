@@ -58,6 +58,15 @@ public class FlounderPlatform extends com.flounder.framework.Module {
 		return platform;
 	}
 
+	/**
+	 * Gets if the platform is running without a display, OpenGL or OpenAL.
+	 *
+	 * @return If the platform is headless.
+	 */
+	public boolean isHeadless() {
+		return false;
+	}
+
 	/**
 	 * Gets the time manager for this platform.
 	 *
@@ -0,0 +1,87 @@
+package com.flounder.platform;
+
+import com.flounder.framework.updater.*;
+
+import java.nio.*;
+
+/**
+ * A platform override used to run without GLFW, OpenGL or OpenAL. Time is read from {@link System#nanoTime()} and buffers are allocated with java.nio.
+ */
+@com.flounder.framework.Module.ModuleOverride
+public class FlounderPlatformHeadless extends FlounderPlatform {
+	private final long startTime;
+
+	/**
+	 * Creates a new headless platform.
+	 */
+	public FlounderPlatformHeadless() {
+		super();
+		this.startTime = System.nanoTime();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public boolean isHeadless() {
+		return true;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public TimingReference getTiming() {
+		return () -> (System.nanoTime() - startTime) / 1000000000.0;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public float getTime() {
+		return (float) ((System.nanoTime() - startTime) / 1000000.0);
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public ByteBuffer createByteBuffer(int capacity) {
+		return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public ShortBuffer createShortBuffer(int capacity) {
+		return createByteBuffer(capacity << 1).asShortBuffer();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public CharBuffer createCharBuffer(int capacity) {
+		return createByteBuffer(capacity << 1).asCharBuffer();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public IntBuffer createIntBuffer(int capacity) {
+		return createByteBuffer(capacity << 2).asIntBuffer();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public LongBuffer createLongBuffer(int capacity) {
+		return createByteBuffer(capacity << 3).asLongBuffer();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public FloatBuffer createFloatBuffer(int capacity) {
+		return createByteBuffer(capacity << 2).asFloatBuffer();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public DoubleBuffer createDoubleBuffer(int capacity) {
+		return createByteBuffer(capacity << 3).asDoubleBuffer();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public float getMaxAnisotropy() {
+		return 0.0f;
+	}
+}
@@ -0,0 +1,54 @@
+package com.flounder.platform;
+
+import com.flounder.camera.*;
+import com.flounder.devices.*;
+import com.flounder.entities.*;
+import com.flounder.events.*;
+import com.flounder.framework.*;
+import com.flounder.framework.updater.*;
+import com.flounder.networking.*;
+import com.flounder.particles.*;
+import com.flounder.processing.*;
+import com.flounder.renderer.*;
+import com.flounder.tasks.*;
+
+/**
+ * A framework that runs only the simulation modules, without a display, OpenGL or OpenAL. This can be used for dedicated servers, soak tests and benchmarks.
+ * The display, input, OpenGL and sound modules are replaced with headless overrides, and updates are run at a fixed rate using {@link System#nanoTime()}.
+ */
+public class FrameworkHeadless extends Framework {
+	/**
+	 * The modules loaded by a headless framework, dependencies of these modules are also loaded.
+	 */
+	public static final Class[] SIMULATION_MODULES = {FlounderEvents.class, FlounderTasks.class, FlounderProcessors.class, FlounderNetwork.class, FlounderEntities.class, FlounderCamera.class, FlounderParticles.class};
+
+	/**
+	 * Creates a new headless framework. Call {@link #run()} after creating a instance.
+	 *
+	 * @param unlocalizedName The name to be used when determining where the roaming save files are saved.
+	 * @param updateRate The number of updates to run every second.
+	 * @param extensions The extensions to load for the framework.
+	 */
+	public FrameworkHeadless(String unlocalizedName, float updateRate, Extension[] extensions) {
+		super(unlocalizedName, new UpdaterFixed(null, updateRate, 5), Math.round(updateRate), extensions, getHeadlessOverrides());
+		registerModules(loadModules(SIMULATION_MODULES));
+	}
+
+	/**
+	 * Creates the overrides for all modules that need a display, OpenGL or OpenAL.
+	 *
+	 * @return The headless overrides.
+	 */
+	public static com.flounder.framework.Module[] getHeadlessOverrides() {
+		return new com.flounder.framework.Module[]{
+				new FlounderPlatformHeadless(),
+				new FlounderDisplayHeadless(),
+				new FlounderDisplaySyncHeadless(),
+				new FlounderMouseHeadless(),
+				new FlounderKeyboardHeadless(),
+				new FlounderJoysticksHeadless(),
+				new FlounderSoundHeadless(),
+				new FlounderOpenGLHeadless()
+		};
+	}
+}
@@ -9,15 +9,24 @@ import com.flounder.resources.*;
 import com.flounder.shadows.*;
 import com.flounder.skybox.*;
 
+import java.util.*;
+
 public class FilterMRT extends PostFilter {
 	private static final int LIGHTS = 64;
 
+	private List<Entity> entities;
+	private List<Archetype> archetypes;
+
 	public FilterMRT() {
 		super("filterMRT", new MyFile(PostFilter.POST_LOC, "mrtFragment.glsl"));
+		this.entities = new ArrayList<>();
+		this.archetypes = new ArrayList<>();
 	}
 
 	public FilterMRT(FBO fbo) {
 		super("filterMRT", new MyFile(PostFilter.POST_LOC, "mrtFragment.glsl"), fbo);
+		this.entities = new ArrayList<>();
+		this.archetypes = new ArrayList<>();
 	}
 
 	@Override
@@ -27,15 +36,30 @@ public class FilterMRT extends PostFilter {
 
 		int lightsLoaded = 0;
 
-		if (FlounderEntities.get().getEntities() != null) {
-			for (Entity entity : FlounderEntities.get().getEntities().getAll(null)) {
+		if (FlounderEntities.get().getArchetypes() != null) {
+			// Only the archetypes with lights are walked.
+			archetypes.clear();
+
+			for (Archetype archetype : FlounderEntities.get().getArchetypes().query(archetypes, ComponentLight.class)) {
+				IComponentEntity[] column = archetype.getColumn(ComponentLight.class);
+
+				for (int i = 0; i < archetype.getSize(); i++) {
+					if (lightsLoaded < LIGHTS && !archetype.getEntities()[i].isRemoved()) {
+						loadLight(lightsLoaded, (ComponentLight) column[i]);
+						lightsLoaded++;
+					}
+				}
+			}
+
+			archetypes.clear();
+		} else if (FlounderEntities.get().getEntities() != null) {
+			entities.clear();
+
+			for (Entity entity : FlounderEntities.get().getEntities().getAll(entities)) {
 				ComponentLight componentLight = (ComponentLight) entity.getComponent(ComponentLight.class);
 
 				if (lightsLoaded < LIGHTS && componentLight != null) {
-					shader.getUniformBool("lightActive[" + lightsLoaded + "]").loadBoolean(true);
-					shader.getUniformVec3("lightColour[" + lightsLoaded + "]").loadVec3(componentLight.getLight().getColour());
-					shader.getUniformVec3("lightPosition[" + lightsLoaded + "]").loadVec3(componentLight.getLight().getPosition());
-					shader.getUniformVec3("lightAttenuation[" + lightsLoaded + "]").loadVec3(componentLight.getLight().getAttenuation());
+					loadLight(lightsLoaded, componentLight);
 					lightsLoaded++;
 				}
 			}
@@ -70,4 +94,11 @@ public class FilterMRT extends PostFilter {
 			shader.getUniformFloat("fogGradient").loadFloat(2.0f);
 		}
 	}
+
+	private void loadLight(int index, ComponentLight componentLight) {
+		shader.getUniformBool("lightActive[" + index + "]").loadBoolean(true);
+		shader.getUniformVec3("lightColour[" + index + "]").loadVec3(componentLight.getLight().getColour());
+		shader.getUniformVec3("lightPosition[" + index + "]").loadVec3(componentLight.getLight().getPosition());
+		shader.getUniformVec3("lightAttenuation[" + index + "]").loadVec3(componentLight.getLight().getAttenuation());
+	}
 }
@@ -1,18 +1,23 @@
 package com.flounder.processing;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
 
 /**
- * Holds requests in a simple que.
+ * Holds requests in a simple que. The que is lock-free and can be added to and accepted from by any number of threads.
  */
 public class Queue<T> {
-	private List<T> requestQueue;
+	private ConcurrentLinkedQueue<T> requestQueue;
+	private AtomicInteger count;
 
 	/**
 	 * Creates a new queue.
 	 */
 	public Queue() {
-		requestQueue = new ArrayList<>();
+		requestQueue = new ConcurrentLinkedQueue<>();
+		count = new AtomicInteger();
 	}
 
 	/**
@@ -20,17 +25,57 @@ public class Queue<T> {
 	 *
 	 * @param request The object to add.
 	 */
-	public synchronized void addRequest(T request) {
-		requestQueue.add(request);
+	public void addRequest(T request) {
+		requestQueue.offer(request);
+		count.incrementAndGet();
 	}
 
 	/**
 	 * Gets the next item in queue and then removes it from this list.
 	 *
-	 * @return The next item in queue and then removes it from this list.
+	 * @return The next item in queue and then removes it from this list, or null if the queue is empty.
 	 */
-	public synchronized T acceptNextRequest() {
-		return requestQueue.remove(0);
+	public T acceptNextRequest() {
+		T request = requestQueue.poll();
+
+		if (request != null) {
+			count.decrementAndGet();
+		}
+
+		return request;
+	}
+
+	/**
+	 * Removes up to a number of items from the queue, in the order they were added.
+	 *
+	 * @param destination The collection to add the items to.
+	 * @param max The max number of items to remove.
+	 *
+	 * @return The number of items removed.
+	 */
+	public int drainTo(Collection<? super T> destination, int max) {
+		return drain(destination::add, max);
+	}
+
+	/**
+	 * Removes up to a number of items from the queue, in the order they were added, passing each to an action.
+	 *
+	 * @param action The action to run on each item.
+	 * @param max The max number of items to remove.
+	 *
+	 * @return The number of items removed.
+	 */
+	public int drain(Consumer<? super T> action, int max) {
+		int drained = 0;
+		T request;
+
+		while (drained < max && (request = requestQueue.poll()) != null) {
+			count.decrementAndGet();
+			action.accept(request);
+			drained++;
+		}
+
+		return drained;
 	}
 
 	/**
@@ -38,7 +83,7 @@ public class Queue<T> {
 	 *
 	 * @return Returns true if there are any items left in queue.
 	 */
-	public synchronized boolean hasRequests() {
+	public boolean hasRequests() {
 		return !requestQueue.isEmpty();
 	}
 
@@ -47,14 +92,16 @@ public class Queue<T> {
 	 *
 	 * @return The number of objects in queue.
 	 */
-	public synchronized int count() {
-		return requestQueue.size();
+	public int count() {
+		return Math.max(count.get(), 0);
 	}
 
 	/**
 	 * Clears the request queue.
 	 */
-	public synchronized void clear() {
-		requestQueue.clear();
+	public void clear() {
+		while (acceptNextRequest() != null) {
+			// Removes each request so the count stays correct.
+		}
 	}
 }
@@ -1,14 +1,30 @@
 package com.flounder.processing.opengl;
 
+import com.flounder.framework.*;
+import com.flounder.platform.*;
 import com.flounder.processing.*;
+import com.flounder.processing.Queue;
+
+import java.util.*;
 
 /**
- * A extension that is responsible for processing OpenGL requests.
+ * A extension that is responsible for processing OpenGL requests. Requests are run within a budget adapted to the frame time left over
+ * after the rest of the frame, the cost of each request is estimated from the history of requests of the same type and size.
  */
 public class ProcessorOpenGL extends Processor {
-	private static final float MAX_TIME_MILLIS = 8.0f;
+	private static final float MIN_BUDGET_MILLIS = 1.0f;
+	private static final float MAX_BUDGET_MILLIS = 8.0f;
+	private static final long MIN_CHUNK_BYTES = 64 * 1024;
 
 	private Queue<RequestOpenGL> requestQueue;
+	private RequestOpenGL deferred;
+	private Map<Object, CostHistory> histories;
+
+	private long lastUpdate;
+	private long uploadTime;
+	private long budget;
+	private long bytesUploaded;
+	private int budgetOverruns;
 
 	/**
 	 * Creates a new OpenGL processor.
@@ -20,24 +36,98 @@ public class ProcessorOpenGL extends Processor {
 	@Override
 	public void init() {
 		this.requestQueue = new Queue<>();
+		this.deferred = null;
+		this.histories = new HashMap<>();
+
+		this.lastUpdate = 0;
+		this.uploadTime = 0;
+		this.budget = (long) (MAX_BUDGET_MILLIS * 1000000.0f);
+		this.bytesUploaded = 0;
+		this.budgetOverruns = 0;
 	}
 
 	@Override
 	public void update() {
-		float remainingTime = MAX_TIME_MILLIS * 1000000.0f;
-		long start = System.nanoTime();
+		updateBudget();
+
+		long remainingTime = budget;
+		long uploaded = 0;
+		int executed = 0;
+
+		while (true) {
+			RequestOpenGL request = deferred != null ? deferred : requestQueue.acceptNextRequest();
+			deferred = null;
+
+			if (request == null) {
+				break;
+			}
+
+			long size = request.getUploadSize();
+			CostHistory history = histories.computeIfAbsent(request.getRequestType(), type -> new CostHistory());
+			long maxBytes = Long.MAX_VALUE;
+
+			// Requests that will not fit into the remaining time are split, or left for the next frame.
+			if (history.estimate(size) > remainingTime) {
+				if (request instanceof RequestOpenGLChunked && size > 0) {
+					maxBytes = history.getNanosPerByte() > 0.0 ? Math.max((long) (remainingTime / history.getNanosPerByte()), MIN_CHUNK_BYTES) : MIN_CHUNK_BYTES;
+				} else if (executed > 0) {
+					deferred = request;
+					break;
+				}
+			}
+
+			long start = System.nanoTime();
+			boolean completed = true;
+
+			if (request instanceof RequestOpenGLChunked) {
+				completed = ((RequestOpenGLChunked) request).executeChunkGL(maxBytes);
+			} else {
+				request.executeRequestGL();
+			}
+
+			long timeTaken = System.nanoTime() - start;
+			long sizeUploaded = completed ? size : size - request.getUploadSize();
+			history.addSample(sizeUploaded, timeTaken);
 
-		while (requestQueue.hasRequests()) {
-			requestQueue.acceptNextRequest().executeRequestGL();
-			long end = System.nanoTime();
-			long timeTaken = end - start;
 			remainingTime -= timeTaken;
-			start = end;
+			uploaded += sizeUploaded;
+			executed++;
+
+			if (!completed) {
+				deferred = request;
+				break;
+			}
 
-			if (remainingTime < 0.0f) {
+			if (remainingTime < 0) {
 				break;
 			}
 		}
+
+		if (remainingTime < 0) {
+			budgetOverruns++;
+		}
+
+		this.uploadTime = budget - remainingTime;
+		this.bytesUploaded = uploaded;
+	}
+
+	/**
+	 * Updates the budget from the target frame time, and how long the last frame took without the uploads.
+	 */
+	private void updateBudget() {
+		long now = System.nanoTime();
+		long minBudget = (long) (MIN_BUDGET_MILLIS * 1000000.0f);
+		long maxBudget = (long) (MAX_BUDGET_MILLIS * 1000000.0f);
+
+		if (lastUpdate == 0 || Framework.get().getFpsLimit() <= 0 || Framework.get().getFpsLimit() > 1000) {
+			budget = maxBudget;
+		} else {
+			long targetTime = (long) (1000000000.0 / Framework.get().getFpsLimit());
+			long otherTime = (now - lastUpdate) - uploadTime;
+			budget = Math.min(Math.max(targetTime - otherTime, minBudget), maxBudget);
+		}
+
+		lastUpdate = now;
 	}
 
 	@Override
@@ -46,6 +136,11 @@ public class ProcessorOpenGL extends Processor {
 			return;
 		}
 
+		// Headless platforms have no OpenGL context to run requests with.
+		if (FlounderPlatform.get() != null && FlounderPlatform.get().isHeadless()) {
+			return;
+		}
+
 		requestQueue.addRequest((RequestOpenGL) request);
 	}
 
@@ -58,11 +153,62 @@ public class ProcessorOpenGL extends Processor {
 	 * Completes all requests left in queue.
 	 */
 	public void completeAllRequests() {
+		if (deferred != null) {
+			RequestOpenGL request = deferred;
+			deferred = null;
+			request.executeRequestGL();
+		}
+
 		while (requestQueue.hasRequests()) {
 			requestQueue.acceptNextRequest().executeRequestGL();
 		}
 	}
 
+	/**
+	 * Gets the number of requests waiting to be processed.
+	 *
+	 * @return The queue depth.
+	 */
+	public int getQueueDepth() {
+		return requestQueue.count() + (deferred != null ? 1 : 0);
+	}
+
+	/**
+	 * Gets the number of bytes uploaded in the last frame.
+	 *
+	 * @return The bytes uploaded.
+	 */
+	public long getBytesUploaded() {
+		return bytesUploaded;
+	}
+
+	/**
+	 * Gets the time spent processing requests in the last frame (milliseconds).
+	 *
+	 * @return The upload time.
+	 */
+	public float getUploadTime() {
+		return uploadTime / 1000000.0f;
+	}
+
+	/**
+	 * Gets the budget used in the last frame (milliseconds).
+	 *
+	 * @return The upload budget.
+	 */
+	public float getBudget() {
+		return budget / 1000000.0f;
+	}
+
+	/**
+	 * Gets the number of frames where processing requests went over the budget.
+	 *
+	 * @return The number of budget overruns.
+	 */
+	public int getBudgetOverruns() {
+		return budgetOverruns;
+	}
+
 	@Override
 	public void dispose() {
 		completeAllRequests();
@@ -73,4 +219,48 @@ public class ProcessorOpenGL extends Processor {
 	public boolean isActive() {
 		return true;
 	}
+
+	/**
+	 * The history of how long requests of a type have taken, kept for each power of two upload size.
+	 */
+	private static class CostHistory {
+		private static final double SMOOTHING = 0.2;
+
+		private double[] bucketNanos;
+		private double nanosPerByte;
+
+		private CostHistory() {
+			this.bucketNanos = new double[Long.SIZE + 1];
+			this.nanosPerByte = 0.0;
+		}
+
+		private long estimate(long size) {
+			double nanos = bucketNanos[getBucket(size)];
+
+			// Sizes without any history are estimated from the upload rate of this type.
+			if (nanos == 0.0) {
+				nanos = nanosPerByte * size;
+			}
+
+			return (long) nanos;
+		}
+
+		private void addSample(long size, long nanos) {
+			int bucket = getBucket(size);
+			bucketNanos[bucket] = bucketNanos[bucket] == 0.0 ? nanos : bucketNanos[bucket] + SMOOTHING * (nanos - bucketNanos[bucket]);
+
+			if (size > 0) {
+				double rate = (double) nanos / size;
+				nanosPerByte = nanosPerByte == 0.0 ? rate : nanosPerByte + SMOOTHING * (rate - nanosPerByte);
+			}
+		}
+
+		private double getNanosPerByte() {
+			return nanosPerByte;
+		}
+
+		private static int getBucket(long size) {
+			return size <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(size);
+		}
+	}
 }
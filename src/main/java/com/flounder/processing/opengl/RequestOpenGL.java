@@ -9,4 +9,22 @@ public interface RequestOpenGL {
 	 * Executed when the request is being processed.
 	 */
 	void executeRequestGL();
+
+	/**
+	 * Gets the number of bytes this request will upload to OpenGL, used to estimate how long the request will take.
+	 *
+	 * @return The number of bytes left to upload.
+	 */
+	default long getUploadSize() {
+		return 0;
+	}
+
+	/**
+	 * Gets the type the cost history of this request is kept under, by default this is the requests class.
+	 *
+	 * @return The request type.
+	 */
+	default Object getRequestType() {
+		return getClass();
+	}
 }
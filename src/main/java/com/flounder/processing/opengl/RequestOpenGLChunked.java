@@ -0,0 +1,22 @@
+package com.flounder.processing.opengl;
+
+/**
+ * Interface for OpenGL requests that can be split into chunks, these are uploaded over multiple frames when too large for the frames budget.
+ */
+public interface RequestOpenGLChunked extends RequestOpenGL {
+	/**
+	 * Executed when the next chunk of the request is being processed.
+	 *
+	 * @param maxBytes The max number of bytes that should be uploaded in this chunk.
+	 *
+	 * @return If the request has been completed.
+	 */
+	boolean executeChunkGL(long maxBytes);
+
+	@Override
+	default void executeRequestGL() {
+		while (!executeChunkGL(Long.MAX_VALUE)) {
+			// Uploads all chunks at once.
+		}
+	}
+}
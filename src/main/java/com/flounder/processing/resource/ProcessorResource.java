@@ -3,31 +3,68 @@ package com.flounder.processing.resource;
 import com.flounder.logger.*;
 import com.flounder.processing.*;
 
+import java.util.concurrent.locks.*;
+
 /**
- * A extension that is responsible for processing resource requests in a separate thread.
+ * A extension that is responsible for processing resource requests on a pool of separate threads.
  */
 public class ProcessorResource extends Processor {
-	private Queue<RequestResource> requestQueue;
+	public static final long DEFAULT_MEMORY_BUDGET = 256L * 1024L * 1024L;
+
+	private int threadCount;
+	private long memoryBudget;
+
+	private Queue<RequestResource>[] requestQueues;
+	private final Object memoryLock;
+	private long memoryUsed;
 
-	private boolean running;
-	private Thread thread;
+	private volatile boolean running;
+	private Thread[] threads;
 
 	/**
-	 * Creates a new resource processor.
+	 * Creates a new resource processor, using one less thread than available processors.
 	 */
 	public ProcessorResource() {
+		this(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1), DEFAULT_MEMORY_BUDGET);
+	}
+
+	/**
+	 * Creates a new resource processor.
+	 *
+	 * @param threadCount The number of threads to process requests on.
+	 * @param memoryBudget The max estimated bytes that requests being processed can use at once, see {@link RequestResource#getMemoryCost()}.
+	 */
+	public ProcessorResource(int threadCount, long memoryBudget) {
 		super();
+		this.threadCount = Math.max(threadCount, 1);
+		this.memoryBudget = memoryBudget;
+		this.memoryLock = new Object();
 	}
 
 	@Override
 	public void init() {
-		this.requestQueue = new Queue<>();
+		this.requestQueues = newQueues(RequestResource.PRIORITY_PREFETCH + 1);
 
+		for (int i = 0; i < requestQueues.length; i++) {
+			requestQueues[i] = new Queue<>();
+		}
+
+		this.memoryUsed = 0;
 		this.running = true;
+		this.threads = new Thread[threadCount];
+
+		for (int i = 0; i < threadCount; i++) {
+			threads[i] = new Thread(this::run);
+			threads[i].setName("resources-" + i);
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+	}
 
-		this.thread = new Thread(this::run);
-		thread.setName("resources");
-		thread.start();
+	@SuppressWarnings("unchecked")
+	private static Queue<RequestResource>[] newQueues(int count) {
+		// Generic arrays can not be created, every queue put in the array holds resource requests.
+		return (Queue<RequestResource>[]) new Queue<?>[count];
 	}
 
 	@Override
@@ -40,12 +77,10 @@ public class ProcessorResource extends Processor {
 			return;
 		}
 
-		boolean isPaused = !requestQueue.hasRequests();
-		requestQueue.addRequest((RequestResource) request);
-
-		if (isPaused) {
-			indicateNewRequests();
-		}
+		RequestResource resource = (RequestResource) request;
+		int priority = Math.min(Math.max(resource.getPriority(), RequestResource.PRIORITY_VISIBLE), RequestResource.PRIORITY_PREFETCH);
+		requestQueues[priority].addRequest(resource);
+		indicateNewRequests();
 	}
 
 	@Override
@@ -53,31 +88,130 @@ public class ProcessorResource extends Processor {
 		return RequestResource.class;
 	}
 
-	private synchronized void run() {
-		while (running || requestQueue.hasRequests()) {
+	/**
+	 * Gets the number of requests waiting to be processed.
+	 *
+	 * @return The number of requests in queue.
+	 */
+	public int getQueueCount() {
+		int count = 0;
+
+		for (Queue<RequestResource> requestQueue : requestQueues) {
+			count += requestQueue.count();
+		}
+
+		return count;
+	}
+
+	private void run() {
+		while (running || hasRequests()) {
+			RequestResource request = acceptNextRequest();
+
+			if (request == null) {
+				if (running) {
+					// Parks until new requests are indicated, a unpark before parking will return immediately so no requests are missed.
+					LockSupport.park(this);
+				}
+
+				continue;
+			}
+
+			if (request.isCancelled()) {
+				continue;
+			}
+
+			long cost = Math.max(request.getMemoryCost(), 0);
+			reserveMemory(cost);
+
+			try {
+				if (!request.isCancelled()) {
+					request.executeRequestResource();
+				}
+			} catch (Exception e) {
+				FlounderLogger.get().error("Resource request could not be processed!");
+				FlounderLogger.get().exception(e);
+			} finally {
+				releaseMemory(cost);
+			}
+		}
+	}
+
+	private boolean hasRequests() {
+		for (Queue<RequestResource> requestQueue : requestQueues) {
 			if (requestQueue.hasRequests()) {
-				requestQueue.acceptNextRequest().executeRequestResource();
-			} else {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private RequestResource acceptNextRequest() {
+		for (Queue<RequestResource> requestQueue : requestQueues) {
+			RequestResource request = requestQueue.acceptNextRequest();
+
+			if (request != null) {
+				return request;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Waits until the request fits in the memory budget, a request is always let through if nothing else is being processed.
+	 *
+	 * @param cost The estimated memory cost of the request.
+	 */
+	private void reserveMemory(long cost) {
+		if (cost == 0) {
+			return;
+		}
+
+		synchronized (memoryLock) {
+			while (running && memoryUsed > 0 && memoryUsed + cost > memoryBudget) {
 				try {
-					wait();
+					memoryLock.wait();
 				} catch (InterruptedException e) {
 					FlounderLogger.get().log("Request was interrupted.");
 					FlounderLogger.get().exception(e);
 				}
 			}
+
+			memoryUsed += cost;
+		}
+	}
+
+	private void releaseMemory(long cost) {
+		if (cost == 0) {
+			return;
+		}
+
+		synchronized (memoryLock) {
+			memoryUsed -= cost;
+			memoryLock.notifyAll();
 		}
 	}
 
-	private synchronized void indicateNewRequests() {
-		notify();
+	private void indicateNewRequests() {
+		for (Thread thread : threads) {
+			LockSupport.unpark(thread);
+		}
 	}
 
 	@Override
 	public void dispose() {
 		running = false;
+
+		for (Queue<RequestResource> requestQueue : requestQueues) {
+			requestQueue.clear();
+		}
+
+		synchronized (memoryLock) {
+			memoryLock.notifyAll();
+		}
+
 		indicateNewRequests();
-		requestQueue.clear();
-		thread.interrupt();
 	}
 
 	@Override
@@ -5,8 +5,39 @@ package com.flounder.processing.resource;
  */
 @FunctionalInterface
 public interface RequestResource {
+	int PRIORITY_VISIBLE = 0;
+	int PRIORITY_NORMAL = 1;
+	int PRIORITY_PREFETCH = 2;
+
 	/**
 	 * Used to send a request to the request processor so it can be queued.
 	 */
 	void executeRequestResource();
+
+	/**
+	 * Gets the priority class of the request, requests with a lower priority value are run first.
+	 *
+	 * @return The requests priority, one of {@link #PRIORITY_VISIBLE}, {@link #PRIORITY_NORMAL}, or {@link #PRIORITY_PREFETCH}.
+	 */
+	default int getPriority() {
+		return PRIORITY_NORMAL;
+	}
+
+	/**
+	 * Gets if the request is no longer needed, cancelled requests are skipped when they are reached in the queue.
+	 *
+	 * @return If the request has been cancelled.
+	 */
+	default boolean isCancelled() {
+		return false;
+	}
+
+	/**
+	 * Gets a estimate of how many bytes the request will use while it runs, used to limit how much memory loading threads can use at once.
+	 *
+	 * @return The estimated memory cost in bytes.
+	 */
+	default long getMemoryCost() {
+		return 0;
+	}
 }
@@ -0,0 +1,133 @@
+package com.flounder.renderer;
+
+import com.flounder.maths.*;
+import com.flounder.textures.*;
+
+/**
+ * A OpenGL override used when running headless, all state changes and draw calls are ignored.
+ */
+@com.flounder.framework.Module.ModuleOverride
+public class FlounderOpenGLHeadless extends FlounderOpenGL {
+	/**
+	 * Creates a new headless OpenGL manager.
+	 */
+	public FlounderOpenGLHeadless() {
+		super();
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public boolean isModern() {
+		return false;
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void prepareNewRenderParse(Colour colour) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void prepareNewRenderParse(float r, float g, float b) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void cullBackFaces(boolean cull) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void enableDepthTesting() {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void disableDepthTesting() {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void depthMask(boolean depthMask) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void goWireframe(boolean goWireframe) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void enableAlphaBlending() {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void enableAdditiveBlending() {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void disableBlending() {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void antialias(boolean enable) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void bindVAO(int vaoID, int... attributes) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void unbindVAO(int... attributes) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void enable(int gl) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void disable(int gl) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void scissor(int x, int y, int width, int height) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void bindTexture(TextureObject texture, int bankID) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void bindTexture(int textureID, int glTarget, int bankID) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void bindTextureLOD(int textureID, int lodBias, int bankID) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void renderArrays(int glMode, int glLength) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void renderElements(int glMode, int glType, int glLength) {
+	}
+
+	@Override
+	@com.flounder.framework.Module.MethodReplace
+	public void renderInstanced(int glMode, int glLength, int glPrimCount) {
+	}
+}
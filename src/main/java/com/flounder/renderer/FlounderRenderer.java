@@ -1,6 +1,7 @@
 package com.flounder.renderer;
 
 import com.flounder.camera.*;
+import com.flounder.culling.*;
 import com.flounder.devices.*;
 import com.flounder.framework.*;
 import com.flounder.shaders.*;
@@ -15,7 +16,7 @@ public class FlounderRenderer extends com.flounder.framework.Module {
 	 * Creates a new OpenGL renderer manager.
 	 */
 	public FlounderRenderer() {
-		super(FlounderDisplay.class, FlounderOpenGL.class, FlounderCamera.class, FlounderShaders.class);
+		super(FlounderDisplay.class, FlounderOpenGL.class, FlounderCamera.class, FlounderCulling.class, FlounderShaders.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
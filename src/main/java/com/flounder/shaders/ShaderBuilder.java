@@ -41,6 +41,12 @@ public class ShaderBuilder extends FactoryBuilder {
 		return this;
 	}
 
+	@Override
+	public ShaderBuilder setPriority(int priority) {
+		super.setPriority(priority);
+		return this;
+	}
+
 	/**
 	 * Gets the shaders name.
 	 *
@@ -1,6 +1,7 @@
 package com.flounder.shadows;
 
 import com.flounder.camera.*;
+import com.flounder.culling.*;
 import com.flounder.devices.*;
 import com.flounder.entities.*;
 import com.flounder.entities.components.*;
@@ -47,7 +48,9 @@ public class ShadowRenderer extends Renderer {
 			prepareRendering(clipPlane, camera);
 
 			if (FlounderEntities.get().getEntities() != null) {
-				for (Entity entity : FlounderEntities.get().getEntities().queryInBounding(FlounderShadows.get().getShadowAABB(), objects)) {
+				objects.clear();
+
+				for (Entity entity : FlounderCulling.get().queryInSet(FlounderCulling.get().getShadowSet(), objects)) {
 					renderEntity(entity);
 				}
 			}
@@ -0,0 +1,108 @@
+package com.flounder.space;
+
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+
+/**
+ * Helpers for reading axis aligned bounds from colliders, used by the spatial structures that partition space.
+ */
+public final class Bounds {
+	private Bounds() {
+	}
+
+	/**
+	 * Reads the axis aligned bounds of a collider into a array as min x, y, z then max x, y, z.
+	 *
+	 * @param collider The collider to read from.
+	 * @param destination The array to store the bounds into, must have a length of at least 6.
+	 *
+	 * @return If the collider has known bounds, colliders without bounds have to be tested directly.
+	 */
+	static boolean read(Collider collider, float[] destination) {
+		if (collider instanceof AABB) {
+			AABB aabb = (AABB) collider;
+			destination[0] = aabb.getMinExtents().x;
+			destination[1] = aabb.getMinExtents().y;
+			destination[2] = aabb.getMinExtents().z;
+			destination[3] = aabb.getMaxExtents().x;
+			destination[4] = aabb.getMaxExtents().y;
+			destination[5] = aabb.getMaxExtents().z;
+			return true;
+		} else if (collider instanceof Sphere) {
+			Sphere sphere = (Sphere) collider;
+			float radius = sphere.getRadius();
+			destination[0] = sphere.getPosition().x - radius;
+			destination[1] = sphere.getPosition().y - radius;
+			destination[2] = sphere.getPosition().z - radius;
+			destination[3] = sphere.getPosition().x + radius;
+			destination[4] = sphere.getPosition().y + radius;
+			destination[5] = sphere.getPosition().z + radius;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Gets if two bounds overlap.
+	 *
+	 * @param a The first bounds.
+	 * @param b The second bounds.
+	 *
+	 * @return If the bounds overlap.
+	 */
+	static boolean overlaps(float[] a, float[] b) {
+		return a[0] <= b[3] && a[3] >= b[0] && a[1] <= b[4] && a[4] >= b[1] && a[2] <= b[5] && a[5] >= b[2];
+	}
+
+	/**
+	 * Gets if the first bounds fully contains the second bounds.
+	 *
+	 * @param a The outer bounds.
+	 * @param b The inner bounds.
+	 *
+	 * @return If the bounds are contained.
+	 */
+	static boolean contains(float[] a, float[] b) {
+		return a[0] <= b[0] && a[3] >= b[3] && a[1] <= b[1] && a[4] >= b[4] && a[2] <= b[2] && a[5] >= b[5];
+	}
+
+	/**
+	 * Gets if a object is in a range, objects without a collider are always in range.
+	 *
+	 * @param range The range being queried.
+	 * @param object The object to test.
+	 *
+	 * @return If the object intersects or is contained by the range.
+	 */
+	public static boolean inBounding(Collider range, ISpatialObject object) {
+		Collider collider = object.getCollider();
+		return collider == null || inBounding(range, collider);
+	}
+
+	/**
+	 * Gets if a collider is in a range. Boxes are tested directly, without allocating.
+	 *
+	 * @param range The range being queried.
+	 * @param collider The collider to test.
+	 *
+	 * @return If the collider intersects or is contained by the range.
+	 */
+	public static boolean inBounding(Collider range, Collider collider) {
+		// Matches AABB.intersects and AABB.contains, boxes overlap if they share more than a face or one contains the other.
+		if (range instanceof AABB && collider instanceof AABB) {
+			Vector3f min1 = ((AABB) range).getMinExtents();
+			Vector3f max1 = ((AABB) range).getMaxExtents();
+			Vector3f min2 = ((AABB) collider).getMinExtents();
+			Vector3f max2 = ((AABB) collider).getMaxExtents();
+
+			if (min1.x < max2.x && min2.x < max1.x && min1.y < max2.y && min2.y < max1.y && min1.z < max2.z && min2.z < max1.z) {
+				return true;
+			}
+
+			return min1.x <= min2.x && max2.x <= max1.x && min1.y <= min2.y && max2.y <= max1.y && min1.z <= min2.z && max2.z <= max1.z;
+		}
+
+		return range.intersects(collider).isIntersection() || range.contains(collider);
+	}
+}
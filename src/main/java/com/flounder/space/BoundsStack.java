@@ -0,0 +1,43 @@
+package com.flounder.space;
+
+import java.util.*;
+
+/**
+ * A stack of reusable bounds arrays, so queries started while visiting the results of another query do not overwrite the bounds being used.
+ */
+final class BoundsStack {
+	private float[][] stack;
+	private int depth;
+
+	/**
+	 * Creates a new bounds stack.
+	 */
+	BoundsStack() {
+		this.stack = new float[4][];
+		this.depth = 0;
+	}
+
+	/**
+	 * Gets the next bounds array on the stack, this must be followed by {@link #pop()} once the bounds are no longer used.
+	 *
+	 * @return A bounds array with a length of 6.
+	 */
+	float[] push() {
+		if (depth == stack.length) {
+			stack = Arrays.copyOf(stack, depth * 2);
+		}
+
+		if (stack[depth] == null) {
+			stack[depth] = new float[6];
+		}
+
+		return stack[depth++];
+	}
+
+	/**
+	 * Releases the last bounds array taken from the stack.
+	 */
+	void pop() {
+		depth--;
+	}
+}
@@ -0,0 +1,187 @@
+package com.flounder.space;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Buffers changes made to a spatial structure while it is being visited, the changes are applied in order once the outermost visit is finished.
+ * Objects added or removed while the structure is being iterated or queried are buffered, objects moving are only buffered during queries, as
+ * iterating does not depend on where objects are stored.
+ * <p>
+ * Iterators read the objects of the structure in place by index, each iterator counts as a visit from when it is created until it has returned
+ * every object. Finished iterators are kept to be handed out again, so iterating does not copy the objects or create garbage.
+ *
+ * @param <T> Some spatial object being stored in the structure.
+ */
+final class DeferredChanges<T extends ISpatialObject> {
+	static final byte ADD = 0;
+	static final byte REMOVE = 1;
+	static final byte UPDATE = 2;
+	static final byte CLEAR = 3;
+
+	private ISpatialStructure<T> structure;
+	private IntFunction<T> reader;
+	private Walk spareWalks;
+	private int iterating;
+	private int querying;
+
+	private Object[] objects;
+	private byte[] changes;
+	private int size;
+
+	/**
+	 * Creates a new change buffer.
+	 *
+	 * @param structure The structure changes are applied to.
+	 * @param reader Reads the object at a index of the structure, from zero to the size of the structure.
+	 */
+	DeferredChanges(ISpatialStructure<T> structure, IntFunction<T> reader) {
+		this.structure = structure;
+		this.reader = reader;
+		this.spareWalks = null;
+		this.iterating = 0;
+		this.querying = 0;
+
+		this.objects = new Object[8];
+		this.changes = new byte[8];
+		this.size = 0;
+	}
+
+	/**
+	 * Buffers a change if the structure is being visited.
+	 *
+	 * @param change The type of change.
+	 * @param object The object being changed, or null when clearing.
+	 *
+	 * @return If the change was buffered, otherwise it should be applied now.
+	 */
+	boolean defer(byte change, T object) {
+		if (querying == 0 && (iterating == 0 || change == UPDATE)) {
+			return false;
+		}
+
+		if (size == objects.length) {
+			objects = Arrays.copyOf(objects, size * 2);
+			changes = Arrays.copyOf(changes, size * 2);
+		}
+
+		objects[size] = object;
+		changes[size] = change;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Starts iterating over every object.
+	 */
+	void beginIterate() {
+		iterating++;
+	}
+
+	/**
+	 * Finishes iterating over every object, applying changes if this was the outermost visit.
+	 */
+	void endIterate() {
+		iterating--;
+		apply();
+	}
+
+	/**
+	 * Gets a iterator over every object of the structure, the iterator has to be run to the end as changes are buffered until it finishes.
+	 *
+	 * @return The iterator.
+	 */
+	Iterator<T> iterator() {
+		Walk walk = spareWalks;
+
+		if (walk != null) {
+			spareWalks = walk.nextSpare;
+			walk.nextSpare = null;
+		} else {
+			walk = new Walk();
+		}
+
+		walk.index = 0;
+		walk.running = true;
+		beginIterate();
+		return walk;
+	}
+
+	/**
+	 * Starts visiting the objects in a range.
+	 */
+	void beginQuery() {
+		querying++;
+	}
+
+	/**
+	 * Finishes visiting the objects in a range, applying changes if this was the outermost visit.
+	 */
+	void endQuery() {
+		querying--;
+		apply();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void apply() {
+		if (iterating != 0 || querying != 0 || size == 0) {
+			return;
+		}
+
+		// Changes made while applying are applied straight away, as nothing is being visited.
+		for (int i = 0; i < size; i++) {
+			T object = (T) objects[i];
+			objects[i] = null;
+
+			switch (changes[i]) {
+				case ADD:
+					structure.add(object);
+					break;
+				case REMOVE:
+					structure.remove(object);
+					break;
+				case UPDATE:
+					structure.update(object);
+					break;
+				case CLEAR:
+					structure.clear();
+					break;
+			}
+		}
+
+		size = 0;
+	}
+
+	/**
+	 * Iterates over the objects of the structure in place, finishing the visit once every object has been returned.
+	 */
+	private final class Walk implements Iterator<T> {
+		private int index;
+		private boolean running;
+		private Walk nextSpare;
+
+		@Override
+		public boolean hasNext() {
+			if (!running) {
+				return false;
+			} else if (index < structure.getSize()) {
+				return true;
+			}
+
+			running = false;
+			nextSpare = spareWalks;
+			spareWalks = this;
+			endIterate();
+			return false;
+		}
+
+		@Override
+		public T next() {
+			if (!running || index >= structure.getSize()) {
+				throw new NoSuchElementException();
+			}
+
+			return reader.apply(index++);
+		}
+	}
+}
@@ -25,6 +25,14 @@ public interface ISpatialStructure<T extends ISpatialObject> {
 	 */
 	void remove(T object);
 
+	/**
+	 * Updates where an object is stored after its collider has changed, structures that do not partition space can ignore this.
+	 *
+	 * @param object The object that has moved.
+	 */
+	default void update(T object) {
+	}
+
 	/**
 	 * Removes all objects from the spatial structure..
 	 */
@@ -47,14 +55,15 @@ public interface ISpatialStructure<T extends ISpatialObject> {
 	List<T> getAll(List<T> result);
 
 	/**
-	 * Runs this foreach action on list directly.
+	 * Runs this foreach action on list directly. Objects added or removed by the action are changed once the foreach is finished.
 	 *
 	 * @param action The action to preform.
 	 */
 	void foreach(Consumer<? super T> action);
 
 	/**
-	 * Gets the iterator for this structure directly.
+	 * Gets the iterator for this structure directly, objects are read in place so the iterator has to be run to the end. Like a foreach, objects
+	 * added or removed while iterating are changed once the iterator is finished.
 	 *
 	 * @return The iterator.
 	 */
@@ -80,6 +89,28 @@ public interface ISpatialStructure<T extends ISpatialObject> {
 	 */
 	List<T> queryInBounding(Collider range, List<T> result);
 
+	/**
+	 * Runs a action on all objects in a specific range of the spatial structure, without copying them into a list.
+	 * Objects added, removed or updated by the action are changed once the query is finished.
+	 *
+	 * @param range The frustum range of space being queried.
+	 * @param visitor The action to run on each object in range.
+	 */
+	default void visitInFrustum(Frustum range, Consumer<? super T> visitor) {
+		queryInFrustum(range, null).forEach(visitor);
+	}
+
+	/**
+	 * Runs a action on all objects in a specific range of the spatial structure, without copying them into a list.
+	 * Objects added, removed or updated by the action are changed once the query is finished.
+	 *
+	 * @param range The shape range of space being queried.
+	 * @param visitor The action to run on each object in range.
+	 */
+	default void visitInBounding(Collider range, Consumer<? super T> visitor) {
+		queryInBounding(range, null).forEach(visitor);
+	}
+
 	/**
 	 * If the structure contains the object.
 	 *
@@ -0,0 +1,134 @@
+package com.flounder.space;
+
+import java.util.*;
+
+/**
+ * Maps objects to int indices by identity, in a open addressed table of parallel arrays, so adding and removing objects does not box indices or
+ * create map entries.
+ */
+class IdentityIndex {
+	static final int NONE = -1;
+
+	private Object[] keys;
+	private int[] values;
+	private int size;
+
+	/**
+	 * Creates a new empty index.
+	 */
+	IdentityIndex() {
+		this.keys = new Object[32];
+		this.values = new int[32];
+		this.size = 0;
+	}
+
+	private static int hash(Object key, int mask) {
+		int h = System.identityHashCode(key) * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Gets the index of a object.
+	 *
+	 * @param object The object.
+	 *
+	 * @return The index, or {@link #NONE} if the object is not in the table.
+	 */
+	int get(Object object) {
+		if (object == null) {
+			return NONE;
+		}
+
+		int mask = keys.length - 1;
+
+		for (int slot = hash(object, mask); ; slot = (slot + 1) & mask) {
+			if (keys[slot] == object) {
+				return values[slot];
+			} else if (keys[slot] == null) {
+				return NONE;
+			}
+		}
+	}
+
+	/**
+	 * Sets the index of a object, adding the object if it is not in the table.
+	 *
+	 * @param object The object.
+	 * @param index The index.
+	 */
+	void put(Object object, int index) {
+		if ((size + 1) * 2 > keys.length) {
+			rehash(keys.length * 2);
+		}
+
+		int mask = keys.length - 1;
+		int slot = hash(object, mask);
+
+		while (keys[slot] != null && keys[slot] != object) {
+			slot = (slot + 1) & mask;
+		}
+
+		if (keys[slot] == null) {
+			size++;
+		}
+
+		keys[slot] = object;
+		values[slot] = index;
+	}
+
+	/**
+	 * Removes a object from the table, later objects in its run are shifted back so no tombstones are left.
+	 *
+	 * @param object The object, it must be in the table.
+	 */
+	void remove(Object object) {
+		int mask = keys.length - 1;
+		int hole = hash(object, mask);
+
+		while (keys[hole] != object) {
+			hole = (hole + 1) & mask;
+		}
+
+		for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+			int home = hash(keys[next], mask);
+
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				values[hole] = values[next];
+				hole = next;
+			}
+		}
+
+		keys[hole] = null;
+		size--;
+	}
+
+	/**
+	 * Removes every object from the table, the table keeps its capacity.
+	 */
+	void clear() {
+		Arrays.fill(keys, null);
+		size = 0;
+	}
+
+	private void rehash(int capacity) {
+		Object[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new Object[capacity];
+		values = new int[capacity];
+		int mask = capacity - 1;
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int slot = hash(oldKeys[i], mask);
+
+				while (keys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
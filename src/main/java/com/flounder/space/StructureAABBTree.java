@@ -0,0 +1,920 @@
+package com.flounder.space;
+
+import com.flounder.helpers.*;
+import com.flounder.maths.*;
+import com.flounder.physics.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Represents a 3D space partitioned by a dynamic AABB tree. Each object is a leaf with a fattened box around its collider, so objects moving within
+ * their fattened box do not change the tree, and objects that move out of it are removed and inserted again in O(log n). Branches are kept balanced
+ * by rotating the taller child up whenever the tree is changed. Objects without a collider with known bounds are kept in a list and tested directly.
+ *
+ * @param <T> Some spatial object being stored in the structure.
+ */
+public class StructureAABBTree<T extends ISpatialObject> implements ISpatialStructure<T> {
+	private static final int NULL_NODE = -1;
+	private static final float DEFAULT_MARGIN = 0.5f;
+	private static final float DISPLACEMENT_MULTIPLIER = 8.0f;
+	private static final float MAX_DISPLACEMENT = 4.0f;
+
+	private float margin;
+
+	private float[] nodeBounds;
+	private int[] nodeParent;
+	private int[] nodeChild1;
+	private int[] nodeChild2;
+	private int[] nodeHeight;
+	private Entry<T>[] nodeEntries;
+	private int nodeCapacity;
+	private int nodeCount;
+	private int freeList;
+	private int root;
+
+	private Map<T, Entry<T>> entries;
+	private List<Entry<T>> objects;
+	private List<Entry<T>> outside;
+	private List<Entry<T>> spare;
+	private DeferredChanges<T> deferred;
+
+	private BoundsStack rangeBounds;
+
+	/**
+	 * Initializes a new AABB tree structure, leaves are fattened by half a unit.
+	 */
+	public StructureAABBTree() {
+		this(DEFAULT_MARGIN);
+	}
+
+	/**
+	 * Initializes a new AABB tree structure.
+	 *
+	 * @param margin The amount leaf boxes are fattened by on each side, larger margins update the tree less often but give looser queries.
+	 */
+	public StructureAABBTree(float margin) {
+		this.margin = Math.max(margin, 0.0f);
+
+		this.nodeCapacity = 0;
+		this.nodeCount = 0;
+		this.freeList = NULL_NODE;
+		this.root = NULL_NODE;
+		grow(16);
+
+		this.entries = new IdentityHashMap<>();
+		this.objects = new ArrayList<>();
+		this.outside = new ArrayList<>();
+		this.spare = new ArrayList<>();
+		this.deferred = new DeferredChanges<>(this, index -> objects.get(index).object);
+
+		this.rangeBounds = new BoundsStack();
+	}
+
+	@Override
+	public void add(T object) {
+		if (deferred.defer(DeferredChanges.ADD, object)) {
+			return;
+		}
+
+		if (object == null || entries.containsKey(object)) {
+			return;
+		}
+
+		// Entries of removed objects are used again, so objects coming and going do not make garbage.
+		Entry<T> entry = spare.isEmpty() ? new Entry<>() : spare.remove(spare.size() - 1);
+		entry.set(object);
+		entry.index = objects.size();
+		objects.add(entry);
+		entries.put(object, entry);
+		insert(entry, 0.0f, 0.0f, 0.0f);
+	}
+
+	@Override
+	public void remove(T object) {
+		if (deferred.defer(DeferredChanges.REMOVE, object)) {
+			return;
+		}
+
+		Entry<T> entry = entries.remove(object);
+
+		if (entry == null) {
+			return;
+		}
+
+		detach(entry);
+
+		// Swaps the last object into the removed objects place.
+		Entry<T> last = objects.remove(objects.size() - 1);
+
+		if (last != entry) {
+			last.index = entry.index;
+			objects.set(entry.index, last);
+		}
+
+		entry.object = null;
+		spare.add(entry);
+	}
+
+	@Override
+	public void update(T object) {
+		if (deferred.defer(DeferredChanges.UPDATE, object)) {
+			return;
+		}
+
+		Entry<T> entry = entries.get(object);
+
+		if (entry == null) {
+			return;
+		}
+
+		// Keeps the old centre to predict where the object is moving.
+		float centreX = entry.getCentreX();
+		float centreY = entry.getCentreY();
+		float centreZ = entry.getCentreZ();
+		boolean wasBounded = entry.bounded;
+		entry.bounded = Bounds.read(object.getCollider(), entry.bounds);
+
+		// Objects still inside of their fattened box do not need to move.
+		if (entry.leaf != NULL_NODE && entry.bounded && contains(nodeBounds, entry.leaf * 6, entry.bounds)) {
+			return;
+		}
+
+		detach(entry);
+
+		if (wasBounded && entry.bounded) {
+			insert(entry, entry.getCentreX() - centreX, entry.getCentreY() - centreY, entry.getCentreZ() - centreZ);
+		} else {
+			insert(entry, 0.0f, 0.0f, 0.0f);
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (deferred.defer(DeferredChanges.CLEAR, null)) {
+			return;
+		}
+
+		for (Entry<T> entry : objects) {
+			entry.object = null;
+			entry.leaf = NULL_NODE;
+			spare.add(entry);
+		}
+
+		Arrays.fill(nodeEntries, null);
+
+		for (int i = 0; i < nodeCapacity; i++) {
+			nodeParent[i] = i + 1 < nodeCapacity ? i + 1 : NULL_NODE;
+			nodeHeight[i] = -1;
+		}
+
+		nodeCount = 0;
+		freeList = 0;
+		root = NULL_NODE;
+
+		entries.clear();
+		objects.clear();
+		outside.clear();
+	}
+
+	@Override
+	public int getSize() {
+		return objects.size();
+	}
+
+	@Override
+	public List<T> getAll(List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		for (Entry<T> entry : objects) {
+			result.add(entry.object);
+		}
+
+		return result;
+	}
+
+	@Override
+	public void foreach(Consumer<? super T> action) {
+		deferred.beginIterate();
+
+		try {
+			for (int i = 0; i < objects.size(); i++) {
+				action.accept(objects.get(i).object);
+			}
+		} finally {
+			deferred.endIterate();
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return deferred.iterator();
+	}
+
+	@Override
+	public List<T> queryInFrustum(Frustum range, List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		visitFrustum(range, result::add);
+		return result;
+	}
+
+	@Override
+	public void visitInFrustum(Frustum range, Consumer<? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			visitFrustum(range, visitor);
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
+	private void visitFrustum(Frustum range, Consumer<? super T> visitor) {
+		for (int i = 0; i < outside.size(); i++) {
+			Collider collider = outside.get(i).object.getCollider();
+
+			if (collider == null || collider.inFrustum(range)) {
+				visitor.accept(outside.get(i).object);
+			}
+		}
+
+		if (root != NULL_NODE) {
+			visitFrustum(root, range, visitor);
+		}
+	}
+
+	private void visitFrustum(int node, Frustum range, Consumer<? super T> visitor) {
+		int offset = node * 6;
+
+		if (nodeChild1[node] == NULL_NODE) {
+			Collider collider = nodeEntries[node].object.getCollider();
+
+			if (collider == null || collider.inFrustum(range)) {
+				visitor.accept(nodeEntries[node].object);
+			}
+
+			return;
+		}
+
+		float x1 = nodeBounds[offset];
+		float y1 = nodeBounds[offset + 1];
+		float z1 = nodeBounds[offset + 2];
+		float x2 = nodeBounds[offset + 3];
+		float y2 = nodeBounds[offset + 4];
+		float z2 = nodeBounds[offset + 5];
+
+		if (!range.cubeInFrustum(x1, y1, z1, x2, y2, z2)) {
+			return;
+		}
+
+		// Every object in a branch fully inside of the frustum is also inside.
+		if (range.cubeFullyInFrustum(x1, y1, z1, x2, y2, z2)) {
+			addAll(node, visitor);
+			return;
+		}
+
+		visitFrustum(nodeChild1[node], range, visitor);
+		visitFrustum(nodeChild2[node], range, visitor);
+	}
+
+	@Override
+	public List<T> queryInBounding(Collider range, List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		visitBounding(range, result::add);
+		return result;
+	}
+
+	@Override
+	public void visitInBounding(Collider range, Consumer<? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			visitBounding(range, visitor);
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
+	private void visitBounding(Collider range, Consumer<? super T> visitor) {
+		float[] bounds = rangeBounds.push();
+
+		try {
+			// Ranges without known bounds have to test every object.
+			if (!Bounds.read(range, bounds)) {
+				for (int i = 0; i < objects.size(); i++) {
+					if (Bounds.inBounding(range, objects.get(i).object)) {
+						visitor.accept(objects.get(i).object);
+					}
+				}
+
+				return;
+			}
+
+			for (int i = 0; i < outside.size(); i++) {
+				if (Bounds.inBounding(range, outside.get(i).object)) {
+					visitor.accept(outside.get(i).object);
+				}
+			}
+
+			if (root != NULL_NODE) {
+				visitBounding(root, range, bounds, range instanceof AABB, visitor);
+			}
+		} finally {
+			rangeBounds.pop();
+		}
+	}
+
+	private void visitBounding(int node, Collider range, float[] bounds, boolean box, Consumer<? super T> visitor) {
+		if (nodeChild1[node] == NULL_NODE) {
+			Entry<T> entry = nodeEntries[node];
+
+			if (Bounds.overlaps(bounds, entry.bounds) && Bounds.inBounding(range, entry.object)) {
+				visitor.accept(entry.object);
+			}
+
+			return;
+		}
+
+		int offset = node * 6;
+
+		if (!overlaps(nodeBounds, offset, bounds)) {
+			return;
+		}
+
+		// Every object in a branch fully inside of a box range is also inside.
+		if (box && bounds[0] <= nodeBounds[offset] && bounds[3] >= nodeBounds[offset + 3] &&
+				bounds[1] <= nodeBounds[offset + 1] && bounds[4] >= nodeBounds[offset + 4] &&
+				bounds[2] <= nodeBounds[offset + 2] && bounds[5] >= nodeBounds[offset + 5]) {
+			addAll(node, visitor);
+			return;
+		}
+
+		visitBounding(nodeChild1[node], range, bounds, box, visitor);
+		visitBounding(nodeChild2[node], range, bounds, box, visitor);
+	}
+
+	/**
+	 * Finds every pair of objects in the tree with overlapping bounds in a single traversal, each pair is only found once.
+	 * Objects without a collider with known bounds are not paired.
+	 *
+	 * @param result The list to store the pairs into.
+	 *
+	 * @return The list of all overlapping pairs.
+	 */
+	public List<Pair<T, T>> queryPairs(List<Pair<T, T>> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		List<Pair<T, T>> pairs = result;
+		queryPairs((T first, T second) -> pairs.add(new Pair<>(first, second)));
+		return result;
+	}
+
+	/**
+	 * Finds every pair of objects in the tree with overlapping bounds in a single traversal, each pair is only found once.
+	 * Objects without a collider with known bounds are not paired, objects added, removed or updated by the action are changed once all pairs are found.
+	 *
+	 * @param visitor The action to run on each pair.
+	 */
+	public void queryPairs(BiConsumer<? super T, ? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			if (root != NULL_NODE) {
+				queryPairs(root, visitor);
+			}
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
+	private void queryPairs(int node, BiConsumer<? super T, ? super T> visitor) {
+		if (nodeChild1[node] == NULL_NODE) {
+			return;
+		}
+
+		queryPairs(nodeChild1[node], visitor);
+		queryPairs(nodeChild2[node], visitor);
+		queryPairs(nodeChild1[node], nodeChild2[node], visitor);
+	}
+
+	private void queryPairs(int a, int b, BiConsumer<? super T, ? super T> visitor) {
+		if (!overlaps(nodeBounds, a * 6, nodeBounds, b * 6)) {
+			return;
+		}
+
+		boolean leafA = nodeChild1[a] == NULL_NODE;
+		boolean leafB = nodeChild1[b] == NULL_NODE;
+
+		if (leafA && leafB) {
+			if (Bounds.overlaps(nodeEntries[a].bounds, nodeEntries[b].bounds)) {
+				visitor.accept(nodeEntries[a].object, nodeEntries[b].object);
+			}
+		} else if (leafA || (!leafB && nodeHeight[b] > nodeHeight[a])) {
+			// Descends into the taller branch to keep the traversal shallow.
+			queryPairs(a, nodeChild1[b], visitor);
+			queryPairs(a, nodeChild2[b], visitor);
+		} else {
+			queryPairs(nodeChild1[a], b, visitor);
+			queryPairs(nodeChild2[a], b, visitor);
+		}
+	}
+
+	/**
+	 * Casts a box along a path through the tree, visiting the objects in the branches the box passes through. Branches are visited in the order they
+	 * are entered and skipped if they are entered after the closest hit found so far, so a cast only visits the objects near the start of its path.
+	 * Casts do not change the tree, so many casts can be run at once from different threads while nothing is changing the tree.
+	 *
+	 * @param bounds The box at the start of the path as min x, y, z then max x, y, z, a ray is cast as a box with no size.
+	 * @param dx The X distance along the path.
+	 * @param dy The Y distance along the path.
+	 * @param dz The Z distance along the path.
+	 * @param test Finds the time along the path an object is hit at from 0 to 1, or a larger time if the object is missed.
+	 *
+	 * @return The time of the closest hit, or a time larger than 1 if nothing was hit.
+	 */
+	public float castBox(float[] bounds, float dx, float dy, float dz, ToDoubleFunction<? super T> test) {
+		float best = Float.POSITIVE_INFINITY;
+
+		for (int i = 0; i < outside.size(); i++) {
+			best = Math.min(best, (float) test.applyAsDouble(outside.get(i).object));
+		}
+
+		// The path is stored inverted, so entering a branch costs multiplies instead of divides.
+		float inverseX = 1.0f / dx;
+		float inverseY = 1.0f / dy;
+		float inverseZ = 1.0f / dz;
+
+		if (root != NULL_NODE && enterTime(nodeBounds, root * 6, bounds, inverseX, inverseY, inverseZ) < best) {
+			best = castBox(root, bounds, inverseX, inverseY, inverseZ, best, test);
+		}
+
+		return best;
+	}
+
+	private float castBox(int node, float[] bounds, float inverseX, float inverseY, float inverseZ, float best, ToDoubleFunction<? super T> test) {
+		if (nodeChild1[node] == NULL_NODE) {
+			Entry<T> entry = nodeEntries[node];
+
+			if (enterTime(entry.bounds, 0, bounds, inverseX, inverseY, inverseZ) < best) {
+				best = Math.min(best, (float) test.applyAsDouble(entry.object));
+			}
+
+			return best;
+		}
+
+		int first = nodeChild1[node];
+		int second = nodeChild2[node];
+		float firstTime = enterTime(nodeBounds, first * 6, bounds, inverseX, inverseY, inverseZ);
+		float secondTime = enterTime(nodeBounds, second * 6, bounds, inverseX, inverseY, inverseZ);
+
+		// Visits the branch entered first, hits found in it can skip the other branch.
+		if (secondTime < firstTime) {
+			int swap = first;
+			first = second;
+			second = swap;
+			float swapTime = firstTime;
+			firstTime = secondTime;
+			secondTime = swapTime;
+		}
+
+		if (firstTime < best) {
+			best = castBox(first, bounds, inverseX, inverseY, inverseZ, best, test);
+		}
+
+		if (secondTime < best) {
+			best = castBox(second, bounds, inverseX, inverseY, inverseZ, best, test);
+		}
+
+		return best;
+	}
+
+	@Override
+	public boolean contains(ISpatialObject object) {
+		return entries.containsKey(object);
+	}
+
+	/**
+	 * Gets the number of nodes in the tree, including leaves.
+	 *
+	 * @return The number of nodes.
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Gets the height of the tree, a tree with a single leaf has a height of zero.
+	 *
+	 * @return The height of the tree.
+	 */
+	public int getHeight() {
+		return root == NULL_NODE ? 0 : nodeHeight[root];
+	}
+
+	private void addAll(int node, Consumer<? super T> visitor) {
+		if (nodeChild1[node] == NULL_NODE) {
+			visitor.accept(nodeEntries[node].object);
+			return;
+		}
+
+		addAll(nodeChild1[node], visitor);
+		addAll(nodeChild2[node], visitor);
+	}
+
+	/**
+	 * Inserts a entry as a leaf fattened by the margin and stretched in the direction it is moving, or into the outside list.
+	 */
+	private void insert(Entry<T> entry, float dx, float dy, float dz) {
+		entry.bounded = Bounds.read(entry.object.getCollider(), entry.bounds);
+
+		if (!entry.bounded) {
+			entry.leaf = NULL_NODE;
+			entry.outsideIndex = outside.size();
+			outside.add(entry);
+			return;
+		}
+
+		int leaf = allocateNode();
+		int offset = leaf * 6;
+
+		for (int i = 0; i < 3; i++) {
+			nodeBounds[offset + i] = entry.bounds[i] - margin;
+			nodeBounds[offset + i + 3] = entry.bounds[i + 3] + margin;
+		}
+
+		// Objects that jump a long way are not stretched across the space they skipped.
+		float limit = margin * MAX_DISPLACEMENT;
+		dx = Maths.clamp(dx * DISPLACEMENT_MULTIPLIER, -limit, limit);
+		dy = Maths.clamp(dy * DISPLACEMENT_MULTIPLIER, -limit, limit);
+		dz = Maths.clamp(dz * DISPLACEMENT_MULTIPLIER, -limit, limit);
+		nodeBounds[offset + (dx < 0.0f ? 0 : 3)] += dx;
+		nodeBounds[offset + (dy < 0.0f ? 1 : 4)] += dy;
+		nodeBounds[offset + (dz < 0.0f ? 2 : 5)] += dz;
+
+		nodeEntries[leaf] = entry;
+		nodeHeight[leaf] = 0;
+		entry.leaf = leaf;
+		insertLeaf(leaf);
+	}
+
+	/**
+	 * Removes a entry from the tree, or the outside list.
+	 */
+	private void detach(Entry<T> entry) {
+		if (entry.leaf == NULL_NODE) {
+			Entry<T> last = outside.remove(outside.size() - 1);
+
+			if (last != entry) {
+				last.outsideIndex = entry.outsideIndex;
+				outside.set(entry.outsideIndex, last);
+			}
+
+			entry.outsideIndex = -1;
+			return;
+		}
+
+		removeLeaf(entry.leaf);
+		freeNode(entry.leaf);
+		entry.leaf = NULL_NODE;
+	}
+
+	private void insertLeaf(int leaf) {
+		if (root == NULL_NODE) {
+			root = leaf;
+			nodeParent[leaf] = NULL_NODE;
+			return;
+		}
+
+		// Walks down to the sibling that adds the least surface area to the tree.
+		int index = root;
+
+		while (nodeChild1[index] != NULL_NODE) {
+			int child1 = nodeChild1[index];
+			int child2 = nodeChild2[index];
+
+			float area = area(index);
+			float combinedArea = combinedArea(index, leaf);
+
+			// The cost of making a new parent for this node and the leaf, and the cost of pushing the leaf further down.
+			float cost = 2.0f * combinedArea;
+			float inheritanceCost = 2.0f * (combinedArea - area);
+			float cost1 = descendCost(child1, leaf) + inheritanceCost;
+			float cost2 = descendCost(child2, leaf) + inheritanceCost;
+
+			if (cost < cost1 && cost < cost2) {
+				break;
+			}
+
+			index = cost1 < cost2 ? child1 : child2;
+		}
+
+		int sibling = index;
+		int oldParent = nodeParent[sibling];
+		int newParent = allocateNode();
+		nodeParent[newParent] = oldParent;
+		nodeChild1[newParent] = sibling;
+		nodeChild2[newParent] = leaf;
+		nodeParent[sibling] = newParent;
+		nodeParent[leaf] = newParent;
+
+		if (oldParent == NULL_NODE) {
+			root = newParent;
+		} else if (nodeChild1[oldParent] == sibling) {
+			nodeChild1[oldParent] = newParent;
+		} else {
+			nodeChild2[oldParent] = newParent;
+		}
+
+		refit(newParent);
+		rebalance(oldParent);
+	}
+
+	private void removeLeaf(int leaf) {
+		if (leaf == root) {
+			root = NULL_NODE;
+			return;
+		}
+
+		int parent = nodeParent[leaf];
+		int grandParent = nodeParent[parent];
+		int sibling = nodeChild1[parent] == leaf ? nodeChild2[parent] : nodeChild1[parent];
+
+		// The sibling takes the place of the parent.
+		if (grandParent == NULL_NODE) {
+			root = sibling;
+		} else if (nodeChild1[grandParent] == parent) {
+			nodeChild1[grandParent] = sibling;
+		} else {
+			nodeChild2[grandParent] = sibling;
+		}
+
+		nodeParent[sibling] = grandParent;
+		freeNode(parent);
+		rebalance(grandParent);
+	}
+
+	/**
+	 * Walks up from a branch, balancing and refitting the bounds of each branch up to the root.
+	 */
+	private void rebalance(int index) {
+		while (index != NULL_NODE) {
+			index = balance(index);
+			refit(index);
+			index = nodeParent[index];
+		}
+	}
+
+	/**
+	 * Rotates the taller child of a branch up if its children differ in height by more than one.
+	 *
+	 * @return The branch now in the place of the balanced branch.
+	 */
+	private int balance(int a) {
+		if (nodeChild1[a] == NULL_NODE || nodeHeight[a] < 2) {
+			return a;
+		}
+
+		int b = nodeChild1[a];
+		int c = nodeChild2[a];
+		int balance = nodeHeight[c] - nodeHeight[b];
+
+		if (balance > 1) {
+			return rotate(a, c, false);
+		} else if (balance < -1) {
+			return rotate(a, b, true);
+		}
+
+		return a;
+	}
+
+	/**
+	 * Rotates a child up into the place of its parent, the parent takes the shorter grandchild and the child keeps the taller one.
+	 */
+	private int rotate(int a, int up, boolean first) {
+		int f = nodeChild1[up];
+		int g = nodeChild2[up];
+		int keep = nodeHeight[f] > nodeHeight[g] ? f : g;
+		int move = keep == f ? g : f;
+
+		nodeChild1[up] = a;
+		nodeChild2[up] = keep;
+		nodeParent[up] = nodeParent[a];
+		nodeParent[a] = up;
+
+		if (nodeParent[up] == NULL_NODE) {
+			root = up;
+		} else if (nodeChild1[nodeParent[up]] == a) {
+			nodeChild1[nodeParent[up]] = up;
+		} else {
+			nodeChild2[nodeParent[up]] = up;
+		}
+
+		if (first) {
+			nodeChild1[a] = move;
+		} else {
+			nodeChild2[a] = move;
+		}
+
+		nodeParent[move] = a;
+		refit(a);
+		refit(up);
+		return up;
+	}
+
+	/**
+	 * Sets the height and bounds of a branch from its children.
+	 */
+	private void refit(int node) {
+		int child1 = nodeChild1[node];
+		int child2 = nodeChild2[node];
+		nodeHeight[node] = 1 + Math.max(nodeHeight[child1], nodeHeight[child2]);
+
+		int offset = node * 6;
+		int offset1 = child1 * 6;
+		int offset2 = child2 * 6;
+
+		for (int i = 0; i < 3; i++) {
+			nodeBounds[offset + i] = Math.min(nodeBounds[offset1 + i], nodeBounds[offset2 + i]);
+			nodeBounds[offset + i + 3] = Math.max(nodeBounds[offset1 + i + 3], nodeBounds[offset2 + i + 3]);
+		}
+	}
+
+	private float descendCost(int child, int leaf) {
+		float combinedArea = combinedArea(child, leaf);
+		return nodeChild1[child] == NULL_NODE ? combinedArea : combinedArea - area(child);
+	}
+
+	/**
+	 * Gets half of the surface area of a nodes bounds.
+	 */
+	private float area(int node) {
+		int offset = node * 6;
+		float x = nodeBounds[offset + 3] - nodeBounds[offset];
+		float y = nodeBounds[offset + 4] - nodeBounds[offset + 1];
+		float z = nodeBounds[offset + 5] - nodeBounds[offset + 2];
+		return x * y + y * z + z * x;
+	}
+
+	/**
+	 * Gets half of the surface area of the bounds around two nodes.
+	 */
+	private float combinedArea(int a, int b) {
+		int offsetA = a * 6;
+		int offsetB = b * 6;
+		float x = Math.max(nodeBounds[offsetA + 3], nodeBounds[offsetB + 3]) - Math.min(nodeBounds[offsetA], nodeBounds[offsetB]);
+		float y = Math.max(nodeBounds[offsetA + 4], nodeBounds[offsetB + 4]) - Math.min(nodeBounds[offsetA + 1], nodeBounds[offsetB + 1]);
+		float z = Math.max(nodeBounds[offsetA + 5], nodeBounds[offsetB + 5]) - Math.min(nodeBounds[offsetA + 2], nodeBounds[offsetB + 2]);
+		return x * y + y * z + z * x;
+	}
+
+	private static boolean overlaps(float[] a, int offset, float[] b) {
+		return a[offset] <= b[3] && a[offset + 3] >= b[0] && a[offset + 1] <= b[4] && a[offset + 4] >= b[1] && a[offset + 2] <= b[5] && a[offset + 5] >= b[2];
+	}
+
+	private static boolean overlaps(float[] a, int offsetA, float[] b, int offsetB) {
+		return a[offsetA] <= b[offsetB + 3] && a[offsetA + 3] >= b[offsetB] &&
+				a[offsetA + 1] <= b[offsetB + 4] && a[offsetA + 4] >= b[offsetB + 1] &&
+				a[offsetA + 2] <= b[offsetB + 5] && a[offsetA + 5] >= b[offsetB + 2];
+	}
+
+	/**
+	 * Gets the time a box moving along a path enters a box in a array, or infinity if it is never entered between times 0 and 1. The path is given
+	 * as one over its distance on each axis.
+	 */
+	private static float enterTime(float[] a, int offset, float[] bounds, float inverseX, float inverseY, float inverseZ) {
+		float enter = 0.0f;
+		float exit = 1.0f;
+
+		for (int i = 0; i < 3; i++) {
+			float inverse = i == 0 ? inverseX : i == 1 ? inverseY : inverseZ;
+			float front = a[offset + i] - bounds[i + 3];
+			float back = a[offset + i + 3] - bounds[i];
+
+			if (Float.isInfinite(inverse)) {
+				if (front > 0.0f || back < 0.0f) {
+					return Float.POSITIVE_INFINITY;
+				}
+
+				continue;
+			}
+
+			enter = Math.max(enter, (inverse > 0.0f ? front : back) * inverse);
+			exit = Math.min(exit, (inverse > 0.0f ? back : front) * inverse);
+
+			if (enter > exit) {
+				return Float.POSITIVE_INFINITY;
+			}
+		}
+
+		return enter;
+	}
+
+	private static boolean contains(float[] a, int offset, float[] b) {
+		return a[offset] <= b[0] && a[offset + 3] >= b[3] && a[offset + 1] <= b[1] && a[offset + 4] >= b[4] && a[offset + 2] <= b[2] && a[offset + 5] >= b[5];
+	}
+
+	private int allocateNode() {
+		if (freeList == NULL_NODE) {
+			grow(nodeCapacity * 2);
+		}
+
+		int node = freeList;
+		freeList = nodeParent[node];
+		nodeParent[node] = NULL_NODE;
+		nodeChild1[node] = NULL_NODE;
+		nodeChild2[node] = NULL_NODE;
+		nodeHeight[node] = 0;
+		nodeEntries[node] = null;
+		nodeCount++;
+		return node;
+	}
+
+	private void freeNode(int node) {
+		nodeParent[node] = freeList;
+		nodeHeight[node] = -1;
+		nodeEntries[node] = null;
+		freeList = node;
+		nodeCount--;
+	}
+
+	/**
+	 * Grows the node arrays, the new nodes are linked into the free list.
+	 */
+	@SuppressWarnings("unchecked")
+	private void grow(int capacity) {
+		int oldCapacity = nodeCapacity;
+
+		if (oldCapacity == 0) {
+			nodeBounds = new float[capacity * 6];
+			nodeParent = new int[capacity];
+			nodeChild1 = new int[capacity];
+			nodeChild2 = new int[capacity];
+			nodeHeight = new int[capacity];
+			nodeEntries = (Entry<T>[]) new Entry<?>[capacity];
+		} else {
+			nodeBounds = Arrays.copyOf(nodeBounds, capacity * 6);
+			nodeParent = Arrays.copyOf(nodeParent, capacity);
+			nodeChild1 = Arrays.copyOf(nodeChild1, capacity);
+			nodeChild2 = Arrays.copyOf(nodeChild2, capacity);
+			nodeHeight = Arrays.copyOf(nodeHeight, capacity);
+			nodeEntries = Arrays.copyOf(nodeEntries, capacity);
+		}
+
+		for (int i = oldCapacity; i < capacity; i++) {
+			nodeParent[i] = i + 1 < capacity ? i + 1 : freeList;
+			nodeHeight[i] = -1;
+		}
+
+		nodeCapacity = capacity;
+		freeList = oldCapacity;
+	}
+
+	/**
+	 * A object stored in the tree, with the bounds it was last inserted or updated with.
+	 */
+	private static class Entry<T extends ISpatialObject> {
+		private T object;
+		private float[] bounds;
+		private boolean bounded;
+		private int leaf;
+		private int outsideIndex;
+		private int index;
+
+		private Entry() {
+			this.bounds = new float[6];
+		}
+
+		/**
+		 * Sets the object of a new or spare entry, the entry is not yet inserted.
+		 */
+		private void set(T object) {
+			this.object = object;
+			this.bounded = false;
+			this.leaf = NULL_NODE;
+			this.outsideIndex = -1;
+			this.index = -1;
+		}
+
+		private float getCentreX() {
+			return (bounds[0] + bounds[3]) * 0.5f;
+		}
+
+		private float getCentreY() {
+			return (bounds[1] + bounds[4]) * 0.5f;
+		}
+
+		private float getCentreZ() {
+			return (bounds[2] + bounds[5]) * 0.5f;
+		}
+	}
+}
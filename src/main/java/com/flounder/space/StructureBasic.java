@@ -6,33 +6,67 @@ import java.util.*;
 import java.util.function.*;
 
 /**
- * Represents a 3D space.
+ * Represents a 3D space. Objects are kept in a list, removed objects have the last object swapped into their place.
  */
 public class StructureBasic<T extends ISpatialObject> implements ISpatialStructure<T> {
 	private List<T> objects;
-	private List<T> clones;
+	private IdentityIndex indices;
+	private DeferredChanges<T> deferred;
 
 	/**
 	 * Initializes a new Basic 3D Structure.
 	 */
 	public StructureBasic() {
 		this.objects = new ArrayList<>();
-		this.clones = new ArrayList<>();
+		this.indices = new IdentityIndex();
+		this.deferred = new DeferredChanges<>(this, index -> objects.get(index));
 	}
 
 	@Override
 	public void add(T object) {
+		if (deferred.defer(DeferredChanges.ADD, object)) {
+			return;
+		}
+
+		if (object == null || indices.get(object) != IdentityIndex.NONE) {
+			return;
+		}
+
+		indices.put(object, objects.size());
 		objects.add(object);
 	}
 
 	@Override
 	public void remove(T object) {
-		objects.remove(object);
+		if (deferred.defer(DeferredChanges.REMOVE, object)) {
+			return;
+		}
+
+		int index = indices.get(object);
+
+		if (index == IdentityIndex.NONE) {
+			return;
+		}
+
+		indices.remove(object);
+
+		// Swaps the last object into the removed objects place.
+		T last = objects.remove(objects.size() - 1);
+
+		if (last != object) {
+			objects.set(index, last);
+			indices.put(last, index);
+		}
 	}
 
 	@Override
 	public void clear() {
+		if (deferred.defer(DeferredChanges.CLEAR, null)) {
+			return;
+		}
+
 		objects.clear();
+		indices.clear();
 	}
 
 	@Override
@@ -52,16 +86,20 @@ public class StructureBasic<T extends ISpatialObject> implements ISpatialStructu
 
 	@Override
 	public void foreach(Consumer<? super T> action) {
-		clones.clear();
-		clones.addAll(objects);
-		clones.forEach(action);
+		deferred.beginIterate();
+
+		try {
+			for (int i = 0; i < objects.size(); i++) {
+				action.accept(objects.get(i));
+			}
+		} finally {
+			deferred.endIterate();
+		}
 	}
 
 	@Override
 	public Iterator<T> iterator() {
-		clones.clear();
-		clones.addAll(objects);
-		return clones.iterator();
+		return deferred.iterator();
 	}
 
 	@Override
@@ -70,14 +108,9 @@ public class StructureBasic<T extends ISpatialObject> implements ISpatialStructu
 			result = new ArrayList<>();
 		}
 
-		if (objects == null) {
-			return result;
-		}
+		for (int i = 0; i < objects.size(); i++) {
+			T current = objects.get(i);
 
-		clones.clear();
-		clones.addAll(objects);
-
-		for (T current : clones) {
 			if (current != null && (current.getCollider() == null || current.getCollider().inFrustum(range))) {
 				result.add(current);
 			}
@@ -86,21 +119,33 @@ public class StructureBasic<T extends ISpatialObject> implements ISpatialStructu
 		return result;
 	}
 
+	@Override
+	public void visitInFrustum(Frustum range, Consumer<? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			for (int i = 0; i < objects.size(); i++) {
+				T current = objects.get(i);
+
+				if (current != null && (current.getCollider() == null || current.getCollider().inFrustum(range))) {
+					visitor.accept(current);
+				}
+			}
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
 	@Override
 	public List<T> queryInBounding(Collider range, List<T> result) {
 		if (result == null) {
 			result = new ArrayList<>();
 		}
 
-		if (objects == null) {
-			return result;
-		}
+		for (int i = 0; i < objects.size(); i++) {
+			T current = objects.get(i);
 
-		clones.clear();
-		clones.addAll(objects);
-
-		for (T current : clones) {
-			if (current.getCollider() == null || (range.intersects(current.getCollider()).isIntersection() || range.contains(current.getCollider()))) {
+			if (current != null && Bounds.inBounding(range, current)) {
 				result.add(current);
 			}
 		}
@@ -108,9 +153,26 @@ public class StructureBasic<T extends ISpatialObject> implements ISpatialStructu
 		return result;
 	}
 
+	@Override
+	public void visitInBounding(Collider range, Consumer<? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			for (int i = 0; i < objects.size(); i++) {
+				T current = objects.get(i);
+
+				if (current != null && Bounds.inBounding(range, current)) {
+					visitor.accept(current);
+				}
+			}
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
 	@Override
 	public boolean contains(ISpatialObject object) {
-		return objects.contains(object);
+		return indices.get(object) != IdentityIndex.NONE;
 	}
 
 	/**
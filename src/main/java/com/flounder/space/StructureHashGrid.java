@@ -0,0 +1,611 @@
+package com.flounder.space;
+
+import com.flounder.physics.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Represents a 3D space partitioned by a uniform grid of cells, with only the cells holding objects stored in a hash table. Objects no larger than a
+ * cell are stored in the cell their centre is in, so range queries only visit the cells around the range and do not depend on how many objects are
+ * stored. Larger objects, and objects without a collider with known bounds, are kept in a list and tested directly.
+ * <p>
+ * Cells and objects are kept in primitive open addressing tables and linked through primitive arrays, so adding, removing, moving and querying
+ * objects does not allocate once the tables have grown.
+ *
+ * @param <T> Some spatial object being stored in the structure.
+ */
+public class StructureHashGrid<T extends ISpatialObject> implements ISpatialStructure<T> {
+	private static final float DEFAULT_CELL_SIZE = 4.0f;
+	private static final long EMPTY = -1L;
+	private static final long OUTSIDE = -2L;
+	private static final int NONE = -1;
+	private static final int CELL_BITS = 21;
+	private static final int CELL_BIAS = 1 << (CELL_BITS - 1);
+	private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+
+	private float cellSize;
+	private float inverseCellSize;
+
+	// Objects, kept packed with the last object swapped into removed places.
+	private T[] objects;
+	private float[] bounds;
+	private long[] objectCells;
+	private int[] objectNext;
+	private int[] objectPrev;
+	private int size;
+	private int outsideHead;
+
+	// Maps occupied cell keys to the first object in the cell.
+	private long[] cellKeys;
+	private int[] cellHeads;
+	private int cellCount;
+
+	// Maps objects to their index by identity.
+	private IdentityIndex indices;
+
+	private DeferredChanges<T> deferred;
+	private float[] readBounds;
+	private BoundsStack rangeBounds;
+
+	/**
+	 * Initializes a new hash grid structure, with cells 4 units wide.
+	 */
+	public StructureHashGrid() {
+		this(DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 * Initializes a new hash grid structure.
+	 *
+	 * @param cellSize The width of each cell, this should be about the size of the largest objects being stored.
+	 */
+	@SuppressWarnings("unchecked")
+	public StructureHashGrid(float cellSize) {
+		this.cellSize = cellSize > 0.0f ? cellSize : DEFAULT_CELL_SIZE;
+		this.inverseCellSize = 1.0f / this.cellSize;
+
+		this.objects = (T[]) new ISpatialObject[16];
+		this.bounds = new float[16 * 6];
+		this.objectCells = new long[16];
+		this.objectNext = new int[16];
+		this.objectPrev = new int[16];
+		this.size = 0;
+		this.outsideHead = NONE;
+
+		this.cellKeys = new long[32];
+		this.cellHeads = new int[32];
+		this.cellCount = 0;
+		Arrays.fill(cellKeys, EMPTY);
+
+		this.indices = new IdentityIndex();
+
+		this.deferred = new DeferredChanges<>(this, index -> objects[index]);
+		this.readBounds = new float[6];
+		this.rangeBounds = new BoundsStack();
+	}
+
+	@Override
+	public void add(T object) {
+		if (deferred.defer(DeferredChanges.ADD, object)) {
+			return;
+		}
+
+		if (object == null || indices.get(object) != NONE) {
+			return;
+		}
+
+		if (size == objects.length) {
+			growObjects(size * 2);
+		}
+
+		int index = size++;
+		objects[index] = object;
+		indices.put(object, index);
+		link(index, cellOf(object, index));
+	}
+
+	@Override
+	public void remove(T object) {
+		if (deferred.defer(DeferredChanges.REMOVE, object)) {
+			return;
+		}
+
+		int index = indices.get(object);
+
+		if (index == NONE) {
+			return;
+		}
+
+		unlink(index);
+		indices.remove(object);
+
+		// Swaps the last object into the removed objects place.
+		int last = --size;
+
+		if (index != last) {
+			move(last, index);
+		}
+
+		objects[last] = null;
+	}
+
+	@Override
+	public void update(T object) {
+		if (deferred.defer(DeferredChanges.UPDATE, object)) {
+			return;
+		}
+
+		int index = indices.get(object);
+
+		if (index == NONE) {
+			return;
+		}
+
+		long cell = cellOf(object, index);
+
+		// Objects staying in the same cell only need their bounds updated.
+		if (cell != objectCells[index]) {
+			unlink(index);
+			link(index, cell);
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (deferred.defer(DeferredChanges.CLEAR, null)) {
+			return;
+		}
+
+		Arrays.fill(objects, 0, size, null);
+		Arrays.fill(cellKeys, EMPTY);
+		indices.clear();
+		size = 0;
+		cellCount = 0;
+		outsideHead = NONE;
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets a object from its index.
+	 *
+	 * @param index The index to get the object from.
+	 *
+	 * @return The object found.
+	 */
+	public T get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		return objects[index];
+	}
+
+	@Override
+	public List<T> getAll(List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		for (int i = 0; i < size; i++) {
+			result.add(objects[i]);
+		}
+
+		return result;
+	}
+
+	@Override
+	public void foreach(Consumer<? super T> action) {
+		deferred.beginIterate();
+
+		try {
+			for (int i = 0; i < size; i++) {
+				action.accept(objects[i]);
+			}
+		} finally {
+			deferred.endIterate();
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return deferred.iterator();
+	}
+
+	@Override
+	public List<T> queryInFrustum(Frustum range, List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		visitFrustum(range, result::add);
+		return result;
+	}
+
+	@Override
+	public void visitInFrustum(Frustum range, Consumer<? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			visitFrustum(range, visitor);
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
+	private void visitFrustum(Frustum range, Consumer<? super T> visitor) {
+		for (int i = outsideHead; i != NONE; i = objectNext[i]) {
+			Collider collider = objects[i].getCollider();
+
+			if (collider == null || collider.inFrustum(range)) {
+				visitor.accept(objects[i]);
+			}
+		}
+
+		// Frustums have no bounds to hash, so every occupied cell is checked.
+		float half = cellSize * 0.5f;
+
+		for (int slot = 0; slot < cellKeys.length; slot++) {
+			long key = cellKeys[slot];
+
+			if (key == EMPTY) {
+				continue;
+			}
+
+			// Objects can reach half a cell past the cell their centre is in.
+			float x1 = unpack(key, 2) * cellSize - half;
+			float y1 = unpack(key, 1) * cellSize - half;
+			float z1 = unpack(key, 0) * cellSize - half;
+			float x2 = x1 + cellSize + cellSize;
+			float y2 = y1 + cellSize + cellSize;
+			float z2 = z1 + cellSize + cellSize;
+
+			if (!range.cubeInFrustum(x1, y1, z1, x2, y2, z2)) {
+				continue;
+			}
+
+			boolean inside = range.cubeFullyInFrustum(x1, y1, z1, x2, y2, z2);
+
+			for (int i = cellHeads[slot]; i != NONE; i = objectNext[i]) {
+				if (inside || objects[i].getCollider().inFrustum(range)) {
+					visitor.accept(objects[i]);
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<T> queryInBounding(Collider range, List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		visitBounding(range, result::add);
+		return result;
+	}
+
+	@Override
+	public void visitInBounding(Collider range, Consumer<? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			visitBounding(range, visitor);
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
+	private void visitBounding(Collider range, Consumer<? super T> visitor) {
+		float[] box = rangeBounds.push();
+
+		try {
+			visitBounding(range, box, visitor);
+		} finally {
+			rangeBounds.pop();
+		}
+	}
+
+	private void visitBounding(Collider range, float[] box, Consumer<? super T> visitor) {
+		// Ranges without known bounds have to test every object.
+		if (!Bounds.read(range, box)) {
+			for (int i = 0; i < size; i++) {
+				if (Bounds.inBounding(range, objects[i])) {
+					visitor.accept(objects[i]);
+				}
+			}
+
+			return;
+		}
+
+		for (int i = outsideHead; i != NONE; i = objectNext[i]) {
+			if (Bounds.inBounding(range, objects[i])) {
+				visitor.accept(objects[i]);
+			}
+		}
+
+		// Objects can reach half a cell past the cell their centre is in.
+		float half = cellSize * 0.5f;
+		int minX = cellCoordinate(box[0] - half);
+		int minY = cellCoordinate(box[1] - half);
+		int minZ = cellCoordinate(box[2] - half);
+		int maxX = cellCoordinate(box[3] + half);
+		int maxY = cellCoordinate(box[4] + half);
+		int maxZ = cellCoordinate(box[5] + half);
+
+		// Ranges covering more cells than there are objects are faster to test directly.
+		long cells = (long) (maxX - minX + 1) * (long) (maxY - minY + 1) * (long) (maxZ - minZ + 1);
+
+		if (cells > Math.max(size, cellCount)) {
+			for (int i = 0; i < size; i++) {
+				if (objectCells[i] != OUTSIDE && overlaps(i, box) && Bounds.inBounding(range, objects[i])) {
+					visitor.accept(objects[i]);
+				}
+			}
+
+			return;
+		}
+
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				for (int z = minZ; z <= maxZ; z++) {
+					int slot = findCell(pack(x, y, z));
+
+					if (slot == NONE) {
+						continue;
+					}
+
+					for (int i = cellHeads[slot]; i != NONE; i = objectNext[i]) {
+						if (overlaps(i, box) && Bounds.inBounding(range, objects[i])) {
+							visitor.accept(objects[i]);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private boolean overlaps(int index, float[] box) {
+		int offset = index * 6;
+		return bounds[offset] <= box[3] && bounds[offset + 3] >= box[0] &&
+				bounds[offset + 1] <= box[4] && bounds[offset + 4] >= box[1] &&
+				bounds[offset + 2] <= box[5] && bounds[offset + 5] >= box[2];
+	}
+
+	@Override
+	public boolean contains(ISpatialObject object) {
+		return indices.get(object) != NONE;
+	}
+
+	/**
+	 * Gets the width of each cell.
+	 *
+	 * @return The cell size.
+	 */
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Gets the number of cells holding objects.
+	 *
+	 * @return The number of occupied cells.
+	 */
+	public int getCellCount() {
+		return cellCount;
+	}
+
+	/**
+	 * Reads the bounds of a object, and gets the key of the cell it belongs in.
+	 */
+	private long cellOf(T object, int index) {
+		if (!Bounds.read(object.getCollider(), readBounds)) {
+			return OUTSIDE;
+		}
+
+		System.arraycopy(readBounds, 0, bounds, index * 6, 6);
+
+		// Objects larger than a cell could reach past the neighbouring cells.
+		if (readBounds[3] - readBounds[0] > cellSize || readBounds[4] - readBounds[1] > cellSize || readBounds[5] - readBounds[2] > cellSize) {
+			return OUTSIDE;
+		}
+
+		return pack(cellCoordinate((readBounds[0] + readBounds[3]) * 0.5f), cellCoordinate((readBounds[1] + readBounds[4]) * 0.5f), cellCoordinate((readBounds[2] + readBounds[5]) * 0.5f));
+	}
+
+	private int cellCoordinate(float value) {
+		return (int) Math.floor(value * inverseCellSize);
+	}
+
+	/**
+	 * Packs cell coordinates into a key, coordinates wrap around after about a million cells which only makes far apart cells share a key.
+	 */
+	private static long pack(int x, int y, int z) {
+		return (((x + CELL_BIAS) & CELL_MASK) << (CELL_BITS * 2)) | (((y + CELL_BIAS) & CELL_MASK) << CELL_BITS) | ((z + CELL_BIAS) & CELL_MASK);
+	}
+
+	private static int unpack(long key, int axis) {
+		return (int) ((key >>> (CELL_BITS * axis)) & CELL_MASK) - CELL_BIAS;
+	}
+
+	/**
+	 * Links a object to the front of a cell, or the outside list.
+	 */
+	private void link(int index, long cell) {
+		objectCells[index] = cell;
+		objectPrev[index] = NONE;
+
+		if (cell == OUTSIDE) {
+			objectNext[index] = outsideHead;
+
+			if (outsideHead != NONE) {
+				objectPrev[outsideHead] = index;
+			}
+
+			outsideHead = index;
+			return;
+		}
+
+		int slot = findCell(cell);
+
+		if (slot == NONE) {
+			slot = insertCell(cell);
+			cellHeads[slot] = NONE;
+		}
+
+		objectNext[index] = cellHeads[slot];
+
+		if (cellHeads[slot] != NONE) {
+			objectPrev[cellHeads[slot]] = index;
+		}
+
+		cellHeads[slot] = index;
+	}
+
+	/**
+	 * Unlinks a object from its cell, or the outside list, cells left empty are removed.
+	 */
+	private void unlink(int index) {
+		int next = objectNext[index];
+		int prev = objectPrev[index];
+
+		if (next != NONE) {
+			objectPrev[next] = prev;
+		}
+
+		if (prev != NONE) {
+			objectNext[prev] = next;
+			return;
+		}
+
+		long cell = objectCells[index];
+
+		if (cell == OUTSIDE) {
+			outsideHead = next;
+			return;
+		}
+
+		int slot = findCell(cell);
+
+		if (next != NONE) {
+			cellHeads[slot] = next;
+		} else {
+			removeCell(slot);
+		}
+	}
+
+	/**
+	 * Moves a object to a new index, updating the links to it.
+	 */
+	private void move(int from, int to) {
+		T object = objects[from];
+		objects[to] = object;
+		System.arraycopy(bounds, from * 6, bounds, to * 6, 6);
+		objectCells[to] = objectCells[from];
+		objectNext[to] = objectNext[from];
+		objectPrev[to] = objectPrev[from];
+
+		if (objectNext[to] != NONE) {
+			objectPrev[objectNext[to]] = to;
+		}
+
+		if (objectPrev[to] != NONE) {
+			objectNext[objectPrev[to]] = to;
+		} else if (objectCells[to] == OUTSIDE) {
+			outsideHead = to;
+		} else {
+			cellHeads[findCell(objectCells[to])] = to;
+		}
+
+		indices.put(object, to);
+	}
+
+	private void growObjects(int capacity) {
+		objects = Arrays.copyOf(objects, capacity);
+		bounds = Arrays.copyOf(bounds, capacity * 6);
+		objectCells = Arrays.copyOf(objectCells, capacity);
+		objectNext = Arrays.copyOf(objectNext, capacity);
+		objectPrev = Arrays.copyOf(objectPrev, capacity);
+	}
+
+	private static int hash(long key, int mask) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	private int findCell(long key) {
+		int mask = cellKeys.length - 1;
+
+		for (int slot = hash(key, mask); ; slot = (slot + 1) & mask) {
+			if (cellKeys[slot] == key) {
+				return slot;
+			} else if (cellKeys[slot] == EMPTY) {
+				return NONE;
+			}
+		}
+	}
+
+	private int insertCell(long key) {
+		if ((cellCount + 1) * 2 > cellKeys.length) {
+			rehashCells(cellKeys.length * 2);
+		}
+
+		int mask = cellKeys.length - 1;
+		int slot = hash(key, mask);
+
+		while (cellKeys[slot] != EMPTY) {
+			slot = (slot + 1) & mask;
+		}
+
+		cellKeys[slot] = key;
+		cellCount++;
+		return slot;
+	}
+
+	/**
+	 * Removes a cell, shifting back any cells after it that were pushed along by it.
+	 */
+	private void removeCell(int slot) {
+		int mask = cellKeys.length - 1;
+		int hole = slot;
+
+		for (int next = (hole + 1) & mask; cellKeys[next] != EMPTY; next = (next + 1) & mask) {
+			int home = hash(cellKeys[next], mask);
+
+			// Moves the cell into the hole if the hole is between its home slot and where it is.
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				cellKeys[hole] = cellKeys[next];
+				cellHeads[hole] = cellHeads[next];
+				hole = next;
+			}
+		}
+
+		cellKeys[hole] = EMPTY;
+		cellCount--;
+	}
+
+	private void rehashCells(int capacity) {
+		long[] oldKeys = cellKeys;
+		int[] oldHeads = cellHeads;
+		cellKeys = new long[capacity];
+		cellHeads = new int[capacity];
+		Arrays.fill(cellKeys, EMPTY);
+		int mask = capacity - 1;
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = hash(oldKeys[i], mask);
+
+				while (cellKeys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+
+				cellKeys[slot] = oldKeys[i];
+				cellHeads[slot] = oldHeads[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,619 @@
+package com.flounder.space;
+
+import com.flounder.maths.vectors.*;
+import com.flounder.physics.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Represents a 3D space partitioned by a loose octree. Each node has bounds twice the size of its cell, so a object is stored in the deepest node
+ * its centre is in that is at least as large as the object, and never has to be split across nodes. Nodes are split once they hold more than the
+ * node capacity, and are merged back when their subtree holds less than half of it. Objects without a collider with known bounds, or outside of the
+ * root node, are kept in a list and tested directly.
+ *
+ * @param <T> Some spatial object being stored in the structure.
+ */
+public class StructureOctree<T extends ISpatialObject> implements ISpatialStructure<T> {
+	private static final float LOOSENESS = 2.0f;
+
+	private int capacity;
+	private int maxDepth;
+
+	private Node<T> root;
+	private Map<T, Entry<T>> entries;
+	private List<Entry<T>> objects;
+	private List<Entry<T>> outside;
+	private List<Entry<T>> spare;
+	private DeferredChanges<T> deferred;
+
+	private BoundsStack rangeBounds;
+
+	/**
+	 * Initializes a new octree structure, covering 8192 units around the origin.
+	 */
+	public StructureOctree() {
+		this(new Vector3f(), 4096.0f, 16, 8);
+	}
+
+	/**
+	 * Initializes a new octree structure.
+	 *
+	 * @param centre The centre of the root node.
+	 * @param halfSize Half of the width of the root node.
+	 * @param capacity The number of objects a node can hold before it is split.
+	 * @param maxDepth The max depth nodes can be split to.
+	 */
+	public StructureOctree(Vector3f centre, float halfSize, int capacity, int maxDepth) {
+		this.capacity = Math.max(capacity, 1);
+		this.maxDepth = Math.max(maxDepth, 0);
+
+		this.root = new Node<>(null, centre.x, centre.y, centre.z, halfSize, 0);
+		this.entries = new IdentityHashMap<>();
+		this.objects = new ArrayList<>();
+		this.outside = new ArrayList<>();
+		this.spare = new ArrayList<>();
+		this.deferred = new DeferredChanges<>(this, index -> objects.get(index).object);
+
+		this.rangeBounds = new BoundsStack();
+	}
+
+	@Override
+	public void add(T object) {
+		if (deferred.defer(DeferredChanges.ADD, object)) {
+			return;
+		}
+
+		if (object == null || entries.containsKey(object)) {
+			return;
+		}
+
+		// Entries of removed objects are used again, so objects coming and going do not make garbage.
+		Entry<T> entry = spare.isEmpty() ? new Entry<>() : spare.remove(spare.size() - 1);
+		entry.set(object);
+		entry.index = objects.size();
+		objects.add(entry);
+		entries.put(object, entry);
+		insert(entry);
+	}
+
+	@Override
+	public void remove(T object) {
+		if (deferred.defer(DeferredChanges.REMOVE, object)) {
+			return;
+		}
+
+		Entry<T> entry = entries.remove(object);
+
+		if (entry == null) {
+			return;
+		}
+
+		detach(entry);
+
+		// Swaps the last object into the removed objects place.
+		Entry<T> last = objects.remove(objects.size() - 1);
+
+		if (last != entry) {
+			last.index = entry.index;
+			objects.set(entry.index, last);
+		}
+
+		entry.object = null;
+		spare.add(entry);
+	}
+
+	@Override
+	public void update(T object) {
+		if (deferred.defer(DeferredChanges.UPDATE, object)) {
+			return;
+		}
+
+		Entry<T> entry = entries.get(object);
+
+		if (entry == null) {
+			return;
+		}
+
+		Node<T> node = entry.node;
+		entry.bounded = Bounds.read(object.getCollider(), entry.bounds);
+
+		// Objects still in the same cell and small enough for it do not need to move.
+		if (node != null && entry.bounded && node.fits(entry)) {
+			return;
+		}
+
+		detach(entry);
+		insert(entry);
+	}
+
+	@Override
+	public void clear() {
+		if (deferred.defer(DeferredChanges.CLEAR, null)) {
+			return;
+		}
+
+		root = new Node<>(null, root.x, root.y, root.z, root.half, 0);
+		for (Entry<T> entry : objects) {
+			entry.object = null;
+			spare.add(entry);
+		}
+
+		entries.clear();
+		objects.clear();
+		outside.clear();
+	}
+
+	@Override
+	public int getSize() {
+		return objects.size();
+	}
+
+	@Override
+	public List<T> getAll(List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		for (Entry<T> entry : objects) {
+			result.add(entry.object);
+		}
+
+		return result;
+	}
+
+	@Override
+	public void foreach(Consumer<? super T> action) {
+		deferred.beginIterate();
+
+		try {
+			for (int i = 0; i < objects.size(); i++) {
+				action.accept(objects.get(i).object);
+			}
+		} finally {
+			deferred.endIterate();
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return deferred.iterator();
+	}
+
+	@Override
+	public List<T> queryInFrustum(Frustum range, List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		visitFrustum(range, result::add);
+		return result;
+	}
+
+	@Override
+	public void visitInFrustum(Frustum range, Consumer<? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			visitFrustum(range, visitor);
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
+	private void visitFrustum(Frustum range, Consumer<? super T> visitor) {
+		for (int i = 0; i < outside.size(); i++) {
+			Entry<T> entry = outside.get(i);
+			Collider collider = entry.object.getCollider();
+
+			if (collider == null || collider.inFrustum(range)) {
+				visitor.accept(entry.object);
+			}
+		}
+
+		visitFrustum(root, range, visitor);
+	}
+
+	private void visitFrustum(Node<T> node, Frustum range, Consumer<? super T> visitor) {
+		if (node.count == 0) {
+			return;
+		}
+
+		float size = node.half * LOOSENESS;
+		float x1 = node.x - size;
+		float y1 = node.y - size;
+		float z1 = node.z - size;
+		float x2 = node.x + size;
+		float y2 = node.y + size;
+		float z2 = node.z + size;
+
+		if (!range.cubeInFrustum(x1, y1, z1, x2, y2, z2)) {
+			return;
+		}
+
+		// Every object in a node fully inside of the frustum is also inside.
+		if (range.cubeFullyInFrustum(x1, y1, z1, x2, y2, z2)) {
+			addAll(node, visitor);
+			return;
+		}
+
+		for (int i = 0; i < node.entries.size(); i++) {
+			Entry<T> entry = node.entries.get(i);
+			Collider collider = entry.object.getCollider();
+
+			if (collider == null || collider.inFrustum(range)) {
+				visitor.accept(entry.object);
+			}
+		}
+
+		if (node.children != null) {
+			for (Node<T> child : node.children) {
+				visitFrustum(child, range, visitor);
+			}
+		}
+	}
+
+	@Override
+	public List<T> queryInBounding(Collider range, List<T> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		visitBounding(range, result::add);
+		return result;
+	}
+
+	@Override
+	public void visitInBounding(Collider range, Consumer<? super T> visitor) {
+		deferred.beginQuery();
+
+		try {
+			visitBounding(range, visitor);
+		} finally {
+			deferred.endQuery();
+		}
+	}
+
+	private void visitBounding(Collider range, Consumer<? super T> visitor) {
+		float[] bounds = rangeBounds.push();
+
+		try {
+			// Ranges without known bounds have to test every object.
+			if (!Bounds.read(range, bounds)) {
+				for (int i = 0; i < objects.size(); i++) {
+					if (Bounds.inBounding(range, objects.get(i).object)) {
+						visitor.accept(objects.get(i).object);
+					}
+				}
+
+				return;
+			}
+
+			for (int i = 0; i < outside.size(); i++) {
+				Entry<T> entry = outside.get(i);
+
+				if (Bounds.inBounding(range, entry.object)) {
+					visitor.accept(entry.object);
+				}
+			}
+
+			visitBounding(root, range, bounds, range instanceof AABB, visitor);
+		} finally {
+			rangeBounds.pop();
+		}
+	}
+
+	private void visitBounding(Node<T> node, Collider range, float[] bounds, boolean box, Consumer<? super T> visitor) {
+		if (node.count == 0) {
+			return;
+		}
+
+		float size = node.half * LOOSENESS;
+
+		if (bounds[0] > node.x + size || bounds[3] < node.x - size ||
+				bounds[1] > node.y + size || bounds[4] < node.y - size ||
+				bounds[2] > node.z + size || bounds[5] < node.z - size) {
+			return;
+		}
+
+		// Every object in a node fully inside of a box range is also inside.
+		if (box && bounds[0] <= node.x - size && bounds[3] >= node.x + size &&
+				bounds[1] <= node.y - size && bounds[4] >= node.y + size &&
+				bounds[2] <= node.z - size && bounds[5] >= node.z + size) {
+			addAll(node, visitor);
+			return;
+		}
+
+		for (int i = 0; i < node.entries.size(); i++) {
+			Entry<T> entry = node.entries.get(i);
+
+			if (Bounds.inBounding(range, entry.object)) {
+				visitor.accept(entry.object);
+			}
+		}
+
+		if (node.children != null) {
+			for (Node<T> child : node.children) {
+				visitBounding(child, range, bounds, box, visitor);
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(ISpatialObject object) {
+		return entries.containsKey(object);
+	}
+
+	/**
+	 * Gets the number of nodes in the tree.
+	 *
+	 * @return The number of nodes.
+	 */
+	public int getNodeCount() {
+		return root.countNodes();
+	}
+
+	private void addAll(Node<T> node, Consumer<? super T> visitor) {
+		for (int i = 0; i < node.entries.size(); i++) {
+			visitor.accept(node.entries.get(i).object);
+		}
+
+		if (node.children != null) {
+			for (Node<T> child : node.children) {
+				if (child.count != 0) {
+					addAll(child, visitor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Inserts a entry into the deepest node it fits in, or the outside list.
+	 */
+	private void insert(Entry<T> entry) {
+		entry.bounded = Bounds.read(entry.object.getCollider(), entry.bounds);
+
+		if (!entry.bounded || !root.fits(entry)) {
+			entry.node = null;
+			entry.nodeIndex = outside.size();
+			outside.add(entry);
+			return;
+		}
+
+		Node<T> node = root;
+
+		while (node.children != null) {
+			Node<T> child = node.getChild(entry.getCentreX(), entry.getCentreY(), entry.getCentreZ());
+
+			if (!child.fits(entry)) {
+				break;
+			}
+
+			node = child;
+		}
+
+		node.add(entry);
+
+		if (node.children == null && node.entries.size() > capacity && node.depth < maxDepth) {
+			split(node);
+		}
+	}
+
+	/**
+	 * Removes a entry from its node, or the outside list.
+	 */
+	private void detach(Entry<T> entry) {
+		Node<T> node = entry.node;
+
+		if (node == null) {
+			Entry<T> last = outside.remove(outside.size() - 1);
+
+			if (last != entry) {
+				last.nodeIndex = entry.nodeIndex;
+				outside.set(entry.nodeIndex, last);
+			}
+
+			entry.nodeIndex = -1;
+			return;
+		}
+
+		node.remove(entry);
+
+		// Merges the highest node that has become too empty to be split.
+		Node<T> merge = null;
+
+		for (Node<T> parent = node; parent != null; parent = parent.parent) {
+			if (parent.children != null && parent.count <= capacity / 2) {
+				merge = parent;
+			}
+		}
+
+		if (merge != null) {
+			merge.merge();
+		}
+	}
+
+	private void split(Node<T> node) {
+		node.split();
+
+		// Moves down all the objects small enough to fit into children, the subtree counts above this node stay the same.
+		List<Entry<T>> list = node.entries;
+		node.entries = new ArrayList<>();
+
+		for (Entry<T> entry : list) {
+			Node<T> child = node.getChild(entry.getCentreX(), entry.getCentreY(), entry.getCentreZ());
+
+			if (child.fits(entry)) {
+				child.place(entry);
+				child.count++;
+			} else {
+				node.place(entry);
+			}
+		}
+
+		for (Node<T> child : node.children) {
+			if (child.entries.size() > capacity && child.depth < maxDepth) {
+				split(child);
+			}
+		}
+	}
+
+	/**
+	 * A object stored in the tree, with the bounds it was inserted with.
+	 */
+	private static class Entry<T extends ISpatialObject> {
+		private T object;
+		private float[] bounds;
+		private boolean bounded;
+		private Node<T> node;
+		private int nodeIndex;
+		private int index;
+
+		private Entry() {
+			this.bounds = new float[6];
+		}
+
+		/**
+		 * Sets the object of a new or spare entry, the entry is not yet inserted.
+		 */
+		private void set(T object) {
+			this.object = object;
+			this.bounded = false;
+			this.node = null;
+			this.nodeIndex = -1;
+			this.index = -1;
+		}
+
+		private float getCentreX() {
+			return (bounds[0] + bounds[3]) * 0.5f;
+		}
+
+		private float getCentreY() {
+			return (bounds[1] + bounds[4]) * 0.5f;
+		}
+
+		private float getCentreZ() {
+			return (bounds[2] + bounds[5]) * 0.5f;
+		}
+
+		private float getExtent() {
+			return Math.max(bounds[3] - bounds[0], Math.max(bounds[4] - bounds[1], bounds[5] - bounds[2])) * 0.5f;
+		}
+	}
+
+	/**
+	 * A cube of space in the tree, objects in the node are within twice of its half size from its centre.
+	 */
+	private static class Node<T extends ISpatialObject> {
+		private Node<T> parent;
+		private float x;
+		private float y;
+		private float z;
+		private float half;
+		private int depth;
+
+		private Node<T>[] children;
+		private List<Entry<T>> entries;
+		private int count;
+
+		private Node(Node<T> parent, float x, float y, float z, float half, int depth) {
+			this.parent = parent;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.half = half;
+			this.depth = depth;
+
+			this.children = null;
+			this.entries = new ArrayList<>();
+			this.count = 0;
+		}
+
+		/**
+		 * Gets if a entries centre is in this nodes cell, and the entry is no larger than the cell.
+		 */
+		private boolean fits(Entry<T> entry) {
+			return entry.getExtent() <= half &&
+					Math.abs(entry.getCentreX() - x) <= half &&
+					Math.abs(entry.getCentreY() - y) <= half &&
+					Math.abs(entry.getCentreZ() - z) <= half;
+		}
+
+		private Node<T> getChild(float px, float py, float pz) {
+			int index = (px >= x ? 1 : 0) | (py >= y ? 2 : 0) | (pz >= z ? 4 : 0);
+			return children[index];
+		}
+
+		@SuppressWarnings("unchecked")
+		private void split() {
+			float childHalf = half * 0.5f;
+			children = (Node<T>[]) new Node<?>[8];
+
+			for (int i = 0; i < 8; i++) {
+				children[i] = new Node<>(this, x + ((i & 1) != 0 ? childHalf : -childHalf), y + ((i & 2) != 0 ? childHalf : -childHalf), z + ((i & 4) != 0 ? childHalf : -childHalf), childHalf, depth + 1);
+			}
+		}
+
+		private void merge() {
+			for (Node<T> child : children) {
+				child.collect(this);
+			}
+
+			children = null;
+		}
+
+		private void collect(Node<T> into) {
+			for (Entry<T> entry : entries) {
+				into.place(entry);
+			}
+
+			if (children != null) {
+				for (Node<T> child : children) {
+					child.collect(into);
+				}
+			}
+		}
+
+		private void place(Entry<T> entry) {
+			entry.node = this;
+			entry.nodeIndex = entries.size();
+			entries.add(entry);
+		}
+
+		private void add(Entry<T> entry) {
+			place(entry);
+
+			for (Node<T> node = this; node != null; node = node.parent) {
+				node.count++;
+			}
+		}
+
+		private void remove(Entry<T> entry) {
+			Entry<T> last = entries.remove(entries.size() - 1);
+
+			if (last != entry) {
+				last.nodeIndex = entry.nodeIndex;
+				entries.set(entry.nodeIndex, last);
+			}
+
+			entry.node = null;
+			entry.nodeIndex = -1;
+
+			for (Node<T> node = this; node != null; node = node.parent) {
+				node.count--;
+			}
+		}
+
+		private int countNodes() {
+			int result = 1;
+
+			if (children != null) {
+				for (Node<T> child : children) {
+					result += child.countNodes();
+				}
+			}
+
+			return result;
+		}
+	}
+}
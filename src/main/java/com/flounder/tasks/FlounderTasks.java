@@ -2,37 +2,52 @@ package com.flounder.tasks;
 
 import com.flounder.framework.*;
 
-import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 /**
- * A module used for managing tasks on framework updates.
+ * A module used for managing tasks on framework updates. Tasks can be added from any thread, and are run in the order they were added
+ * until the time slice for the update has been used, any tasks left are run on the next update.
  */
 public class FlounderTasks extends com.flounder.framework.Module {
-	private List<ITask> tasks;
-	private List<ITask> clones;
+	private static final float DEFAULT_TIME_SLICE = 4.0f;
+
+	private ConcurrentLinkedQueue<ITask> tasks;
+	private AtomicInteger count;
+	private float timeSlice;
 
 	/**
 	 * Creates a new event manager.
 	 */
 	public FlounderTasks() {
 		super();
+		this.timeSlice = DEFAULT_TIME_SLICE;
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
 	public void init() {
-		this.tasks = new ArrayList<>();
-		this.clones = new ArrayList<>();
+		this.tasks = new ConcurrentLinkedQueue<>();
+		this.count = new AtomicInteger();
 	}
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
 	public void update() {
-		clones.clear();
-		clones.addAll(tasks);
+		long start = System.nanoTime();
+		long slice = (long) (timeSlice * 1000000.0f);
+
+		// Tasks added while running are left for the next update.
+		int remaining = count.get();
+		ITask task;
 
-		clones.forEach((task) -> {
+		while (remaining > 0 && (task = tasks.poll()) != null) {
+			count.decrementAndGet();
+			remaining--;
 			task.execute();
-			tasks.remove(task);
-		});
+
+			if (System.nanoTime() - start > slice) {
+				break;
+			}
+		}
 	}
 
 	/**
@@ -42,6 +57,7 @@ public class FlounderTasks extends com.flounder.framework.Module {
 	 */
 	public void addTask(ITask task) {
 		this.tasks.add(task);
+		this.count.incrementAndGet();
 	}
 
 	/**
@@ -50,12 +66,42 @@ public class FlounderTasks extends com.flounder.framework.Module {
 	 * @param task The task to remove.
 	 */
 	public void removeTask(ITask task) {
-		this.tasks.remove(task);
+		if (this.tasks.remove(task)) {
+			this.count.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Gets the number of tasks waiting to be run.
+	 *
+	 * @return The number of tasks.
+	 */
+	public int getTaskCount() {
+		return Math.max(count.get(), 0);
+	}
+
+	/**
+	 * Gets the max time spent running tasks each update (milliseconds).
+	 *
+	 * @return The time slice.
+	 */
+	public float getTimeSlice() {
+		return timeSlice;
+	}
+
+	/**
+	 * Sets the max time spent running tasks each update, at least one task is run every update.
+	 *
+	 * @param timeSlice The time slice (milliseconds).
+	 */
+	public void setTimeSlice(float timeSlice) {
+		this.timeSlice = timeSlice;
 	}
 
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
 		tasks.clear();
+		count.set(0);
 	}
 
 	@com.flounder.framework.Module.Instance
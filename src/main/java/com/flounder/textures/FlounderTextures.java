@@ -74,12 +74,47 @@ public class FlounderTextures extends com.flounder.framework.Module {
 	 * @param object The object to load to.
 	 */
 	public void loadTexture(TextureBuilder builder, TextureObject object) {
+		loadTexture(builder, object, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Loads part of a texture into memory, large 2D textures are uploaded in bands of rows so they can be spread over multiple frames.
+	 *
+	 * @param builder The builder to load from.
+	 * @param object The object to load to.
+	 * @param maxBytes The max number of bytes to upload.
+	 *
+	 * @return If the texture has been fully loaded.
+	 */
+	public boolean loadTexture(TextureBuilder builder, TextureObject object, long maxBytes) {
 		if (builder.getFile() != null) {
-			int textureID = glGenTextures();
+			int uploadedRows = object.getUploadedRows();
+			int rowBytes = 4 * object.getWidth();
+			int textureID = uploadedRows == 0 ? glGenTextures() : object.getTextureID();
 			glActiveTexture(GL_TEXTURE0);
 			glBindTexture(GL_TEXTURE_2D, textureID);
 			glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
-			glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, object.getWidth(), object.getHeight(), 0, GL_BGRA, GL_UNSIGNED_BYTE, object.getBuffer());
+
+			if (uploadedRows == 0 && maxBytes >= (long) rowBytes * object.getHeight()) {
+				glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, object.getWidth(), object.getHeight(), 0, GL_BGRA, GL_UNSIGNED_BYTE, object.getBuffer());
+			} else {
+				if (uploadedRows == 0) {
+					// Allocates the texture storage, then uploads the rows that fit into this chunk.
+					glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, object.getWidth(), object.getHeight(), 0, GL_BGRA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+				}
+
+				int rows = (int) Math.min(object.getHeight() - uploadedRows, Math.max(maxBytes / rowBytes, 1));
+				ByteBuffer band = object.getBuffer().duplicate();
+				band.limit((uploadedRows + rows) * rowBytes);
+				band.position(uploadedRows * rowBytes);
+				glTexSubImage2D(GL_TEXTURE_2D, 0, 0, uploadedRows, object.getWidth(), rows, GL_BGRA, GL_UNSIGNED_BYTE, band);
+				object.loadRows(textureID, uploadedRows + rows);
+
+				if (uploadedRows + rows < object.getHeight()) {
+					glBindTexture(GL_TEXTURE_2D, 0);
+					return false;
+				}
+			}
 
 			if (builder.isMipmap()) {
 				glGenerateMipmap(GL_TEXTURE_2D);
@@ -153,6 +188,8 @@ public class FlounderTextures extends com.flounder.framework.Module {
 			glBindTexture(GL_TEXTURE_CUBE_MAP, 0);
 			object.loadGL(textureID, GL_TEXTURE_CUBE_MAP);
 		}
+
+		return true;
 	}
 
 	/**
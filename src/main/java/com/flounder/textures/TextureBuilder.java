@@ -125,6 +125,12 @@ public class TextureBuilder extends FactoryBuilder {
 		return this;
 	}
 
+	@Override
+	public TextureBuilder setPriority(int priority) {
+		super.setPriority(priority);
+		return this;
+	}
+
 	/**
 	 * Gets the source file.
 	 *
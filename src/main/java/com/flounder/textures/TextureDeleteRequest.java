@@ -23,8 +23,13 @@ public class TextureDeleteRequest implements RequestOpenGL {
 			return;
 		}
 
+		// Clearing the reference cancels the upload of a partly uploaded texture.
 		FlounderTextures.get().getLoaded().get(texture.getName()).clear();
 		FlounderTextures.get().getLoaded().remove(texture.getName());
-		FlounderTextures.get().deleteTexture(texture.getTextureID());
+
+		if (texture.getTextureID() != -1) {
+			FlounderTextures.get().deleteTexture(texture.getTextureID());
+			texture.unloadGL();
+		}
 	}
 }
@@ -7,6 +7,7 @@ import java.io.*;
 import java.lang.ref.*;
 import java.nio.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 /**
  * A class that represents a factory for loading textures.
@@ -14,8 +15,13 @@ import java.util.*;
 public class TextureFactory extends Factory {
 	private static final TextureFactory INSTANCE = new TextureFactory();
 
+	private AtomicLong decodedBytes;
+	private AtomicLong decodedCount;
+
 	private TextureFactory() {
 		super("texture");
+		this.decodedBytes = new AtomicLong();
+		this.decodedCount = new AtomicLong();
 	}
 
 	/**
@@ -50,6 +56,8 @@ public class TextureFactory extends Factory {
 				height = decoder.getHeight();
 				hasAlpha = decoder.hasAlpha();
 				buffer = ByteBuffer.allocateDirect(4 * width * height);
+				decodedBytes.addAndGet(buffer.capacity());
+				decodedCount.incrementAndGet();
 				decoder.decode(buffer, width * 4, TextureDecoder.Format.BGRA);
 				buffer.flip();
 				in.close();
@@ -65,6 +73,18 @@ public class TextureFactory extends Factory {
 		}
 	}
 
+	@Override
+	protected long getLoadCost(FactoryBuilder builder) {
+		long count = decodedCount.get();
+
+		// Decoded texture sizes are not known until loaded, so the average decoded size is used.
+		if (((TextureBuilder) builder).getFile() == null || count == 0) {
+			return 0;
+		}
+
+		return decodedBytes.get() / count;
+	}
+
 	@Override
 	protected void create(FactoryObject object, FactoryBuilder builder) {
 		TextureBuilder b = (TextureBuilder) builder;
@@ -72,6 +92,34 @@ public class TextureFactory extends Factory {
 		FlounderTextures.get().loadTexture(b, o);
 	}
 
+	@Override
+	protected boolean create(FactoryObject object, FactoryBuilder builder, long maxBytes) {
+		TextureBuilder b = (TextureBuilder) builder;
+		TextureObject o = (TextureObject) object;
+		return FlounderTextures.get().loadTexture(b, o, maxBytes);
+	}
+
+	@Override
+	protected void cancel(FactoryObject object) {
+		TextureObject o = (TextureObject) object;
+
+		if (!o.isLoaded() && o.getTextureID() != -1) {
+			FlounderTextures.get().deleteTexture(o.getTextureID());
+			o.unloadGL();
+		}
+	}
+
+	@Override
+	protected long getUploadSize(FactoryObject object) {
+		TextureObject o = (TextureObject) object;
+
+		if (o.getBuffer() == null || o.isLoaded()) {
+			return 0;
+		}
+
+		return 4L * o.getWidth() * (o.getHeight() - o.getUploadedRows());
+	}
+
 	@Override
 	protected Map<String, SoftReference<FactoryObject>> getLoaded() {
 		return FlounderTextures.get().getLoaded();
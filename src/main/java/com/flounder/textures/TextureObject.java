@@ -23,6 +23,7 @@ public class TextureObject extends FactoryObject {
 
 	private int textureID;
 	private int glType;
+	private int uploadedRows;
 
 	/**
 	 * A new OpenGL texture object.
@@ -50,10 +51,16 @@ public class TextureObject extends FactoryObject {
 		this.name = name;
 
 		this.textureID = -1;
+		this.uploadedRows = 0;
 
 		setDataLoaded(true);
 	}
 
+	protected void loadRows(int textureID, int uploadedRows) {
+		this.textureID = textureID;
+		this.uploadedRows = uploadedRows;
+	}
+
 	public void loadGL(int textureID, int glType) {
 		this.textureID = textureID;
 		this.glType = glType;
@@ -61,6 +68,14 @@ public class TextureObject extends FactoryObject {
 		setFullyLoaded(true);
 	}
 
+	/**
+	 * Forgets the OpenGL texture once it has been deleted, so it is not deleted again.
+	 */
+	protected void unloadGL() {
+		this.textureID = -1;
+		this.uploadedRows = 0;
+	}
+
 	/**
 	 * Gets texture file this was stored in.
 	 *
@@ -128,6 +143,15 @@ public class TextureObject extends FactoryObject {
 		this.numberOfRows = numberOfRows;
 	}
 
+	/**
+	 * Gets the number of rows from the buffer that have been uploaded to OpenGL, textures can be uploaded over multiple frames.
+	 *
+	 * @return The number of uploaded rows.
+	 */
+	protected int getUploadedRows() {
+		return uploadedRows;
+	}
+
 	/**
 	 * Gets the loaded name for the texture.
 	 *
@@ -161,10 +185,10 @@ public class TextureObject extends FactoryObject {
 	}
 
 	/**
-	 * Deletes the texture from OpenGL memory.
+	 * Deletes the texture from OpenGL memory, a texture that is partly uploaded is deleted along with the rows uploaded so far.
 	 */
 	public void delete() {
-		if (isLoaded()) {
+		if (isLoaded() || uploadedRows > 0) {
 			setFullyLoaded(false);
 			FlounderProcessors.get().sendRequest(new TextureDeleteRequest(this));
 		}
@@ -26,6 +26,20 @@ public class SlideDriver extends ValueDriver {
 		reachedTarget = false;
 	}
 
+	/**
+	 * Starts the driver again from the beginning, sliding between new values over the same length.
+	 *
+	 * @param start The start value.
+	 * @param end The end value.
+	 */
+	public void reset(float start, float end) {
+		reset();
+		this.start = start;
+		this.end = end;
+		max = 0.0f;
+		reachedTarget = false;
+	}
+
 	@Override
 	protected float calculateValue(float time) {
 		if (!reachedTarget && time >= max) {
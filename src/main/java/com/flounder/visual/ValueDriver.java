@@ -31,6 +31,13 @@ public abstract class ValueDriver {
 		return calculateValue(time);
 	}
 
+	/**
+	 * Starts the driver again from the beginning, so a driver can be used again instead of creating a new one.
+	 */
+	public void reset() {
+		currentTime = 0.0f;
+	}
+
 	/**
 	 * Calculates the new value.
 	 *